@@ -21,6 +21,8 @@
 package com.sun.max.program;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.util.*;
 import java.util.zip.*;
 
@@ -72,6 +74,17 @@ public class Classpath {
          */
         abstract ClasspathFile readFile(String path);
 
+        /**
+         * Gets a file denoted by a given path that is relative to this classpath entry as a read-only memory mapping if
+         * possible. If the file cannot be mapped, this is the same as {@link #readFile(String)}.
+         *
+         * @param path a file path relative to this classpath entry. This values uses the '/' character as the path
+         *            separator regardless of the {@linkplain File#separatorChar default} for the underlying platform.
+         */
+        ClasspathFile mapFile(String path) {
+            return readFile(path);
+        }
+
         public boolean isDirectory() {
             return false;
         }
@@ -150,6 +163,26 @@ public class Classpath {
             return null;
         }
 
+        /**
+         * Maps a file in place only if it is at least {@link Classpath#MIN_MAPPED_FILE_SIZE} bytes long. Smaller files
+         * are read as for {@link #readFile(String)}.
+         */
+        @Override
+        ClasspathFile mapFile(String path) {
+            final File file = new File(directory, File.separatorChar == '/' ? path : path.replace('/', File.separatorChar));
+            if (file.isFile()) {
+                if (file.length() < MIN_MAPPED_FILE_SIZE) {
+                    return readFile(path);
+                }
+                try {
+                    return new ClasspathFile(map(file), this);
+                } catch (IOException ioException) {
+                    return readFile(path);
+                }
+            }
+            return null;
+        }
+
         @Override
         public File file() {
             return directory;
@@ -174,6 +207,17 @@ public class Classpath {
         private final File file;
         private ZipFile zipFile;
 
+        /**
+         * A read-only mapping of the whole archive, or {@code null} if it could not be mapped.
+         */
+        private ByteBuffer mapping;
+
+        /**
+         * The offsets of the local file headers of the uncompressed entries in {@link #mapping}, keyed by entry name.
+         * This is {@code null} until the central directory has been scanned.
+         */
+        private Map<String, Integer> storedEntries;
+
         Archive(File file) {
             this.file = file;
         }
@@ -217,6 +261,95 @@ public class Classpath {
             return null;
         }
 
+        /**
+         * Maps an entry in place if it is stored uncompressed, as the class files of a jar built without compression
+         * are. Compressed entries must be inflated and so are read as for {@link #readFile(String)}.
+         */
+        @Override
+        ClasspathFile mapFile(String path) {
+            final ZipFile zf = zipFile();
+            if (zf == null) {
+                return null;
+            }
+            final ZipEntry zipEntry = zf.getEntry(path);
+            if (zipEntry == null) {
+                return null;
+            }
+            if (zipEntry.getMethod() == ZipEntry.STORED) {
+                final ByteBuffer data = storedData(zipEntry);
+                if (data != null) {
+                    return new ClasspathFile(data, this);
+                }
+            }
+            return readFile(path);
+        }
+
+        private synchronized ByteBuffer storedData(ZipEntry zipEntry) {
+            if (storedEntries == null) {
+                storedEntries = new HashMap<String, Integer>();
+                try {
+                    mapping = map(file).order(ByteOrder.LITTLE_ENDIAN);
+                    scanCentralDirectory();
+                } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                    // archives that are too large or not understood are read via the ZipFile instead
+                    mapping = null;
+                    storedEntries.clear();
+                }
+            }
+            final Integer header = storedEntries.get(zipEntry.getName());
+            if (header == null) {
+                return null;
+            }
+            final ByteBuffer archive = mapping.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            if (archive.getInt(header) != LOCAL_HEADER_SIGNATURE) {
+                return null;
+            }
+            final long start = header + LOCAL_HEADER_SIZE + (archive.getShort(header + 26) & 0xFFFF) + (archive.getShort(header + 28) & 0xFFFF);
+            final long end = start + zipEntry.getSize();
+            if (end > archive.limit()) {
+                return null;
+            }
+            archive.position((int) start);
+            archive.limit((int) end);
+            return archive.slice().asReadOnlyBuffer();
+        }
+
+        /**
+         * Records the local header offset of each uncompressed entry listed in the central directory of {@link #mapping}.
+         * ZIP64 archives are not scanned.
+         */
+        private void scanCentralDirectory() throws IOException {
+            int end = mapping.limit() - END_RECORD_SIZE;
+            final int lowest = Math.max(0, end - 0xFFFF);
+            while (end >= lowest && mapping.getInt(end) != END_RECORD_SIGNATURE) {
+                end--;
+            }
+            if (end < lowest) {
+                return;
+            }
+            final int count = mapping.getShort(end + 10) & 0xFFFF;
+            int p = mapping.getInt(end + 16);
+            for (int i = 0; i < count; i++) {
+                if (mapping.getInt(p) != CENTRAL_HEADER_SIGNATURE) {
+                    storedEntries.clear();
+                    return;
+                }
+                final int method = mapping.getShort(p + 10) & 0xFFFF;
+                final int nameLength = mapping.getShort(p + 28) & 0xFFFF;
+                final int extraLength = mapping.getShort(p + 30) & 0xFFFF;
+                final int commentLength = mapping.getShort(p + 32) & 0xFFFF;
+                final int header = mapping.getInt(p + 42);
+                if (method == ZipEntry.STORED && header >= 0) {
+                    final byte[] name = new byte[nameLength];
+                    final ByteBuffer nameBuffer = mapping.duplicate();
+                    nameBuffer.position(p + CENTRAL_HEADER_SIZE);
+                    nameBuffer.get(name);
+                    storedEntries.put(new String(name, "UTF-8"), header);
+                }
+                p += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            }
+        }
+
         @Override
         public File file() {
             return file;
@@ -422,6 +555,25 @@ public class Classpath {
         return null;
     }
 
+    /**
+     * Searches for a class file denoted by a given class name on this classpath and returns it as a read-only memory
+     * mapping where the entry that contains it allows, so that the class file can be parsed without first being copied.
+     *
+     * @param className a fully qualified class name (e.g. "java.lang.Class")
+     * @return the class file found on this class path, or null
+     * @see #readClassFile(String)
+     */
+    public ClasspathFile mapClassFile(String className) {
+        final String path = className.replace('.', '/') + ".class";
+        for (Entry entry : entries()) {
+            ClasspathFile classpathFile = entry.mapFile(path);
+            if (classpathFile != null) {
+                return classpathFile;
+            }
+        }
+        return null;
+    }
+
     /**
      * Searches for an existing file corresponding to a directory entry in this classpath composed with a given path
      * suffix.
@@ -442,6 +594,32 @@ public class Classpath {
         return null;
     }
 
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_RECORD_SIGNATURE = 0x06054b50;
+    private static final int END_RECORD_SIZE = 22;
+
+    /**
+     * The size below which a loose file is read rather than mapped. Each mapping occupies at least a page of address
+     * space until its buffer is collected, and a file that is truncated while mapped makes accesses to it fault, which
+     * is not worth risking for the few bytes of a typical class file. Archives are always mapped whole.
+     */
+    public static final int MIN_MAPPED_FILE_SIZE = 64 * 1024;
+
+    /**
+     * Maps the whole of a file read-only. The mapping remains valid after the file is closed.
+     */
+    static ByteBuffer map(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        } finally {
+            raf.close();
+        }
+    }
+
     public static byte[] readZipEntry(ZipFile zipFile, ZipEntry zipEntry) throws IOException {
         final byte[] bytes = new byte[(int) zipEntry.getSize()];
         final InputStream zipStream = new BufferedInputStream(zipFile.getInputStream(zipEntry), bytes.length);
@@ -22,6 +22,8 @@
  */
 package com.sun.max.program;
 
+import java.nio.*;
+
 import com.sun.max.program.Classpath.*;
 
 /**
@@ -30,10 +32,16 @@ import com.sun.max.program.Classpath.*;
 public final class ClasspathFile {
 
     /**
-     * The bytes of the file represented by this object.
+     * The bytes of the file represented by this object or {@code null} if the file was {@linkplain #mapping mapped}.
      */
     public final byte[] contents;
 
+    /**
+     * A read-only buffer mapping the file represented by this object or {@code null} if the file was read into
+     * {@link #contents}.
+     */
+    public final ByteBuffer mapping;
+
     /**
      * The classpath entry from which the file represented by this object was read.
      */
@@ -48,5 +56,25 @@ public final class ClasspathFile {
     public ClasspathFile(byte[] contents, Entry classpathEntry) {
         this.classpathEntry = classpathEntry;
         this.contents = contents;
+        this.mapping = null;
+    }
+
+    /**
+     * Creates an object encapsulating a mapping of a file via a classpath entry.
+     *
+     * @param mapping a read-only buffer whose remaining bytes are the contents of the file
+     * @param classpathEntry the entry from which the file was mapped
+     */
+    public ClasspathFile(ByteBuffer mapping, Entry classpathEntry) {
+        this.classpathEntry = classpathEntry;
+        this.contents = null;
+        this.mapping = mapping;
+    }
+
+    /**
+     * Gets the contents of the file represented by this object as a buffer, without copying them.
+     */
+    public ByteBuffer buffer() {
+        return mapping != null ? mapping.duplicate() : ByteBuffer.wrap(contents);
     }
 }
@@ -56,6 +56,13 @@ public enum C1XTimers {
         total += System.nanoTime() - start;
     }
 
+    /**
+     * Gets the time (in nanoseconds) recorded by this timer since the timers were last reset or printed.
+     */
+    public long total() {
+        return total;
+    }
+
     public static void reset() {
         for (C1XTimers t : values()) {
             t.total = 0;
@@ -29,6 +29,7 @@ import com.sun.c1x.util.Util;
 import com.sun.cri.ci.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -438,10 +439,22 @@ public final class Interval {
     private CiKind kind;
 
     /**
-     * The head of the list of ranges describing this interval. This list is sorted by {@linkplain LIRInstruction#id
-     * instruction ids}.
+     * The ranges describing this interval, sorted by {@linkplain LIRInstruction#id instruction ids}. The ranges are
+     * stored as ({@code from}, {@code to}) pairs in the slice {@code [firstRange .. rangesEnd)} of this array, where
+     * {@code from} is inclusive and {@code to} is exclusive. The slice is kept at the end of the array as ranges are
+     * added in reverse order by {@link #addRange}, so that adding a range does not move the existing ones.
      */
-    private Range first;
+    private int[] ranges;
+
+    /**
+     * Index of the {@code from} value of the first range in {@link #ranges}.
+     */
+    private int firstRange;
+
+    /**
+     * Index following the {@code to} value of the last range in {@link #ranges}.
+     */
+    private int rangesEnd;
 
     /**
      * List of (use-positions, register-priorities) pairs, sorted by use-positions.
@@ -449,9 +462,9 @@ public final class Interval {
     private UsePosList usePosList;
 
     /**
-     * Iterator used to traverse the ranges of an interval.
+     * Iterator used to traverse the ranges of an interval. This is the index of a range in {@link #ranges}.
      */
-    private Range current;
+    private int currentRange;
 
     /**
      * Link to next interval in a sorted list of intervals that ends with {@link #EndMarker}.
@@ -463,8 +476,6 @@ public final class Interval {
      */
     State state;
 
-    private int cachedTo; // cached value: to of last range (-1: not cached)
-
     /**
      * The interval from which this one is derived. If this is a {@linkplain #isSplitParent() split parent}, it points
      * to itself.
@@ -558,20 +569,55 @@ public final class Interval {
         this.kind = kind;
     }
 
-    public Range first() {
-        return first;
+    /**
+     * Gets the number of ranges describing this interval.
+     */
+    public int numRanges() {
+        return (rangesEnd - firstRange) >> 1;
+    }
+
+    /**
+     * Gets the start (inclusive) of the {@code index}'th range of this interval.
+     */
+    public int rangeFrom(int index) {
+        assert index >= 0 && index < numRanges();
+        return ranges[firstRange + (index << 1)];
+    }
+
+    /**
+     * Gets the end (exclusive) of the {@code index}'th range of this interval.
+     */
+    public int rangeTo(int index) {
+        assert index >= 0 && index < numRanges();
+        return ranges[firstRange + (index << 1) + 1];
     }
 
+    /**
+     * Gets the start of this interval or {@link Integer#MAX_VALUE} if it has no ranges.
+     */
     int from() {
-        return first.from;
+        return firstRange == rangesEnd ? Integer.MAX_VALUE : ranges[firstRange];
     }
 
     int to() {
-        if (cachedTo == -1) {
-            cachedTo = calcTo();
-        }
-        assert cachedTo == calcTo() : "invalid cached value";
-        return cachedTo;
+        assert firstRange != rangesEnd : "interval has no range";
+        return ranges[rangesEnd - 1];
+    }
+
+    /**
+     * Sets the start of the first range of this interval.
+     */
+    void setFrom(int from) {
+        assert firstRange != rangesEnd : "interval has no range";
+        ranges[firstRange] = from;
+    }
+
+    /**
+     * Sets the end of the first range of this interval.
+     */
+    void setFirstRangeTo(int to) {
+        assert firstRange != rangesEnd : "interval has no range";
+        ranges[firstRange + 1] = to;
     }
 
     int numUsePositions() {
@@ -661,43 +707,106 @@ public final class Interval {
 
     // test intersection
     boolean intersects(Interval i) {
-        return first.intersects(i.first);
+        return intersectsAt(firstRange, i, i.firstRange) != -1;
     }
 
     int intersectsAt(Interval i) {
-        return first.intersectsAt(i.first);
+        return intersectsAt(firstRange, i, i.firstRange);
+    }
+
+    /**
+     * Gets the first position at which the ranges of this interval starting at index {@code r1} intersect the ranges
+     * of {@code other} starting at index {@code r2}.
+     *
+     * @return the first intersection position or -1 if the ranges do not intersect
+     */
+    private int intersectsAt(int r1, Interval other, int r2) {
+        final int[] ranges1 = ranges;
+        final int end1 = rangesEnd;
+        final int[] ranges2 = other.ranges;
+        final int end2 = other.rangesEnd;
+        assert r1 < end1 && r2 < end2 : "empty ranges not allowed";
+
+        do {
+            final int from1 = ranges1[r1];
+            final int from2 = ranges2[r2];
+            if (from1 < from2) {
+                if (ranges1[r1 + 1] <= from2) {
+                    r1 += 2;
+                    if (r1 >= end1) {
+                        return -1;
+                    }
+                } else {
+                    return from2;
+                }
+            } else {
+                if (from2 < from1) {
+                    if (ranges2[r2 + 1] <= from1) {
+                        r2 += 2;
+                        if (r2 >= end2) {
+                            return -1;
+                        }
+                    } else {
+                        return from1;
+                    }
+                } else { // from1 == from2
+                    if (from1 == ranges1[r1 + 1]) {
+                        r1 += 2;
+                        if (r1 >= end1) {
+                            return -1;
+                        }
+                    } else {
+                        if (from2 == ranges2[r2 + 1]) {
+                            r2 += 2;
+                            if (r2 >= end2) {
+                                return -1;
+                            }
+                        } else {
+                            return from1;
+                        }
+                    }
+                }
+            }
+        } while (true);
     }
 
     // range iteration
     void rewindRange() {
-        current = first;
+        currentRange = firstRange;
     }
 
     void nextRange() {
         assert this != EndMarker : "not allowed on sentinel";
-        current = current.next;
+        currentRange += 2;
     }
 
     int currentFrom() {
-        return current.from;
+        return currentRange < rangesEnd ? ranges[currentRange] : Integer.MAX_VALUE;
     }
 
     int currentTo() {
-        return current.to;
+        return currentRange < rangesEnd ? ranges[currentRange + 1] : Integer.MAX_VALUE;
     }
 
     boolean currentAtEnd() {
-        return current == Range.EndMarker;
+        return currentRange >= rangesEnd;
     }
 
     boolean currentIntersects(Interval it) {
-        return current.intersects(it.current);
+        return intersectsAt(currentRange, it, it.currentRange) != -1;
     }
 
     int currentIntersectsAt(Interval it) {
-        return current.intersectsAt(it.current);
+        return intersectsAt(currentRange, it, it.currentRange);
     }
 
+    private static final int[] NO_RANGES = {};
+
+    /**
+     * The initial number of ranges for which space is allocated.
+     */
+    private static final int INITIAL_RANGES_CAPACITY = 2;
+
     /**
      * Sentinel interval to denote the end of an interval list.
      */
@@ -714,27 +823,15 @@ public final class Interval {
             assert operand.isIllegal() || operand.isVariable();
         }
         this.kind = CiKind.Illegal;
-        this.first = Range.EndMarker;
+        this.ranges = NO_RANGES;
         this.usePosList = new UsePosList(4);
-        this.current = Range.EndMarker;
         this.next = EndMarker;
-        this.cachedTo = -1;
         this.spillState = SpillState.NoDefinitionFound;
         this.spillDefinitionPos = -1;
         splitParent = this;
         currentSplitChild = this;
     }
 
-    int calcTo() {
-        assert first != Range.EndMarker : "interval has no range";
-
-        Range r = first;
-        while (r.next != Range.EndMarker) {
-            r = r.next;
-        }
-        return r.to;
-    }
-
     // consistency check of split-children
     boolean checkSplitChildren() {
         if (!splitChildren.isEmpty()) {
@@ -1002,20 +1099,38 @@ public final class Interval {
 
     void addRange(int from, int to) {
         assert from < to : "invalid range";
-        assert first() == Range.EndMarker || to < first().next.from : "not inserting at begin of interval";
-        assert from <= first().to : "not inserting at begin of interval";
+        assert numRanges() < 2 || to < ranges[firstRange + 2] : "not inserting at begin of interval";
+        assert firstRange == rangesEnd || from <= ranges[firstRange + 1] : "not inserting at begin of interval";
 
-        if (first.from <= to) {
-            assert first != Range.EndMarker;
+        if (from() <= to) {
             // join intersecting ranges
-            first.from = Math.min(from, first().from);
-            first.to = Math.max(to, first().to);
+            ranges[firstRange] = Math.min(from, ranges[firstRange]);
+            ranges[firstRange + 1] = Math.max(to, ranges[firstRange + 1]);
         } else {
             // insert new range
-            first = new Range(from, to, first());
+            if (firstRange == 0) {
+                growRanges();
+            }
+            firstRange -= 2;
+            ranges[firstRange] = from;
+            ranges[firstRange + 1] = to;
         }
     }
 
+    /**
+     * Moves the ranges to the end of an array that has space for at least one more range at its start.
+     */
+    private void growRanges() {
+        final int length = Math.max(ranges.length * 2, INITIAL_RANGES_CAPACITY * 2);
+        final int[] newRanges = new int[length];
+        final int shift = length - rangesEnd;
+        System.arraycopy(ranges, firstRange, newRanges, firstRange + shift, rangesEnd - firstRange);
+        ranges = newRanges;
+        firstRange += shift;
+        rangesEnd += shift;
+        currentRange += shift;
+    }
+
     Interval newSplitChild(LinearScan allocator) {
         // allocate new interval
         Interval parent = splitParent();
@@ -1058,26 +1173,28 @@ public final class Interval {
         Interval result = newSplitChild(allocator);
 
         // split the ranges
-        Range prev = null;
-        Range cur = first;
-        while (cur != Range.EndMarker && cur.to <= splitPos) {
-            prev = cur;
-            cur = cur.next;
+        int cur = firstRange;
+        while (cur < rangesEnd && ranges[cur + 1] <= splitPos) {
+            cur += 2;
         }
-        assert cur != Range.EndMarker : "split interval after end of last range";
-
-        if (cur.from < splitPos) {
-            result.first = new Range(splitPos, cur.to, cur.next);
-            cur.to = splitPos;
-            cur.next = Range.EndMarker;
+        assert cur < rangesEnd : "split interval after end of last range";
 
+        final int[] resultRanges = Arrays.copyOfRange(ranges, cur, rangesEnd);
+        if (ranges[cur] < splitPos) {
+            resultRanges[0] = splitPos;
+            ranges[cur + 1] = splitPos;
+            rangesEnd = cur + 2;
         } else {
-            assert prev != null : "split before start of first range";
-            result.first = cur;
-            prev.next = Range.EndMarker;
+            assert cur != firstRange : "split before start of first range";
+            rangesEnd = cur;
+        }
+        if (currentRange > rangesEnd) {
+            currentRange = rangesEnd;
         }
-        result.current = result.first;
-        cachedTo = -1; // clear cached value
+        result.ranges = resultRanges;
+        result.firstRange = 0;
+        result.rangesEnd = resultRanges.length;
+        result.currentRange = 0;
 
         // split list of use positions
         result.usePosList = usePosList.splitAt(splitPos);
@@ -1101,7 +1218,7 @@ public final class Interval {
     Interval splitFromStart(int splitPos, LinearScan allocator) {
         assert operand.isVariable() : "cannot split fixed intervals";
         assert splitPos > from() && splitPos < to() : "can only split inside interval";
-        assert splitPos > first.from && splitPos <= first.to : "can only split inside first range";
+        assert splitPos > ranges[firstRange] && splitPos <= ranges[firstRange + 1] : "can only split inside first range";
         assert firstUsage(RegisterPriority.None) > splitPos : "can not split when use positions are present";
 
         // allocate new interval
@@ -1109,13 +1226,13 @@ public final class Interval {
 
         // the new interval has only one range (checked by assertion above,
         // so the splitting of the ranges is very simple
-        result.addRange(first.from, splitPos);
+        result.addRange(ranges[firstRange], splitPos);
 
-        if (splitPos == first.to) {
-            assert first.next != Range.EndMarker : "must not be at end";
-            first = first.next;
+        if (splitPos == ranges[firstRange + 1]) {
+            assert numRanges() > 1 : "must not be at end";
+            firstRange += 2;
         } else {
-            first.from = splitPos;
+            ranges[firstRange] = splitPos;
         }
 
         return result;
@@ -1123,18 +1240,18 @@ public final class Interval {
 
     // returns true if the opId is inside the interval
     boolean covers(int opId, LIRInstruction.OperandMode mode) {
-        Range cur = first;
+        int cur = firstRange;
 
-        while (cur != Range.EndMarker && cur.to < opId) {
-            cur = cur.next;
+        while (cur < rangesEnd && ranges[cur + 1] < opId) {
+            cur += 2;
         }
-        if (cur != Range.EndMarker) {
-            assert cur.to != cur.next.from : "ranges not separated";
+        if (cur < rangesEnd) {
+            assert cur + 2 == rangesEnd || ranges[cur + 1] != ranges[cur + 2] : "ranges not separated";
 
             if (mode == LIRInstruction.OperandMode.Output) {
-                return cur.from <= opId && opId < cur.to;
+                return ranges[cur] <= opId && opId < ranges[cur + 1];
             } else {
-                return cur.from <= opId && opId <= cur.to;
+                return ranges[cur] <= opId && opId <= ranges[cur + 1];
             }
         }
         return false;
@@ -1146,28 +1263,27 @@ public final class Interval {
         assert holeFrom < holeTo : "check";
         assert from() <= holeFrom && holeTo <= to() : "index out of interval";
 
-        Range cur = first;
-        while (cur != Range.EndMarker) {
-            assert cur.to < cur.next.from : "no space between ranges";
+        for (int cur = firstRange; cur < rangesEnd; cur += 2) {
+            final int from = ranges[cur];
+            final int to = ranges[cur + 1];
+            assert cur + 2 == rangesEnd || to < ranges[cur + 2] : "no space between ranges";
 
             // hole-range starts before this range . hole
-            if (holeFrom < cur.from) {
+            if (holeFrom < from) {
                 return true;
 
                 // hole-range completely inside this range . no hole
             } else {
-                if (holeTo <= cur.to) {
+                if (holeTo <= to) {
                     return false;
 
                     // overlapping of hole-range with this range . hole
                 } else {
-                    if (holeFrom <= cur.to) {
+                    if (holeFrom <= to) {
                         return true;
                     }
                 }
             }
-
-            cur = cur.next;
         }
 
         return false;
@@ -1177,7 +1293,7 @@ public final class Interval {
     public String toString() {
         String from = "?";
         String to = "?";
-        if (first != null && first != Range.EndMarker) {
+        if (ranges != null && firstRange != rangesEnd) {
             from = String.valueOf(from());
             to = String.valueOf(to());
         }
@@ -1219,14 +1335,11 @@ public final class Interval {
         buf.append("} ranges{");
 
         // print ranges
-        Range cur = first;
-        while (cur != Range.EndMarker) {
-            if (cur != first) {
+        for (int cur = firstRange; cur < rangesEnd; cur += 2) {
+            if (cur != firstRange) {
                 buf.append(", ");
             }
-            buf.append(cur);
-            cur = cur.next;
-            assert cur != null : "range list not closed with range sentinel";
+            buf.append('[').append(ranges[cur]).append(", ").append(ranges[cur + 1]).append(']');
         }
         buf.append("} uses{");
 
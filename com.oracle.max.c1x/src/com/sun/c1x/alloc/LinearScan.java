@@ -594,6 +594,48 @@ public final class LinearScan {
         assert (index << 1) == opId : "must match: " + (index << 1);
     }
 
+    /**
+     * Adds the variables live in a frame state to the {@code liveGen} set of a block unless they are already killed.
+     * A single instance is reused for all instructions with debug info instead of allocating a closure per instruction.
+     */
+    private final class LiveStateValueGen implements ValueProcedure {
+        CiBitMap liveGen;
+        CiBitMap liveKill;
+        LIRInstruction op;
+
+        public void doValue(Value value) {
+            CiValue operand = value.operand();
+            if (operand.isVariable()) {
+                int operandNum = operandNumber(operand);
+                if (!liveKill.get(operandNum)) {
+                    liveGen.set(operandNum);
+                    if (C1XOptions.TraceLinearScanLevel >= 4) {
+                        TTY.println("  Setting liveGen for value %s, LIR opId %d, operand %d", Util.valueString(value), op.id, operandNum);
+                    }
+                }
+            } else if (operand.isRegister()) {
+                assert !isProcessed(operand) && !operand.kind.isObject();
+            } else {
+                assert operand.isConstant() || operand.isIllegal() : "invalid operand for deoptimization value: " + value;
+            }
+        }
+    }
+
+    /**
+     * Adds a use for each variable or register live in a frame state. Reused across instructions like {@link LiveStateValueGen}.
+     */
+    private final class DebugInfoUses implements ValueProcedure {
+        int blockFrom;
+        int opId;
+
+        public void doValue(Value value) {
+            CiValue operand = value.operand();
+            if (operand.isVariableOrRegister()) {
+                addUse(operand, blockFrom, opId + 1, RegisterPriority.None, null);
+            }
+        }
+    }
+
     /**
      * Computes local live sets (i.e. {@link LIRBlock#liveGen} and {@link LIRBlock#liveKill}) separately for each block.
      */
@@ -602,6 +644,7 @@ public final class LinearScan {
         int liveSize = liveSetSize();
 
         BitMap2D localIntervalInLoop = new BitMap2D(operands.size(), numLoops());
+        LiveStateValueGen liveStateValueGen = new LiveStateValueGen();
 
         // iterate all blocks
         for (int i = 0; i < numBlocks; i++) {
@@ -656,25 +699,10 @@ public final class LinearScan {
                 // Add uses of live locals from interpreter's point of view for proper debug information generation
                 LIRDebugInfo info = op.info;
                 if (info != null) {
-                    info.state.forEachLiveStateValue(new ValueProcedure() {
-
-                        public void doValue(Value value) {
-                            CiValue operand = value.operand();
-                            if (operand.isVariable()) {
-                                int operandNum = operandNumber(operand);
-                                if (!liveKill.get(operandNum)) {
-                                    liveGen.set(operandNum);
-                                    if (C1XOptions.TraceLinearScanLevel >= 4) {
-                                        TTY.println("  Setting liveGen for value %s, LIR opId %d, operand %d", Util.valueString(value), op.id, operandNum);
-                                    }
-                                }
-                            } else if (operand.isRegister()) {
-                                assert !isProcessed(operand) && !operand.kind.isObject();
-                            } else {
-                                assert operand.isConstant() || operand.isIllegal() : "invalid operand for deoptimization value: " + value;
-                            }
-                        }
-                    });
+                    liveStateValueGen.liveGen = liveGen;
+                    liveStateValueGen.liveKill = liveKill;
+                    liveStateValueGen.op = op;
+                    info.state.forEachLiveStateValue(liveStateValueGen);
                 }
 
                 // iterate temp operands of instruction
@@ -968,11 +996,10 @@ public final class LinearScan {
                 interval.setKind(kind);
             }
 
-            Range r = interval.first();
-            if (r.from <= defPos) {
+            if (interval.from() <= defPos) {
                 // Update the starting point (when a range is first created for a use, its
                 // start is the beginning of the current block until a def is encountered.)
-                r.from = defPos;
+                interval.setFrom(defPos);
                 interval.addUsePos(defPos, registerPriority);
 
             } else {
@@ -1204,9 +1231,17 @@ public final class LinearScan {
         intervalsSize = operands.size();
         intervals = new Interval[intervalsSize + INITIAL_SPLIT_INTERVALS_CAPACITY];
 
-        // create a list with all caller-save registers (cpu, fpu, xmm)
+        // create a list with all allocatable caller-save registers (cpu, fpu, xmm)
         RiRegisterConfig registerConfig = compilation.registerConfig;
         CiRegister[] callerSaveRegs = registerConfig.getCallerSaveRegisters();
+        int numCallerSaveValues = 0;
+        CiValue[] callerSaveValues = new CiValue[callerSaveRegs.length];
+        for (CiRegister r : callerSaveRegs) {
+            if (attributes(r).isAllocatable) {
+                callerSaveValues[numCallerSaveValues++] = r.asValue();
+            }
+        }
+        DebugInfoUses debugInfoUses = new DebugInfoUses();
 
         // iterate all blocks in reverse order
         for (int i = blockCount() - 1; i >= 0; i--) {
@@ -1244,13 +1279,12 @@ public final class LinearScan {
             for (int j = instructions.size() - 1; j >= 1; j--) {
                 LIRInstruction op = instructions.get(j);
                 final int opId = op.id;
+                int k;
 
                 // add a temp range for each register if operation destroys caller-save registers
                 if (op.hasCall) {
-                    for (CiRegister r : callerSaveRegs) {
-                        if (attributes(r).isAllocatable) {
-                            addTemp(r.asValue(), opId, RegisterPriority.None, CiKind.Illegal);
-                        }
+                    for (k = 0; k < numCallerSaveValues; k++) {
+                        addTemp(callerSaveValues[k], opId, RegisterPriority.None, CiKind.Illegal);
                     }
                     if (C1XOptions.TraceLinearScanLevel >= 4) {
                         TTY.println("operation destroys all caller-save registers");
@@ -1261,7 +1295,6 @@ public final class LinearScan {
                 pdAddTemps(op);
 
                 // visit definitions (output and temp operands)
-                int k;
                 int n;
                 n = op.operandCount(LIRInstruction.OperandMode.Output);
                 for (k = 0; k < n; k++) {
@@ -1289,10 +1322,9 @@ public final class LinearScan {
                     Interval interval = addUse(operand, blockFrom, opId, p, null);
 
                     if (interval != null && op instanceof LIRXirInstruction) {
-                        Range range = interval.first();
                         // (tw) Increase range by 1 in order to overlap the input with the temp and the output operand.
-                        if (range.to == opId) {
-                            range.to++;
+                        if (interval.rangeTo(0) == opId) {
+                            interval.setFirstRangeTo(opId + 1);
                         }
                     }
                 }
@@ -1303,15 +1335,9 @@ public final class LinearScan {
                 // to a call site, the value would be in a register at the call otherwise)
                 LIRDebugInfo info = op.info;
                 if (info != null) {
-                    info.state.forEachLiveStateValue(new ValueProcedure() {
-
-                        public void doValue(Value value) {
-                            CiValue operand = value.operand();
-                            if (operand.isVariableOrRegister()) {
-                                addUse(operand, blockFrom, opId + 1, RegisterPriority.None, null);
-                            }
-                        }
-                    });
+                    debugInfoUses.blockFrom = blockFrom;
+                    debugInfoUses.opId = opId;
+                    info.state.forEachLiveStateValue(debugInfoUses);
                 }
 
                 // special steps for some instructions (especially moves)
@@ -1454,6 +1480,9 @@ public final class LinearScan {
         }
 
         Interval[] sortedList = new Interval[sortedLen];
+        // the sort keys are kept in a parallel array so that shifting entries
+        // does not dereference the first range of each interval
+        int[] sortedFrom = new int[sortedLen];
         int sortedIdx = 0;
         int sortedFromMax = -1;
 
@@ -1464,16 +1493,19 @@ public final class LinearScan {
                 int from = interval.from();
 
                 if (sortedFromMax <= from) {
+                    sortedFrom[sortedIdx] = from;
                     sortedList[sortedIdx++] = interval;
-                    sortedFromMax = interval.from();
+                    sortedFromMax = from;
                 } else {
                     // the assumption that the intervals are already sorted failed,
                     // so this interval must be sorted in manually
                     int j;
-                    for (j = sortedIdx - 1; j >= 0 && from < sortedList[j].from(); j--) {
+                    for (j = sortedIdx - 1; j >= 0 && from < sortedFrom[j]; j--) {
                         sortedList[j + 1] = sortedList[j];
+                        sortedFrom[j + 1] = sortedFrom[j];
                     }
                     sortedList[j + 1] = interval;
+                    sortedFrom[j + 1] = from;
                     sortedIdx++;
                 }
             }
@@ -2476,14 +2508,14 @@ public final class LinearScan {
                 throw new CiBailout("");
             }
 
-            if (i1.first() == Range.EndMarker) {
+            if (i1.numRanges() == 0) {
                 TTY.println("Interval %d has no Range", i1.operandNumber);
                 TTY.println(i1.logString(this));
                 throw new CiBailout("");
             }
 
-            for (Range r = i1.first(); r != Range.EndMarker; r = r.next) {
-                if (r.from >= r.to) {
+            for (int r = 0; r < i1.numRanges(); r++) {
+                if (i1.rangeFrom(r) >= i1.rangeTo(r)) {
                     TTY.println("Interval %d has zero length range", i1.operandNumber);
                     TTY.println(i1.logString(this));
                     throw new CiBailout("");
@@ -488,11 +488,8 @@ public class CFGPrinter extends CompilationPrinter {
         out.printf("%d %d ", interval.splitParent().operandNumber, hint != null ? hint.operandNumber : -1);
 
         // print ranges
-        Range cur = interval.first();
-        while (cur != Range.EndMarker) {
-            out.printf("[%d, %d[", cur.from, cur.to);
-            cur = cur.next;
-            assert cur != null : "range list not closed with range sentinel";
+        for (int i = 0; i < interval.numRanges(); i++) {
+            out.printf("[%d, %d[", interval.rangeFrom(i), interval.rangeTo(i));
         }
 
         // print use positions
@@ -949,6 +949,49 @@ public final class GraphBuilder {
         }
     }
 
+    void genInvokeDynamic(int cpi, RiConstantPool constantPool) {
+        RiMethod target = constantPool.lookupMethod(cpi, INVOKEDYNAMIC);
+        Object appendix = constantPool.lookupAppendix(cpi, INVOKEDYNAMIC);
+        if (!(target instanceof RiResolvedMethod) || appendix == null) {
+            // Linking the call site would run its bootstrap method
+            throw new CiBailout("Unlinked invokedynamic call site [bci=" + bci() + "]");
+        }
+        // The appendix is a constant trailing argument of the adapter the call site is linked to
+        apush(appendConstant(CiConstant.forObject(appendix)));
+        Value[] args = curState.popArguments(target.signature().argumentSlots(false));
+        if (!tryRemoveCall(target, args, true)) {
+            if (!tryInline((RiResolvedMethod) target, args)) {
+                appendInvoke(INVOKESTATIC, target, args, true, cpi, constantPool);
+            }
+        }
+    }
+
+    /**
+     * Generates a call to a method that has been bound by an {@linkplain C1XIntrinsicImpl intrinsic}, for example
+     * the target of a constant method handle. Unlike the {@code genInvokeXXX} methods, no intrinsic is looked up
+     * for {@code target} itself. The result of the call (if any) is pushed on the stack.
+     *
+     * @param opcode {@link Bytecodes#INVOKESTATIC}, {@link Bytecodes#INVOKESPECIAL}, {@link Bytecodes#INVOKEVIRTUAL}
+     *            or {@link Bytecodes#INVOKEINTERFACE}
+     * @param target the method to call
+     * @param args the arguments of the call, including the receiver for non-static calls
+     */
+    public void genInvokeBound(int opcode, RiResolvedMethod target, Value[] args) {
+        switch (opcode) {
+            case INVOKESTATIC:
+                if (!tryInline(target, args)) {
+                    appendInvoke(INVOKESTATIC, target, args, true, -1, null);
+                }
+                break;
+            case INVOKESPECIAL:
+                invokeDirect(target, args, null, -1, null);
+                break;
+            default:
+                assert opcode == INVOKEVIRTUAL || opcode == INVOKEINTERFACE;
+                genInvokeIndirect(opcode, target, args, -1, null);
+        }
+    }
+
     /**
      * Temporary work-around to support the @ACCESSOR Maxine annotation.
      */
@@ -2393,6 +2436,7 @@ public final class GraphBuilder {
     private void processExtendedBytecode(int opcode, BytecodeStream s) {
         // Checkstyle: off
         switch (opcode) {
+            case INVOKEDYNAMIC  : genInvokeDynamic(s.readCPI(), constantPool()); break;
             case JNICALL        : genNativeCall(s.readCPI()); break;
             case BREAKPOINT:
                 throw new CiBailout("concurrent setting of breakpoint");
@@ -1854,12 +1854,15 @@ public final class AMD64LIRAssembler extends LIRAssembler {
                     if ((Boolean) inst.extra && info != null) {
                         tasm.recordImplicitException(codePos(), info);
                     }
-                    assert operands[inst.x().index].asRegister().equals(AMD64.rax) : "wrong input x: " + operands[inst.x().index];
+                    assert operands[inst.z().index].asRegister().equals(AMD64.rax) : "wrong input z: " + operands[inst.z().index];
 
                     CiValue exchangedVal = operands[inst.y().index];
                     CiValue exchangedAddress = operands[inst.x().index];
                     CiRegisterValue pointerRegister = assureInRegister(exchangedAddress);
                     CiAddress addr = new CiAddress(target.wordKind, pointerRegister);
+                    if (compilation.target.isMP) {
+                        masm.lock();
+                    }
                     masm.cmpxchgq(exchangedVal.asRegister(), addr);
 
                     break;
@@ -151,7 +151,11 @@ public class AMD64XirAssembler extends CiXirAssembler {
                     // y = new value
                     // z = old value (i.e., the one compared to). Must be in RAX (and so must the result).
                     currentList.add(new XirInstruction(target.wordKind, XirOp.Mov, fixedRAX, i.z()));
-                    currentList.add(new XirInstruction(i.kind, i.op, i.result, i.x(), i.y(), fixedRAX));
+                    currentList.add(new XirInstruction(i.kind, i.op, fixedRAX, i.x(), i.y(), fixedRAX));
+                    if (i.result != null && i.result != fixedRAX) {
+                        // The value found in memory is left in RAX
+                        currentList.add(new XirInstruction(target.wordKind, XirOp.Mov, i.result, fixedRAX));
+                    }
                     appended = true;
                     break;
                 case CallStub:
@@ -175,6 +175,45 @@ public final class CiAssumptions implements Serializable, Iterable<CiAssumptions
         }
     }
 
+    /**
+     * An assumption that a mutable call site (i.e. a {@code java.lang.invoke.MutableCallSite} or
+     * {@code java.lang.invoke.VolatileCallSite}) keeps its current target.
+     * The call site and its target are not serializable and are not serialized with this assumption;
+     * they are only meaningful in the VM that made the assumption.
+     */
+    public static final class CallSiteTargetValue extends Assumption {
+        public static final long serialVersionUID = 5274615839472625831L;
+
+        /**
+         * The call site.
+         */
+        public final transient Object callSite;
+
+        /**
+         * The target of {@link #callSite} assumed by the compiled code.
+         */
+        public final transient Object methodHandle;
+
+        public CallSiteTargetValue(Object callSite, Object methodHandle) {
+            this.callSite = callSite;
+            this.methodHandle = methodHandle;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(callSite) * 31 + System.identityHashCode(methodHandle);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof CallSiteTargetValue) {
+                CallSiteTargetValue other = (CallSiteTargetValue) obj;
+                return other.callSite == callSite && other.methodHandle == methodHandle;
+            }
+            return false;
+        }
+    }
+
     /**
      * Array with the assumptions. This field is directly accessed from C++ code in the Graal/HotSpot implementation.
      */
@@ -249,6 +288,16 @@ public final class CiAssumptions implements Serializable, Iterable<CiAssumptions
         record(new InlinedMethod(method, method.holder(), inlinee));
     }
 
+    /**
+     * Records that the target of {@code callSite} is assumed to remain {@code methodHandle}.
+     *
+     * @param callSite a mutable call site
+     * @param methodHandle the current target of {@code callSite}
+     */
+    public void recordCallSiteTargetValue(Object callSite, Object methodHandle) {
+        record(new CallSiteTargetValue(callSite, methodHandle));
+    }
+
     public void record(Assumption assumption) {
         if (list == null) {
             list = new Assumption[4];
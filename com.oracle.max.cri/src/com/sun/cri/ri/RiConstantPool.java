@@ -90,4 +90,14 @@ public interface RiConstantPool {
      * @return the {@code CiConstant} instance representing the constant
      */
     Object lookupConstant(int cpi);
+
+    /**
+     * Looks up the appendix of a linked {@code invokedynamic} call site or signature polymorphic
+     * method reference. The appendix is passed to the linked target as an extra trailing argument.
+     *
+     * @param cpi the constant pool index
+     * @param opcode the opcode of the instruction for which the lookup is being performed
+     * @return the appendix object or {@code null} if the entry at {@code cpi} has no appendix or is not yet linked
+     */
+    Object lookupAppendix(int cpi, int opcode);
 }
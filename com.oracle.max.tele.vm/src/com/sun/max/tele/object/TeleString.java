@@ -98,7 +98,7 @@ public final class TeleString extends TeleTupleObject implements StringProvider
         if (status().isLive()) {
             String s = getString(vm(), reference());
             if (s != null) {
-                string = SymbolTable.intern(s);
+                string = StringTable.intern(s);
             }
         }
         return string;
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.bytecode;
+
+import test.bench.util.*;
+
+/**
+ * Type checks against non-leaf classes and interfaces where the receiver is never of the exact checked type,
+ * so every check misses the exact hub comparison and takes the subtype test proper.
+ */
+public class InstanceOf01 extends RunBench {
+
+    interface I {
+    }
+
+    static class A {
+    }
+
+    static class B extends A implements I {
+    }
+
+    static class C extends B {
+    }
+
+    static class D extends C {
+    }
+
+    static final Object[] objects = {new B(), new C(), new D(), new Object(), "string"};
+
+    protected InstanceOf01() {
+        super(new Bench(), new EncapBench());
+    }
+
+    public static boolean test(int i) {
+        return new InstanceOf01().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+
+        @Override
+        public long run() {
+            final Object[] objs = objects;
+            int count = 0;
+            for (int i = 0; i < objs.length; i++) {
+                final Object o = objs[i];
+                if (o instanceof A) {
+                    count++;
+                }
+                if (o instanceof C) {
+                    count++;
+                }
+                if (o instanceof I) {
+                    A a = (A) o;
+                    if (a != null) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    static class EncapBench extends MicroBenchmark {
+        @Override
+        public long run() {
+            final Object[] objs = objects;
+            int count = 0;
+            for (int i = 0; i < objs.length; i++) {
+                if (objs[i] != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        test(0);
+    }
+
+}
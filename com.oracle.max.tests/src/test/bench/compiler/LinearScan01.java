@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package test.bench.compiler;
+
+import static com.sun.max.vm.MaxineVM.*;
+
+import java.lang.reflect.*;
+import java.math.*;
+import java.text.*;
+import java.util.*;
+import java.util.regex.*;
+import java.util.zip.*;
+
+import com.oracle.max.vm.ext.c1x.*;
+import com.sun.c1x.*;
+import com.sun.max.vm.actor.member.*;
+
+/**
+ * Measures the time spent in the C1X register allocator, isolated from the rest of the compiler. Every method of a
+ * fixed set of JDK classes is compiled with C1X (without installing the code) a number of times, and the time
+ * recorded by the {@linkplain C1XTimers timers} of the allocator phases ({@code Lifetime Analysis},
+ * {@code Linear Scan} and {@code Resolution}) is reported for each iteration, alongside the total compile time.
+ * C1X must be the optimizing compiler:
+ *
+ * <pre>
+ *     max vm -cp ... test.bench.compiler.LinearScan01
+ * </pre>
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value ITERATIONS_PROPERTY}: the number of times the corpus is compiled, default {@value DEFAULT_ITERATIONS}
+ * </ul>
+ */
+public class LinearScan01 {
+
+    private static final int DEFAULT_ITERATIONS = 10;
+    private static final String ITERATIONS_PROPERTY = "test.bench.compiler.linearscan.iterations";
+
+    private static final Class<?>[] corpus = {
+        HashMap.class, TreeMap.class, ArrayList.class, LinkedList.class, Collections.class, Arrays.class,
+        String.class, StringBuilder.class, Integer.class, Long.class, Math.class, Character.class,
+        BigInteger.class, BigDecimal.class, Pattern.class, Matcher.class, Formatter.class,
+        DecimalFormat.class, SimpleDateFormat.class, GregorianCalendar.class, Deflater.class, CRC32.class,
+    };
+
+    public static void main(String[] args) {
+        if (!(vm().compilationBroker.optimizingCompiler instanceof C1X)) {
+            System.out.println("C1X is not the optimizing compiler");
+            return;
+        }
+        final C1X c1x = (C1X) vm().compilationBroker.optimizingCompiler;
+        final List<ClassMethodActor> methods = new ArrayList<ClassMethodActor>();
+        for (Class<?> c : corpus) {
+            for (Method method : c.getDeclaredMethods()) {
+                addMethod(methods, MethodActor.fromJava(method));
+            }
+            for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+                addMethod(methods, MethodActor.fromJavaConstructor(constructor));
+            }
+        }
+
+        final int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+        final boolean printTimers = C1XOptions.PrintTimers;
+        C1XOptions.PrintTimers = true;
+        try {
+            System.out.println(methods.size() + " methods");
+            System.out.println(String.format("%-10s %12s %12s %12s %12s %12s", "iteration", "lifetime us", "scan us", "resolve us", "alloc us", "compile us"));
+            for (int i = 0; i < iterations; i++) {
+                C1XTimers.reset();
+                int failed = 0;
+                for (ClassMethodActor method : methods) {
+                    try {
+                        c1x.compile(method, false, false, null);
+                    } catch (Throwable t) {
+                        failed++;
+                    }
+                }
+                long compile = 0;
+                for (C1XTimers timer : C1XTimers.values()) {
+                    compile += timer.total();
+                }
+                final long lifetime = C1XTimers.LIFETIME_ANALYSIS.total();
+                final long scan = C1XTimers.LINEAR_SCAN.total();
+                final long resolve = C1XTimers.RESOLUTION.total();
+                System.out.println(String.format("%-10d %12d %12d %12d %12d %12d%s", i, lifetime / 1000, scan / 1000, resolve / 1000,
+                    (lifetime + scan + resolve) / 1000, compile / 1000, failed == 0 ? "" : " (" + failed + " bailouts)"));
+            }
+        } finally {
+            C1XTimers.reset();
+            C1XOptions.PrintTimers = printTimers;
+        }
+    }
+
+    private static void addMethod(List<ClassMethodActor> methods, MethodActor methodActor) {
+        if (methodActor instanceof ClassMethodActor && !methodActor.isAbstract() && !methodActor.isNative()) {
+            methods.add((ClassMethodActor) methodActor);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import java.io.*;
+import java.nio.*;
+
+import test.bench.util.*;
+
+/**
+ * Measures the throughput of defining a class from a {@link ByteBuffer}, as done by class loaders that read class
+ * files from memory-mapped archives. Each run defines the class in a new class loader so that only parsing and
+ * defining the class is measured; the class is never initialized.
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value HEAP_PROPERTY}: if set, the class file is in a heap buffer instead of a direct buffer
+ * </ul>
+ */
+public class ClassLoader_defineClass extends RunBench {
+
+    protected ClassLoader_defineClass() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new ClassLoader_defineClass().runBench();
+    }
+
+    /**
+     * The class that is repeatedly defined. It has enough members to make parsing its constant pool dominate.
+     */
+    static class Template {
+        int count;
+        long total;
+        String name;
+
+        Template(String name) {
+            this.name = name;
+        }
+
+        void add(long value) {
+            count++;
+            total += value;
+        }
+
+        long average() {
+            return count == 0 ? 0 : total / count;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + count + " values, average " + average();
+        }
+    }
+
+    static class BufferClassLoader extends ClassLoader {
+        Class<?> define(String name, ByteBuffer classfile) {
+            return defineClass(name, classfile.duplicate(), null);
+        }
+    }
+
+    static class Bench extends MicroBenchmark {
+        private static final String HEAP_PROPERTY = "test.bench.java.lang.classloader.heap";
+
+        private final ByteBuffer classfile;
+
+        Bench() {
+            final byte[] bytes = readClassfile(Template.class);
+            if (System.getProperty(HEAP_PROPERTY) != null) {
+                classfile = ByteBuffer.wrap(bytes);
+            } else {
+                classfile = ByteBuffer.allocateDirect(bytes.length);
+                classfile.put(bytes);
+                classfile.flip();
+            }
+        }
+
+        @Override
+        public long run() {
+            final Class<?> c = new BufferClassLoader().define(Template.class.getName(), classfile);
+            if (c == Template.class) {
+                throw new Error("class not defined by the benchmark class loader");
+            }
+            return defaultResult;
+        }
+
+        private static byte[] readClassfile(Class<?> c) {
+            final String resource = c.getName().substring(c.getName().lastIndexOf('.') + 1) + ".class";
+            final InputStream in = c.getResourceAsStream(resource);
+            if (in == null) {
+                throw new Error("could not find class file for " + c.getName());
+            }
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+                in.close();
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        RunBench.runTest(ClassLoader_defineClass.class, args);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package test.bench.java.lang;
+
+import java.io.*;
+import java.net.*;
+import java.util.jar.*;
+import java.util.zip.*;
+
+/**
+ * Measures the time taken to load and initialize a large number of classes, as an application does at startup. The
+ * classes are generated into a directory and into a jar file whose entries are stored uncompressed, and each
+ * iteration loads all of them through a new {@link URLClassLoader} on one or the other. With {@code -XX:+MapClassfiles}
+ * the jar can be parsed in place from a memory mapping when it is on the boot class path, while the default copies the
+ * class files into byte arrays first:
+ *
+ * <pre>
+ *     max vm -cp ... test.bench.java.lang.ClassLoader_startup
+ *     max vm -XX:+MapClassfiles -cp ... test.bench.java.lang.ClassLoader_startup
+ * </pre>
+ *
+ * The generated jar is reported so that it can also be put on the boot class path with {@code -Xbootclasspath/a:}.
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value CLASSES_PROPERTY}: the number of generated classes, default {@value DEFAULT_CLASSES}
+ * <li>{@value ITERATIONS_PROPERTY}: the number of times the classes are loaded from each source, default
+ * {@value DEFAULT_ITERATIONS}
+ * </ul>
+ */
+public class ClassLoader_startup {
+
+    private static final int DEFAULT_CLASSES = 5000;
+    private static final String CLASSES_PROPERTY = "test.bench.java.lang.classloader.startup.classes";
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final String ITERATIONS_PROPERTY = "test.bench.java.lang.classloader.startup.iterations";
+
+    private static final String PACKAGE = "test/bench/java/lang/generated/";
+
+    public static void main(String[] args) throws Exception {
+        final int classes = Integer.getInteger(CLASSES_PROPERTY, DEFAULT_CLASSES);
+        final int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+
+        final File root = File.createTempFile("classloader-startup", "");
+        root.delete();
+        final File directory = new File(root, "classes");
+        final File jar = new File(root, "classes.jar");
+        directory.mkdirs();
+        final JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jar));
+        for (int i = 0; i < classes; i++) {
+            final byte[] classfile = generate(i);
+            final File file = new File(directory, PACKAGE + "C" + i + ".class");
+            file.getParentFile().mkdirs();
+            final FileOutputStream out = new FileOutputStream(file);
+            out.write(classfile);
+            out.close();
+
+            final JarEntry entry = new JarEntry(PACKAGE + "C" + i + ".class");
+            final CRC32 crc = new CRC32();
+            crc.update(classfile);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(classfile.length);
+            entry.setCompressedSize(classfile.length);
+            entry.setCrc(crc.getValue());
+            jarOut.putNextEntry(entry);
+            jarOut.write(classfile);
+            jarOut.closeEntry();
+        }
+        jarOut.close();
+        System.out.println(classes + " classes in " + directory + " and " + jar);
+
+        try {
+            System.out.println(String.format("%-10s %12s %12s", "iteration", "directory ms", "jar ms"));
+            for (int i = 0; i < iterations; i++) {
+                final long directoryTime = load(directory, classes);
+                final long jarTime = load(jar, classes);
+                System.out.println(String.format("%-10d %12d %12d", i, directoryTime / 1000000, jarTime / 1000000));
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    /**
+     * Loads and initializes all the generated classes through a new class loader for a given class path entry.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    private static long load(File entry, int classes) throws Exception {
+        final URLClassLoader loader = new URLClassLoader(new URL[] {entry.toURI().toURL()}, null);
+        final String prefix = PACKAGE.replace('/', '.') + "C";
+        final long start = System.nanoTime();
+        for (int i = 0; i < classes; i++) {
+            final Class<?> c = Class.forName(prefix + i, true, loader);
+            if (c.getClassLoader() != loader) {
+                throw new Error(c + " was not loaded from " + entry);
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        loader.close();
+        return elapsed;
+    }
+
+    /**
+     * Generates a class with a static field that is set by its class initializer.
+     */
+    private static byte[] generate(int index) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(49);
+
+        out.writeShort(16);
+        utf8(out, PACKAGE + "C" + index);    // 1
+        ref(out, 7, 1);                      // 2: Class
+        utf8(out, "java/lang/Object");       // 3
+        ref(out, 7, 3);                      // 4: Class
+        utf8(out, "<init>");                 // 5
+        utf8(out, "()V");                    // 6
+        ref(out, 12, 5, 6);                  // 7: NameAndType
+        ref(out, 10, 4, 7);                  // 8: Methodref
+        utf8(out, "Code");                   // 9
+        utf8(out, "value");                  // 10
+        utf8(out, "I");                      // 11
+        ref(out, 9, 2, 13);                  // 12: Fieldref
+        ref(out, 12, 10, 11);                // 13: NameAndType
+        utf8(out, "<clinit>");               // 14
+        out.writeByte(3);                    // 15: Integer
+        out.writeInt(index);
+
+        out.writeShort(0x0021);              // public super
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0);
+
+        out.writeShort(1);
+        out.writeShort(0x0009);              // public static int value
+        out.writeShort(10);
+        out.writeShort(11);
+        out.writeShort(0);
+
+        out.writeShort(2);
+        method(out, 0x0001, 5, 1, 1, new byte[] {0x2a, (byte) 0xb7, 0, 8, (byte) 0xb1});   // aload_0; invokespecial #8; return
+        method(out, 0x0008, 14, 1, 0, new byte[] {0x12, 15, (byte) 0xb3, 0, 12, (byte) 0xb1}); // ldc #15; putstatic #12; return
+
+        out.writeShort(0);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void utf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+
+    private static void ref(DataOutputStream out, int tag, int... indexes) throws IOException {
+        out.writeByte(tag);
+        for (int index : indexes) {
+            out.writeShort(index);
+        }
+    }
+
+    private static void method(DataOutputStream out, int flags, int name, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(flags);
+        out.writeShort(name);
+        out.writeShort(6);
+        out.writeShort(1);
+        out.writeShort(9);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static void delete(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import test.bench.util.*;
+
+/**
+ * Measures the throughput of creating, throwing and catching an exception some frames below the handler,
+ * as done by parsing and validation code that reports failures with exceptions. Most such exceptions are
+ * caught without their stack trace ever being looked at.
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value DEPTH_PROPERTY}: the number of frames between the handler and the throw, default {@value DEFAULT_DEPTH}
+ * <li>{@value STACKTRACE_PROPERTY}: if set, the stack trace of every caught exception is requested
+ * </ul>
+ */
+public class Throwable_throwCatch extends RunBench {
+
+    protected Throwable_throwCatch() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new Throwable_throwCatch().runBench();
+    }
+
+    static class ParseException extends Exception {
+        private static final long serialVersionUID = -3287419356102738452L;
+
+        ParseException(String message) {
+            super(message);
+        }
+    }
+
+    static class Bench extends MicroBenchmark {
+        private static final int DEFAULT_DEPTH = 20;
+        private static final String DEPTH_PROPERTY = "test.bench.java.lang.throwable.depth";
+        private static final String STACKTRACE_PROPERTY = "test.bench.java.lang.throwable.stacktrace";
+
+        private final int depth;
+        private final boolean getStackTrace;
+
+        Bench() {
+            depth = Integer.getInteger(DEPTH_PROPERTY, DEFAULT_DEPTH);
+            getStackTrace = System.getProperty(STACKTRACE_PROPERTY) != null;
+        }
+
+        @Override
+        public long run() {
+            try {
+                parse(depth);
+            } catch (ParseException e) {
+                if (getStackTrace) {
+                    return e.getStackTrace().length;
+                }
+                return defaultResult;
+            }
+            throw new Error("exception not thrown");
+        }
+
+        private static int parse(int n) throws ParseException {
+            if (n == 0) {
+                throw new ParseException("unexpected token");
+            }
+            return parse(n - 1) + 1;
+        }
+    }
+
+    public static void main(String[] args) {
+        RunBench.runTest(Throwable_throwCatch.class, args);
+    }
+}
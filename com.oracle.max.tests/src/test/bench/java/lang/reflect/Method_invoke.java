@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang.reflect;
+
+import java.lang.reflect.*;
+
+import test.bench.util.*;
+
+/**
+ * Measures the throughput of invoking a method reflectively through a {@link Method} held in a static final field,
+ * as done by frameworks that look up the methods they call once and invoke them many times.
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value LOOKUP_PROPERTY}: if set, the method is looked up again for every invocation, as done by code that
+ * does not keep the {@link Method} objects it uses
+ * </ul>
+ */
+public class Method_invoke extends RunBench {
+
+    protected Method_invoke() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new Method_invoke().runBench();
+    }
+
+    public static class Target {
+        public int value;
+
+        public int add(int delta) {
+            value += delta;
+            return value;
+        }
+    }
+
+    static class Bench extends MicroBenchmark {
+        private static final String LOOKUP_PROPERTY = "test.bench.java.lang.reflect.method.lookup";
+        private static final Method ADD = lookup();
+        private static final Integer DELTA = 1;
+
+        private final Target target = new Target();
+        private final boolean lookup;
+
+        Bench() {
+            lookup = System.getProperty(LOOKUP_PROPERTY) != null;
+        }
+
+        @Override
+        public long run() {
+            try {
+                final Method method = lookup ? lookup() : ADD;
+                return (Integer) method.invoke(target, DELTA);
+            } catch (IllegalAccessException e) {
+                throw new Error(e);
+            } catch (InvocationTargetException e) {
+                throw new Error(e);
+            }
+        }
+
+        private static Method lookup() {
+            try {
+                return Target.class.getMethod("add", int.class);
+            } catch (NoSuchMethodException e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        RunBench.runTest(Method_invoke.class, args);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package test.bench.threads;
+
+import java.io.*;
+import java.util.*;
+
+import test.bench.util.*;
+
+/**
+ * Startup benchmark that loads and initializes a large number of freshly defined application classes with a given
+ * number of threads. Each class has its own class initializer, which must be baseline compiled before it runs, so
+ * this measures how well baseline compilation scales with concurrent requests from independent threads. The class
+ * files are generated in memory before timing starts and are defined by a parallel capable class loader, so that
+ * neither I/O nor a class loader lock serializes the threads.
+ *
+ * Usage: ClassInit_parallel01 [t <threads>] [n <classes>] [s <class initializer steps>]
+ */
+public class ClassInit_parallel01 implements Runnable {
+
+    private static final String PACKAGE = "test/bench/threads/generated/";
+
+    private static int threadCount = Runtime.getRuntime().availableProcessors();
+    private static int classCount = 10000;
+    private static int steps = 16;
+
+    private static GeneratedClassLoader loader;
+    private static Barrier barrier;
+
+    private final int index;
+    private int initialized;
+    private int failed;
+
+    ClassInit_parallel01(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Defines the generated classes on demand.
+     */
+    static final class GeneratedClassLoader extends ClassLoader {
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final Map<String, byte[]> classfiles = new HashMap<String, byte[]>();
+
+        GeneratedClassLoader() {
+            super(null);
+            for (int i = 0; i < classCount; i++) {
+                classfiles.put(className(i), generate(PACKAGE + "C" + i, i, steps));
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            final byte[] classfile = classfiles.get(name);
+            if (classfile == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, classfile, 0, classfile.length);
+        }
+    }
+
+    static String className(int i) {
+        return PACKAGE.replace('/', '.') + "C" + i;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Checkstyle: stop modified control variable check
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (arg.equals("t")) {
+                threadCount = Integer.parseInt(args[++i]);
+            } else if (arg.equals("n")) {
+                classCount = Integer.parseInt(args[++i]);
+            } else if (arg.equals("s")) {
+                steps = Integer.parseInt(args[++i]);
+            }
+        }
+        // Checkstyle: resume modified control variable check
+        loader = new GeneratedClassLoader();
+        barrier = new Barrier(threadCount + 1);
+
+        final ClassInit_parallel01[] workers = new ClassInit_parallel01[threadCount];
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new ClassInit_parallel01(i);
+            threads[i] = new Thread(workers[i], "ClassInit-" + i);
+            threads[i].start();
+        }
+        final long start = System.nanoTime();
+        barrier.waitForRelease();
+        int initialized = 0;
+        int failed = 0;
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].join();
+            initialized += workers[i].initialized;
+            failed += workers[i].failed;
+        }
+        final long elapsed = (System.nanoTime() - start) / 1000000;
+        System.out.println("Initialized " + initialized + " of " + classCount + " classes (" + failed + " failed) with " +
+                        threadCount + " threads in " + elapsed + " ms");
+    }
+
+    public void run() {
+        barrier.waitForRelease();
+        for (int i = index; i < classCount; i += threadCount) {
+            try {
+                final Class<?> c = Class.forName(className(i), true, loader);
+                if (c.getClassLoader() == loader) {
+                    initialized++;
+                } else {
+                    failed++;
+                }
+            } catch (Throwable t) {
+                failed++;
+            }
+        }
+    }
+
+    /**
+     * Generates a class with a public static {@code int} field named {@code value} that is computed by its class
+     * initializer.
+     *
+     * @param name the name of the class in internal form (e.g. {@code "a/b/C"})
+     * @param seed the constant from which {@code value} is computed
+     * @param steps the number of arithmetic steps in the class initializer, which makes it bigger by 12 bytes per step
+     */
+    private static byte[] generate(String name, int seed, int steps) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(49);
+
+            out.writeShort(16);
+            utf8(out, name);                     // 1
+            ref(out, 7, 1);                      // 2: Class
+            utf8(out, "java/lang/Object");       // 3
+            ref(out, 7, 3);                      // 4: Class
+            utf8(out, "<init>");                 // 5
+            utf8(out, "()V");                    // 6
+            ref(out, 12, 5, 6);                  // 7: NameAndType
+            ref(out, 10, 4, 7);                  // 8: Methodref
+            utf8(out, "Code");                   // 9
+            utf8(out, "value");                  // 10
+            utf8(out, "I");                      // 11
+            ref(out, 9, 2, 13);                  // 12: Fieldref
+            ref(out, 12, 10, 11);                // 13: NameAndType
+            utf8(out, "<clinit>");               // 14
+            out.writeByte(3);                    // 15: Integer
+            out.writeInt(seed);
+
+            out.writeShort(0x0021);              // public super
+            out.writeShort(2);
+            out.writeShort(4);
+            out.writeShort(0);
+
+            out.writeShort(1);
+            out.writeShort(0x0009);              // public static int value
+            out.writeShort(10);
+            out.writeShort(11);
+            out.writeShort(0);
+
+            out.writeShort(2);
+            method(out, 0x0001, 5, 1, 1, new byte[] {0x2a, (byte) 0xb7, 0, 8, (byte) 0xb1}); // aload_0; invokespecial #8; return
+
+            final ByteArrayOutputStream clinit = new ByteArrayOutputStream();
+            clinit.write(new byte[] {0x12, 15, (byte) 0xb3, 0, 12});                         // ldc #15; putstatic #12
+            for (int i = 0; i < steps; i++) {
+                // getstatic #12; bipush 31; imul; ldc #15; iadd; putstatic #12
+                clinit.write(new byte[] {(byte) 0xb2, 0, 12, 0x10, 31, 0x68, 0x12, 15, 0x60, (byte) 0xb3, 0, 12});
+            }
+            clinit.write(0xb1);                                                             // return
+            method(out, 0x0008, 14, 2, 0, clinit.toByteArray());
+
+            out.writeShort(0);
+            out.close();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new Error(e);
+        }
+    }
+
+    private static void utf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+
+    private static void ref(DataOutputStream out, int tag, int... indexes) throws IOException {
+        out.writeByte(tag);
+        for (int index : indexes) {
+            out.writeShort(index);
+        }
+    }
+
+    private static void method(DataOutputStream out, int flags, int name, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(flags);
+        out.writeShort(name);
+        out.writeShort(6);
+        out.writeShort(1);
+        out.writeShort(9);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+}
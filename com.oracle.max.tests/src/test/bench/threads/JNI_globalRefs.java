@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.threads;
+
+import test.bench.util.*;
+
+/**
+ * Tests the scalability of JNI global reference creation and deletion, as done by native libraries that
+ * create and delete global references on every call. Each worker thread makes a number of native calls, each
+ * of which creates and deletes global (or weak global) references in a loop.
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value THREADS_PROPERTY}: the number of worker threads, default {@value DEFAULT_THREADS}
+ * <li>{@value CALLS_PROPERTY}: the number of native calls per thread, default {@value DEFAULT_CALLS}
+ * <li>{@value REFS_PROPERTY}: the number of references created by each call, default {@value DEFAULT_REFS}
+ * <li>{@value WEAK_PROPERTY}: if set, create weak global references
+ * </ul>
+ */
+public class JNI_globalRefs extends RunBench {
+
+    static {
+        System.loadLibrary("javatest");
+    }
+
+    protected JNI_globalRefs() {
+        super(new Bench());
+    }
+
+    public static boolean test() {
+        return new JNI_globalRefs().runBench();
+    }
+
+    /**
+     * Creates and deletes {@code count} references to {@code object}.
+     * @return the number of references created or -1 if a creation failed
+     */
+    private static native int createDeleteGlobalRefs(Object object, int count, boolean weak);
+
+    static class Bench extends MicroBenchmark {
+        private static final int DEFAULT_THREADS = 4;
+        private static final int DEFAULT_CALLS = 1000;
+        private static final int DEFAULT_REFS = 100;
+        private static final String THREADS_PROPERTY = "test.bench.threads.jni.globalrefs.threads";
+        private static final String CALLS_PROPERTY = "test.bench.threads.jni.globalrefs.calls";
+        private static final String REFS_PROPERTY = "test.bench.threads.jni.globalrefs.refs";
+        private static final String WEAK_PROPERTY = "test.bench.threads.jni.globalrefs.weak";
+
+        private final int nrThreads;
+        private final int nrCalls;
+        private final int nrRefs;
+        private final boolean weak;
+        private Thread[] threads;
+        private volatile boolean failed;
+        private Barrier barrier;
+
+        Bench() {
+            nrThreads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+            nrCalls = Integer.getInteger(CALLS_PROPERTY, DEFAULT_CALLS);
+            nrRefs = Integer.getInteger(REFS_PROPERTY, DEFAULT_REFS);
+            weak = System.getProperty(WEAK_PROPERTY) != null;
+        }
+
+        @Override
+        public void prerun() {
+            barrier = new Barrier(nrThreads + 1);
+            threads = new Thread[nrThreads];
+            for (int i = 0; i < nrThreads; i++) {
+                threads[i] = new Thread(new Worker(), "JNIGlobalRefs-" + i);
+                threads[i].start();
+            }
+        }
+
+        @Override
+        public long run() throws Exception {
+            // releases all the worker threads
+            barrier.waitForRelease();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            if (failed) {
+                throw new Exception("failed to create a global reference");
+            }
+            return defaultResult;
+        }
+
+        class Worker implements Runnable {
+            private final Object object = new Object();
+
+            public void run() {
+                barrier.waitForRelease();
+                for (int i = 0; i < nrCalls; i++) {
+                    if (createDeleteGlobalRefs(object, nrRefs, weak) != nrRefs) {
+                        failed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        RunBench.runTest(JNI_globalRefs.class, args);
+    }
+}
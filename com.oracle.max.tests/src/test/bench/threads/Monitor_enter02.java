@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.threads;
+
+import test.bench.util.*;
+
+/**
+ * Recursive, uncontended locking of the same object, as in a {@code synchronized} method calling another one on
+ * the same receiver. Exercises the recursion count update of the inline lock word fast paths.
+ */
+public class Monitor_enter02 extends RunBench {
+    static int count;
+
+    protected Monitor_enter02() {
+        super(new Bench(), new EncapBench());
+    }
+
+    public static boolean test(int i) {
+        return new Monitor_enter02().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+
+        @Override
+        public long run() {
+            synchronized (this) {
+                synchronized (this) {
+                    count++;
+                }
+            }
+            return defaultResult;
+        }
+    }
+
+    static class EncapBench extends MicroBenchmark {
+        @Override
+        public long run() {
+            count++;
+            return defaultResult;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        test(0);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.threads;
+
+import java.util.*;
+
+import test.bench.util.*;
+
+/**
+ * Mixes identity hashing and locking on shared objects, as done by caches that key an {@link IdentityHashMap}
+ * on objects that are also used as locks. Each worker thread first synchronizes on its own slice of objects,
+ * biasing them to itself under a biased locking scheme. Once all workers have done so, each one puts the
+ * objects of its neighbour's slice into an {@link IdentityHashMap} and synchronizes on them. The first hash of
+ * an object biased to another thread is the case that forces a bias revocation unless hashes are installed
+ * when the bias is acquired (see {@code -XX:+HashOnBias}).
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value THREADS_PROPERTY}: the number of worker threads, default {@value DEFAULT_THREADS}
+ * <li>{@value OBJECTS_PROPERTY}: the number of objects per thread, default {@value DEFAULT_OBJECTS}
+ * <li>{@value LOCKS_PROPERTY}: the number of times each object is locked in each phase, default {@value DEFAULT_LOCKS}
+ * </ul>
+ */
+public class Monitor_hashLocked extends RunBench {
+
+    protected Monitor_hashLocked() {
+        super(new Bench());
+    }
+
+    public static boolean test() {
+        return new Monitor_hashLocked().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+        private static final int DEFAULT_THREADS = 4;
+        private static final int DEFAULT_OBJECTS = 10000;
+        private static final int DEFAULT_LOCKS = 10;
+        private static final String THREADS_PROPERTY = "test.bench.threads.monitor.hashlocked.threads";
+        private static final String OBJECTS_PROPERTY = "test.bench.threads.monitor.hashlocked.objects";
+        private static final String LOCKS_PROPERTY = "test.bench.threads.monitor.hashlocked.locks";
+
+        private final int nrThreads;
+        private final int nrObjects;
+        private final int nrLocks;
+        private Object[][] objects;
+        private Thread[] threads;
+        private volatile boolean failed;
+        private Barrier startBarrier;
+        private Barrier hashBarrier;
+
+        Bench() {
+            nrThreads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+            nrObjects = Integer.getInteger(OBJECTS_PROPERTY, DEFAULT_OBJECTS);
+            nrLocks = Integer.getInteger(LOCKS_PROPERTY, DEFAULT_LOCKS);
+        }
+
+        @Override
+        public void prerun() {
+            startBarrier = new Barrier(nrThreads + 1);
+            hashBarrier = new Barrier(nrThreads);
+            objects = new Object[nrThreads][nrObjects];
+            for (int i = 0; i < nrThreads; i++) {
+                for (int j = 0; j < nrObjects; j++) {
+                    objects[i][j] = new Object();
+                }
+            }
+            threads = new Thread[nrThreads];
+            for (int i = 0; i < nrThreads; i++) {
+                threads[i] = new Thread(new Worker(i), "MonitorHashLocked-" + i);
+                threads[i].start();
+            }
+        }
+
+        @Override
+        public long run() throws Exception {
+            // releases all the worker threads
+            startBarrier.waitForRelease();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            if (failed) {
+                throw new Exception("identity hash code changed while locking");
+            }
+            return defaultResult;
+        }
+
+        class Worker implements Runnable {
+            private final int id;
+            private int count;
+
+            Worker(int id) {
+                this.id = id;
+            }
+
+            public void run() {
+                startBarrier.waitForRelease();
+                final Object[] own = objects[id];
+                for (Object object : own) {
+                    lock(object);
+                }
+                hashBarrier.waitForRelease();
+                final Object[] neighbour = objects[(id + 1) % nrThreads];
+                final Map<Object, Integer> cache = new IdentityHashMap<Object, Integer>(nrObjects);
+                for (Object object : neighbour) {
+                    cache.put(object, System.identityHashCode(object));
+                    lock(object);
+                }
+                for (Object object : neighbour) {
+                    if (cache.get(object) != System.identityHashCode(object)) {
+                        failed = true;
+                    }
+                }
+            }
+
+            private void lock(Object object) {
+                for (int i = 0; i < nrLocks; i++) {
+                    synchronized (object) {
+                        count++;
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        RunBench.runTest(Monitor_hashLocked.class, args);
+    }
+}
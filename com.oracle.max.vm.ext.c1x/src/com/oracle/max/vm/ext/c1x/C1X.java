@@ -51,6 +51,7 @@ import com.sun.max.vm.compiler.*;
 import com.sun.max.vm.compiler.deopt.*;
 import com.sun.max.vm.compiler.deps.*;
 import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.methodhandle.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.thread.*;
 
@@ -256,6 +257,10 @@ public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
             DebugInfoLevel debugInfoLevel = method.isTemplate() ? DebugInfoLevel.REF_MAPS : DebugInfoLevel.FULL;
             compiledMethod = compiler().compileMethod(method, -1, stats, debugInfoLevel).targetMethod();
 
+            if (!CallSiteDependencies.validate(compiledMethod.assumptions())) {
+                // A call site target folded into the code has since changed.
+                continue;
+            }
             Dependencies deps = Dependencies.validateDependencies(compiledMethod.assumptions());
             if (deps != Dependencies.INVALID) {
                 if (C1XOptions.PrintTimers) {
@@ -265,6 +270,16 @@ public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
                 if (C1XOptions.PrintTimers) {
                     C1XTimers.INSTALL.stop();
                 }
+                if (!CallSiteDependencies.register(compiledMethod.assumptions(), maxTargetMethod)) {
+                    // A call site target folded into the code changed while the code was being installed.
+                    // The code was never published, but must not be mistaken for valid code either.
+                    if (install && !isHosted()) {
+                        ArrayList<TargetMethod> stale = new ArrayList<TargetMethod>(1);
+                        stale.add(maxTargetMethod);
+                        new Deoptimization(stale).go();
+                    }
+                    continue;
+                }
                 if (deps != null) {
                     Dependencies.registerValidatedTarget(deps, maxTargetMethod);
                 }
@@ -22,9 +22,14 @@
  */
 package com.oracle.max.vm.ext.c1x;
 
+import static com.sun.max.vm.MaxineVM.*;
 import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
 
+import java.lang.invoke.*;
+import java.util.*;
+
 import com.oracle.max.cri.intrinsics.*;
+import com.sun.c1x.*;
 import com.sun.c1x.graph.*;
 import com.sun.c1x.intrinsics.*;
 import com.sun.c1x.ir.*;
@@ -35,6 +40,8 @@ import com.sun.c1x.value.*;
 import com.sun.cri.bytecode.*;
 import com.sun.cri.ci.*;
 import com.sun.cri.ri.*;
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.methodhandle.*;
 import com.sun.max.vm.runtime.*;
 
 public class MaxineIntrinsicImplementations {
@@ -250,6 +257,81 @@ public class MaxineIntrinsicImplementations {
         }
     }
 
+    /**
+     * Calls the {@linkplain MaxMethodHandles#getInvokerForInvokeBasic(Object) invoker} of a constant method handle
+     * directly so that it can be inlined. Otherwise the call is dispatched through the invokeBasic stub.
+     */
+    public static class InvokeBasicIntrinsic implements C1XIntrinsicImpl {
+        @Override
+        public Value createHIR(GraphBuilder b, RiMethod target, Value[] args, boolean isStatic, FrameState stateBefore) {
+            Value methodHandle = args[0];
+            if (!isHosted() && methodHandle.isConstant() && methodHandle.asConstant().isNonNull()) {
+                b.genInvokeBound(Bytecodes.INVOKESTATIC, MaxMethodHandles.getInvokerForInvokeBasic(methodHandle.asConstant().asObject()), args);
+            } else {
+                b.genInvokeBound(Bytecodes.INVOKESPECIAL, (RiResolvedMethod) target, args);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Replaces a {@code MethodHandle.linkToXXX} call whose trailing member name argument is a constant
+     * with an invocation of the member itself.
+     */
+    public static class LinkToIntrinsic implements C1XIntrinsicImpl {
+        /**
+         * The invoke bytecode equivalent to the linkTo method.
+         */
+        public final int opcode;
+
+        public LinkToIntrinsic(int opcode) {
+            this.opcode = opcode;
+        }
+
+        @Override
+        public Value createHIR(GraphBuilder b, RiMethod target, Value[] args, boolean isStatic, FrameState stateBefore) {
+            Value memberName = args[args.length - 1];
+            if (isHosted() || !memberName.isConstant() || memberName.asConstant().isNull()) {
+                throw new CiBailout("Unsupported " + target.name() + " with non-constant member name");
+            }
+            VMTarget vmTarget = VMTarget.fromMemberName(memberName.asConstant().asObject());
+            if (vmTarget == null || !vmTarget.isMethod()) {
+                throw new CiBailout("Unsupported " + target.name() + " with unresolved member name");
+            }
+            MethodActor method = (MethodActor) vmTarget.getVmTarget();
+            if (opcode == Bytecodes.INVOKESTATIC && !method.holder().isInitialized()) {
+                throw new CiBailout("Unsupported " + target.name() + " to " + method + " in uninitialized class");
+            }
+            b.genInvokeBound(opcode, method, Arrays.copyOf(args, args.length - 1));
+            return null;
+        }
+    }
+
+    /**
+     * Folds {@code Invokers.getCallSiteTarget} for a constant call site. Unless the call site is a
+     * {@link ConstantCallSite}, the folded target is recorded as an assumption so that the compiled code
+     * is deoptimized when the call site is {@linkplain CallSiteDependencies#setTarget relinked}.
+     */
+    public static class CallSiteTargetIntrinsic implements C1XIntrinsicImpl {
+        @Override
+        public Value createHIR(GraphBuilder b, RiMethod target, Value[] args, boolean isStatic, FrameState stateBefore) {
+            Value site = args[0];
+            if (!isHosted() && site.isConstant() && site.asConstant().isNonNull()) {
+                CallSite callSite = (CallSite) site.asConstant().asObject();
+                if (callSite instanceof ConstantCallSite) {
+                    return b.append(Constant.forObject(callSite.getTarget()));
+                }
+                if (C1XOptions.UseAssumptions) {
+                    MethodHandle methodHandle = callSite.getTarget();
+                    b.compilation.assumptions.recordCallSiteTargetValue(callSite, methodHandle);
+                    return b.append(Constant.forObject(methodHandle));
+                }
+            }
+            b.genInvokeBound(Bytecodes.INVOKESTATIC, (RiResolvedMethod) target, args);
+            return null;
+        }
+    }
+
     public static void initialize(IntrinsicImpl.Registry registry) {
         registry.add(LSB, new BitIntrinsic(LIROpcode.Lsb));
         registry.add(MSB, new BitIntrinsic(LIROpcode.Msb));
@@ -276,5 +358,12 @@ public class MaxineIntrinsicImplementations {
         registry.add(ALLOCA, new AllocaIntrinsic());
 
         registry.add(CMP_BYTECODE, new CompareBytecodeIntrinsic());
+
+        registry.add(IntrinsicIDs.INVOKEBASIC, new InvokeBasicIntrinsic());
+        registry.add(IntrinsicIDs.LINKTOSTATIC, new LinkToIntrinsic(Bytecodes.INVOKESTATIC));
+        registry.add(IntrinsicIDs.LINKTOSPECIAL, new LinkToIntrinsic(Bytecodes.INVOKESPECIAL));
+        registry.add(IntrinsicIDs.LINKTOVIRTUAL, new LinkToIntrinsic(Bytecodes.INVOKEVIRTUAL));
+        registry.add(IntrinsicIDs.LINKTOINTERFACE, new LinkToIntrinsic(Bytecodes.INVOKEINTERFACE));
+        registry.add("java.lang.invoke.Invokers", "getCallSiteTarget", "(Ljava/lang/Object;)Ljava/lang/invoke/MethodHandle;", new CallSiteTargetIntrinsic());
     }
 }
@@ -114,7 +114,7 @@ public class MaxConstantPool implements ConstantPool {
 
     @Override
     public Object lookupAppendix(int cpi, int opcode) {
-        return null;
+        return riConstantPool.lookupAppendix(cpi, opcode);
     }
 
     @Override
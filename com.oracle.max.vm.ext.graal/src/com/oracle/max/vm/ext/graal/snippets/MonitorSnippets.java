@@ -52,6 +52,9 @@ import com.sun.max.vm.runtime.*;
  * inside Maxine's monitor implementation and we cannot trivially insert code that creates Graal nodes there.
  * For now we do the null check in the snippet, then introduce a {@link BeginLockScopeNode} and then invoke
  * {@link Monitor#enter}.
+ * <p>
+ * The uncontended thin or biased lock word update of the scheme is inlined via {@link Monitor#tryFastEnter} and
+ * {@link Monitor#tryFastExit}; only if that fails do we call out to the full scheme implementation.
   *
  */
 public class MonitorSnippets extends SnippetLowerings {
@@ -111,7 +114,9 @@ public class MonitorSnippets extends SnippetLowerings {
             throw UnreachableNode.unreachable();
         }
         BeginLockScopeNode.beginLockScope(true);
-        Monitor.enter(receiver);
+        if (!Monitor.tryFastEnter(receiver)) {
+            Monitor.noninlineEnter(receiver);
+        }
     }
 
     protected class MonitorExitLowering extends MonitorLowering implements LoweringProvider<MonitorExitNode> {
@@ -129,7 +134,9 @@ public class MonitorSnippets extends SnippetLowerings {
 
     @Snippet(inlining = MaxSnippetInliningPolicy.class)
     private static void monitorExitSnippet(Object receiver) {
-        Monitor.exit(receiver);
+        if (receiver != null && !Monitor.tryFastExit(receiver)) {
+            Monitor.noninlineExit(receiver);
+        }
         EndLockScopeNode.endLockScope();
     }
 
@@ -320,6 +320,17 @@ public interface JJVMTI {
         int heapIterationMax(Object object, Object userData);
     }
 
+    /**
+     * A Maxine-specific alternative to {@link HeapCallbacks} that is passed the objects in batches.
+     */
+    public interface HeapBatchCallbacks {
+        /**
+         * Visits {@code objects[0 .. count - 1]}. The array is reused for the next batch so must not be retained.
+         * @return visit control flags, only {@link JVMTIConstants#JVMTI_VISIT_ABORT} is significant
+         */
+        int heapIterationBatch(Object[] objects, int count, Object userData);
+    }
+
     /*
      * The following methods are independent of Class, Field and Method types.
      */
@@ -478,6 +489,12 @@ public interface JJVMTI {
      */
     void iterateThroughHeapMax(int filter, ClassActor classActor, HeapCallbacks heapCallbacks, Object userData) throws JJVMTIException;
 
+    /**
+     * Maxine-specific version invokes {@link HeapBatchCallbacks#heapIterationBatch(Object[], int, Object)}.
+     */
+    @JJVMTI_FUNCTION(cap = CAN_TAG_OBJECTS)
+    void iterateThroughHeapBatch(int filter, ClassActor classActor, HeapBatchCallbacks heapBatchCallbacks, Object userData) throws JJVMTIException;
+
     void disposeEnvironment() throws JJVMTIException;
 
     String getErrorName(int error) throws JJVMTIException;
@@ -827,5 +827,11 @@ public class JJVMTIAgentAdapter extends JJVMTIAgentAdapterChecker implements JJV
         JVMTIHeapFunctions.iterateThroughHeapMax(env, filter, classActor, heapCallbacks, userData);
     }
 
+    @Override
+    public void iterateThroughHeapBatch(int filter, ClassActor classActor, HeapBatchCallbacks heapBatchCallbacks, Object userData) throws JJVMTIException {
+        super.iterateThroughHeapBatch(filter, classActor, heapBatchCallbacks, userData);
+        JVMTIHeapFunctions.iterateThroughHeapBatch(env, filter, classActor, heapBatchCallbacks, userData);
+    }
+
 
 }
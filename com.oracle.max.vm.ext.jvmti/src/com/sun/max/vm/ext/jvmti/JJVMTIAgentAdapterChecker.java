@@ -625,6 +625,11 @@ public class JJVMTIAgentAdapterChecker implements JJVMTI {
         checkCap(CAN_TAG_OBJECTS);
     }
 
+    @Override
+    public void iterateThroughHeapBatch(int arg0, ClassActor arg1, HeapBatchCallbacks arg2, Object arg3) {
+        checkCap(CAN_TAG_OBJECTS);
+    }
+
     @Override
     public void iterateThroughHeapMax(int arg0, ClassActor arg1, HeapCallbacks arg2, Object arg3) {
     }
@@ -35,12 +35,18 @@ import com.sun.max.vm.layout.*;
 import com.sun.max.vm.object.*;
 import com.sun.max.vm.reference.*;
 import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.thread.*;
 
 /**
  * All the JVMTI functions that relate to the heap.
  */
 public class JVMTIHeapFunctions {
 
+    /**
+     * The number of objects passed in each call of {@link JJVMTI.HeapBatchCallbacks#heapIterationBatch}.
+     */
+    static final int BATCH_SIZE = 1024;
+
     /**
      * * Must be consistent with {@code struct jvmtiHeapCallbacks} in jvmti.c.
      */
@@ -65,23 +71,34 @@ public class JVMTIHeapFunctions {
     /** A {@link VmOperation} that prevents any allocgtion while we walk the heap.
      * We don't care about the threads, just that they are blocked, so we
      * override the {@link VmOperation#doIt} method.
+     * If {@link JVMTIHeapWalker#threadsOption} is greater than one the heap is walked by several threads,
+     * each with its own visitor, and the tags set during the walk are only applied once it is complete.
      */
     static class IterateThroughHeapVmOperation extends VmOperation {
-        private final CBCV cbcv;
+        private final CBCV[] cbcvs;
+        private final JVMTIHeapWalker walker;
 
         abstract class CBCV extends CallbackCellVisitor {
             protected final JVMTI.Env env;
             protected final int heapFilter;
-            protected final Class klass;
+            protected final Class<?> klass;
+            /**
+             * The hub of {@link #klass}, used to skip objects of other classes cheaply.
+             */
+            private final Hub klassHub;
 
-            CBCV(JVMTI.Env env, int heapFilter, Class klass) {
+            CBCV(JVMTI.Env env, int heapFilter, Class<?> klass) {
                 this.env = env;
                 this.heapFilter = heapFilter;
                 this.klass = klass;
+                this.klassHub = klass == null ? null : ClassActor.fromJava(klass).dynamicHub();
             }
 
             @Override
             protected boolean callback(Object object) {
+                if (klassHub != null && ObjectAccess.readHub(object) != klassHub) {
+                    return true;
+                }
                 ClassActor classActor = ObjectAccess.readClassActor(object);
                 ClassActorProxy proxyClassActor = ClassActorProxy.asClassActorProxy(classActor);
 
@@ -90,7 +107,7 @@ public class JVMTIHeapFunctions {
                  * we check the field in classActor directly and observe that such
                  * an object cannot have been tagged, otherwise its class mirror would be set.
                  */
-                Class objectClass = proxyClassActor.javaClass == null ? null : proxyClassActor.javaClass;
+                Class<?> objectClass = proxyClassActor.javaClass == null ? null : proxyClassActor.javaClass;
 
                 if (klass != null && objectClass != klass)  {
                     return true;
@@ -122,14 +139,20 @@ public class JVMTIHeapFunctions {
                 return true;
             }
 
-            protected abstract int doCallback(Object object, Class objectClass);
+            protected abstract int doCallback(Object object, Class<?> objectClass);
+
+            /**
+             * Called when the walk is complete.
+             */
+            protected void flush() {
+            }
         }
 
         class CBCVNative extends CBCV {
             private final Pointer callbacks;
             private final Word userData;
 
-            CBCVNative(JVMTI.Env env, int heapFilter, Class klass, Pointer callbacks, Word userData) {
+            CBCVNative(JVMTI.Env env, int heapFilter, Class<?> klass, Pointer callbacks, Word userData) {
                 super(env, heapFilter, klass);
                 this.callbacks = callbacks;
                 this.userData = userData;
@@ -137,7 +160,7 @@ public class JVMTIHeapFunctions {
             }
 
             @Override
-            protected int doCallback(Object object, Class objectClass) {
+            protected int doCallback(Object object, Class<?> objectClass) {
                 Pointer tagPtr = Intrinsics.alloca(Word.size(), false);
                 Reference objectRef = Reference.fromJava(object);
                 Word heapIterationCallback = HeapCallbacks.HEAP_ITERATION.getCallback(callbacks);
@@ -166,14 +189,14 @@ public class JVMTIHeapFunctions {
             protected final JJVMTI.HeapCallbacks heapCallbacks;
             protected final Object userData;
 
-            CBCVJava(JVMTI.Env env, int heapFilter, Class klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData) {
+            CBCVJava(JVMTI.Env env, int heapFilter, Class<?> klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData) {
                 super(env, heapFilter, klass);
                 this.heapCallbacks = heapCallbacks;
                 this.userData = userData;
             }
 
             @Override
-            protected int doCallback(Object object, Class objectClass) {
+            protected int doCallback(Object object, Class<?> objectClass) {
                 Reference objectRef = Reference.fromJava(object);
                 return heapCallbacks.heapIteration(objectClass == null ? 0 : env.tags.getObjectTag(objectClass),
                                 Layout.size(objectRef).toInt(), env.tags.getObjectTag(object), Layout.isArray(objectRef) ? Layout.readArrayLength(objectRef) : -1, objectClass);
@@ -181,30 +204,105 @@ public class JVMTIHeapFunctions {
         }
 
         class CBCVJavaMax extends CBCVJava {
-            CBCVJavaMax(JVMTI.Env env, int heapFilter, Class klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData) {
+            CBCVJavaMax(JVMTI.Env env, int heapFilter, Class<?> klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData) {
                 super(env, heapFilter, klass, heapCallbacks, userData);
             }
 
             @Override
-            protected int doCallback(Object object, Class objectClass) {
+            protected int doCallback(Object object, Class<?> objectClass) {
                 return heapCallbacks.heapIterationMax(object, userData);
             }
         }
 
 
-        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class klass, Pointer callbacks, Word userData) {
+        /**
+         * Passes the objects to the agent in batches. The batch array is reused, so the agent must not retain it.
+         */
+        class CBCVJavaBatch extends CBCV {
+            private final JJVMTI.HeapBatchCallbacks heapBatchCallbacks;
+            private final Object userData;
+            private final Object[] batch = new Object[BATCH_SIZE];
+            private int count;
+
+            CBCVJavaBatch(JVMTI.Env env, int heapFilter, Class<?> klass, JJVMTI.HeapBatchCallbacks heapBatchCallbacks, Object userData) {
+                super(env, heapFilter, klass);
+                this.heapBatchCallbacks = heapBatchCallbacks;
+                this.userData = userData;
+            }
+
+            @Override
+            protected int doCallback(Object object, Class<?> objectClass) {
+                batch[count++] = object;
+                if (count == batch.length) {
+                    return deliver();
+                }
+                return 0;
+            }
+
+            @Override
+            protected void flush() {
+                if (count > 0) {
+                    deliver();
+                }
+            }
+
+            private int deliver() {
+                final int flags = heapBatchCallbacks.heapIterationBatch(batch, count, userData);
+                for (int i = 0; i < count; i++) {
+                    batch[i] = null;
+                }
+                count = 0;
+                return flags;
+            }
+        }
+
+        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class<?> klass, Pointer callbacks, Word userData) {
             super("JVMTI_IterateThroughHeap", null, Mode.Safepoint, false);
-            this.cbcv = new CBCVNative(env, heapFilter, klass, callbacks, userData);
+            this.walker = walker();
+            this.cbcvs = new CBCV[threadCount(walker)];
+            for (int i = 0; i < cbcvs.length; i++) {
+                cbcvs[i] = new CBCVNative(env, heapFilter, klass, callbacks, userData);
+            }
         }
 
-        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData) {
+        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class<?> klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData) {
             super("JVMTI_IterateThroughHeap", null, Mode.Safepoint, false);
-            this.cbcv = new CBCVJava(env, heapFilter, klass, heapCallbacks, userData);
+            this.walker = walker();
+            this.cbcvs = new CBCV[threadCount(walker)];
+            for (int i = 0; i < cbcvs.length; i++) {
+                cbcvs[i] = new CBCVJava(env, heapFilter, klass, heapCallbacks, userData);
+            }
         }
 
-        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData, boolean max) {
+        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class<?> klass, JJVMTI.HeapCallbacks heapCallbacks, Object userData, boolean max) {
             super("JVMTI_IterateThroughHeapMax", null, Mode.Safepoint, false);
-            this.cbcv = new CBCVJavaMax(env, heapFilter, klass, heapCallbacks, userData);
+            this.walker = walker();
+            this.cbcvs = new CBCV[threadCount(walker)];
+            for (int i = 0; i < cbcvs.length; i++) {
+                cbcvs[i] = new CBCVJavaMax(env, heapFilter, klass, heapCallbacks, userData);
+            }
+        }
+
+        IterateThroughHeapVmOperation(JVMTI.Env env, int heapFilter, Class<?> klass, JJVMTI.HeapBatchCallbacks heapBatchCallbacks, Object userData) {
+            super("JVMTI_IterateThroughHeapBatch", null, Mode.Safepoint, false);
+            this.walker = walker();
+            this.cbcvs = new CBCV[threadCount(walker)];
+            for (int i = 0; i < cbcvs.length; i++) {
+                cbcvs[i] = new CBCVJavaBatch(env, heapFilter, klass, heapBatchCallbacks, userData);
+            }
+        }
+
+        private static JVMTIHeapWalker walker() {
+            return JVMTIHeapWalker.threadCount() > 1 ? JVMTIHeapWalker.get() : null;
+        }
+
+        private static int threadCount(JVMTIHeapWalker walker) {
+            return walker == null ? 1 : JVMTIHeapWalker.threadCount();
+        }
+
+        @Override
+        protected boolean operateOnThread(VmThread thread) {
+            return walker == null || !JVMTIHeapWalker.isWorker(thread);
         }
 
         @Override
@@ -216,14 +314,28 @@ public class JVMTIHeapFunctions {
             // TODO revisit this when Maxine addresses VM and application heap separation
             try {
                 Heap.enableImmortalMemoryAllocation();
-                vmConfig().heapScheme().walkHeap(cbcv);
+                if (walker == null) {
+                    vmConfig().heapScheme().walkHeap(cbcvs[0]);
+                } else {
+                    // the visitors read the tags without synchronization, so the table must not change
+                    final JVMTITags tags = cbcvs[0].env.tags;
+                    tags.deferUpdates();
+                    try {
+                        walker.walk(cbcvs);
+                    } finally {
+                        tags.applyDeferredUpdates();
+                    }
+                }
+                for (CBCV cbcv : cbcvs) {
+                    cbcv.flush();
+                }
             } finally {
                 Heap.disableImmortalMemoryAllocation();
             }
         }
     }
 
-    static int iterateThroughHeap(JVMTI.Env jvmtiEnv, int heapFilter, Class klass, Pointer callbacks, Pointer userData) {
+    static int iterateThroughHeap(JVMTI.Env jvmtiEnv, int heapFilter, Class<?> klass, Pointer callbacks, Pointer userData) {
         IterateThroughHeapVmOperation op = new IterateThroughHeapVmOperation(jvmtiEnv, heapFilter, klass, callbacks, userData);
         op.submit();
         return JVMTI_ERROR_NONE;
@@ -239,4 +351,9 @@ public class JVMTIHeapFunctions {
         op.submit();
     }
 
+    static void iterateThroughHeapBatch(JVMTI.Env jvmtiEnv, int heapFilter, ClassActor klass, JJVMTI.HeapBatchCallbacks heapBatchCallbacks, Object userData) {
+        IterateThroughHeapVmOperation op = new IterateThroughHeapVmOperation(jvmtiEnv, heapFilter, klass == null ? null : klass.toJava(), heapBatchCallbacks, userData);
+        op.submit();
+    }
+
 }
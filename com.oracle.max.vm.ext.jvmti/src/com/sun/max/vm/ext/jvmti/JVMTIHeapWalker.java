@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.ext.jvmti;
+
+import static com.sun.max.vm.VMConfiguration.*;
+
+import java.util.concurrent.atomic.*;
+
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.heap.debug.*;
+import com.sun.max.vm.layout.*;
+import com.sun.max.vm.monitor.modal.sync.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * Walks the heap on several threads for {@link JVMTIHeapFunctions.IterateThroughHeapVmOperation}.
+ *
+ * The heap is first walked sequentially using {@link HeapScheme#walkHeap}, without any callbacks, recording the
+ * bounds of contiguous chunks of about {@link #chunkSize} bytes. This only reads object headers and is much
+ * cheaper than the callbacks. The chunks are then claimed, in order, by the VM operation thread and
+ * {@link #threadsOption worker threads}, each walking its chunks with its own visitor. The worker threads are
+ * excluded from the freeze of the VM operation, see {@link #isWorker(VmThread)}, so the heap cannot change while
+ * they run. Note that this means that the agent callbacks are invoked concurrently, so the option should only be
+ * used with agents that are prepared for that.
+ *
+ * If the heap scheme does not support {@link HeapScheme#walkHeap} nothing is visited, as in the sequential case.
+ */
+final class JVMTIHeapWalker {
+
+    static final VMIntOption threadsOption = VMOptions.register(new VMIntOption("-XX:JVMTIHeapIterationThreads=", 1,
+                    "Number of threads used to iterate through the heap for JVMTI agents (callbacks may be concurrent)."),
+                    MaxineVM.Phase.STARTING);
+
+    private static final int INITIAL_CHUNK_SIZE = 1024 * 1024;
+    private static final int MAX_CHUNKS = 8192;
+
+    private static JVMTIHeapWalker walker;
+
+    /**
+     * Gets the number of threads to use for a heap iteration, including the VM operation thread.
+     */
+    static int threadCount() {
+        return Math.max(1, threadsOption.getValue());
+    }
+
+    static boolean isWorker(VmThread vmThread) {
+        return vmThread.javaThread() instanceof Worker;
+    }
+
+    /**
+     * Gets the walker, creating it and starting its threads if necessary. Must be called before the VM operation.
+     */
+    static synchronized JVMTIHeapWalker get() {
+        if (walker == null) {
+            walker = new JVMTIHeapWalker(threadCount() - 1);
+        }
+        return walker;
+    }
+
+    private final Object lock = JavaMonitorManager.bindStickyMonitor(new Object());
+    private final Worker[] workers;
+    private final long[] starts = new long[MAX_CHUNKS];
+    private final long[] ends = new long[MAX_CHUNKS];
+    private int chunkCount;
+    private long chunkSize;
+    private boolean overflow;
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private volatile boolean aborted;
+    private CallbackCellVisitor[] visitors;
+    private int generation;
+    private int running;
+    private int waiting;
+
+    private JVMTIHeapWalker(int workerCount) {
+        workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(this, i + 1);
+            workers[i].start();
+        }
+        // the workers are not frozen by the VM operation, so they must be idle before it starts
+        synchronized (lock) {
+            while (waiting != workerCount) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the heap using the given visitors, one for the current (VM operation) thread and one for each worker thread.
+     */
+    void walk(CallbackCellVisitor[] visitors) {
+        assert visitors.length == workers.length + 1;
+        aborted = false;
+        recordChunks();
+        if (overflow || workers.length == 0) {
+            // too many discontiguous regions (or no workers), walk sequentially
+            vmConfig().heapScheme().walkHeap(visitors[0]);
+            return;
+        }
+        nextChunk.set(0);
+        synchronized (lock) {
+            this.visitors = visitors;
+            running = workers.length;
+            generation++;
+            lock.notifyAll();
+        }
+        walkChunks(visitors[0]);
+        synchronized (lock) {
+            while (running != 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                }
+            }
+            this.visitors = null;
+        }
+    }
+
+    private void walkChunks(CellVisitor visitor) {
+        int chunk;
+        while (!aborted && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+            final Pointer start = Pointer.fromLong(starts[chunk]);
+            final Pointer end = Pointer.fromLong(ends[chunk]);
+            Pointer cell = start;
+            while (cell.lessThan(end)) {
+                cell = DebugHeap.checkDebugCellTag(start, cell);
+                cell = visitor.visitCell(cell);
+                if (cell.isZero()) {
+                    aborted = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void recordChunks() {
+        chunkCount = 0;
+        chunkSize = INITIAL_CHUNK_SIZE;
+        overflow = false;
+        vmConfig().heapScheme().walkHeap(chunkRecorder);
+    }
+
+    /**
+     * Records a cell in the current chunk, or starts a new chunk if the cell does not immediately follow
+     * the current chunk or the current chunk is full.
+     */
+    private final CallbackCellVisitor chunkRecorder = new CallbackCellVisitor() {
+        @Override
+        protected boolean callback(Object object) {
+            return true;
+        }
+
+        @Override
+        public Pointer visitCell(Pointer cell) {
+            final Pointer next = cell.plus(Layout.size(Layout.cellToOrigin(cell)));
+            final long start = DebugHeap.isTagging() ? cell.minus(Word.size()).toLong() : cell.toLong();
+            final int last = chunkCount - 1;
+            if (last >= 0 && ends[last] == start && ends[last] - starts[last] < chunkSize) {
+                ends[last] = next.toLong();
+            } else {
+                if (chunkCount == MAX_CHUNKS && !coalesce()) {
+                    overflow = true;
+                    return Pointer.zero();
+                }
+                starts[chunkCount] = start;
+                ends[chunkCount] = next.toLong();
+                chunkCount++;
+            }
+            return next;
+        }
+    };
+
+    /**
+     * Merges adjacent pairs of contiguous chunks and doubles the chunk size.
+     *
+     * @return {@code false} if no chunks could be merged
+     */
+    private boolean coalesce() {
+        int j = 0;
+        int i = 0;
+        while (i < chunkCount) {
+            starts[j] = starts[i];
+            if (i + 1 < chunkCount && ends[i] == starts[i + 1]) {
+                ends[j] = ends[i + 1];
+                i += 2;
+            } else {
+                ends[j] = ends[i];
+                i++;
+            }
+            j++;
+        }
+        chunkCount = j;
+        chunkSize *= 2;
+        return j < MAX_CHUNKS;
+    }
+
+    private static final class Worker extends Thread {
+        private final JVMTIHeapWalker walker;
+        private final int index;
+
+        Worker(JVMTIHeapWalker walker, int index) {
+            super("JVMTIHeapWorker-" + index);
+            setDaemon(true);
+            this.walker = walker;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            final Object lock = walker.lock;
+            int seen = 0;
+            while (true) {
+                CellVisitor visitor;
+                synchronized (lock) {
+                    if (seen == 0) {
+                        walker.waiting++;
+                        lock.notifyAll();
+                    }
+                    while (walker.generation == seen) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException ex) {
+                        }
+                    }
+                    seen = walker.generation;
+                    visitor = walker.visitors[index];
+                }
+                try {
+                    // see IterateThroughHeapVmOperation.doIt
+                    Heap.enableImmortalMemoryAllocation();
+                    walker.walkChunks(visitor);
+                } finally {
+                    Heap.disableImmortalMemoryAllocation();
+                    synchronized (lock) {
+                        if (--walker.running == 0) {
+                            lock.notifyAll();
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
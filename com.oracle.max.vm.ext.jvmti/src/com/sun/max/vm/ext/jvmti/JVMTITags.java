@@ -22,251 +22,269 @@
  */
 package com.sun.max.vm.ext.jvmti;
 
-import java.lang.ref.*;
-import java.util.*;
-
 import static com.sun.max.vm.ext.jvmti.JVMTIConstants.*;
 
+import java.util.*;
+
+import com.sun.max.annotate.*;
 import com.sun.max.memory.*;
 import com.sun.max.unsafe.*;
+import com.sun.max.vm.heap.*;
 import com.sun.max.vm.jni.*;
+import com.sun.max.vm.reference.*;
 
 /**
- * JVMTI object tagging support. The tag map is allocated lazily. We cannot use a standard {@link WeakHashMap} because
- * that invokes the class-specific {@link Object#hashCode()} method, which can have all kinds of inappropriate side
- * effects. Plus we only need a handful of the standard {@link Map} methods.
+ * JVMTI object tagging support.
  *
- * We support {@link Object} (for JJVMTI) and {@code long} values, not via {@link Long} to avoid unnecessary allocation.
+ * The tags are held in an open addressed (linear probing) side table keyed by the address of the tagged object.
+ * The table refers to the objects weakly without using {@link java.lang.ref.Reference} objects, so that tagging
+ * a large number of objects does not create work for reference discovery. Instead the table is a
+ * {@link SpecialReferenceManager.WeakTable} which the collectors update in place: entries for unreachable objects
+ * are deleted and the addresses of moved objects are updated. The slot of an entry is derived from the
+ * {@linkplain System#identityHashCode(Object) identity hash} of the object, which is recorded with the entry and
+ * does not change when the object moves, so no rehashing is needed during GC.
  *
+ * The probes that compare object addresses with the table entries must not be interrupted by a GC and
+ * are therefore compiled without safepoint polls. Everything else relies on the fact that, as long as
+ * the caller holds a reference to the object, the index of its entry does not change.
+ *
+ * We support {@link Object} (for JJVMTI) and {@code long} values, not via {@link Long} to avoid unnecessary allocation.
+ * Which is in use is determined by the first tag that is set. The value 0 (or {@code null}) means not tagged.
  */
-class JVMTITags {
+class JVMTITags implements SpecialReferenceManager.WeakTable {
 
     /**
-     * A cut down and modified version of {@link WeakHashMap}.
-     * The value 0 is not allowed, and used to mean lookup failure.
+     * An address value denoting an unused slot.
      */
-    static class Map {
-        static abstract class Entry extends WeakReference<Object> {
-            final int hash;
-            Entry next;
-
-            Entry(Object object, int hash, Entry next) {
-                super(object);
-                this.hash = hash;
-                this.next = next;
-            }
+    private static final long EMPTY = 0;
 
-        }
+    /**
+     * An address value denoting a deleted entry. Object addresses are aligned so this is never a valid address.
+     */
+    private static final long DELETED = 1;
 
-        static class LongEntry extends Entry {
-            long value;
-            LongEntry(Object object, long value, int hash, Entry next) {
-                super(object, hash, next);
-                this.value = value;
-            }
+    private static final int INITIAL_CAPACITY = 64;
 
-        }
+    /**
+     * Multiplier used to spread the identity hash codes.
+     */
+    private static final int SPREAD = 0x9E3779B9;
 
-        static class ObjectEntry extends Entry {
-            Object value;
-            ObjectEntry(Object object, Object value, int hash, Entry next) {
-                super(object, hash, next);
-                this.value = value;
-            }
-        }
+    /**
+     * The object addresses, {@link #EMPTY} or {@link #DELETED}.
+     */
+    private long[] addresses;
 
-        private static final int DEFAULT_INITIAL_CAPACITY = 16;
-        private static final int MAXIMUM_CAPACITY = 1 << 30;
-        private static final float DEFAULT_LOAD_FACTOR = 0.75f;
-        private int size;
-        private int threshold;
-        private final float loadFactor;
-        private Entry[] table;
-
-        private Entry[] getTable() {
-            // expungeStaleEntries(); TODO
-            return table;
-        }
+    /**
+     * The spread identity hash codes of the objects.
+     */
+    private int[] hashes;
 
-        Map(boolean isNative) {
-            this.loadFactor = DEFAULT_LOAD_FACTOR;
-            threshold = DEFAULT_INITIAL_CAPACITY;
-            if (isNative) {
-                table = new LongEntry[DEFAULT_INITIAL_CAPACITY];
-            } else {
-                table = new ObjectEntry[DEFAULT_INITIAL_CAPACITY];
-            }
-        }
+    /**
+     * The tag values if the table is used by a native agent, {@code null} otherwise.
+     */
+    private long[] longTags;
 
-        static int indexFor(int h, int length) {
-            return h & (length - 1);
-        }
+    /**
+     * The tag values if the table is used by a Java agent, {@code null} otherwise.
+     */
+    private Object[] objectTags;
 
-        void put(Object key, long value) {
-            LongEntry e = (LongEntry) putCommon(key, true);
-            e.value = value;
-        }
+    /**
+     * The number of live entries.
+     */
+    private int size;
 
-        void put(Object key, Object value) {
-            ObjectEntry e = (ObjectEntry) putCommon(key, false);
-            e.value = value;
-        }
+    /**
+     * The number of slots that are not {@link #EMPTY}, i.e., live entries and deleted entries.
+     */
+    private int used;
 
-        private Entry putCommon(Object key, boolean isNative) {
-            int h = System.identityHashCode(key);
-            Entry[] tab = getTable();
-            int i = indexFor(h, tab.length);
+    private int shift;
 
-            for (Entry e = tab[i]; e != null; e = e.next) {
-                if (h == e.hash && key == e.get()) {
-                    return e;
-                }
-            }
+    /**
+     * Non-null while the updates of the table are deferred, see {@link #deferUpdates()}.
+     */
+    private Object[] deferredObjects;
 
-            Entry e = tab[i];
-            Entry ne = isNative ? new LongEntry(key, 0, h, e) : new ObjectEntry(key, null, h, e);
-            tab[i] = ne;
-            if (++size >= threshold) {
-                resize(tab.length * 2);
-            }
-            return ne;
-        }
+    private long[] deferredLongTags;
 
-        long getLong(Object key) {
-            LongEntry e = (LongEntry) getCommon(key);
-            return e == null ? 0 : e.value;
-        }
+    private Object[] deferredObjectTags;
 
-        Object getObject(Object key) {
-            ObjectEntry e = (ObjectEntry) getCommon(key);
-            return e == null ? null : e.value;
-        }
+    private int deferredCount;
 
-        private Entry getCommon(Object key) {
-            int h = System.identityHashCode(key);
-            Entry[] tab = getTable();
-            int index = indexFor(h, tab.length);
-            Entry e = tab[index];
-            while (e != null) {
-                if (e.hash == h && e.get() == key) {
-                    return e;
-                }
-                e = e.next;
+    private static int spread(Object object) {
+        return System.identityHashCode(object) * SPREAD;
+    }
+
+    @NO_SAFEPOINT_POLLS("object addresses must not change")
+    private int find(Object object, int hash) {
+        final long[] a = addresses;
+        final long address = Reference.fromJava(object).toOrigin().toLong();
+        final int mask = a.length - 1;
+        int i = hash >>> shift;
+        while (true) {
+            final long entry = a[i];
+            if (entry == address) {
+                return i;
+            }
+            if (entry == EMPTY) {
+                return -1;
             }
-            return null;
+            i = (i + 1) & mask;
         }
+    }
 
-        public void remove(Object key) {
-            int h = System.identityHashCode(key);
-            Entry[] tab = getTable();
-            int i = indexFor(h, tab.length);
-            Entry prev = tab[i];
-            Entry e = prev;
-
-            while (e != null) {
-                Entry next = e.next;
-                if (h == e.hash && key == e.get()) {
-                    size--;
-                    if (prev == e) {
-                        tab[i] = next;
-                    } else {
-                        prev.next = next;
-                    }
-                    return;
+    /**
+     * Finds the entry for {@code object}, creating it if necessary. The caller ensures there is an empty slot.
+     */
+    @NO_SAFEPOINT_POLLS("object addresses must not change")
+    private int insert(Object object, int hash) {
+        final long[] a = addresses;
+        final long address = Reference.fromJava(object).toOrigin().toLong();
+        final int mask = a.length - 1;
+        int i = hash >>> shift;
+        int free = -1;
+        while (true) {
+            final long entry = a[i];
+            if (entry == address) {
+                return i;
+            }
+            if (entry == EMPTY) {
+                if (free < 0) {
+                    free = i;
+                    used++;
                 }
-                prev = e;
-                e = next;
+                break;
             }
-        }
-
-        void resize(int newCapacity) {
-            Entry[] oldTable = getTable();
-            int oldCapacity = oldTable.length;
-            if (oldCapacity == MAXIMUM_CAPACITY) {
-                threshold = Integer.MAX_VALUE;
-                return;
+            if (entry == DELETED && free < 0) {
+                free = i;
             }
+            i = (i + 1) & mask;
+        }
+        a[free] = address;
+        hashes[free] = hash;
+        size++;
+        return free;
+    }
 
-            Entry[] newTable = new Entry[newCapacity];
-            transfer(oldTable, newTable);
-            table = newTable;
-
-            /*
-             * If ignoring null elements and processing ref queue caused massive
-             * shrinkage, then restore old table.  This should be rare, but avoids
-             * unbounded expansion of garbage-filled tables.
-             */
-            if (size >= threshold / 2) {
-                threshold = (int) (newCapacity * loadFactor);
-            } else {
-                // expungeStaleEntries();
-                transfer(newTable, oldTable);
-                table = oldTable;
-            }
+    /**
+     * Ensures that the table exists and has room for another entry.
+     */
+    private void ensureCapacity(boolean isNative) {
+        if (addresses == null) {
+            resize(INITIAL_CAPACITY, isNative);
+            SpecialReferenceManager.registerWeakTable(this);
+        } else if (used + 1 > addresses.length >> 1) {
+            // grow if mostly live entries, otherwise just purge the deleted entries
+            resize(size + 1 > addresses.length >> 2 ? addresses.length << 1 : addresses.length, longTags != null);
         }
+    }
+
+    private void resize(int capacity, boolean isNative) {
+        // allocate all the arrays before changing the table, a GC may occur
+        final long[] newAddresses = new long[capacity];
+        final int[] newHashes = new int[capacity];
+        final long[] newLongTags = isNative ? new long[capacity] : null;
+        final Object[] newObjectTags = isNative ? null : new Object[capacity];
+        install(newAddresses, newHashes, newLongTags, newObjectTags);
+    }
 
-        private void transfer(Entry[] src, Entry[] dest) {
-            for (int j = 0; j < src.length; ++j) {
-                Entry e = src[j];
-                src[j] = null;
-                while (e != null) {
-                    Entry next = e.next;
-                    Object key = e.get();
-                    if (key == null) {
-                        e.next = null;  // Help GC
-                        size--;
-                    } else {
-                        int i = indexFor(e.hash, dest.length);
-                        e.next = dest[i];
-                        dest[i] = e;
-                    }
-                    e = next;
+    /**
+     * Installs new (empty) arrays and re-inserts the live entries of the current arrays into them.
+     */
+    @NO_SAFEPOINT_POLLS("the GC must see either the old or the new table")
+    private void install(long[] newAddresses, int[] newHashes, long[] newLongTags, Object[] newObjectTags) {
+        final long[] oldAddresses = addresses;
+        final int[] oldHashes = hashes;
+        final long[] oldLongTags = longTags;
+        final Object[] oldObjectTags = objectTags;
+        addresses = newAddresses;
+        hashes = newHashes;
+        longTags = newLongTags;
+        objectTags = newObjectTags;
+        shift = 32 - Integer.numberOfTrailingZeros(newAddresses.length);
+        size = 0;
+        used = 0;
+        if (oldAddresses == null) {
+            return;
+        }
+        final int mask = newAddresses.length - 1;
+        for (int j = 0; j < oldAddresses.length; j++) {
+            final long address = oldAddresses[j];
+            if (address != EMPTY && address != DELETED) {
+                final int hash = oldHashes[j];
+                int i = hash >>> shift;
+                while (newAddresses[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                newAddresses[i] = address;
+                newHashes[i] = hash;
+                if (oldLongTags != null) {
+                    newLongTags[i] = oldLongTags[j];
+                } else {
+                    newObjectTags[i] = oldObjectTags[j];
                 }
+                size++;
+                used++;
             }
         }
+    }
 
-        static abstract class Visitor {
-            abstract void visit(Entry e);
-            Object getResult() {
-                return null;
-            }
+    private void delete(int i) {
+        addresses[i] = DELETED;
+        if (longTags != null) {
+            longTags[i] = 0;
+        } else {
+            objectTags[i] = null;
         }
+        size--;
+    }
 
-        Visitor apply(Visitor visitor) {
-            for (int t = 0; t < table.length; t++) {
-                Map.Entry e = table[t];
-                while (e != null) {
-                    if (e.get() != null) {
-                        visitor.visit(e);
-                    }
-                    e = e.next;
+    private int indexOf(Object object) {
+        if (addresses == null || size == 0) {
+            return -1;
+        }
+        return find(object, spread(object));
+    }
+
+    /**
+     * Removes the entries for unreachable objects and updates the addresses of objects that have moved.
+     */
+    public void processWeakReferents(SpecialReferenceManager.GC gc) {
+        final long[] a = addresses;
+        final boolean mayRelocate = gc.mayRelocateLiveObjects();
+        for (int i = 0; i < a.length; i++) {
+            final long address = a[i];
+            if (address != EMPTY && address != DELETED) {
+                final Reference ref = Reference.fromOrigin(Pointer.fromLong(address));
+                if (!gc.isReachable(ref)) {
+                    delete(i);
+                } else if (mayRelocate) {
+                    a[i] = gc.preserve(ref).toOrigin().toLong();
                 }
             }
-            return visitor;
         }
-
     }
 
-    private Map tagMap;
-
     /*
-     * Next two functions are for use by JVMTIHeapFunctions, where no synchronization is necessary.
+     * Next three functions are for use by JVMTIHeapFunctions, where no synchronization is necessary
+     * as long as the table is not modified concurrently. A heap iteration that runs on several threads
+     * therefore defers the updates until the walk is complete, see deferUpdates.
      */
 
     boolean isTagged(Object object) {
-        if (tagMap == null) {
-            return false;
-        } else {
-            return tagMap.getCommon(object) != null;
-        }
+        return indexOf(object) >= 0;
     }
 
     long getLongTag(Object object) {
-        return checkMap(true).getLong(object);
+        final int i = indexOf(object);
+        return i < 0 || longTags == null ? 0 : longTags[i];
     }
 
     Object getObjectTag(Object object) {
-        return checkMap(false).getObject(object);
+        final int i = indexOf(object);
+        return i < 0 || objectTags == null ? null : objectTags[i];
     }
 
     /*
@@ -274,33 +292,128 @@ class JVMTITags {
      */
 
     synchronized int getTag(Object object, Pointer tagPtr) {
-        long tag = checkMap(true).getLong(object);
-        tagPtr.writeLong(0, tag);
+        tagPtr.writeLong(0, getLongTag(object));
         return JVMTI_ERROR_NONE;
     }
 
+    /**
+     * Records the tags set from now on, without changing the table, until {@link #applyDeferredUpdates()}
+     * is called. Used while the table is read without synchronization by several threads, as setting a tag
+     * may resize the table. A deferred tag is not visible to {@link #getTag} until it is applied.
+     */
+    synchronized void deferUpdates() {
+        deferredObjects = new Object[INITIAL_CAPACITY];
+        deferredCount = 0;
+    }
+
+    /**
+     * Applies the tags recorded since {@link #deferUpdates()}, in order, and stops deferring updates.
+     */
+    synchronized void applyDeferredUpdates() {
+        final Object[] objects = deferredObjects;
+        final long[] newLongTags = deferredLongTags;
+        final Object[] newObjectTags = deferredObjectTags;
+        final int count = deferredCount;
+        deferredObjects = null;
+        deferredLongTags = null;
+        deferredObjectTags = null;
+        deferredCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (newLongTags != null) {
+                setTag(objects[i], newLongTags[i]);
+            } else {
+                setTag(objects[i], newObjectTags[i]);
+            }
+        }
+    }
+
+    private int defer(Object object, boolean isNative) {
+        if (isNative ? deferredLongTags == null : deferredObjectTags == null) {
+            if (isNative) {
+                deferredLongTags = new long[deferredObjects.length];
+            } else {
+                deferredObjectTags = new Object[deferredObjects.length];
+            }
+        }
+        if (deferredCount == deferredObjects.length) {
+            final int capacity = deferredCount << 1;
+            deferredObjects = Arrays.copyOf(deferredObjects, capacity);
+            if (isNative) {
+                deferredLongTags = Arrays.copyOf(deferredLongTags, capacity);
+            } else {
+                deferredObjectTags = Arrays.copyOf(deferredObjectTags, capacity);
+            }
+        }
+        deferredObjects[deferredCount] = object;
+        return deferredCount++;
+    }
+
     synchronized int setTag(Object object, long tag) {
+        if (deferredObjects != null) {
+            deferredLongTags[defer(object, true)] = tag;
+            return JVMTI_ERROR_NONE;
+        }
         if (tag == 0) {
-            checkMap(true).remove(object);
+            final int i = indexOf(object);
+            if (i >= 0) {
+                delete(i);
+            }
         } else {
-            checkMap(true).put(object, tag);
+            ensureCapacity(true);
+            longTags[insert(object, spread(object))] = tag;
         }
         return JVMTI_ERROR_NONE;
     }
 
     public synchronized void setTag(Object object, Object tag) {
-        checkMap(false).put(object, tag);
+        if (deferredObjects != null) {
+            deferredObjectTags[defer(object, false)] = tag;
+            return;
+        }
+        if (tag == null) {
+            final int i = indexOf(object);
+            if (i >= 0) {
+                delete(i);
+            }
+        } else {
+            ensureCapacity(false);
+            objectTags[insert(object, spread(object))] = tag;
+        }
     }
 
     public synchronized Object getTag(Object object) {
-        return checkMap(false).getObject(object);
+        return getObjectTag(object);
+    }
+
+    @INLINE
+    private static boolean matches(long tag, int tagCount, Pointer tags) {
+        if (tag != 0) {
+            for (int i = 0; i < tagCount; i++) {
+                if (tags.getLong(i) == tag) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
-    private Map checkMap(boolean isNative) {
-        if (tagMap == null) {
-            tagMap  = new Map(isNative);
+    /**
+     * Copies the objects with matching tags, and the tags, into the given arrays.
+     * @return the number of objects found
+     */
+    @NO_SAFEPOINT_POLLS("object addresses must not change")
+    private int collect(int tagCount, Pointer tags, Object[] objects, long[] foundTags) {
+        final long[] a = addresses;
+        int index = 0;
+        for (int i = 0; i < a.length && index < objects.length; i++) {
+            final long address = a[i];
+            if (address != EMPTY && address != DELETED && matches(longTags[i], tagCount, tags)) {
+                objects[index] = Reference.fromOrigin(Pointer.fromLong(address)).toJava();
+                foundTags[index] = longTags[i];
+                index++;
+            }
         }
-        return tagMap;
+        return index;
     }
 
     synchronized int getObjectsWithTags(final int tagCount, final Pointer tags, Pointer countPtr, Pointer objectResultPtrPtr, Pointer tagResultPtrPtr) {
@@ -308,67 +421,52 @@ class JVMTITags {
             return JVMTI_ERROR_ILLEGAL_ARGUMENT;
         }
         for (int i = 0; i < tagCount; i++) {
-            long givenTag = tags.getInt(i);
-            if (givenTag == 0) {
+            if (tags.getLong(i) == 0) {
                 return JVMTI_ERROR_ILLEGAL_ARGUMENT;
             }
         }
 
-        Map.Visitor counter = new Map.Visitor() {
-            private int count;
-
-            @Override
-            void visit(Map.Entry e) {
-                for (int i = 0; i < tagCount; i++) {
-                    long givenTag = tags.getInt(i);
-                    if (givenTag == ((Map.LongEntry) e).value) {
-                        count++;
-                    }
+        int count = 0;
+        if (longTags != null) {
+            for (int i = 0; i < longTags.length; i++) {
+                if (matches(longTags[i], tagCount, tags)) {
+                    count++;
                 }
             }
-
-            @Override
-            Object getResult() {
-                return new Integer(count);
-            }
-        };
-
-        final int count = (Integer) tagMap.apply(counter).getResult();
+        }
         // count is an upper bound, entries may disappear through GC actions
-        final Pointer objectResultPtr = objectResultPtrPtr.isZero() ? Pointer.zero() : Memory.allocate(Size.fromInt(count * Word.size()));
-        if (objectResultPtr.isZero()) {
+        final Object[] objects = new Object[count];
+        final long[] foundTags = new long[count];
+        if (count > 0) {
+            count = collect(tagCount, tags, objects, foundTags);
+        }
+
+        final Size resultSize = Size.fromInt(Math.max(count, 1) * Word.size());
+        final Pointer objectResultPtr = objectResultPtrPtr.isZero() ? Pointer.zero() : Memory.allocate(resultSize);
+        if (!objectResultPtrPtr.isZero() && objectResultPtr.isZero()) {
             return JVMTI_ERROR_OUT_OF_MEMORY;
         }
-        final Pointer tagResultPtr = tagResultPtrPtr.isZero() ? Pointer.zero() : Memory.allocate(Size.fromInt(count * Word.size()));
-        if (tagResultPtr.isZero()) {
-            Memory.deallocate(objectResultPtr);
+        final Pointer tagResultPtr = tagResultPtrPtr.isZero() ? Pointer.zero() : Memory.allocate(resultSize);
+        if (!tagResultPtrPtr.isZero() && tagResultPtr.isZero()) {
+            if (!objectResultPtr.isZero()) {
+                Memory.deallocate(objectResultPtr);
+            }
             return JVMTI_ERROR_OUT_OF_MEMORY;
         }
-
-        Map.Visitor copier = new Map.Visitor() {
-            @Override
-            void visit(Map.Entry e) {
-                int index = 0;
-                Object key = e.get();
-                if (key != null) {
-                    for (int i = 0; i < tagCount; i++) {
-                        long givenTag = tags.getInt(i);
-                        if (givenTag == ((Map.LongEntry) e).value) {
-                            assert index < count;
-                            if (!objectResultPtr.isZero()) {
-                                objectResultPtr.setWord(index, JniHandles.createLocalHandle(key));
-                            }
-                            if (!tagResultPtr.isZero()) {
-                                tagResultPtr.setLong(index, givenTag);
-                            }
-                            index++;
-                            break;
-                        }
-                    }
-                }
+        for (int i = 0; i < count; i++) {
+            if (!objectResultPtr.isZero()) {
+                objectResultPtr.setWord(i, JniHandles.createLocalHandle(objects[i]));
             }
-        };
-        tagMap.apply(copier);
+            if (!tagResultPtr.isZero()) {
+                tagResultPtr.setLong(i, foundTags[i]);
+            }
+        }
+        if (!objectResultPtrPtr.isZero()) {
+            objectResultPtrPtr.setWord(objectResultPtr);
+        }
+        if (!tagResultPtrPtr.isZero()) {
+            tagResultPtrPtr.setWord(tagResultPtr);
+        }
         countPtr.setInt(count);
         return JVMTI_ERROR_NONE;
     }
@@ -230,6 +230,7 @@ public class MaxTargetMethod extends TargetMethod implements Cloneable {
                 exceptionHandlerBCIs[z] = handler.handlerBci;
                 z++;
             }
+            initExceptionDispatchCache();
         }
     }
 
@@ -287,7 +288,14 @@ public class MaxTargetMethod extends TargetMethod implements Cloneable {
 
     @Override
     public CodePointer throwAddressToCatchAddress(CodePointer throwAddress, Throwable exception) {
-        return throwAddressToCatchAddress(throwAddress, exception, null);
+        final int throwPos = posFor(throwAddress);
+        final int catchPos = cachedCatchPos(throwPos, exception);
+        if (catchPos != ExceptionDispatchCache.MISS) {
+            return catchPos == ExceptionDispatchCache.NO_HANDLER ? CodePointer.zero() : codeAt(catchPos);
+        }
+        final CodePointer catchAddress = throwAddressToCatchAddress(throwAddress, exception, null);
+        cacheCatchAddress(throwPos, exception, catchAddress);
+        return catchAddress;
     }
 
     @Override
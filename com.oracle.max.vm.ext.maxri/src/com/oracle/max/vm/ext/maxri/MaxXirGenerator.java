@@ -54,6 +54,12 @@ import com.sun.max.vm.compiler.target.*;
 import com.sun.max.vm.heap.*;
 import com.sun.max.vm.heap.debug.*;
 import com.sun.max.vm.layout.*;
+import com.sun.max.vm.monitor.*;
+import com.sun.max.vm.monitor.modal.modehandlers.lightweight.*;
+import com.sun.max.vm.monitor.modal.modehandlers.lightweight.biased.*;
+import com.sun.max.vm.monitor.modal.modehandlers.lightweight.thin.*;
+import com.sun.max.vm.monitor.modal.schemes.*;
+import com.sun.max.vm.monitor.modal.schemes.ModalMonitorScheme.InlineFastPath;
 import com.sun.max.vm.object.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.runtime.amd64.*;
@@ -147,11 +153,14 @@ public class MaxXirGenerator implements RiXirGenerator {
     private NewInstanceTemplates tlabNewInstanceTemplate;
     private XirPair checkcastForLeafTemplate;
     private XirPair checkcastForNonLeafTemplate;
+    private XirTemplate checkcastForPrimaryTemplate;
     private XirPair instanceofForLeafTemplate;
     private XirPair instanceofForNonLeafTemplate;
+    private XirTemplate instanceofForPrimaryTemplate;
     private XirPair materializedInstanceofForLeafTemplate;
     private XirPair materializedInstanceofForLeafAndNonNullTemplate;
     private XirPair materializedInstanceofForNonLeafTemplate;
+    private XirTemplate materializedInstanceofForPrimaryTemplate;
 
     private XirTemplate typeAssertTemplate;
 
@@ -184,6 +193,21 @@ public class MaxXirGenerator implements RiXirGenerator {
         return FieldActor.findInstance(ClassActor.fromJava(Hub.class), "mTableLength").offset();
     }
 
+    @FOLD
+    int offsetOfPrimarySupertypeDisplay() {
+        return FieldActor.findInstance(ClassActor.fromJava(Hub.class), "primarySupertypeDisplay").offset();
+    }
+
+    @FOLD
+    int miscOffset() {
+        return generalLayout().getOffsetFromOrigin(Layout.HeaderField.MISC).toInt();
+    }
+
+    @FOLD
+    int offsetOfBiasedLockEpoch() {
+        return FieldActor.findInstance(ClassActor.fromJava(Hub.class), "biasedLockEpoch").offset();
+    }
+
     @FOLD
     int offsetOfTupleSize() {
         return FieldActor.findInstance(ClassActor.fromJava(Hub.class), "tupleSize").offset();
@@ -291,13 +315,16 @@ public class MaxXirGenerator implements RiXirGenerator {
 
         checkcastForLeafTemplate = buildCheckcastForLeaf(false);
         checkcastForNonLeafTemplate = buildCheckcastForNonLeaf(false);
+        checkcastForPrimaryTemplate = buildCheckcastForPrimary();
 
         instanceofForLeafTemplate = buildInstanceofForLeaf(false);
         instanceofForNonLeafTemplate = buildInstanceofForNonLeaf(false);
+        instanceofForPrimaryTemplate = buildInstanceofForPrimary();
 
         materializedInstanceofForLeafTemplate = buildMaterializeInstanceOf(false, true);
         materializedInstanceofForLeafAndNonNullTemplate = buildMaterializeInstanceOf(true, true);
         materializedInstanceofForNonLeafTemplate = buildMaterializeInstanceOf(false, false);
+        materializedInstanceofForPrimaryTemplate = buildMaterializeInstanceOfForPrimary();
 
         typeAssertTemplate = buildTypeAssert();
 
@@ -558,10 +585,14 @@ public class MaxXirGenerator implements RiXirGenerator {
                 // can use the leaf class test
                 template = checkcastForLeafTemplate.resolved;
             } else {
-                // can use the class test
-                template = checkcastForNonLeafTemplate.resolved;
                 ClassActor classActor = (ClassActor) resolvedType;
                 int typeID = classActor.id;
+                if (classActor.primarySupertypeDepth >= 0) {
+                    // can use the primary supertype display
+                    return new XirSnippet(checkcastForPrimaryTemplate, object, XirArgument.forInt(classActor.primarySupertypeDepth), XirArgument.forInt(typeID), hub);
+                }
+                // can use the class test
+                template = checkcastForNonLeafTemplate.resolved;
                 return new XirSnippet(template, object, XirArgument.forInt(typeID), hub);
             }
             return new XirSnippet(template, object, hub);
@@ -580,9 +611,12 @@ public class MaxXirGenerator implements RiXirGenerator {
                 template = instanceofForLeafTemplate.resolved;
                 return new XirSnippet(template, object, hub);
             } else {
-                template = instanceofForNonLeafTemplate.resolved;
                 ClassActor classActor = (ClassActor) type;
                 int typeID = classActor.id;
+                if (classActor.primarySupertypeDepth >= 0) {
+                    return new XirSnippet(instanceofForPrimaryTemplate, object, XirArgument.forInt(classActor.primarySupertypeDepth), XirArgument.forInt(typeID), hub);
+                }
+                template = instanceofForNonLeafTemplate.resolved;
                 return new XirSnippet(template, object, XirArgument.forInt(typeID), hub);
             }
         }
@@ -605,9 +639,13 @@ public class MaxXirGenerator implements RiXirGenerator {
                 }
                 return new XirSnippet(template, receiver, hub, trueValue, falseValue);
             } else {
-                template = materializedInstanceofForNonLeafTemplate.resolved;
                 ClassActor classActor = (ClassActor) type;
                 int typeID = classActor.id;
+                if (classActor.primarySupertypeDepth >= 0) {
+                    return new XirSnippet(materializedInstanceofForPrimaryTemplate, receiver, hub, trueValue, falseValue,
+                                    XirArgument.forInt(classActor.primarySupertypeDepth), XirArgument.forInt(typeID));
+                }
+                template = materializedInstanceofForNonLeafTemplate.resolved;
                 return new XirSnippet(template, receiver, hub, trueValue, falseValue, XirArgument.forInt(typeID));
             }
         } else {
@@ -1444,20 +1482,126 @@ public class MaxXirGenerator implements RiXirGenerator {
         return xirTemplate;
     }
 
+    /**
+     * Gets the lock word update that can be emitted inline for {@code monitorenter} and {@code monitorexit}.
+     * The inline paths are only implemented for 64-bit x86 lock words.
+     */
+    @HOSTED_ONLY
+    private static InlineFastPath inlineLockingFastPath() {
+        MonitorScheme monitorScheme = vmConfig().monitorScheme();
+        if (monitorScheme instanceof ModalMonitorScheme && Platform.target().arch.is64bit() && Platform.target().arch.isX86()) {
+            return ((ModalMonitorScheme) monitorScheme).inlineFastPath();
+        }
+        return InlineFastPath.NONE;
+    }
+
+    @HOSTED_ONLY
+    private XirConstant lockwordConstant(long value) {
+        return asm.createConstant(CiConstant.forLong(value));
+    }
+
     @HOSTED_ONLY
     private XirTemplate buildMonitorExit() {
         asm.restart(CiKind.Void);
         XirParameter object = asm.createInputParameter("object", CiKind.Object);
+        InlineFastPath fastPath = inlineLockingFastPath();
+        if (fastPath == InlineFastPath.NONE) {
+            callRuntimeThroughStub(asm, "monitorExit", null, object);
+            return finishTemplate(asm, "monitorexit");
+        }
+
+        XirOperand tla = asm.createRegisterTemp("TLA", WordUtil.archKind(), LATCH_REGISTER);
+        XirOperand lockword = asm.createTemp("lockword", CiKind.Long);
+        XirOperand owner = asm.createTemp("owner", CiKind.Long);
+        XirOperand temp = asm.createTemp("temp", CiKind.Long);
+        XirLabel done = asm.createInlineLabel("done");
+        XirLabel slowPath = asm.createOutOfLineLabel("slowPath");
+
+        asm.pload(CiKind.Long, lockword, object, asm.i(miscOffset()), true);
+        asm.pload(CiKind.Long, owner, tla, asm.i(VmThreadLocal.ID.offset), false);
+        asm.shl(owner, owner, asm.i(LightweightLockword64.threadIDShift()));
+        if (fastPath == InlineFastPath.THIN) {
+            // CAS from locked once by the current thread to unlocked; anything else goes to the runtime
+            XirOperand unlocked = asm.createTemp("unlocked", CiKind.Long);
+            XirOperand miscAddress = asm.createTemp("miscAddress", WordUtil.archKind());
+            asm.and(unlocked, lockword, lockwordConstant(ThinLockword64.unlockedMask()));
+            asm.or(owner, owner, unlocked);
+            asm.or(owner, owner, lockwordConstant(LightweightLockword64.recursionCountIncrement()));
+            asm.add(miscAddress, object, asm.l(miscOffset()));
+            asm.pcas(CiKind.Long, temp, miscAddress, unlocked, owner);
+            asm.jneq(slowPath, temp, owner);
+        } else {
+            // Blind decrement of the recursion count of a lock biased to and held by the current thread
+            asm.and(temp, lockword, lockwordConstant(LightweightLockword64.ownerMask()));
+            asm.jneq(slowPath, temp, owner);
+            asm.and(temp, lockword, lockwordConstant(BiasedLockword64.epochMask()));
+            asm.jeq(slowPath, temp, lockwordConstant(BiasedLockword64.revokedEpoch()));
+            asm.shr(temp, lockword, asm.i(LightweightLockword64.recursionCountShift()));
+            asm.jeq(slowPath, temp, lockwordConstant(0));
+            asm.sub(lockword, lockword, lockwordConstant(LightweightLockword64.recursionCountIncrement()));
+            asm.pstore(CiKind.Long, object, asm.i(miscOffset()), lockword, false);
+        }
+        asm.bindInline(done);
+
+        asm.bindOutOfLine(slowPath);
         callRuntimeThroughStub(asm, "monitorExit", null, object);
-        return finishTemplate(asm, "monitorexit");
+        asm.jmp(done);
+        return finishTemplate(asm, "monitorexit<" + fastPath + ">");
     }
 
     @HOSTED_ONLY
     private XirTemplate buildMonitorEnter() {
         asm.restart(CiKind.Void);
         XirParameter object = asm.createInputParameter("object", CiKind.Object);
+        InlineFastPath fastPath = inlineLockingFastPath();
+        if (fastPath == InlineFastPath.NONE) {
+            callRuntimeThroughStub(asm, "monitorEnter", null, object);
+            return finishTemplate(asm, "monitorenter");
+        }
+
+        XirOperand tla = asm.createRegisterTemp("TLA", WordUtil.archKind(), LATCH_REGISTER);
+        XirOperand lockword = asm.createTemp("lockword", CiKind.Long);
+        XirOperand owner = asm.createTemp("owner", CiKind.Long);
+        XirOperand temp = asm.createTemp("temp", CiKind.Long);
+        XirLabel done = asm.createInlineLabel("done");
+        XirLabel slowPath = asm.createOutOfLineLabel("slowPath");
+
+        // The load of the lock word is the implicit null check
+        asm.pload(CiKind.Long, lockword, object, asm.i(miscOffset()), true);
+        asm.pload(CiKind.Long, owner, tla, asm.i(VmThreadLocal.ID.offset), false);
+        asm.shl(owner, owner, asm.i(LightweightLockword64.threadIDShift()));
+        if (fastPath == InlineFastPath.THIN) {
+            // CAS from unlocked to locked once by the current thread; anything else goes to the runtime
+            XirOperand unlocked = asm.createTemp("unlocked", CiKind.Long);
+            XirOperand miscAddress = asm.createTemp("miscAddress", WordUtil.archKind());
+            asm.and(unlocked, lockword, lockwordConstant(ThinLockword64.unlockedMask()));
+            asm.or(owner, owner, unlocked);
+            asm.or(owner, owner, lockwordConstant(LightweightLockword64.recursionCountIncrement()));
+            asm.add(miscAddress, object, asm.l(miscOffset()));
+            asm.pcas(CiKind.Long, temp, miscAddress, owner, unlocked);
+            asm.jneq(slowPath, temp, unlocked);
+        } else {
+            // Blind increment of the recursion count of a lock biased to the current thread. There are no
+            // safepoints (and hence no revocation) between the load and the store of the lock word.
+            if (fastPath == InlineFastPath.EPOCH_BIASED) {
+                XirOperand hub = asm.createTemp("hub", CiKind.Object);
+                asm.pload(CiKind.Object, hub, object, asm.i(hubOffset()), false);
+                asm.pload(CiKind.Long, temp, hub, asm.i(offsetOfBiasedLockEpoch()), false);
+                asm.or(owner, owner, temp);
+            }
+            asm.and(temp, lockword, lockwordConstant(LightweightLockword64.ownerMask() | BiasedLockword64.epochMask()));
+            asm.jneq(slowPath, temp, owner);
+            asm.shr(temp, lockword, asm.i(LightweightLockword64.recursionCountShift()));
+            asm.jeq(slowPath, temp, lockwordConstant(LightweightLockword64.recursionCountOverflow()));
+            asm.add(lockword, lockword, lockwordConstant(LightweightLockword64.recursionCountIncrement()));
+            asm.pstore(CiKind.Long, object, asm.i(miscOffset()), lockword, false);
+        }
+        asm.bindInline(done);
+
+        asm.bindOutOfLine(slowPath);
         callRuntimeThroughStub(asm, "monitorEnter", null, object);
-        return finishTemplate(asm, "monitorenter");
+        asm.jmp(done);
+        return finishTemplate(asm, "monitorenter<" + fastPath + ">");
     }
 
     @HOSTED_ONLY
@@ -1530,6 +1674,35 @@ public class MaxXirGenerator implements RiXirGenerator {
         return new XirPair(resolved, unresolved);
     }
 
+    /**
+     * Checkcast against a class recorded in the {@linkplain Hub#primarySupertypeDisplay primary supertype display}:
+     * a single load from the display at the (constant) depth of the checked class replaces the m-table probe.
+     */
+    @HOSTED_ONLY
+    private XirTemplate buildCheckcastForPrimary() {
+        asm.restart();
+        XirParameter object = asm.createInputParameter("object", CiKind.Object);
+        XirParameter depth = asm.createConstantInputParameter("depth", CiKind.Int);
+        XirParameter typeID = asm.createConstantInputParameter("typeID", CiKind.Int);
+        XirParameter checkedHub = asm.createConstantInputParameter("checkedHub", CiKind.Object);
+        XirOperand hub = asm.createTemp("hub", CiKind.Object);
+        XirOperand display = asm.createTemp("display", CiKind.Object);
+        XirOperand a = asm.createTemp("a", CiKind.Int);
+        XirLabel pass = asm.createInlineLabel("pass");
+        XirLabel fail = asm.createOutOfLineLabel("fail");
+        asm.jeq(pass, object, asm.o(null));
+        asm.pload(CiKind.Object, hub, object, asm.i(hubOffset()), true);
+        asm.jeq(pass, hub, checkedHub);
+        asm.pload(CiKind.Object, display, hub, asm.i(offsetOfPrimarySupertypeDisplay()), false);
+        asm.mov(a, depth);
+        asm.pload(CiKind.Int, a, display, a, offsetOfFirstArrayElement(), Scale.Times4, false);
+        asm.jneq(fail, a, typeID);
+        asm.bindInline(pass);
+        asm.bindOutOfLine(fail);
+        callRuntimeThroughStub(asm, "throwClassCastException", null, checkedHub, object);
+        return finishTemplate(asm, object, "checkcast-primary");
+    }
+
     @HOSTED_ONLY
     private XirTemplate buildUnresolvedCheckcast(boolean nonnull) {
         asm.restart();
@@ -1723,6 +1896,70 @@ public class MaxXirGenerator implements RiXirGenerator {
         return new XirPair(resolved, unresolved);
     }
 
+    /**
+     * Instanceof against a class recorded in the {@linkplain Hub#primarySupertypeDisplay primary supertype display}.
+     */
+    @HOSTED_ONLY
+    private XirTemplate buildInstanceofForPrimary() {
+        asm.restart(CiKind.Void);
+        XirParameter object = asm.createInputParameter("object", CiKind.Object);
+        XirParameter depth = asm.createConstantInputParameter("depth", CiKind.Int);
+        XirParameter typeID = asm.createConstantInputParameter("typeID", CiKind.Int);
+        XirParameter checkedHub = asm.createConstantInputParameter("checkedHub", CiKind.Object);
+        XirOperand hub = asm.createTemp("hub", CiKind.Object);
+        XirOperand display = asm.createTemp("display", CiKind.Object);
+        XirOperand a = asm.createTemp("a", CiKind.Int);
+
+        XirLabel trueSucc = asm.createInlineLabel(XirLabel.TrueSuccessor);
+        XirLabel falseSucc = asm.createInlineLabel(XirLabel.FalseSuccessor);
+
+        asm.jeq(falseSucc, object, asm.o(null));
+        asm.pload(CiKind.Object, hub, object, asm.i(hubOffset()), true);
+        asm.jeq(trueSucc, hub, checkedHub);
+        asm.pload(CiKind.Object, display, hub, asm.i(offsetOfPrimarySupertypeDisplay()), false);
+        asm.mov(a, depth);
+        asm.pload(CiKind.Int, a, display, a, offsetOfFirstArrayElement(), Scale.Times4, false);
+        asm.jeq(trueSucc, a, typeID);
+
+        asm.jmp(falseSucc);
+        return finishTemplate(asm, "instanceof-primary");
+    }
+
+    @HOSTED_ONLY
+    private XirTemplate buildMaterializeInstanceOfForPrimary() {
+        XirOperand result = asm.restart(CiKind.Int);
+        XirParameter object = asm.createInputParameter("object", CiKind.Object);
+        XirOperand checkedHub = asm.createConstantInputParameter("hub", CiKind.Object);
+        XirOperand trueValue = asm.createConstantInputParameter("trueValue", CiKind.Int);
+        XirOperand falseValue = asm.createConstantInputParameter("falseValue", CiKind.Int);
+        XirParameter depth = asm.createConstantInputParameter("depth", CiKind.Int);
+        XirParameter typeID = asm.createConstantInputParameter("typeID", CiKind.Int);
+        XirOperand objHub = asm.createTemp("objHub", CiKind.Object);
+        XirOperand display = asm.createTemp("display", CiKind.Object);
+        XirOperand a = asm.createTemp("a", CiKind.Int);
+        XirLabel trueSucc = asm.createInlineLabel("ok");
+        XirLabel falseSucc = asm.createInlineLabel("notOk");
+        XirLabel end = asm.createInlineLabel("end");
+
+        asm.jeq(falseSucc, object, asm.o(null));
+        asm.pload(CiKind.Object, objHub, object, asm.i(hubOffset()), false);
+        asm.jeq(trueSucc, objHub, checkedHub);
+        asm.pload(CiKind.Object, display, objHub, asm.i(offsetOfPrimarySupertypeDisplay()), false);
+        asm.mov(a, depth);
+        asm.pload(CiKind.Int, a, display, a, offsetOfFirstArrayElement(), Scale.Times4, false);
+        asm.jneq(falseSucc, a, typeID);
+
+        asm.bindInline(trueSucc);
+        asm.mov(result, trueValue);
+        asm.jmp(end);
+
+        asm.bindInline(falseSucc);
+        asm.mov(result, falseValue);
+
+        asm.bindInline(end);
+        return finishTemplate(asm, "materializeInstanceOf-primary");
+    }
+
     @HOSTED_ONLY
     private XirTemplate buildUnresolvedInstanceOf(boolean nonnull) {
         XirTemplate unresolved;
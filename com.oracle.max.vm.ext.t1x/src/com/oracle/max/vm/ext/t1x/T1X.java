@@ -157,17 +157,22 @@ public class T1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
         }
         T1XCompilation c = t1x.compilation.get();
         boolean reentrant = false;
-        if (c.method != null) {
-            // Re-entrant call to T1X - use a new compilation object that will be discarded
-            // once the compilation is done. This should be a very rare occurrence.
-            c = t1x.t1XCompilationFactory.newT1XCompilation(t1x);
+        while (c.method != null) {
+            // Re-entrant call to T1X - use the next compilation object in this thread's chain,
+            // creating it on first use. This should be a very rare occurrence.
+            if (c.nested == null) {
+                c.nested = t1x.t1XCompilationFactory.newT1XCompilation(t1x);
+            }
+            c = c.nested;
             reentrant = true;
         }
 
         long startTime = 0;
-        int index = T1XMetrics.CompiledMethods++;
+        int index = T1XMetrics.CompiledMethods.getAndIncrement();
         if (PrintCompilation) {
             TTY.print(String.format("T1X %4d %-70s %-45s | ", index, method.holder().name(), method.name()));
+        }
+        if (PrintCompilation || PrintMetrics) {
             startTime = System.nanoTime();
         }
 
@@ -175,8 +180,8 @@ public class T1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
 
         try {
             T1XTargetMethod t1xMethod = c.compile(method, isDeopt, install);
-            T1XMetrics.BytecodesCompiled += t1xMethod.codeAttribute.code().length;
-            T1XMetrics.CodeBytesEmitted += t1xMethod.code().length;
+            T1XMetrics.BytecodesCompiled.addAndGet(t1xMethod.codeAttribute.code().length);
+            T1XMetrics.CodeBytesEmitted.addAndGet(t1xMethod.code().length);
             if (stats != null) {
                 stats.bytecodeCount = t1xMethod.codeAttribute.code().length;
             }
@@ -186,9 +191,13 @@ public class T1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
             if (filter != null) {
                 filter.remove();
             }
-            if (PrintCompilation) {
-                long time = (System.nanoTime() - startTime) / 100000;
-                TTY.println(String.format("%3d.%dms", time / 10, time % 10));
+            if (PrintCompilation || PrintMetrics) {
+                long nanos = System.nanoTime() - startTime;
+                T1XMetrics.CompilationNanos.addAndGet(nanos);
+                if (PrintCompilation) {
+                    long time = nanos / 100000;
+                    TTY.println(String.format("%3d.%dms", time / 10, time % 10));
+                }
             }
             c.cleanup();
         }
@@ -187,6 +187,12 @@ public abstract class T1XCompilation {
      */
     protected ArrayList<CodeAnnotation> codeAnnotations;
 
+    /**
+     * The compilation object used by a re-entrant call to T1X while this one is in use. Created on demand
+     * and owned by the same thread as this object, so compilation objects are never shared between threads.
+     */
+    T1XCompilation nested;
+
     // Fields holding per-compilation info
 
     /**
@@ -252,7 +258,9 @@ public abstract class T1XCompilation {
     protected ConstantPool cp;
 
     /**
-     * The bytecode indexes of the basic blocks.
+     * The bytecode indexes of the basic blocks. This array is reused across compilations and
+     * so may be longer than the bytecode being compiled; only the first {@code code.length}
+     * entries are valid.
      */
     boolean[] blockBCIs;
 
@@ -262,10 +270,16 @@ public abstract class T1XCompilation {
     int numberOfBlocks;
 
     /**
-     * The BCIs of the exception handlers.
+     * The BCIs of the exception handlers, or {@code null} if the method has no handlers.
+     * Refers to {@link #handlerBCIsBuffer} when non-null.
      */
     boolean[] handlerBCIs;
 
+    /**
+     * Reusable backing store for {@link #handlerBCIs}.
+     */
+    private boolean[] handlerBCIsBuffer;
+
     /**
      * The exception handlers.
      */
@@ -326,7 +340,7 @@ public abstract class T1XCompilation {
         protectionLiteralIndex = -1;
 
         bciToPos = new int[code.length + 1];
-        blockBCIs = new boolean[code.length];
+        blockBCIs = clearedBuffer(blockBCIs, code.length);
         methodProfileBuilder = MethodInstrumentation.createMethodProfile(method);
 
         startBlock(0);
@@ -336,22 +350,37 @@ public abstract class T1XCompilation {
         initHandlers(method, code);
     }
 
-    static void startTimer(T1XTimer timer) {
+    /**
+     * Gets a buffer of at least {@code length} elements whose first {@code length} elements are {@code false},
+     * reusing {@code buffer} if it is large enough.
+     */
+    private static boolean[] clearedBuffer(boolean[] buffer, int length) {
+        if (buffer == null || buffer.length < length) {
+            int newLength = buffer == null ? length : Math.max(length, buffer.length * 2);
+            return new boolean[newLength];
+        }
+        Arrays.fill(buffer, 0, length, false);
+        return buffer;
+    }
+
+    static long startTimer(T1XTimer timer) {
         if (T1XOptions.PrintTimers) {
-            timer.start();
+            return timer.start();
         }
+        return 0L;
     }
 
-    static void stopTimer(T1XTimer timer) {
+    static void stopTimer(T1XTimer timer, long start) {
         if (T1XOptions.PrintTimers) {
-            timer.stop();
+            timer.stop(start);
         }
     }
 
     void initHandlers(ClassMethodActor method, byte[] code) {
         handlers = codeAttribute.exceptionHandlers();
         if (handlers.length != 0) {
-            handlerBCIs = new boolean[code.length];
+            handlerBCIsBuffer = clearedBuffer(handlerBCIsBuffer, code.length);
+            handlerBCIs = handlerBCIsBuffer;
             for (CiExceptionHandler handler : handlers) {
                 handlerBCIs[handler.handlerBCI()] = true;
             }
@@ -373,7 +402,7 @@ public abstract class T1XCompilation {
         codeAttribute = null;
         frame = null;
         bciToPos = null;
-        blockBCIs = null;
+        // blockBCIs is kept for reuse by the next compilation
         numberOfBlocks = 0;
         stream = null;
         handlerBCIs = null;
@@ -423,7 +452,7 @@ public abstract class T1XCompilation {
             this.isDeopt = isDeopt;
             return compile1(method, method.codeAttribute(), install);
         } catch (UnsupportedSubroutineException e) {
-            T1XMetrics.MethodsWithSubroutines++;
+            T1XMetrics.MethodsWithSubroutines.getAndIncrement();
             if (T1XOptions.PrintJsrRetRewrites) {
                 Log.println("T1X rewriting bytecode of " + method + " to inline subroutine indicated by " + Bytecodes.nameOf(e.opcode) + " at bci " + e.bci);
             }
@@ -435,34 +464,34 @@ public abstract class T1XCompilation {
     }
 
     private T1XTargetMethod compile1(ClassMethodActor method, CodeAttribute codeAttribute, boolean install) {
-        startTimer(T1XTimer.PRE_COMPILE);
+        long start = startTimer(T1XTimer.PRE_COMPILE);
         try {
             initCompile(method, codeAttribute);
         } finally {
-            stopTimer(T1XTimer.PRE_COMPILE);
+            stopTimer(T1XTimer.PRE_COMPILE, start);
         }
 
-        startTimer(T1XTimer.COMPILE);
+        start = startTimer(T1XTimer.COMPILE);
         try {
             compile2(method);
         } finally {
-            stopTimer(T1XTimer.COMPILE);
+            stopTimer(T1XTimer.COMPILE, start);
         }
 
-        startTimer(T1XTimer.FIXUP);
+        start = startTimer(T1XTimer.FIXUP);
         try {
             int endPos = buf.position();
             fixup();
             buf.setPosition(endPos);
         } finally {
-            stopTimer(T1XTimer.FIXUP);
+            stopTimer(T1XTimer.FIXUP, start);
         }
 
-        startTimer(T1XTimer.INSTALL);
+        start = startTimer(T1XTimer.INSTALL);
         try {
             return newT1XTargetMethod(this, install);
         } finally {
-            stopTimer(T1XTimer.INSTALL);
+            stopTimer(T1XTimer.INSTALL, start);
         }
     }
 
@@ -510,7 +539,7 @@ public abstract class T1XCompilation {
         stream = new BytecodeStream(code);
         protectionLiteralIndex = -1;
         bciToPos = new int[code.length + 1];
-        blockBCIs = new boolean[code.length];
+        blockBCIs = clearedBuffer(blockBCIs, code.length);
         methodProfileBuilder = MethodInstrumentation.createMethodProfile(method);
         startBlock(0);
         initFrame(method, codeAttribute);
@@ -2528,7 +2557,7 @@ public abstract class T1XCompilation {
         String intrinsic = method.intrinsic();
 
         if (T1X.unsafeIntrinsicIDs.contains(intrinsic)) {
-            T1XMetrics.Bailouts++;
+            T1XMetrics.Bailouts.getAndIncrement();
             if (T1XOptions.PrintBailouts) {
                 Log.println("T1X bailout: unsupported intrinsic method " + method + "  called from " + this.method);
             }
@@ -2538,7 +2567,7 @@ public abstract class T1XCompilation {
                 // There is an implicit assumption here that it is ok to compile the VM method with T1X for deopt
                 return false;
             }
-            T1XMetrics.Bailouts++;
+            T1XMetrics.Bailouts.getAndIncrement();
             if (T1XOptions.PrintBailouts) {
                 Log.println("T1X bailout: unsupported INLINE or FOLD method method " + method + "  called from " + this.method);
             }
@@ -22,22 +22,30 @@
  */
 package com.oracle.max.vm.ext.t1x;
 
+import java.util.concurrent.atomic.*;
+
 import com.oracle.max.criutils.*;
 
 
 /**
  * This class contains a number of fields that collect metrics about T1X compilation.
+ * The counters are atomic as T1X compilations run concurrently in all threads that request them.
  */
 public class T1XMetrics {
-    public static int CompiledMethods;
-    public static int TargetMethods;
-    public static int MethodsWithSubroutines;
-    public static int BytecodesCompiled;
-    public static int CodeBytesEmitted;
-    public static int Bailouts;
+    public static final AtomicInteger CompiledMethods = new AtomicInteger();
+    public static final AtomicInteger TargetMethods = new AtomicInteger();
+    public static final AtomicInteger MethodsWithSubroutines = new AtomicInteger();
+    public static final AtomicInteger BytecodesCompiled = new AtomicInteger();
+    public static final AtomicInteger CodeBytesEmitted = new AtomicInteger();
+    public static final AtomicInteger Bailouts = new AtomicInteger();
+    public static final AtomicLong CompilationNanos = new AtomicLong();
 
     public static void print() {
         TTY.printFields(T1XMetrics.class);
+        long millis = CompilationNanos.get() / 1000000;
+        if (millis != 0) {
+            TTY.println("    %35s = %d", "BytecodesPerMs", BytecodesCompiled.get() / millis);
+        }
 
     }
 }
@@ -74,7 +74,9 @@ public class T1XReferenceMapEditor implements ReferenceMapInterpreterContext, Re
         this.frame = frame;
         this.blockBCIs = new char[numberOfBlocks];
         int blockIndex = 0;
-        for (int i = 0; i != blockBCIs.length; ++i) {
+        // blockBCIs may be a reused buffer longer than the bytecode
+        final int codeLength = t1xMethod.codeAttribute.code().length;
+        for (int i = 0; i != codeLength; ++i) {
             if (blockBCIs[i]) {
                 this.blockBCIs[blockIndex++] = (char) i;
             }
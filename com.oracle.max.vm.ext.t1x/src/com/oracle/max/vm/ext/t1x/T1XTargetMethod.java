@@ -203,6 +203,9 @@ public class T1XTargetMethod extends TargetMethod {
         setSafepoints(safepointsBuilder.safepoints, safepointsBuilder.directCallees);
         refMaps = safepointsBuilder.refMaps;
         handlers = initHandlers(comp);
+        if (handlers.length != 0) {
+            initExceptionDispatchCache();
+        }
 
         if (comp.methodProfileBuilder != null) {
             comp.methodProfileBuilder.finish(this);
@@ -644,7 +647,14 @@ public class T1XTargetMethod extends TargetMethod {
 
     @Override
     public CodePointer throwAddressToCatchAddress(CodePointer throwAddress, Throwable exception) {
-        return throwAddressToCatchAddress(throwAddress, exception, null);
+        final int throwPos = posFor(throwAddress);
+        final int catchPos = cachedCatchPos(throwPos, exception);
+        if (catchPos != ExceptionDispatchCache.MISS) {
+            return catchPos == ExceptionDispatchCache.NO_HANDLER ? CodePointer.zero() : codeAt(catchPos);
+        }
+        final CodePointer catchAddress = throwAddressToCatchAddress(throwAddress, exception, null);
+        cacheCatchAddress(throwPos, exception, catchAddress);
+        return catchAddress;
     }
 
     @Override
@@ -22,11 +22,14 @@
  */
 package com.oracle.max.vm.ext.t1x;
 
+import java.util.concurrent.atomic.*;
+
 import com.oracle.max.criutils.*;
 
 /**
  * This class contains timers that record the amount of time spent in various
- * parts of the T1X compiler.
+ * parts of the T1X compiler. The start time of a timed interval is held by the
+ * caller so that concurrent compilations can share the timers.
  */
 public enum T1XTimer {
     PRE_COMPILE("Pre-compile"),
@@ -35,31 +38,42 @@ public enum T1XTimer {
     INSTALL("Install");
 
     private final String name;
-    private long start;
-    private long total;
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * The value of {@link T1XMetrics#BytecodesCompiled} when the timers were last {@linkplain #reset() reset}, so that
+     * the throughput is computed over the same interval as the timers.
+     */
+    private static volatile int bytecodesCompiledAtReset;
 
     T1XTimer(String name) {
         this.name = name;
     }
 
-    public void start() {
-        start = System.nanoTime();
+    /**
+     * Starts timing an interval.
+     *
+     * @return the start time to be passed to {@link #stop(long)}
+     */
+    public long start() {
+        return System.nanoTime();
     }
 
-    public void stop() {
-        total += System.nanoTime() - start;
+    public void stop(long start) {
+        total.addAndGet(System.nanoTime() - start);
     }
 
     public static void reset() {
+        bytecodesCompiledAtReset = T1XMetrics.BytecodesCompiled.get();
         for (T1XTimer t : values()) {
-            t.total = 0;
+            t.total.set(0);
         }
     }
 
     public static void print() {
         long total = 0;
         for (T1XTimer timer : T1XTimer.values()) {
-            total += timer.total;
+            total += timer.total.get();
         }
         if (total == 0) {
             return;
@@ -67,9 +81,10 @@ public enum T1XTimer {
 
         TTY.println();
         for (T1XTimer timer : T1XTimer.values()) {
-            TTY.println("%-20s: %7.4f s (%5.2f%%)", timer.name, timer.total / 1000000000.0, timer.total * 100.0 / total);
-            timer.total = 0;
+            long t = timer.total.get();
+            TTY.println("%-20s: %7.4f s (%5.2f%%)", timer.name, t / 1000000000.0, t * 100.0 / total);
         }
+        TTY.println("%-20s: %7.1f bytecodes/ms", "Throughput", (T1XMetrics.BytecodesCompiled.get() - bytecodesCompiledAtReset) * 1000000.0 / total);
         TTY.println();
     }
 }
@@ -30,6 +30,7 @@ import com.oracle.max.vm.ext.t1x.T1XTemplateGenerator.*;
 import com.oracle.max.vm.ext.t1x.amd64.*;
 import com.oracle.max.vm.ext.vma.*;
 import com.oracle.max.vm.ext.vma.run.java.*;
+import com.oracle.max.vm.ext.vma.runtime.*;
 import com.sun.cri.ci.*;
 import com.sun.max.annotate.*;
 import com.sun.max.vm.*;
@@ -65,6 +66,11 @@ public class VMAT1XCompilation extends AMD64T1XCompilation {
      * The templates in use by the default T1X compiler.
      */
     private final T1XTemplate[] defaultTemplates;
+    /**
+     * The {@link VMAdviceSampler#methodSlot slot} of the method being compiled,
+     * passed to the advice along with the bci.
+     */
+    private int methodSlot;
 
     public VMAT1XCompilation(T1X t1x) {
         super(t1x);
@@ -98,6 +104,7 @@ public class VMAT1XCompilation extends AMD64T1XCompilation {
         // we do not want code to be recompiled as the optimizing compiler does not
         // currently support advising.
         methodProfileBuilder = null;
+        methodSlot = VMAdviceSampler.methodSlot(method);
         // Simulate the method entry, so that emitMethodTraceEntry gets the right template
         selectTemplates(VMABytecodes.MENTRY.ordinal());
     }
@@ -135,8 +142,8 @@ public class VMAT1XCompilation extends AMD64T1XCompilation {
     @Override
     protected void finish() {
         if (templates != defaultTemplates && template.tag != null && template.tag != CREATE_MULTIANEWARRAY_DIMENSIONS) {
-            // assign the bci value as the last argument
-            assignInt(template.sig.in.length - 1, "bci", stream.currentBCI());
+            // assign the bci value, tagged with the method slot, as the last argument
+            assignInt(template.sig.in.length - 1, "bci", VMAdviceSampler.tagBci(methodSlot, stream.currentBCI()));
         }
         super.finish();
     }
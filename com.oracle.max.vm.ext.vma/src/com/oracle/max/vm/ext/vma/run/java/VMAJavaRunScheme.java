@@ -28,9 +28,11 @@ import java.io.*;
 import java.lang.ref.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.regex.*;
 
 import com.oracle.max.vm.ext.t1x.vma.*;
 import com.oracle.max.vm.ext.vma.*;
+import com.oracle.max.vm.ext.vma.runtime.*;
 import com.oracle.max.vm.ext.vma.handlers.store.vmlog.h.*;
 import com.sun.max.annotate.*;
 import com.sun.max.unsafe.*;
@@ -301,9 +303,13 @@ public class VMAJavaRunScheme extends JavaRunScheme implements JVMTIException.VM
     }
 
     private void checkSampleMode() {
-        if (VMAOptions.VMASample != null) {
+        // the control file may add windowed kinds at any time
+        if (VMAOptions.VMASample != null || VMAdviceSampler.hasWindowedKinds() || VMAOptions.VMAControl != null) {
             new SampleThread(VMAOptions.VMASample).start();
         }
+        if (VMAOptions.VMAControl != null) {
+            new ControlThread(new File(VMAOptions.VMAControl)).start();
+        }
     }
 
     private static class SampleThread extends Thread {
@@ -317,14 +323,21 @@ public class VMAJavaRunScheme extends JavaRunScheme implements JVMTIException.VM
         private int initialperiod;
         private int period;
 
+        /**
+         * Whether advice is switched off for all threads outside the sampling window, i.e., {@code -XX:VMASample}
+         * was given.
+         */
+        private final boolean sampleThreads;
+
         SampleThread(String option) {
             super("VMASampler");
             setDaemon(true);
+            sampleThreads = option != null;
             try {
                 period = DEFAULT_PERIOD;
                 interval = DEFAULT_INTERVAL;
                 initialperiod = DEFAULT_INITIIAL_PERIOD;
-                String[] options = option.split(",");
+                String[] options = sampleThreads ? option.split(",") : new String[0];
                 if (options.length > 0) {
                     if (options[0].length() > 0) {
                         initialperiod = Integer.parseInt(options[0]);
@@ -351,14 +364,29 @@ public class VMAJavaRunScheme extends JavaRunScheme implements JVMTIException.VM
             while (true) {
                 try {
                     Thread.sleep(initial ? initialperiod : period);
-                    synchronized (VmThreadMap.THREAD_LOCK) {
-                        sampling = false;
-                        VmThreadMap.ACTIVE.forAllThreadLocals(threadPredicate, threadDisableisitor);
+                    // if some advice kinds are sampled by window, only those are subject to the periods
+                    // and the remaining advice is delivered throughout; checked every period as the
+                    // windowed kinds may be changed through the control file
+                    final boolean windowed = VMAdviceSampler.hasWindowedKinds();
+                    if (!windowed && !sampleThreads) {
+                        continue;
+                    }
+                    if (windowed) {
+                        VMAdviceSampler.setWindowOpen(false);
+                    } else {
+                        synchronized (VmThreadMap.THREAD_LOCK) {
+                            sampling = false;
+                            VmThreadMap.ACTIVE.forAllThreadLocals(threadPredicate, threadDisableisitor);
+                        }
                     }
                     Thread.sleep(interval);
-                    synchronized (VmThreadMap.THREAD_LOCK) {
-                        sampling = true;
-                        VmThreadMap.ACTIVE.forAllThreadLocals(threadPredicate, threadEnableisitor);
+                    if (windowed) {
+                        VMAdviceSampler.setWindowOpen(true);
+                    } else {
+                        synchronized (VmThreadMap.THREAD_LOCK) {
+                            sampling = true;
+                            VmThreadMap.ACTIVE.forAllThreadLocals(threadPredicate, threadEnableisitor);
+                        }
                     }
                 } catch (InterruptedException ex) {
 
@@ -397,6 +425,103 @@ public class VMAJavaRunScheme extends JavaRunScheme implements JVMTIException.VM
         }
     }
 
+    /**
+     * Polls the {@link VMAOptions#VMAControl} file and applies its commands whenever it changes.
+     * This allows the advice for methods that are already compiled, and even active, to be switched
+     * on and off without recompilation.
+     */
+    private static class ControlThread extends Thread {
+        private static final int POLL_INTERVAL = 1000;
+
+        private final File file;
+        private long lastModified;
+
+        ControlThread(File file) {
+            super("VMAControl");
+            setDaemon(true);
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            disableAdvising();
+            while (true) {
+                try {
+                    final long modified = file.lastModified();
+                    if (modified != 0 && modified != lastModified) {
+                        lastModified = modified;
+                        apply();
+                    }
+                    Thread.sleep(POLL_INTERVAL);
+                } catch (InterruptedException ex) {
+                }
+            }
+        }
+
+        /**
+         * Reads the control file and replaces the settings made from its previous contents, so that removing a
+         * line undoes its effect. The sampling given by {@code -XX:VMAAdviceSample} is the starting point.
+         */
+        private void apply() {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new FileReader(file));
+                final ArrayList<Pattern> patterns = new ArrayList<Pattern>();
+                final ArrayList<Boolean> settings = new ArrayList<Boolean>();
+                final ArrayList<String> specs = new ArrayList<String>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.length() == 0 || line.charAt(0) == '#') {
+                        continue;
+                    }
+                    final char ch = line.charAt(0);
+                    if (ch == '+' || ch == '-') {
+                        try {
+                            patterns.add(Pattern.compile(line.substring(1)));
+                            settings.add(ch == '+');
+                        } catch (PatternSyntaxException ex) {
+                            ignored(ex.getMessage());
+                        }
+                    } else {
+                        specs.add(line);
+                    }
+                }
+                VMAdviceSampler.resetSampling();
+                if (VMAOptions.VMAAdviceSample != null) {
+                    VMAdviceSampler.configure(VMAOptions.VMAAdviceSample);
+                }
+                for (String spec : specs) {
+                    String error;
+                    try {
+                        error = VMAdviceSampler.configure(spec);
+                    } catch (PatternSyntaxException ex) {
+                        error = ex.getMessage();
+                    }
+                    if (error != null) {
+                        ignored(error);
+                    }
+                }
+                VMAdviceSampler.setRules(patterns, settings);
+            } catch (IOException ex) {
+                Log.print("VMA: error reading control file ");
+                Log.println(file.getPath());
+            } finally {
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    } catch (IOException ex) {
+                    }
+                }
+            }
+        }
+    }
+
+    private static void ignored(String error) {
+        Log.print("VMA: ignoring control command: ");
+        Log.println(error);
+    }
+
     public static void fail(String m) {
         Log.print("VMA: ");
         Log.println(m);
@@ -28,6 +28,7 @@ import static com.oracle.max.vm.ext.vma.run.java.VMAOptions.AdviceModeOption.*;
 import java.util.regex.Pattern;
 
 import com.oracle.max.vm.ext.vma.*;
+import com.oracle.max.vm.ext.vma.runtime.*;
 import com.sun.max.annotate.*;
 import com.sun.max.unsafe.*;
 import com.sun.max.vm.Log;
@@ -290,6 +291,8 @@ public class VMAOptions {
         VMOptions.addFieldOption("-XX:", "VMAConfig", VMAOptions.class, "use pre-defined configuration");
         VMOptions.addFieldOption("-XX:", "VMATime", VMAOptions.class, "specify how time is recorded");
         VMOptions.addFieldOption("-XX:", "VMASample", VMAOptions.class, "run in sample mode; interval,period");
+        VMOptions.addFieldOption("-XX:", "VMAAdviceSample", VMAOptions.class, "sample advice by kind; kindregex:N|w,...");
+        VMOptions.addFieldOption("-XX:", "VMAControl", VMAOptions.class, "file polled for advice control commands");
     }
 
     /**
@@ -359,6 +362,21 @@ public class VMAOptions {
      */
     static String VMASample;
 
+    /**
+     * Per advice kind sampling, see {@link VMAdviceSampler#configure(String)}.
+     * Kinds sampled by window ({@code :w}) are delivered only in the {@link #VMASample} periods.
+     */
+    static String VMAAdviceSample;
+
+    /**
+     * A file that is polled while the VM runs for commands that change the advice being delivered.
+     * Each line is either {@code +methodregex} or {@code -methodregex}, which switches advice on or off
+     * for the matching methods, or a {@link #VMAAdviceSample} specification.
+     * Lines starting with {@code #} are ignored. The file is read again whenever it changes, and its
+     * contents then replace those read before.
+     */
+    static String VMAControl;
+
     /**
      * If not {@code null} a handler-specific checker for which methods to instrument.
      */
@@ -433,6 +451,13 @@ public class VMAOptions {
             }
         }
 
+        if (VMAAdviceSample != null) {
+            String error = VMAdviceSampler.configure(VMAAdviceSample);
+            if (error != null) {
+                VMAJavaRunScheme.fail(error);
+            }
+        }
+
         if (VMATime != null) {
             if (VMATime.startsWith("wall")) {
                 timeMode = VMATime.startsWith("wallns") ? VMATimeMode.WALLNS : VMATimeMode.WALLMS;
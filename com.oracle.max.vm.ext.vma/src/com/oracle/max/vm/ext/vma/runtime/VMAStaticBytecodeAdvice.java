@@ -51,11 +51,46 @@ public class VMAStaticBytecodeAdvice {
 // START GENERATED CODE
 // EDIT AND RUN VMAStaticBytecodeAdviceGenerator.main() TO MODIFY
 
+    private static final int AFTER_NEW_KIND = VMAdviceSampler.kind("adviseAfterNew");
+    private static final int AFTER_NEW_ARRAY_KIND = VMAdviceSampler.kind("adviseAfterNewArray");
+    private static final int AFTER_MULTI_NEW_ARRAY_KIND = VMAdviceSampler.kind("adviseAfterMultiNewArray");
+    private static final int BEFORE_IF_KIND = VMAdviceSampler.kind("adviseBeforeIf");
+    private static final int AFTER_LOAD_KIND = VMAdviceSampler.kind("adviseAfterLoad");
+    private static final int BEFORE_LOAD_KIND = VMAdviceSampler.kind("adviseBeforeLoad");
+    private static final int BEFORE_GOTO_KIND = VMAdviceSampler.kind("adviseBeforeGoto");
+    private static final int BEFORE_CONST_LOAD_KIND = VMAdviceSampler.kind("adviseBeforeConstLoad");
+    private static final int BEFORE_ARRAY_LOAD_KIND = VMAdviceSampler.kind("adviseBeforeArrayLoad");
+    private static final int BEFORE_STORE_KIND = VMAdviceSampler.kind("adviseBeforeStore");
+    private static final int BEFORE_ARRAY_STORE_KIND = VMAdviceSampler.kind("adviseBeforeArrayStore");
+    private static final int BEFORE_CONVERSION_KIND = VMAdviceSampler.kind("adviseBeforeConversion");
+    private static final int BEFORE_RETURN_KIND = VMAdviceSampler.kind("adviseBeforeReturn");
+    private static final int BEFORE_STACK_ADJUST_KIND = VMAdviceSampler.kind("adviseBeforeStackAdjust");
+    private static final int BEFORE_OPERATION_KIND = VMAdviceSampler.kind("adviseBeforeOperation");
+    private static final int BEFORE_GET_STATIC_KIND = VMAdviceSampler.kind("adviseBeforeGetStatic");
+    private static final int BEFORE_PUT_STATIC_KIND = VMAdviceSampler.kind("adviseBeforePutStatic");
+    private static final int BEFORE_GET_FIELD_KIND = VMAdviceSampler.kind("adviseBeforeGetField");
+    private static final int BEFORE_PUT_FIELD_KIND = VMAdviceSampler.kind("adviseBeforePutField");
+    private static final int BEFORE_INVOKE_VIRTUAL_KIND = VMAdviceSampler.kind("adviseBeforeInvokeVirtual");
+    private static final int BEFORE_INVOKE_SPECIAL_KIND = VMAdviceSampler.kind("adviseBeforeInvokeSpecial");
+    private static final int BEFORE_INVOKE_STATIC_KIND = VMAdviceSampler.kind("adviseBeforeInvokeStatic");
+    private static final int BEFORE_INVOKE_INTERFACE_KIND = VMAdviceSampler.kind("adviseBeforeInvokeInterface");
+    private static final int BEFORE_THROW_KIND = VMAdviceSampler.kind("adviseBeforeThrow");
+    private static final int BEFORE_CHECK_CAST_KIND = VMAdviceSampler.kind("adviseBeforeCheckCast");
+    private static final int BEFORE_INSTANCE_OF_KIND = VMAdviceSampler.kind("adviseBeforeInstanceOf");
+    private static final int BEFORE_MONITOR_ENTER_KIND = VMAdviceSampler.kind("adviseBeforeMonitorEnter");
+    private static final int BEFORE_MONITOR_EXIT_KIND = VMAdviceSampler.kind("adviseBeforeMonitorExit");
+    private static final int AFTER_ARRAY_LOAD_KIND = VMAdviceSampler.kind("adviseAfterArrayLoad");
+    private static final int AFTER_ARRAY_LENGTH_KIND = VMAdviceSampler.kind("adviseAfterArrayLength");
+    private static final int AFTER_METHOD_ENTRY_KIND = VMAdviceSampler.kind("adviseAfterMethodEntry");
+
     @NEVER_INLINE
     public static void adviseAfterNew(int arg1, Object arg2) {
+        if (VMAdviceSampler.skip(AFTER_NEW_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterNew(arg1, arg2);
+            adviceHandler().adviseAfterNew(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -65,9 +100,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseAfterNewArray(int arg1, Object arg2, int arg3) {
+        if (VMAdviceSampler.skip(AFTER_NEW_ARRAY_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterNewArray(arg1, arg2, arg3);
+            adviceHandler().adviseAfterNewArray(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -77,9 +115,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseAfterMultiNewArray(int arg1, Object arg2, int[] arg3) {
+        if (VMAdviceSampler.skip(AFTER_MULTI_NEW_ARRAY_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterMultiNewArray(arg1, arg2, arg3);
+            adviceHandler().adviseAfterMultiNewArray(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -89,9 +130,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeIf(int arg1, int arg2, Object arg3, Object arg4, int arg5) {
+        if (VMAdviceSampler.skip(BEFORE_IF_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeIf(arg1, arg2, arg3, arg4, arg5);
+            adviceHandler().adviseBeforeIf(VMAdviceSampler.bci(arg1), arg2, arg3, arg4, arg5);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -101,9 +145,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeIf(int arg1, int arg2, int arg3, int arg4, int arg5) {
+        if (VMAdviceSampler.skip(BEFORE_IF_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeIf(arg1, arg2, arg3, arg4, arg5);
+            adviceHandler().adviseBeforeIf(VMAdviceSampler.bci(arg1), arg2, arg3, arg4, arg5);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -113,9 +160,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseAfterLoad(int arg1, int arg2, Object arg3) {
+        if (VMAdviceSampler.skip(AFTER_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterLoad(arg1, arg2, arg3);
+            adviceHandler().adviseAfterLoad(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -125,9 +175,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeLoad(int arg1, int arg2) {
+        if (VMAdviceSampler.skip(BEFORE_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeLoad(arg1, arg2);
+            adviceHandler().adviseBeforeLoad(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -137,9 +190,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeGoto(int arg1, int arg2) {
+        if (VMAdviceSampler.skip(BEFORE_GOTO_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeGoto(arg1, arg2);
+            adviceHandler().adviseBeforeGoto(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -149,9 +205,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConstLoad(int arg1, double arg2) {
+        if (VMAdviceSampler.skip(BEFORE_CONST_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConstLoad(arg1, arg2);
+            adviceHandler().adviseBeforeConstLoad(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -161,9 +220,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConstLoad(int arg1, float arg2) {
+        if (VMAdviceSampler.skip(BEFORE_CONST_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConstLoad(arg1, arg2);
+            adviceHandler().adviseBeforeConstLoad(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -173,9 +235,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConstLoad(int arg1, long arg2) {
+        if (VMAdviceSampler.skip(BEFORE_CONST_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConstLoad(arg1, arg2);
+            adviceHandler().adviseBeforeConstLoad(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -185,9 +250,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConstLoad(int arg1, Object arg2) {
+        if (VMAdviceSampler.skip(BEFORE_CONST_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConstLoad(arg1, arg2);
+            adviceHandler().adviseBeforeConstLoad(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -197,9 +265,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeArrayLoad(int arg1, Object arg2, int arg3) {
+        if (VMAdviceSampler.skip(BEFORE_ARRAY_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeArrayLoad(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeArrayLoad(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -209,9 +280,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeStore(int arg1, int arg2, float arg3) {
+        if (VMAdviceSampler.skip(BEFORE_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeStore(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeStore(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -221,9 +295,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeStore(int arg1, int arg2, long arg3) {
+        if (VMAdviceSampler.skip(BEFORE_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeStore(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeStore(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -233,9 +310,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeStore(int arg1, int arg2, double arg3) {
+        if (VMAdviceSampler.skip(BEFORE_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeStore(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeStore(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -245,9 +325,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeStore(int arg1, int arg2, Object arg3) {
+        if (VMAdviceSampler.skip(BEFORE_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeStore(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeStore(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -257,9 +340,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeArrayStore(int arg1, Object arg2, int arg3, float arg4) {
+        if (VMAdviceSampler.skip(BEFORE_ARRAY_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeArrayStore(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeArrayStore(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -269,9 +355,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeArrayStore(int arg1, Object arg2, int arg3, long arg4) {
+        if (VMAdviceSampler.skip(BEFORE_ARRAY_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeArrayStore(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeArrayStore(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -281,9 +370,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeArrayStore(int arg1, Object arg2, int arg3, Object arg4) {
+        if (VMAdviceSampler.skip(BEFORE_ARRAY_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeArrayStore(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeArrayStore(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -293,9 +385,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeArrayStore(int arg1, Object arg2, int arg3, double arg4) {
+        if (VMAdviceSampler.skip(BEFORE_ARRAY_STORE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeArrayStore(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeArrayStore(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -305,9 +400,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConversion(int arg1, int arg2, double arg3) {
+        if (VMAdviceSampler.skip(BEFORE_CONVERSION_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConversion(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeConversion(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -317,9 +415,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConversion(int arg1, int arg2, long arg3) {
+        if (VMAdviceSampler.skip(BEFORE_CONVERSION_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConversion(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeConversion(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -329,9 +430,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeConversion(int arg1, int arg2, float arg3) {
+        if (VMAdviceSampler.skip(BEFORE_CONVERSION_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeConversion(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeConversion(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -341,9 +445,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeReturn(int arg1, double arg2) {
+        if (VMAdviceSampler.skip(BEFORE_RETURN_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeReturn(arg1, arg2);
+            adviceHandler().adviseBeforeReturn(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -353,9 +460,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeReturn(int arg1, float arg2) {
+        if (VMAdviceSampler.skip(BEFORE_RETURN_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeReturn(arg1, arg2);
+            adviceHandler().adviseBeforeReturn(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -365,9 +475,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeReturn(int arg1) {
+        if (VMAdviceSampler.skip(BEFORE_RETURN_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeReturn(arg1);
+            adviceHandler().adviseBeforeReturn(VMAdviceSampler.bci(arg1));
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -377,9 +490,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeReturn(int arg1, Object arg2) {
+        if (VMAdviceSampler.skip(BEFORE_RETURN_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeReturn(arg1, arg2);
+            adviceHandler().adviseBeforeReturn(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -389,9 +505,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeReturn(int arg1, long arg2) {
+        if (VMAdviceSampler.skip(BEFORE_RETURN_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeReturn(arg1, arg2);
+            adviceHandler().adviseBeforeReturn(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -401,9 +520,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeStackAdjust(int arg1, int arg2) {
+        if (VMAdviceSampler.skip(BEFORE_STACK_ADJUST_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeStackAdjust(arg1, arg2);
+            adviceHandler().adviseBeforeStackAdjust(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -413,9 +535,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeOperation(int arg1, int arg2, long arg3, long arg4) {
+        if (VMAdviceSampler.skip(BEFORE_OPERATION_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeOperation(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeOperation(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -425,9 +550,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeOperation(int arg1, int arg2, double arg3, double arg4) {
+        if (VMAdviceSampler.skip(BEFORE_OPERATION_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeOperation(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeOperation(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -437,9 +565,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeOperation(int arg1, int arg2, float arg3, float arg4) {
+        if (VMAdviceSampler.skip(BEFORE_OPERATION_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeOperation(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforeOperation(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -449,9 +580,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeGetStatic(int arg1, Object arg2, FieldActor arg3) {
+        if (VMAdviceSampler.skip(BEFORE_GET_STATIC_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeGetStatic(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeGetStatic(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -461,9 +595,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutStatic(int arg1, Object arg2, FieldActor arg3, double arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_STATIC_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutStatic(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutStatic(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -473,9 +610,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutStatic(int arg1, Object arg2, FieldActor arg3, long arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_STATIC_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutStatic(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutStatic(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -485,9 +625,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutStatic(int arg1, Object arg2, FieldActor arg3, float arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_STATIC_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutStatic(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutStatic(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -497,9 +640,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutStatic(int arg1, Object arg2, FieldActor arg3, Object arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_STATIC_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutStatic(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutStatic(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -509,9 +655,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeGetField(int arg1, Object arg2, FieldActor arg3) {
+        if (VMAdviceSampler.skip(BEFORE_GET_FIELD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeGetField(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeGetField(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -521,9 +670,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutField(int arg1, Object arg2, FieldActor arg3, Object arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_FIELD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutField(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutField(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -533,9 +685,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutField(int arg1, Object arg2, FieldActor arg3, double arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_FIELD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutField(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutField(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -545,9 +700,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutField(int arg1, Object arg2, FieldActor arg3, float arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_FIELD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutField(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutField(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -557,9 +715,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforePutField(int arg1, Object arg2, FieldActor arg3, long arg4) {
+        if (VMAdviceSampler.skip(BEFORE_PUT_FIELD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforePutField(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseBeforePutField(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -569,9 +730,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeInvokeVirtual(int arg1, Object arg2, MethodActor arg3) {
+        if (VMAdviceSampler.skip(BEFORE_INVOKE_VIRTUAL_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeInvokeVirtual(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeInvokeVirtual(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -581,9 +745,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeInvokeSpecial(int arg1, Object arg2, MethodActor arg3) {
+        if (VMAdviceSampler.skip(BEFORE_INVOKE_SPECIAL_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeInvokeSpecial(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeInvokeSpecial(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -593,9 +760,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeInvokeStatic(int arg1, Object arg2, MethodActor arg3) {
+        if (VMAdviceSampler.skip(BEFORE_INVOKE_STATIC_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeInvokeStatic(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeInvokeStatic(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -605,9 +775,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeInvokeInterface(int arg1, Object arg2, MethodActor arg3) {
+        if (VMAdviceSampler.skip(BEFORE_INVOKE_INTERFACE_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeInvokeInterface(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeInvokeInterface(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -617,9 +790,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeThrow(int arg1, Object arg2) {
+        if (VMAdviceSampler.skip(BEFORE_THROW_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeThrow(arg1, arg2);
+            adviceHandler().adviseBeforeThrow(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -629,9 +805,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeCheckCast(int arg1, Object arg2, Object arg3) {
+        if (VMAdviceSampler.skip(BEFORE_CHECK_CAST_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeCheckCast(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeCheckCast(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -641,9 +820,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeInstanceOf(int arg1, Object arg2, Object arg3) {
+        if (VMAdviceSampler.skip(BEFORE_INSTANCE_OF_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeInstanceOf(arg1, arg2, arg3);
+            adviceHandler().adviseBeforeInstanceOf(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -653,9 +835,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeMonitorEnter(int arg1, Object arg2) {
+        if (VMAdviceSampler.skip(BEFORE_MONITOR_ENTER_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeMonitorEnter(arg1, arg2);
+            adviceHandler().adviseBeforeMonitorEnter(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -665,9 +850,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseBeforeMonitorExit(int arg1, Object arg2) {
+        if (VMAdviceSampler.skip(BEFORE_MONITOR_EXIT_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseBeforeMonitorExit(arg1, arg2);
+            adviceHandler().adviseBeforeMonitorExit(VMAdviceSampler.bci(arg1), arg2);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -677,9 +865,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseAfterArrayLoad(int arg1, Object arg2, int arg3, Object arg4) {
+        if (VMAdviceSampler.skip(AFTER_ARRAY_LOAD_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterArrayLoad(arg1, arg2, arg3, arg4);
+            adviceHandler().adviseAfterArrayLoad(VMAdviceSampler.bci(arg1), arg2, arg3, arg4);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -689,9 +880,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseAfterArrayLength(int arg1, Object arg2, int arg3) {
+        if (VMAdviceSampler.skip(AFTER_ARRAY_LENGTH_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterArrayLength(arg1, arg2, arg3);
+            adviceHandler().adviseAfterArrayLength(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -701,9 +895,12 @@ public class VMAStaticBytecodeAdvice {
 
     @NEVER_INLINE
     public static void adviseAfterMethodEntry(int arg1, Object arg2, MethodActor arg3) {
+        if (VMAdviceSampler.skip(AFTER_METHOD_ENTRY_KIND, arg1)) {
+            return;
+        }
         disableAdvising();
         try {
-            adviceHandler().adviseAfterMethodEntry(arg1, arg2, arg3);
+            adviceHandler().adviseAfterMethodEntry(VMAdviceSampler.bci(arg1), arg2, arg3);
         } catch (Throwable t) {
             debug(t);
         } finally {
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vm.ext.vma.runtime;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.regex.*;
+
+import com.oracle.max.vm.ext.vma.*;
+import com.sun.max.annotate.*;
+import com.sun.max.vm.actor.member.*;
+
+/**
+ * Decides, on entry to each {@link VMAStaticBytecodeAdvice} method, whether the advice is actually
+ * delivered to the {@link VMAdviceHandler}. This supports two forms of sampling, selected per <i>advice kind</i>,
+ * i.e., per {@link BytecodeAdvice} method name such as {@code adviseBeforeGetField}:
+ * <ul>
+ * <li>rate sampling, where only every Nth execution of the advice is delivered,</li>
+ * <li>window sampling, where the advice is only delivered while the sampling window, which is opened
+ * and closed periodically by the {@code -XX:VMASample} thread, is open.</li>
+ * </ul>
+ * In addition, advice can be switched off (and on again) for individual methods without recompiling them.
+ * To make that possible, {@link com.oracle.max.vm.ext.t1x.vma.VMAT1XCompilation} assigns each instrumented method
+ * a {@link #methodSlot slot} and passes it to the advice in the upper bits of the {@code bci} argument;
+ * {@link #bci(int)} recovers the real bytecode index before the handler is called.
+ *
+ * When neither sampling nor method switching is in use, the only cost is the check of {@link #active}.
+ * Rate sampling uses counters that are shared by all threads and updated without synchronization,
+ * so the rate is approximate. Note that sampling allocation advice, e.g., {@code adviseAfterNew}, will
+ * cause handlers that track object identity to see objects they have no creation record for.
+ */
+public final class VMAdviceSampler {
+
+    /**
+     * The number of bits of the tagged {@code bci} that hold the bytecode index.
+     */
+    public static final int BCI_BITS = 16;
+    public static final int BCI_MASK = (1 << BCI_BITS) - 1;
+    private static final int MAX_METHOD_SLOTS = 1 << (32 - BCI_BITS);
+
+    /**
+     * The advice kinds, the sorted distinct names of the {@link BytecodeAdvice} methods.
+     */
+    public static final String[] KINDS = adviceKinds();
+
+    private static final int[] rates = new int[KINDS.length];
+    private static final int[] countdowns = new int[KINDS.length];
+    private static final boolean[] windowed = new boolean[KINDS.length];
+    private static volatile boolean windowOpen = true;
+
+    /**
+     * Slot {@code 0} is never allocated, so that a {@code bci} without a slot is never switched off.
+     */
+    private static ClassMethodActor[] methods = new ClassMethodActor[1024];
+    private static byte[] methodDisabled = new byte[methods.length];
+    private static int methodCount = 1;
+    private static int disabledCount;
+    private static final Map<ClassMethodActor, Integer> methodSlots = new HashMap<ClassMethodActor, Integer>();
+
+    /**
+     * Rules applied to methods that are assigned a slot after {@link #setAdvising(Pattern, boolean)} or
+     * {@link #setRules(List, List)} was called. The last matching rule wins.
+     */
+    private static final ArrayList<Pattern> rulePatterns = new ArrayList<Pattern>();
+    private static final ArrayList<Boolean> ruleSettings = new ArrayList<Boolean>();
+
+    /**
+     * {@code true} iff any sampling or method switching is in effect.
+     */
+    private static volatile boolean active;
+
+    private VMAdviceSampler() {
+    }
+
+    @HOSTED_ONLY
+    private static String[] adviceKinds() {
+        TreeSet<String> names = new TreeSet<String>();
+        for (Method m : BytecodeAdvice.class.getDeclaredMethods()) {
+            names.add(m.getName());
+        }
+        return names.toArray(new String[names.size()]);
+    }
+
+    /**
+     * Gets the index of the advice kind for the {@link BytecodeAdvice} method {@code name}.
+     */
+    public static int kind(String name) {
+        for (int i = 0; i < KINDS.length; i++) {
+            if (KINDS[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * Determines if the advice of the given kind from the given (tagged) {@code bci} should not be delivered.
+     */
+    @INLINE
+    public static boolean skip(int kind, int taggedBci) {
+        return active && slowSkip(kind, taggedBci);
+    }
+
+    /**
+     * Extracts the bytecode index from a tagged {@code bci}.
+     */
+    @INLINE
+    public static int bci(int taggedBci) {
+        return taggedBci & BCI_MASK;
+    }
+
+    /**
+     * Combines a method slot and a bytecode index into the value passed as the {@code bci} argument of advice.
+     */
+    public static int tagBci(int slot, int bci) {
+        assert bci <= BCI_MASK;
+        return (slot << BCI_BITS) | bci;
+    }
+
+    private static boolean slowSkip(int kind, int taggedBci) {
+        if (disabledCount != 0) {
+            final int slot = taggedBci >>> BCI_BITS;
+            final byte[] disabled = methodDisabled;
+            if (slot < disabled.length && disabled[slot] != 0) {
+                return true;
+            }
+        }
+        if (windowed[kind] && !windowOpen) {
+            return true;
+        }
+        final int rate = rates[kind];
+        if (rate > 1) {
+            final int count = countdowns[kind] - 1;
+            if (count > 0) {
+                countdowns[kind] = count;
+                return true;
+            }
+            countdowns[kind] = rate;
+        }
+        return false;
+    }
+
+    private static void updateActive() {
+        boolean result = disabledCount != 0;
+        for (int i = 0; i < KINDS.length && !result; i++) {
+            result = rates[i] > 1 || windowed[i];
+        }
+        active = result;
+    }
+
+    /**
+     * Applies a sampling specification, a comma separated list of {@code kindpattern:N}, meaning deliver every Nth
+     * advice of the kinds matched by the {@link Pattern regex} {@code kindpattern}, or {@code kindpattern:w}, meaning
+     * deliver the advice only within the sampling window. The kind names may be given without the {@code advise}
+     * prefix, e.g., {@code BeforeGetField:100,AfterNew.*:w}. {@code kindpattern:1} restores full advice.
+     *
+     * @return {@code null} if successful, otherwise a description of the error
+     */
+    public static synchronized String configure(String spec) {
+        for (String element : spec.split(",")) {
+            final int colon = element.lastIndexOf(':');
+            if (colon <= 0) {
+                return "expected kindpattern:N or kindpattern:w in " + element;
+            }
+            final Pattern pattern = Pattern.compile(element.substring(0, colon));
+            final String value = element.substring(colon + 1);
+            int rate = 1;
+            final boolean window = value.equals("w");
+            if (!window) {
+                try {
+                    rate = Integer.parseInt(value);
+                } catch (NumberFormatException ex) {
+                    return "bad sampling rate in " + element;
+                }
+                if (rate < 1) {
+                    return "bad sampling rate in " + element;
+                }
+            }
+            boolean matched = false;
+            for (int i = 0; i < KINDS.length; i++) {
+                if (pattern.matcher(KINDS[i]).matches() || pattern.matcher(KINDS[i].substring("advise".length())).matches()) {
+                    windowed[i] = window;
+                    rates[i] = rate;
+                    countdowns[i] = rate;
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                return "no advice kind matches " + element;
+            }
+        }
+        updateActive();
+        return null;
+    }
+
+    /**
+     * Restores full advice for all kinds, undoing any previous {@link #configure(String)}.
+     */
+    public static synchronized void resetSampling() {
+        for (int i = 0; i < KINDS.length; i++) {
+            windowed[i] = false;
+            rates[i] = 1;
+            countdowns[i] = 1;
+        }
+        updateActive();
+    }
+
+    /**
+     * Determines if any advice kind is subject to window sampling.
+     */
+    public static boolean hasWindowedKinds() {
+        for (int i = 0; i < KINDS.length; i++) {
+            if (windowed[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void setWindowOpen(boolean open) {
+        windowOpen = open;
+    }
+
+    /**
+     * Gets the slot for an instrumented method, allocating one if necessary.
+     * Returns {@code 0} if the slots are exhausted, in which case advice cannot be switched off for the method.
+     */
+    public static synchronized int methodSlot(ClassMethodActor method) {
+        Integer slot = methodSlots.get(method);
+        if (slot == null) {
+            if (methodCount == MAX_METHOD_SLOTS) {
+                return 0;
+            }
+            if (methodCount == methods.length) {
+                final int length = Math.min(methods.length * 2, MAX_METHOD_SLOTS);
+                methods = Arrays.copyOf(methods, length);
+                methodDisabled = Arrays.copyOf(methodDisabled, length);
+            }
+            slot = methodCount++;
+            methods[slot] = method;
+            methodSlots.put(method, slot);
+            if (!rulePatterns.isEmpty()) {
+                final String name = matchName(method);
+                for (int i = rulePatterns.size() - 1; i >= 0; i--) {
+                    if (rulePatterns.get(i).matcher(name).matches()) {
+                        setDisabled(slot, !ruleSettings.get(i));
+                        updateActive();
+                        break;
+                    }
+                }
+            }
+        }
+        return slot;
+    }
+
+    private static String matchName(ClassMethodActor method) {
+        // same form as the -XX:VMAMI pattern
+        return method.format("%H#%n(%p)");
+    }
+
+    private static void setDisabled(int slot, boolean disable) {
+        final boolean disabled = methodDisabled[slot] != 0;
+        if (disable != disabled) {
+            methodDisabled[slot] = (byte) (disable ? 1 : 0);
+            disabledCount += disable ? 1 : -1;
+        }
+    }
+
+    /**
+     * Switches advice on or off for {@code method}, taking effect immediately, including for active invocations.
+     */
+    public static synchronized void setAdvising(ClassMethodActor method, boolean enable) {
+        final int slot = methodSlot(method);
+        if (slot != 0) {
+            setDisabled(slot, !enable);
+            updateActive();
+        }
+    }
+
+    /**
+     * Replaces all the rules set by {@link #setAdvising(Pattern, boolean)} with the given ones, applied in order, so
+     * that advice is switched on for every instrumented method that none of the rules matches.
+     *
+     * @param patterns patterns matched against method names in the form used by {@code -XX:VMAMI}
+     * @param settings whether advice is switched on or off for the methods matched by the corresponding pattern
+     */
+    public static synchronized void setRules(List<Pattern> patterns, List<Boolean> settings) {
+        rulePatterns.clear();
+        ruleSettings.clear();
+        rulePatterns.addAll(patterns);
+        ruleSettings.addAll(settings);
+        for (int slot = 1; slot < methodCount; slot++) {
+            final String name = matchName(methods[slot]);
+            boolean enable = true;
+            for (int i = rulePatterns.size() - 1; i >= 0; i--) {
+                if (rulePatterns.get(i).matcher(name).matches()) {
+                    enable = ruleSettings.get(i);
+                    break;
+                }
+            }
+            setDisabled(slot, !enable);
+        }
+        updateActive();
+    }
+
+    /**
+     * Switches advice on or off for all the methods whose name, in the form used by {@code -XX:VMAMI}, matches
+     * {@code pattern}, including those that are instrumented later.
+     *
+     * @return the number of already instrumented methods that matched
+     */
+    public static synchronized int setAdvising(Pattern pattern, boolean enable) {
+        rulePatterns.add(pattern);
+        ruleSettings.add(enable);
+        int count = 0;
+        for (int slot = 1; slot < methodCount; slot++) {
+            if (pattern.matcher(matchName(methods[slot])).matches()) {
+                setDisabled(slot, !enable);
+                count++;
+            }
+        }
+        updateActive();
+        return count;
+    }
+}
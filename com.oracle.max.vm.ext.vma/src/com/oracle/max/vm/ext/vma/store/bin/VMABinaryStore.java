@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vm.ext.vma.store.bin;
+
+import static com.oracle.max.vm.ext.vma.store.bin.VMABinaryStoreFormat.*;
+
+import java.io.*;
+
+import com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.Key;
+import com.oracle.max.vm.ext.vma.store.txt.sbps.*;
+
+/**
+ * A store that writes the records of {@link SBPSVMATextStore} in the binary form defined by {@link VMABinaryStoreFormat}.
+ * Short forms, repeat ids and per-thread stores are handled exactly as in the text store; only the
+ * representation of the output differs. Each store (one per thread in per-thread mode) has its own buffer,
+ * which is written to the file when it reaches {@link #flushLogAt()} bytes.
+ *
+ * Select this store with {@code -Dmax.vma.store.class=com.oracle.max.vm.ext.vma.store.bin.VMABinaryStore}.
+ */
+public class VMABinaryStore extends SBPSVMATextStore {
+
+    /**
+     * Upper bound on the encoded size of any field other than a {@link VMABinaryStoreFormat#STRING}.
+     */
+    private static final int MAX_FIELD_SIZE = 11;
+
+    private OutputStream out;
+    private byte[] buf;
+    private int pos;
+
+    public VMABinaryStore() {
+    }
+
+    protected VMABinaryStore(String threadName) {
+        super(threadName);
+    }
+
+    @Override
+    protected SBPSVMATextStore createThreadStore(String threadName) {
+        return new VMABinaryStore(threadName);
+    }
+
+    @Override
+    protected void openStore(File file) throws IOException {
+        out = new FileOutputStream(file);
+        buf = new byte[Math.max(bufSize(), 1024)];
+        pos = 0;
+        putInt(MAGIC);
+        putInt(VERSION);
+    }
+
+    @Override
+    protected void closeStore() {
+        try {
+            flushBuffer();
+            out.close();
+        } catch (IOException ex) {
+            System.err.println("failed to close VMA store: " + ex);
+        }
+    }
+
+    @Override
+    protected void endRecord() {
+        ensure(1);
+        buf[pos++] = END;
+        if (pos >= flushLogAt()) {
+            flushBuffer();
+        }
+    }
+
+    @Override
+    protected void appendKey(Key key, boolean text) {
+        ensure(1);
+        buf[pos++] = (byte) (text ? key.ordinal() | TEXT_KEY_BIT : key.ordinal());
+    }
+
+    @Override
+    protected void appendSpace() {
+        // fields are self-delimiting
+    }
+
+    @Override
+    protected void appendQuoted(String value) {
+        putString(value);
+    }
+
+    @Override
+    protected void append(String value) {
+        if (isCanonicalNumber(value)) {
+            append(Long.parseLong(value));
+        } else {
+            putString(value);
+        }
+    }
+
+    @Override
+    protected void append(char value) {
+        ensure(MAX_FIELD_SIZE);
+        buf[pos++] = CHAR;
+        putVarint(value);
+    }
+
+    @Override
+    protected void append(boolean value) {
+        ensure(1);
+        buf[pos++] = value ? TRUE : FALSE;
+    }
+
+    @Override
+    protected void append(int value) {
+        append((long) value);
+    }
+
+    @Override
+    protected void append(long value) {
+        ensure(MAX_FIELD_SIZE);
+        buf[pos++] = LONG;
+        putVarint(zigZag(value));
+    }
+
+    @Override
+    protected void append(float value) {
+        ensure(MAX_FIELD_SIZE);
+        buf[pos++] = FLOAT;
+        putInt(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    protected void append(double value) {
+        ensure(MAX_FIELD_SIZE);
+        buf[pos++] = DOUBLE;
+        final long bits = Double.doubleToRawLongBits(value);
+        putInt((int) (bits >>> 32));
+        putInt((int) bits);
+    }
+
+    private void putString(String value) {
+        byte[] bytes;
+        try {
+            bytes = value.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException ex) {
+            throw new InternalError();
+        }
+        ensure(MAX_FIELD_SIZE);
+        buf[pos++] = STRING;
+        putVarint(bytes.length);
+        if (pos + bytes.length > buf.length) {
+            flushBuffer();
+        }
+        if (bytes.length > buf.length) {
+            write(bytes, bytes.length);
+        } else {
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    private void putInt(int value) {
+        buf[pos++] = (byte) (value >>> 24);
+        buf[pos++] = (byte) (value >>> 16);
+        buf[pos++] = (byte) (value >>> 8);
+        buf[pos++] = (byte) value;
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        write(buf, pos);
+        pos = 0;
+    }
+
+    private void write(byte[] bytes, int length) {
+        try {
+            out.write(bytes, 0, length);
+        } catch (IOException ex) {
+            System.err.println("failed to write VMA store: " + ex);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vm.ext.vma.store.bin;
+
+import com.oracle.max.vm.ext.vma.store.txt.*;
+
+/**
+ * Defines a compact binary encoding of the {@link VMATextStoreFormat} records.
+ *
+ * The store starts with the 4 byte {@link #MAGIC} and a 4 byte {@link #VERSION} (big-endian).
+ * It is followed by records with exactly the same fields as in the text format, each of which is
+ * encoded as:
+ * <ul>
+ * <li>one byte holding the {@link VMATextStoreFormat.Key#ordinal() ordinal} of the record key,
+ * or'ed with {@link #TEXT_KEY_BIT} if the text format would have used {@link VMATextStoreFormat.Key#text},</li>
+ * <li>a sequence of fields, each a tag byte followed by a tag-specific value,</li>
+ * <li>an {@link #END} tag.</li>
+ * </ul>
+ * Integral values, including ids, times, bytecode indices and (numeric) short forms, are stored
+ * as <i>varints</i>: zig-zag encoded and then written 7 bits at a time, least significant first,
+ * with the top bit of each byte set if more bytes follow. Floating point values are stored in their raw IEEE
+ * form. Strings are stored as a varint length followed by the UTF-8 bytes.
+ *
+ * A field decodes to the same string that the text format would contain, so a reader can produce exactly
+ * the same split records as for a text store.
+ */
+public final class VMABinaryStoreFormat {
+
+    public static final int MAGIC = 0x564D4142; // "VMAB"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+
+    public static final int TEXT_KEY_BIT = 0x80;
+
+    public static final byte END = 0;
+    public static final byte LONG = 1;
+    public static final byte FLOAT = 2;
+    public static final byte DOUBLE = 3;
+    public static final byte STRING = 4;
+    public static final byte CHAR = 5;
+    public static final byte TRUE = 6;
+    public static final byte FALSE = 7;
+
+    private VMABinaryStoreFormat() {
+    }
+
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Determines if {@code s} is the canonical decimal representation of a non-negative {@code long}
+     * that can be stored as a {@link #LONG} field without changing its decoded form.
+     */
+    public static boolean isCanonicalNumber(String s) {
+        final int length = s.length();
+        if (length == 0 || length > 18 || (length > 1 && s.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
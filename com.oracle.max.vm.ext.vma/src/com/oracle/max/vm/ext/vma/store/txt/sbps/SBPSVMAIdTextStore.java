@@ -180,15 +180,14 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     }
 
     /**
-     * Creates a {@link PrintStream} and a {@link StringBuilder}.
+     * Opens the persistent store and writes the header.
      * @param fileName to use for store
      * @return {@code true} iff the persistent store was created ok
      */
     private static boolean createPersistentStore(SBPSVMAIdTextStore store, String fileName) {
         File file = new File(storeFileDir, fileName);
         try {
-            store.ps = new PrintStream(new FileOutputStream(file));
-            store.sb = new StringBuilder(store.bufSize);
+            store.openStore(file);
             // Format log buffer with header information
             store.appendStoreHeader();
             return true;
@@ -198,6 +197,34 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
         }
     }
 
+    /**
+     * Creates the output for this store, by default a {@link PrintStream} and a {@link StringBuilder}.
+     * A subclass that overrides this method must also override the other methods that
+     * access the output, i.e. {@link #appendKey}, the {@code append} methods, {@link #endRecord} and {@link #closeStore}.
+     */
+    protected void openStore(File file) throws IOException {
+        ps = new PrintStream(new FileOutputStream(file));
+        sb = new StringBuilder(bufSize);
+    }
+
+    protected void closeStore() {
+        ps.close();
+    }
+
+    /**
+     * The size of the store buffer.
+     */
+    protected int bufSize() {
+        return bufSize;
+    }
+
+    /**
+     * The buffer size at which the buffer is written to the output, zero to write every record.
+     */
+    protected int flushLogAt() {
+        return flushLogAt;
+    }
+
     @Override
     public VMATextStore newThread(String threadName) {
         if (perThread) {
@@ -215,11 +242,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     private void appendStoreHeader() {
         appendCode(INITIALIZE_STORE);
         appendSpace();
-        sb.append(lastTime);
+        append(lastTime);
         appendSpace();
-        sb.append(timeMode.isAbsolute());
+        append(timeMode.isAbsolute());
         appendSpace();
-        sb.append((threadBatched ? BATCHED : 0) | (perThread ? PER_THREAD : 0) | (textKey ? TEXT_KEY : 0));
+        append((threadBatched ? BATCHED : 0) | (perThread ? PER_THREAD : 0) | (textKey ? TEXT_KEY : 0));
         end();
     }
 
@@ -263,16 +290,12 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
 
     protected void finalizeLogBuffer() {
         // Must not call appendCode else will block!
-        if (textKey) {
-            sb.append(FINALIZE_STORE.text);
-        } else {
-            sb.append(FINALIZE_STORE.code);
-        }
+        appendKey(FINALIZE_STORE, textKey);
         appendSpace();
         appendTime(timeMode.getTime());
         flushLogAt = 0; // force ps.flush
         end();
-        ps.close();
+        closeStore();
     }
 
     /*
@@ -280,38 +303,35 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
      */
     @Override
     public void addClassShortFormDef(String name, long clId, String shortName) {
-        sb.append(VMATextStoreFormat.Key.CLASS_DEFINITION.code);
+        appendKey(CLASS_DEFINITION, false);
         appendSpace();
-        sb.append(name);
+        append(name);
         appendSpace();
-        sb.append(clId);
+        append(clId);
         appendSpace();
-        sb.append(shortName);
+        append(shortName);
         end();
     }
 
     @Override
     public void addThreadShortFormDef(String name, String shortName) {
-        sb.append(VMATextStoreFormat.Key.THREAD_DEFINITION.code);
+        appendKey(THREAD_DEFINITION, false);
         appendSpace();
-        // quote because name may contain a space
-        sb.append('"');
-        sb.append(name);
-        sb.append('"');
+        appendQuoted(name);
         appendSpace();
-        sb.append(shortName);
+        append(shortName);
         end();
     }
 
     @Override
     public void addMemberShortFormDef(VMATextStoreFormat.Key key, String classShortForm, String name, String shortName) {
-        sb.append(key.code);
+        appendKey(key, false);
         appendSpace();
-        sb.append(classShortForm);
+        append(classShortForm);
         appendSpace();
-        sb.append(name);
+        append(name);
         appendSpace();
-        sb.append(shortName);
+        append(shortName);
         end();
     }
 
@@ -326,42 +346,90 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
             daemonLock.lock();
         }
         done = false;
-        if (textKey) {
-            sb.append(key.text);
-        } else {
-            sb.append(key.code);
-        }
+        appendKey(key, textKey);
     }
 
     protected void end() {
+        endRecord();
+        done = true;
+    }
+
+    /**
+     * Terminates the current record and writes the buffer to the output if it has reached {@link #flushLogAt()}.
+     */
+    protected void endRecord() {
         sb.append('\n');
         if (sb.length()  >= flushLogAt) {
             ps.print(sb);
             ps.flush();
             sb.setLength(0);
         }
-        done = true;
+    }
+
+    /**
+     * Appends the form of {@code key} that starts a record.
+     * @param text {@code true} to append {@link Key#text}, {@code false} for {@link Key#code}
+     */
+    protected void appendKey(Key key, boolean text) {
+        sb.append(text ? key.text : key.code);
+    }
+
+    /**
+     * Appends a value that may contain spaces.
+     */
+    protected void appendQuoted(String value) {
+        sb.append('"');
+        sb.append(value);
+        sb.append('"');
+    }
+
+    protected void append(String value) {
+        sb.append(value);
+    }
+
+    protected void append(char value) {
+        sb.append(value);
+    }
+
+    protected void append(boolean value) {
+        sb.append(value);
+    }
+
+    protected void append(int value) {
+        sb.append(value);
+    }
+
+    protected void append(long value) {
+        sb.append(value);
+    }
+
+    protected void append(float value) {
+        sb.append(value);
+    }
+
+    protected void append(double value) {
+        sb.append(value);
     }
 
     private void appendCheckRepeatId(long objId) {
         if (objId == REPEAT_ID_VALUE) {
-            sb.append('*');
+            append('*');
         } else {
-            sb.append(objId);
+            append(objId);
         }
     }
 
     private void appendTime(long time) {
         if (timeMode.isAbsolute()) {
-            sb.append(time);
+            append(time);
         } else {
-            sb.append(time - lastTime);
+            append(time - lastTime);
             lastTime = time;
         }
     }
 
-    private void appendSpace() {
-        sb.append(' ');
+    protected void appendSpace() {
+        append(' ');
     }
 
 
@@ -378,13 +446,13 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
         appendTime(time);
         if (threadName != null) {
             appendSpace();
-            sb.append(threadName);
+            append(threadName);
         } else {
             assert perThread;
         }
         if (bci >= 0) {
             appendSpace();
-            sb.append(bci);
+            append(bci);
         }
     }
 
@@ -411,7 +479,7 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
         appendSpace();
         appendCheckRepeatId(objId);
         appendSpace();
-        sb.append(index);
+        append(index);
         appendSpace();
     }
 
@@ -421,16 +489,16 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
      * @param qualName
      */
     private void appendQualName(String className, long clId, String memberName) {
-        sb.append(className);
+        append(className);
         appendSpace();
         // clId elided as in short form of className
-        sb.append(memberName);
+        append(memberName);
     }
 
     private void appendQualId(int classId, int memberId) {
-        sb.append(classId);
+        append(classId);
         appendSpace();
-        sb.append(memberId);
+        append(memberId);
     }
 
     /**
@@ -444,40 +512,40 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     private void appendTTC(long time, Key key, String className, String threadName, int bci) {
         appendTT(time, key, threadName, bci);
         appendSpace();
-        sb.append(className);
+        append(className);
         appendSpace();
     }
 
     private void appendPutFieldPrefix(long time, long objId, String memberName, String threadName, int bci) {
         appendTTId(time, ADVISE_BEFORE_PUT_FIELD, objId, threadName, bci);
-        sb.append(memberName);
+        append(memberName);
         appendSpace();
     }
 
     private void appendPutFieldPrefix(long time, long objId, int memberId, int bci) {
         appendTTId(time, ADVISE_BEFORE_PUT_FIELD, objId, null, bci);
-        sb.append(memberId);
+        append(memberId);
         appendSpace();
     }
 
     private void appendPutStaticPrefix(long time, String memberName, String threadName, int bci) {
         appendTT(time, ADVISE_BEFORE_PUT_STATIC, threadName, bci);
         appendSpace();
-        sb.append(memberName);
+        append(memberName);
         appendSpace();
     }
 
     private void appendPutStaticPrefix(long time, int memberId, int bci) {
         appendTT(time, ADVISE_BEFORE_PUT_STATIC, null, bci);
         appendSpace();
-        sb.append(memberId);
+        append(memberId);
         appendSpace();
     }
 
     private void prefixAdviseBeforeOperation(long time, String threadName, int bci, int arg1) {
         appendTT(time, ADVISE_BEFORE_OPERATION, threadName, bci);
         appendSpace();
-        sb.append(arg1);
+        append(arg1);
         appendSpace();
     }
 
@@ -485,7 +553,7 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void removal(long id) {
         appendCode(REMOVAL);
         appendSpace();
-        sb.append(id);
+        append(id);
         end();
     }
 
@@ -499,7 +567,7 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
             appendCode(THREAD_SWITCH);
             appendSpace();
             lastTime = time;
-            sb.append(lastTime);
+            append(lastTime);
             end();
         }
     }
@@ -509,7 +577,7 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
         // There is no "bci" field for this, but we pass zero so that the format of the record is
         // the same as that for a NEW etc.
         appendTTId(time, UNSEEN, objId, threadName, bci);
-        sb.append(shortClassName);
+        append(shortClassName);
         end();
     }
 
@@ -536,86 +604,86 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeGetStatic(long time, String threadName, int bci, String shortFieldName) {
         appendTT(time, ADVISE_BEFORE_GET_STATIC, threadName, bci);
         appendSpace();
-        sb.append(shortFieldName);
+        append(shortFieldName);
         end();
     }
 
     @Override
     public void adviseBeforePutStatic(long time, String threadName, int bci, String shortFieldName, double value) {
         appendPutStaticPrefix(time, shortFieldName, threadName, bci);
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutStatic(long time, String threadName, int bci, String shortFieldName, long value) {
         appendPutStaticPrefix(time, shortFieldName, threadName, bci);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutStatic(long time, String threadName, int bci, String shortFieldName, float value) {
         appendPutStaticPrefix(time, shortFieldName, threadName, bci);
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutStaticObject(long time, String threadName, int bci, String shortFieldName, long value) {
         appendPutStaticPrefix(time, shortFieldName, threadName, bci);
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforeGetField(long time, String threadName, int bci, long objId, String shortFieldName) {
         appendTTId(time, ADVISE_BEFORE_GET_FIELD, objId, threadName, bci);
-        sb.append(shortFieldName);
+        append(shortFieldName);
         end();
     }
 
     @Override
     public void adviseBeforePutField(long time, String threadName, int bci, long objId, String shortFieldName, long value) {
         appendPutFieldPrefix(time, objId, shortFieldName, threadName, bci);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutField(long time, String threadName, int bci, long objId, String shortFieldName, float value) {
         appendPutFieldPrefix(time, objId, shortFieldName, threadName, bci);
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutField(long time, String threadName, int bci, long objId, String shortFieldName, double value) {
         appendPutFieldPrefix(time, objId, shortFieldName, threadName, bci);
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutFieldObject(long time, String threadName, int bci, long objId, String shortFieldName, long value) {
         appendPutFieldPrefix(time, objId, shortFieldName, threadName, bci);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -628,61 +696,61 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     @Override
     public void adviseBeforeArrayStore(long time, String threadName, int bci, long objId, int index, float value) {
         appendTTIdIndex(time, ADVISE_BEFORE_ARRAY_STORE, objId, threadName, bci, index);
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforeArrayStore(long time, String threadName, int bci, long objId, int index, long value) {
         appendTTIdIndex(time, ADVISE_BEFORE_ARRAY_STORE, objId, threadName, bci, index);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforeArrayStore(long time, String threadName, int bci, long objId, int index, double value) {
         appendTTIdIndex(time, ADVISE_BEFORE_ARRAY_STORE, objId, threadName, bci, index);
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforeArrayStoreObject(long time, String threadName, int bci, long objId, int index, long valueId) {
         appendTTIdIndex(time, ADVISE_BEFORE_ARRAY_STORE, objId, threadName, bci, index);
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(valueId);
+        append(valueId);
         end();
     }
 
     @Override
     public void adviseAfterArrayLoadObject(long time, String threadName, int bci, long objId, int index, long valueId) {
         appendTTIdIndex(time, ADVISE_AFTER_ARRAY_LOAD, objId, threadName, bci, index);
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(valueId);
+        append(valueId);
         end();
     }
 
     @Override
     public void adviseAfterNew(long time, String threadName, int bci, long objId, String shortClassName) {
         appendTTId(time, ADVISE_AFTER_NEW, objId, threadName, bci);
-        sb.append(shortClassName);
+        append(shortClassName);
         end();
     }
 
     @Override
     public void adviseAfterNewArray(long time, String threadName, int bci, long objId, String shortClassName, int length) {
         appendTTId(time, ADVISE_AFTER_NEW_ARRAY, objId, threadName, bci);
-        sb.append(shortClassName);
+        append(shortClassName);
         appendSpace();
-        sb.append(length);
+        append(length);
         end();
     }
 
@@ -703,9 +771,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConstLoad(long time, String threadName, int bci, long value) {
         appendTT(time, ADVISE_BEFORE_CONST_LOAD, threadName, bci);
         appendSpace();
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -713,9 +781,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConstLoadObject(long time, String threadName, int bci, long value) {
         appendTT(time, ADVISE_BEFORE_CONST_LOAD, threadName, bci);
         appendSpace();
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -723,9 +791,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConstLoad(long time, String threadName, int bci, float value) {
         appendTT(time, ADVISE_BEFORE_CONST_LOAD, threadName, bci);
         appendSpace();
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -733,9 +801,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConstLoad(long time, String threadName, int bci, double value) {
         appendTT(time, ADVISE_BEFORE_CONST_LOAD, threadName, bci);
         appendSpace();
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -743,7 +811,7 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeLoad(long time, String threadName, int bci, int dispToLocalSlot) {
         appendTT(time, ADVISE_BEFORE_LOAD, threadName, bci);
         appendSpace();
-        sb.append(dispToLocalSlot);
+        append(dispToLocalSlot);
         end();
     }
 
@@ -751,11 +819,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeStore(long time, String threadName, int bci, int dispToLocalSlot, long value) {
         appendTT(time, ADVISE_BEFORE_STORE, threadName, bci);
         appendSpace();
-        sb.append(dispToLocalSlot);
+        append(dispToLocalSlot);
         appendSpace();
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -763,11 +831,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeStore(long time, String threadName, int bci, int dispToLocalSlot, float value) {
         appendTT(time, ADVISE_BEFORE_STORE, threadName, bci);
         appendSpace();
-        sb.append(dispToLocalSlot);
+        append(dispToLocalSlot);
         appendSpace();
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -775,11 +843,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeStore(long time, String threadName, int bci, int dispToLocalSlot, double value) {
         appendTT(time, ADVISE_BEFORE_STORE, threadName, bci);
         appendSpace();
-        sb.append(dispToLocalSlot);
+        append(dispToLocalSlot);
         appendSpace();
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -787,11 +855,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeStoreObject(long time, String threadName, int bci, int dispToLocalSlot, long value) {
         appendTT(time, ADVISE_BEFORE_STORE, threadName, bci);
         appendSpace();
-        sb.append(dispToLocalSlot);
+        append(dispToLocalSlot);
         appendSpace();
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -799,11 +867,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseAfterLoadObject(long time, String threadName, int bci, int dispToLocalSlot, long value) {
         appendTT(time, ADVISE_AFTER_LOAD, threadName, bci);
         appendSpace();
-        sb.append(dispToLocalSlot);
+        append(dispToLocalSlot);
         appendSpace();
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -811,40 +879,40 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeStackAdjust(long time, String threadName, int bci, int arg1) {
         appendTT(time, ADVISE_BEFORE_STACK_ADJUST, threadName, bci);
         appendSpace();
-        sb.append(arg1);
+        append(arg1);
         end();
     }
 
     @Override
     public void adviseBeforeOperation(long time, String threadName, int bci, int arg1, long arg2, long arg3) {
         prefixAdviseBeforeOperation(time, threadName, bci, arg1);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(arg2);
+        append(arg2);
         appendSpace();
-        sb.append(arg3);
+        append(arg3);
         end();
     }
 
     @Override
     public void adviseBeforeOperation(long time, String threadName, int bci, int arg1, float arg2, float arg3) {
         prefixAdviseBeforeOperation(time, threadName, bci, arg1);
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(arg2);
+        append(arg2);
         appendSpace();
-        sb.append(arg3);
+        append(arg3);
         end();
     }
 
     @Override
     public void adviseBeforeOperation(long time, String threadName, int bci, int arg1, double arg2, double arg3) {
         prefixAdviseBeforeOperation(time, threadName, bci, arg1);
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(arg2);
+        append(arg2);
         appendSpace();
-        sb.append(arg3);
+        append(arg3);
         end();
     }
 
@@ -852,11 +920,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConversion(long time, String threadName, int bci, int arg1, long arg2) {
         appendTT(time, ADVISE_BEFORE_CONVERSION, threadName, bci);
         appendSpace();
-        sb.append(arg1);
+        append(arg1);
         appendSpace();
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(arg2);
+        append(arg2);
         end();
     }
 
@@ -864,11 +932,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConversion(long time, String threadName, int bci, int arg1, float arg2) {
         appendTT(time, ADVISE_BEFORE_CONVERSION, threadName, bci);
         appendSpace();
-        sb.append(arg1);
+        append(arg1);
         appendSpace();
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(arg2);
+        append(arg2);
         end();
     }
 
@@ -876,11 +944,11 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeConversion(long time, String threadName, int bci, int arg1, double arg2) {
         appendTT(time, ADVISE_BEFORE_CONVERSION, threadName, bci);
         appendSpace();
-        sb.append(arg1);
+        append(arg1);
         appendSpace();
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(arg2);
+        append(arg2);
         end();
     }
 
@@ -888,15 +956,15 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeIf(long time, String threadName, int bci, int opcode, int op1, int op2, int branchOffset) {
         appendTT(time, ADVISE_BEFORE_IF, threadName, bci);
         appendSpace();
-        sb.append(opcode);
+        append(opcode);
         appendSpace();
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(op1);
+        append(op1);
         appendSpace();
-        sb.append(op2);
+        append(op2);
         appendSpace();
-        sb.append(branchOffset);
+        append(branchOffset);
         end();
     }
 
@@ -904,15 +972,15 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeIfObject(long time, String threadName, int bci, int opcode, long objId1, long objId2, int branchOffset) {
         appendTT(time, ADVISE_BEFORE_IF, threadName, bci);
         appendSpace();
-        sb.append(opcode);
+        append(opcode);
         appendSpace();
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(objId1);
+        append(objId1);
         appendSpace();
-        sb.append(objId2);
+        append(objId2);
         appendSpace();
-        sb.append(branchOffset);
+        append(branchOffset);
         end();
     }
 
@@ -920,7 +988,7 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeGoto(long time, String threadName, int bci, int branchOffset) {
         appendTT(time, ADVISE_BEFORE_GOTO, threadName, bci);
         appendSpace();
-        sb.append(branchOffset);
+        append(branchOffset);
         end();
     }
 
@@ -928,9 +996,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeReturnObject(long time, String threadName, int bci, long value) {
         appendTT(time, ADVISE_BEFORE_RETURN, threadName, bci);
         appendSpace();
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -938,9 +1006,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeReturn(long time, String threadName, int bci, long value) {
         appendTT(time, ADVISE_BEFORE_RETURN, threadName, bci);
         appendSpace();
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -948,9 +1016,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeReturn(long time, String threadName, int bci, float value) {
         appendTT(time, ADVISE_BEFORE_RETURN, threadName, bci);
         appendSpace();
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -958,9 +1026,9 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeReturn(long time, String threadName, int bci, double value) {
         appendTT(time, ADVISE_BEFORE_RETURN, threadName, bci);
         appendSpace();
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
@@ -973,35 +1041,35 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     @Override
     public void adviseBeforeInvokeVirtual(long time, String threadName, int bci, long objId, String shortMethodName) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_VIRTUAL, objId, threadName, bci);
-        sb.append(shortMethodName);
+        append(shortMethodName);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeSpecial(long time, String threadName, int bci, long objId, String shortMethodName) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_SPECIAL, objId, threadName, bci);
-        sb.append(shortMethodName);
+        append(shortMethodName);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeStatic(long time, String threadName, int bci, long objId, String shortMethodName) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_STATIC, objId, threadName, bci);
-        sb.append(shortMethodName);
+        append(shortMethodName);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeInterface(long time, String threadName, int bci, long objId, String shortMethodName) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_INTERFACE, objId, threadName, bci);
-        sb.append(shortMethodName);
+        append(shortMethodName);
         end();
     }
 
     @Override
     public void adviseAfterArrayLength(long time, String threadName, int bci, long objId, int length) {
         appendTTId(time, ADVISE_AFTER_ARRAY_LENGTH, objId, threadName, bci);
-        sb.append(length);
+        append(length);
         end();
     }
 
@@ -1014,14 +1082,14 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     @Override
     public void adviseBeforeCheckCast(long time, String threadName, int bci, long objId, String shortClassName) {
         appendTTId(time, ADVISE_BEFORE_CHECK_CAST, objId, threadName, bci);
-        sb.append(shortClassName);
+        append(shortClassName);
         end();
     }
 
     @Override
     public void adviseBeforeInstanceOf(long time, String threadName, int bci, long objId, String shortClassName) {
         appendTTId(time, ADVISE_BEFORE_INSTANCE_OF, objId, threadName, bci);
-        sb.append(shortClassName);
+        append(shortClassName);
         end();
     }
 
@@ -1040,13 +1108,13 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     @Override
     public void adviseAfterMethodEntry(long time, String threadName, int bci, long objId, String shortMethodName) {
         appendTTId(time, ADVISE_AFTER_METHOD_ENTRY, objId, threadName, bci);
-        sb.append(shortMethodName);
+        append(shortMethodName);
         end();
     }
     @Override
     public void adviseBeforeReturnByThrow(long time, String threadName, int bci, long objId, int poppedFrames) {
         appendTTId(time, ADVISE_BEFORE_RETURN_BY_THROW, objId, threadName, bci);
-        sb.append(poppedFrames);
+        append(poppedFrames);
         end();
 
     }
@@ -1054,23 +1122,23 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     @Override
     public void unseenObject(long time, int bci, long objId, int classId) {
         appendTTId(time, UNSEEN, objId, null, bci);
-        sb.append(classId);
+        append(classId);
         end();
     }
 
     @Override
     public void adviseAfterNew(long time, int bci, long objId, int classId) {
         appendTTId(time, ADVISE_AFTER_NEW, objId, null, bci);
-        sb.append(classId);
+        append(classId);
         end();
     }
 
     @Override
     public void adviseAfterNewArray(long time, int bci, long objId, int classId, int length) {
         appendTTId(time, ADVISE_AFTER_NEW_ARRAY, objId, null, bci);
-        sb.append(classId);
+        append(classId);
         appendSpace();
-        sb.append(length);
+        append(length);
         end();
     }
 
@@ -1083,135 +1151,135 @@ public abstract class SBPSVMAIdTextStore implements VMAIdTextStoreIntf {
     public void adviseBeforeGetStatic(long time, int bci, int fieldId) {
         appendTT(time, ADVISE_BEFORE_GET_STATIC, null, bci);
         appendSpace();
-        sb.append(fieldId);
+        append(fieldId);
         end();
     }
 
     @Override
     public void adviseBeforePutStatic(long time, int bci, int fieldId, float value) {
         appendPutStaticPrefix(time, fieldId, bci);
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutStatic(long time, int bci, int fieldId, double value) {
         appendPutStaticPrefix(time, fieldId, bci);
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutStatic(long time, int bci, int fieldId, long value) {
         appendPutStaticPrefix(time, fieldId, bci);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutStaticObject(long time, int bci, int fieldId, long value) {
         appendPutStaticPrefix(time, fieldId, bci);
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforeGetField(long time, int bci, long objId, int fieldId) {
         appendTTId(time, ADVISE_BEFORE_GET_FIELD, objId, null, bci);
-        sb.append(fieldId);
+        append(fieldId);
         end();
     }
 
     @Override
     public void adviseBeforePutField(long time, int bci, long objId, int fieldId, float value) {
         appendPutFieldPrefix(time, objId, fieldId, bci);
-        sb.append(FLOAT_VALUE);
+        append(FLOAT_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutField(long time, int bci, long objId, int fieldId, long value) {
         appendPutFieldPrefix(time, objId, fieldId, bci);
-        sb.append(LONG_VALUE);
+        append(LONG_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutField(long time, int bci, long objId, int fieldId, double value) {
         appendPutFieldPrefix(time, objId, fieldId, bci);
-        sb.append(DOUBLE_VALUE);
+        append(DOUBLE_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforePutFieldObject(long time, int bci, long objId, int fieldId, long value) {
         appendPutFieldPrefix(time, objId, fieldId, bci);
-        sb.append(OBJ_VALUE);
+        append(OBJ_VALUE);
         appendSpace();
-        sb.append(value);
+        append(value);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeVirtual(long time, int bci, long objId, int methodId) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_VIRTUAL, objId, null, bci);
-        sb.append(methodId);
+        append(methodId);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeSpecial(long time, int bci, long objId, int methodId) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_SPECIAL, objId, null, bci);
-        sb.append(methodId);
+        append(methodId);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeStatic(long time, int bci, long objId, int methodId) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_STATIC, objId, null, bci);
-        sb.append(methodId);
+        append(methodId);
         end();
     }
 
     @Override
     public void adviseBeforeInvokeInterface(long time, int bci, long objId, int methodId) {
         appendTTId(time, ADVISE_BEFORE_INVOKE_INTERFACE, objId, null, bci);
-        sb.append(methodId);
+        append(methodId);
         end();
     }
 
     @Override
     public void adviseBeforeCheckCast(long time, int bci, long objId, int classId) {
         appendTTId(time, ADVISE_BEFORE_CHECK_CAST, objId, null, bci);
-        sb.append(classId);
+        append(classId);
         end();
     }
 
     @Override
     public void adviseBeforeInstanceOf(long time, int bci, long objId, int classId) {
         appendTTId(time, ADVISE_BEFORE_INSTANCE_OF, objId, null, bci);
-        sb.append(classId);
+        append(classId);
         end();
     }
 
     @Override
     public void adviseAfterMethodEntry(long time, int bci, long objId, int methodId) {
         appendTTId(time, ADVISE_AFTER_METHOD_ENTRY, objId, null, bci);
-        sb.append(methodId);
+        append(methodId);
         end();
     }
 
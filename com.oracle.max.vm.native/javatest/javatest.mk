@@ -27,7 +27,7 @@ LIB = javatest
 
 include $(PROJECT)/platform/platform.mk
 
-SOURCES = jvmni.c tests.c threads.c jnitests.c
+SOURCES = jvmni.c tests.c jnibench.c threads.c jnitests.c
 
 SOURCE_DIRS = javatest jni platform hosted share substrate
 
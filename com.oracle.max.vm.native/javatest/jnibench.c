@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/**
+ * Native code for the JNI micro benchmarks in test.bench.threads.
+ */
+#include "os.h"
+
+#include "jni.h"
+
+#define WINDOW 16
+
+/*
+ * Creates and deletes global (or weak global) references to 'object' 'count' times, keeping
+ * up to WINDOW references alive so that handles are not always freed in the order allocated.
+ * Returns the number of references created, or -1 if a creation failed.
+ */
+JNIEXPORT jint JNICALL
+Java_test_bench_threads_JNI_1globalRefs_createDeleteGlobalRefs(JNIEnv *env, jclass cls, jobject object, jint count, jboolean weak) {
+    jobject refs[WINDOW];
+    jint i;
+    jint created = 0;
+
+    for (i = 0; i < count; i++) {
+        int slot = i % WINDOW;
+        jobject ref;
+        if (i >= WINDOW) {
+            if (weak) {
+                (*env)->DeleteWeakGlobalRef(env, refs[slot]);
+            } else {
+                (*env)->DeleteGlobalRef(env, refs[slot]);
+            }
+        }
+        ref = weak ? (*env)->NewWeakGlobalRef(env, object) : (*env)->NewGlobalRef(env, object);
+        if (ref == NULL) {
+            return -1;
+        }
+        refs[slot] = ref;
+        created++;
+    }
+    for (i = 0; i < WINDOW && i < count; i++) {
+        if (weak) {
+            (*env)->DeleteWeakGlobalRef(env, refs[i]);
+        } else {
+            (*env)->DeleteGlobalRef(env, refs[i]);
+        }
+    }
+    return created;
+}
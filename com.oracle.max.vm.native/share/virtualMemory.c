@@ -182,6 +182,15 @@ Java_com_sun_max_memory_VirtualMemory_virtualMemory_1mapFile(JNIEnv *env, jclass
     return virtualMemory_mapFile((Size) size, fd, (Size) offset);
 }
 
+Address virtualMemory_mapFileShared(Size size, jint fd, Size offset) {
+    return check_mmap_result(mmap(0, (size_t) size, PROT_READ | PROT_WRITE, MAP_SHARED, fd, (off_t) offset));
+}
+
+JNIEXPORT jlong JNICALL
+Java_com_sun_max_memory_VirtualMemory_virtualMemory_1mapFileShared(JNIEnv *env, jclass c, jlong size, jint fd, jlong offset) {
+    return virtualMemory_mapFileShared((Size) size, fd, (Size) offset);
+}
+
 Address virtualMemory_mapFileIn31BitSpace(jint size, jint fd, Size offset) {
 	return check_mmap_result(mmap(0, (size_t) size, PROT, MAP_PRIVATE | MAP_32BIT, fd, (off_t) offset));
 }
@@ -33,6 +33,8 @@
 
 #define ALLOC_FAILED ((Address) 0)  // return value for failed allocations
 
+extern Address virtualMemory_mapFileShared(Size size, jint fd, Size offset);
+
 extern Address virtualMemory_mapFileIn31BitSpace(jint size, jint fd, Size offset);
 
 extern Address virtualMemory_mapFileAtFixedAddress(Address address, Size size, jint fd, Size offset);
@@ -297,6 +297,20 @@ public final class VirtualMemory {
         return Pointer.fromLong(virtualMemory_mapFile(size.toLong(), fd, fileOffset.toLong()));
     }
 
+    /**
+     * Maps an open file into virtual memory such that stores to the mapped region are written through to the
+     * file (i.e. {@code MAP_SHARED}). The mapped region is readable and writable but not executable.
+     *
+     * @param size
+     * @param fileDescriptor
+     * @param fileOffset must be a multiple of the page size
+     * @throws IOException
+     */
+    public static Pointer mapFileShared(Size size, FileDescriptor fileDescriptor, Address fileOffset) throws IOException {
+        final int fd = asJIOFDAlias(fileDescriptor).fd;
+        return Pointer.fromLong(virtualMemory_mapFileShared(size.toLong(), fd, fileOffset.toLong()));
+    }
+
     /**
      * Maps an open file into virtual memory restricted to the address range available in 31 bits, i.e. up to 2GB.
      * This is only available on Linux.
@@ -320,6 +334,8 @@ public final class VirtualMemory {
 
     private static native long virtualMemory_mapFileIn31BitSpace(int size, int fd, long fileOffset);
 
+    private static native long virtualMemory_mapFileShared(long size, int fd, long fileOffset);
+
     public static void traceRange(String label, Address start, Size size) {
         Log.print(label);
         Log.print("[ ");
@@ -413,6 +413,16 @@ public abstract class Actor {
         flags |= VERIFIED;
     }
 
+    /**
+     * Marks this actor (which must be a field) as {@linkplain #isConstantWhenNotZero(int) constant when not zero}.
+     * This is for fields in classes that cannot be annotated with
+     * {@link com.sun.max.annotate.CONSTANT_WHEN_NOT_ZERO}.
+     */
+    @HOSTED_ONLY
+    public final void beConstantWhenNotZero() {
+        flags |= CONSTANT_WHEN_NOT_ZERO;
+    }
+
     @INLINE
     public static boolean isInline(int flags) {
         return (flags & INLINE) != 0;
@@ -140,6 +140,12 @@ public abstract class ClassActor extends Actor implements RiResolvedType {
     @INSPECTED
     public final int id;
 
+    /**
+     * The depth of this class in the class hierarchy (0 for the root) if it is a tuple or hybrid class shallow enough
+     * to be recorded in a {@linkplain Hub#primarySupertypeDisplay primary supertype display}, otherwise -1.
+     */
+    public final int primarySupertypeDepth;
+
     /**
      * Class id of the head of the list of sub-classes of this actor.
      * Links are updated only by the {@link DependenciesManager}.
@@ -204,6 +210,12 @@ public abstract class ClassActor extends Actor implements RiResolvedType {
 
     public Object[] signers;
 
+    /**
+     * The digest of the class file from which this class was defined if it was recorded by the
+     * {@linkplain com.sun.max.vm.verifier.VerificationCache verification cache}, otherwise {@code null}.
+     */
+    public byte[] classfileDigest;
+
     private ProtectionDomain protectionDomain;
 
     /**
@@ -259,6 +271,7 @@ public abstract class ClassActor extends Actor implements RiResolvedType {
         ClassIDManager.register(this);
         this.typeDescriptor = typeDescriptor;
         this.superClassActor = superClassActor;
+        this.primarySupertypeDepth = computePrimarySupertypeDepth();
         this.sourceFileName = sourceFileName;
         assert classLoader != null;
         this.classLoader = classLoader;
@@ -417,6 +430,17 @@ public abstract class ClassActor extends Actor implements RiResolvedType {
         };
     }
 
+    private int computePrimarySupertypeDepth() {
+        if (isInterface() || !(isTupleClass() || isHybridClass())) {
+            return -1;
+        }
+        int depth = 0;
+        for (ClassActor c = superClassActor; c != null; c = c.superClassActor) {
+            depth++;
+        }
+        return depth < Hub.PRIMARY_SUPERTYPE_DISPLAY_LENGTH ? depth : -1;
+    }
+
     private int getRootClassActorId() {
         ClassActor root = this;
         while (root.superClassActor != null) {
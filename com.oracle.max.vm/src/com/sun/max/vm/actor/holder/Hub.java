@@ -83,6 +83,27 @@ public abstract class Hub extends Hybrid {
      */
     public final boolean isJLRReference;
 
+    /**
+     * Number of entries in a {@linkplain #primarySupertypeDisplay primary supertype display}.
+     * Classes nested deeper than this in the class hierarchy are checked via the m-table.
+     */
+    public static final int PRIMARY_SUPERTYPE_DISPLAY_LENGTH = 8;
+
+    /**
+     * The ids of the primary (i.e. non-interface, non-array) super classes of this hub's class, indexed
+     * by their {@linkplain ClassActor#primarySupertypeDepth depth} in the class hierarchy. Unused entries
+     * are {@link ClassIDManager#NULL_CLASS_ID}. A subtype check against a class of depth {@code d}
+     * is thus a single load and compare of {@code primarySupertypeDisplay[d]}.
+     */
+    @INSPECTED
+    public final int[] primarySupertypeDisplay;
+
+    /**
+     * The id of the last interface or array class that a subtype check against this hub succeeded for.
+     * Updated racily; a stale value only costs a trip through the m-table.
+     */
+    public int secondarySuperCache = ClassIDManager.NULL_CLASS_ID;
+
     /**
      * Determines whether a given set of class ids collide in a hash table of size {@code divisor}
      * using a hash function of {@code id % divisor}.
@@ -202,6 +223,29 @@ public abstract class Hub extends Hybrid {
         this.biasedLockRevocationHeuristics = biasedLockRevocationHeuristics;
     }
 
+    private static int[] newPrimarySupertypeDisplay() {
+        final int[] display = new int[PRIMARY_SUPERTYPE_DISPLAY_LENGTH];
+        for (int i = 0; i < display.length; i++) {
+            display[i] = ClassIDManager.NULL_CLASS_ID;
+        }
+        return display;
+    }
+
+    /**
+     * Builds the primary supertype display for a dynamic hub from the super class chain of {@code classActor},
+     * omitting any class not in {@code superClassActorIds} so that the display agrees with the m-table.
+     */
+    private static int[] buildPrimarySupertypeDisplay(ClassActor classActor, int[] superClassActorIds) {
+        final int[] display = newPrimarySupertypeDisplay();
+        for (ClassActor c = classActor; c != null; c = c.superClassActor) {
+            final int depth = c.primarySupertypeDepth;
+            if (depth >= 0 && Ints.contains(superClassActorIds, c.id)) {
+                display[depth] = c.id;
+            }
+        }
+        return display;
+    }
+
     private int getITableLength(int[] superClassActorIds, Iterable<InterfaceActor> allInterfaceActors) {
         int result = 1 + superClassActorIds.length;
         if (classActor.isReferenceClassActor()) {
@@ -228,6 +272,13 @@ public abstract class Hub extends Hybrid {
         this.referenceMapStartIndex = mTableStartIndex + mTableLength;
         this.referenceMapLength = referenceMap.numberOfEntries();
         this.isJLRReference = false;
+        // static hubs appear to extend only the root of the class hierarchy (see StaticHub.expand())
+        ClassActor root = classActor;
+        while (root.superClassActor != null) {
+            root = root.superClassActor;
+        }
+        this.primarySupertypeDisplay = newPrimarySupertypeDisplay();
+        this.primarySupertypeDisplay[0] = root.id;
     }
 
     /**
@@ -259,6 +310,7 @@ public abstract class Hub extends Hybrid {
         this.referenceMapStartIndex = mTableStartIndex + mTableLength;
         this.referenceMapLength = referenceMap.numberOfEntries();
         this.isJLRReference = isSupertypeOf(JLR_REFERENCE, classActor);
+        this.primarySupertypeDisplay = buildPrimarySupertypeDisplay(classActor, superClassActorIds);
     }
 
     private static boolean isSupertypeOf(ClassActor c, ClassActor sub) {
@@ -394,8 +446,28 @@ public abstract class Hub extends Hybrid {
             return true;
         }
         final int id = testClassActor.id;
+        final int depth = testClassActor.primarySupertypeDepth;
+        if (depth >= 0) {
+            // a primary super class is found at a fixed position in the display
+            return ArrayAccess.getInt(primarySupertypeDisplay, depth) == id;
+        }
+        if (secondarySuperCache == id) {
+            return true;
+        }
+        return isSecondarySubClassHub(id);
+    }
+
+    /**
+     * Slow path of {@link #isSubClassHub(ClassActor)} for interfaces, arrays and deep classes.
+     */
+    @NEVER_INLINE
+    private boolean isSecondarySubClassHub(int id) {
         final int iTableIndex = getITableIndex(id);
-        return getWord(iTableIndex).equals(Address.fromInt(id));
+        if (getWord(iTableIndex).equals(Address.fromInt(id))) {
+            secondarySuperCache = id;
+            return true;
+        }
+        return false;
     }
 
     public abstract FieldActor findFieldActor(int offset);
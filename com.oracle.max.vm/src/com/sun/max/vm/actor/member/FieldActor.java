@@ -754,10 +754,25 @@ public class FieldActor extends MemberActor implements RiResolvedField {
             if (!isConstantWhenNotZero() || !v.isZero()) {
                 return v.asCiConstant();
             }
+        } else if (!isHosted() && receiver != null && receiver.isNonNull() && isTrustedFinal()) {
+            Value<?> v = getValue(receiver.asObject());
+            if (!v.isZero()) {
+                return v.asCiConstant();
+            }
         }
         return null;
     }
 
+    /**
+     * Determines if this is a final instance field whose value can be trusted not to change once it is non-zero.
+     * This is the case for the method handle implementation classes, which never modify final fields
+     * reflectively. Folding these fields is what allows the compilers to inline through constant method handles.
+     * They are not folded while building the boot image as some of them are {@linkplain JDKInterceptor reset}.
+     */
+    private boolean isTrustedFinal() {
+        return isFinal() && !isStatic() && holder().packageName().equals("java.lang.invoke");
+    }
+
     public final boolean isResolved() {
         return true;
     }
@@ -33,6 +33,7 @@ import static com.sun.max.vm.type.JavaTypeDescriptor.*;
 import java.io.*;
 import java.lang.annotation.*;
 import java.lang.instrument.*;
+import java.nio.*;
 import java.security.*;
 import java.util.*;
 import java.util.concurrent.*;
@@ -59,6 +60,7 @@ import com.sun.max.vm.ti.*;
 import com.sun.max.vm.type.*;
 import com.sun.max.vm.type.ClassRegistry.*;
 import com.sun.max.vm.value.*;
+import com.sun.max.vm.verifier.*;
 
 import sun.reflect.CallerSensitive;
 
@@ -1415,6 +1417,17 @@ public final class ClassfileReader {
     public static VMStringOption saveClassDir = VMOptions.register(new VMStringOption("-XX:SaveClassDir=", false, null,
         "Directory to which the classfiles of loaded classes should be written."), MaxineVM.Phase.STARTING);
 
+    /**
+     * Determines if class files read from the boot class path or from directories on the application class path are
+     * memory-mapped and parsed in place instead of being copied into byte arrays first. Only archives on the boot class
+     * path and loose files of at least {@link Classpath#MIN_MAPPED_FILE_SIZE} bytes are mapped. This is off by default
+     * as a mapped file that is truncated or rewritten while it is being parsed makes the VM fault.
+     */
+    public static boolean MapClassfiles;
+    static {
+        VMOptions.addFieldOption("-XX:", "MapClassfiles", ClassfileReader.class, "Parse class files in place from memory-mapped boot class path archives and large class files.");
+    }
+
     /**
      * Loads a class from the configured {@linkplain #classfileStream class file stream}.
      *
@@ -1672,12 +1685,43 @@ public final class ClassfileReader {
          */
 
         saveClassfile(name, bytes);
-        final ClassfileStream classfileStream = new ClassfileStream(bytes, offset, length);
+        return defineClassActor(name, classLoader, new ClassfileStream(bytes, offset, length), protectionDomain, source, isRemote);
+    }
+
+    /**
+     * Converts the {@linkplain ByteBuffer#remaining() remaining} bytes in a buffer into a {@code ClassActor}. If the
+     * buffer is not backed by an array (e.g. it is a direct or memory-mapped buffer), the class file is parsed in place
+     * unless an agent may need to see (and transform) the class file as a byte array.
+     *
+     * @param buffer the buffer containing the class data. The position of this buffer is not modified.
+     * @see #defineClassActor(String, ClassLoader, byte[], int, int, ProtectionDomain, Object, boolean)
+     */
+    public static ClassActor defineClassActor(String name, ClassLoader classLoader, ByteBuffer buffer, ProtectionDomain protectionDomain, Object source, boolean isRemote) {
+        if (buffer.hasArray()) {
+            return defineClassActor(name, classLoader, buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), protectionDomain, source, isRemote);
+        }
+        if (MaxineVM.isHosted() || InstrumentationManager.getInstrumentation() != null || VMTI.handler().classFileLoadHookHandled()) {
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return defineClassActor(name, classLoader, bytes, protectionDomain, source, isRemote);
+        }
+        if (saveClassDir.getValue() != null) {
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            saveClassfile(name, bytes);
+        }
+        return defineClassActor(name, classLoader, new ClassfileStream(buffer), protectionDomain, source, isRemote);
+    }
+
+    private static ClassActor defineClassActor(String name, ClassLoader classLoader, ClassfileStream classfileStream, ProtectionDomain protectionDomain, Object source, boolean isRemote) {
         final ClassfileReader classfileReader = new ClassfileReader(classfileStream, classLoader);
         ClassActor classActor = classfileReader.loadClass(name, source, isRemote);
         classActor.setProtectionDomain(protectionDomain);
 
         final ClassActor definedClassActor = ClassRegistry.define(classActor);
+        if (definedClassActor == classActor) {
+            VerificationCache.recordClassfile(classActor, classfileStream.contents());
+        }
 
         if (!MaxineVM.isHosted()) {
             // Maxine is unable to usefully distinguish CLASS_LOAD and CLASS_PREPARE events which, for example, JVMTI distinguishes,
@@ -24,226 +24,177 @@ package com.sun.max.vm.classfile;
 
 import static com.sun.max.vm.classfile.ErrorContext.*;
 
-import java.io.*;
+import java.nio.*;
 
 import com.sun.max.util.*;
+import com.sun.max.vm.classfile.constant.*;
 
 /**
- * Operations for sequentially scanning data items in a class file. Any IO exceptions that occur during scanning
- * are converted to {@link ClassFormatError}s.
+ * Operations for sequentially scanning data items in a class file. The class file is read directly from
+ * a {@link ByteBuffer} which may wrap a byte array or be a direct (e.g. memory-mapped) buffer. Any attempt to
+ * read past the end of the class file is converted to a {@link ClassFormatError}.
  */
 public class ClassfileStream {
 
     private final int length;
-    private final DataInputStream stream;
-    private int pos;
+    private final ByteBuffer buffer;
 
     public ClassfileStream(byte[] bytes) {
         this(bytes, 0, bytes.length);
     }
 
     public ClassfileStream(byte[] bytes, int offset, int length) {
-        this.length = length;
-        this.stream = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+        this(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Creates a stream for the class file in the {@linkplain ByteBuffer#remaining() remaining} bytes of a given buffer.
+     * The position of {@code buffer} is not modified.
+     */
+    public ClassfileStream(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        this.length = this.buffer.remaining();
     }
 
     public byte readByte() {
         try {
-            final byte value = stream.readByte();
-            pos = pos++;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.get();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public short readShort() {
         try {
-            final short value = stream.readShort();
-            pos += 2;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.getShort();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public char readChar() {
         try {
-            final char value = stream.readChar();
-            pos += 2;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.getChar();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public int readInt() {
         try {
-            final int value = stream.readInt();
-            pos += 4;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.getInt();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public float readFloat() {
         try {
-            final float value = stream.readFloat();
-            pos += 4;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.getFloat();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public long readLong() {
         try {
-            final long value = stream.readLong();
-            pos += 8;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.getLong();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public double readDouble() {
         try {
-            final double value = stream.readDouble();
-            pos += 8;
-            return value;
-        } catch (EOFException eofException) {
+            return buffer.getDouble();
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
     public int readUnsigned1() {
-        try {
-            final int value = stream.readUnsignedByte();
-            pos++;
-            return value;
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+        return readByte() & 0xFF;
     }
 
     public int readUnsigned2() {
-        try {
-            final int value = stream.readUnsignedShort();
-            pos += 2;
-            return value;
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+        return readChar();
     }
 
     public int readSize4() {
-        try {
-            final int value = stream.readInt();
-            pos += 4;
-            return value;
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+        return readInt();
     }
 
     public int readSigned1() {
-        try {
-            final byte value = stream.readByte();
-            pos++;
-            return value;
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+        return readByte();
     }
 
     public int readSigned2() {
-        try {
-            final short value = stream.readShort();
-            pos += 2;
-            return value;
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+        return readShort();
     }
 
     public int readSigned4() {
-        try {
-            final int value = stream.readInt();
-            pos += 4;
-            return value;
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+        return readInt();
     }
 
     public byte[] readByteArray(int len) {
         try {
             final byte[] bytes = new byte[len];
-            stream.readFully(bytes);
-            pos += len;
+            buffer.get(bytes);
             return bytes;
-        } catch (EOFException eofException) {
+        } catch (BufferUnderflowException e) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
+        } catch (NegativeArraySizeException e) {
+            throw classFormatError("Invalid length: " + len);
         }
     }
 
+    /**
+     * Reads a length-prefixed string in modified UTF-8 format.
+     */
     public String readUtf8String() {
+        final int utflen = readUnsigned2();
+        checkAvailable(utflen);
         try {
-            final int utflen = stream.readUnsignedShort();
-            final String value = Utf8.readUtf8(stream, true, utflen);
-            pos += 2 + utflen;
-            return value;
+            final byte[] utf8Data = new byte[utflen];
+            buffer.get(utf8Data);
+            return Utf8.utf8ToString(true, utf8Data);
         } catch (Utf8Exception e) {
             throw classFormatError("Invalid UTF-8 encoded string", e);
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
-    public void skip(int nBytes) {
-        try {
-            pos += nBytes;
-            stream.skipBytes(nBytes);
-        } catch (EOFException eofException) {
+    /**
+     * Reads a length-prefixed string in modified UTF-8 format and returns its canonical {@link Utf8Constant}.
+     * No {@link String} is created if the symbol already exists.
+     */
+    public Utf8Constant readUtf8Symbol() {
+        final int utflen = readUnsigned2();
+        checkAvailable(utflen);
+        final int start = buffer.position();
+        final Utf8Constant symbol = SymbolTable.makeSymbol(buffer, start, utflen);
+        if (symbol == null) {
+            throw classFormatError("Invalid UTF-8 encoded string");
+        }
+        buffer.position(start + utflen);
+        return symbol;
+    }
+
+    private void checkAvailable(int nBytes) {
+        if (nBytes < 0) {
+            throw classFormatError("Invalid length: " + nBytes);
+        }
+        if (nBytes > buffer.remaining()) {
             throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
         }
     }
 
+    public void skip(int nBytes) {
+        checkAvailable(nBytes);
+        buffer.position(buffer.position() + nBytes);
+    }
+
     public boolean isAtEndOfFile() {
-        return pos == length;
+        return buffer.position() == length;
     }
 
     public void checkEndOfFile() {
@@ -253,21 +204,20 @@ public class ClassfileStream {
     }
 
     public int getPosition() {
-        return pos;
+        return buffer.position();
     }
 
-    public void close() {
-        try {
-            stream.close();
-        } catch (EOFException eofException) {
-            throw eofError();
-        } catch (IOException ioException) {
-            throw ioError(ioException);
-        }
+    /**
+     * Gets a view of the complete class file parsed by this stream. The position of the returned buffer is
+     * independent of the position of this stream.
+     */
+    public ByteBuffer contents() {
+        final ByteBuffer contents = buffer.duplicate();
+        contents.position(0);
+        return contents;
     }
 
-    public ClassFormatError ioError(IOException ioException) {
-        throw classFormatError("IO error while reading class file (" + ioException + ")");
+    public void close() {
     }
 
     public ClassFormatError eofError() {
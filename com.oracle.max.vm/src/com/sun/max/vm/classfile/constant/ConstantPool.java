@@ -399,7 +399,7 @@ public final class ConstantPool implements RiConstantPool {
                     break;
                 }
                 case UTF8: {
-                    poolConstants[i] = makeUtf8Constant(classfileStream.readUtf8String());
+                    poolConstants[i] = classfileStream.readUtf8Symbol();
                     break;
                 }
                 case METHOD_HANDLE: {
@@ -1058,6 +1058,16 @@ public final class ConstantPool implements RiConstantPool {
     }
 
     public RiMethod lookupMethod(int cpi, int opcode) {
+        if (opcode == INVOKEDYNAMIC) {
+            // The call site is never linked here as that would run its bootstrap method
+            final InvokeDynamicConstant constant = invokeDynamicAt(cpi);
+            final StaticMethodActor target = constant.linkedTarget();
+            if (target != null) {
+                return target;
+            }
+            final NameAndTypeConstant nameAndType = constant.nameAndType(this);
+            return new UnresolvedMethod(this, cpi, holder(), nameAndType.name().string, nameAndType.signature());
+        }
         MethodRefConstant constant = methodAt(cpi);
         if (constant.isResolvableWithoutClassLoading(this)) {
             // the resolution can occur without side effects
@@ -43,6 +43,13 @@ public class InvokeDynamicConstant extends AbstractPoolConstant<InvokeDynamicCon
     public final int nameAndTypeIndex;
     Object appendix;
 
+    /**
+     * The adapter this call site was linked to by its bootstrap method, or {@code null} if the call site
+     * is not yet linked. Once set, {@link #appendix} is never updated again so that compiled code that
+     * embeds either of them can rely on the linkage being permanent.
+     */
+    private volatile StaticMethodActor target;
+
     InvokeDynamicConstant(int bootstrapMethodAttrIndex, int nameAndTypeIndex, Tag[] tags) {
         this.bootstrapMethodAttrIndex = bootstrapMethodAttrIndex;
         this.nameAndTypeIndex = nameAndTypeIndex;
@@ -86,6 +93,10 @@ public class InvokeDynamicConstant extends AbstractPoolConstant<InvokeDynamicCon
      * @return
      */
     public StaticMethodActor resolve(ConstantPool pool, int index) {
+        StaticMethodActor linked = target;
+        if (linked != null) {
+            return linked;
+        }
         try {
             final NameAndTypeConstant nameAndTypeConstant = nameAndType(pool);
             final ClassActor          holder              = pool.holder();
@@ -95,9 +106,8 @@ public class InvokeDynamicConstant extends AbstractPoolConstant<InvokeDynamicCon
             VMTarget              vmTarget        = VMTarget.fromMemberName(memberName);
             // Update our local BootstrapMethod which should now be resolved and contain the appendix argument.
             bootstrapMethod = holder.bootstrapMethods()[bootstrapMethodAttrIndex];
-            appendix = bootstrapMethod.getAppendix();
             // DO NOT update the InvokeDynamicConstant in the constant pool!
-            return (StaticMethodActor) vmTarget.getVmTarget();
+            return link((StaticMethodActor) vmTarget.getVmTarget(), bootstrapMethod.getAppendix());
         } catch (VirtualMachineError e) {
             // Comment from Hotspot:
             // Just throw the exception and don't prevent these classes from
@@ -108,6 +118,27 @@ public class InvokeDynamicConstant extends AbstractPoolConstant<InvokeDynamicCon
         }
     }
 
+    /**
+     * Records the result of running the bootstrap method unless another thread linked this call site first,
+     * in which case the result of the losing bootstrap method invocation is discarded (JVMS 5.4.3.6).
+     */
+    private synchronized StaticMethodActor link(StaticMethodActor adapter, Object adapterAppendix) {
+        if (target == null) {
+            appendix = adapterAppendix;
+            target = adapter;
+        }
+        return target;
+    }
+
+    /**
+     * Gets the adapter this call site has been linked to without running its bootstrap method.
+     *
+     * @return {@code null} if the call site has not yet been linked
+     */
+    public StaticMethodActor linkedTarget() {
+        return target;
+    }
+
     public Object getAppendix() {
         return appendix;
     }
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.classfile.constant;
+
+import static com.sun.max.vm.MaxineVM.*;
+
+import java.lang.ref.*;
+
+/**
+ * The table of {@linkplain String#intern() interned} strings. Unlike the {@link SymbolTable}, the strings in this
+ * table are only weakly held, so that strings interned by an application are reclaimed by the GC once they are no
+ * longer used. The entries for reclaimed strings are expunged whenever a string is added to the table.
+ * <p>
+ * The table is split into {@value #SEGMENTS} segments, each of which is a hash table that grows and shrinks with the
+ * number of strings it holds. Looking up a string that is already interned does not take any lock. Such a lookup may
+ * miss an entry that is concurrently being added, moved or removed, in which case the lookup is repeated while
+ * holding the lock of the segment.
+ * <p>
+ * Symbols take precedence over other strings: if a symbol exists for a string being interned, the
+ * {@linkplain Utf8Constant#string string of the symbol} is the interned string as that is also what string literals
+ * and the names returned by reflection resolve to. Conversely, a symbol created at runtime uses the interned string
+ * for its value.
+ */
+public final class StringTable {
+
+    private StringTable() {
+    }
+
+    static final class Entry extends WeakReference<String> {
+        final int hash;
+        volatile Entry next;
+
+        Entry(String value, int hash, Entry next, ReferenceQueue<String> queue) {
+            super(value, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private static final int SEGMENT_SHIFT = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_SHIFT;
+    private static final int INITIAL_SEGMENT_CAPACITY = 1 << 8;
+
+    static final class Segment {
+        /**
+         * The entries chained in buckets indexed by the hash of their string. Entries are only added, moved and removed
+         * while holding the lock on this segment. The length of this table is always a power of 2.
+         */
+        private volatile Entry[] table = new Entry[INITIAL_SEGMENT_CAPACITY];
+
+        /**
+         * The number of entries in {@link #table}, including those whose string has been reclaimed but that have not
+         * yet been expunged.
+         */
+        private int count;
+
+        /**
+         * Lookup statistics. The counters are not updated atomically, so they are approximate when many threads intern
+         * strings concurrently.
+         */
+        long hits;
+        long misses;
+
+        String find(String value, int hash) {
+            final Entry[] tab = table;
+            for (Entry entry = tab[indexFor(hash, tab.length)]; entry != null; entry = entry.next) {
+                if (entry.hash == hash) {
+                    final String string = entry.get();
+                    if (string != null && string.equals(value)) {
+                        return string;
+                    }
+                }
+            }
+            return null;
+        }
+
+        synchronized String add(String value, int hash) {
+            final String string = find(value, hash);
+            if (string != null) {
+                hits++;
+                return string;
+            }
+            misses++;
+            Entry[] tab = table;
+            if (count >= (tab.length >> 1) + (tab.length >> 2)) {
+                tab = resize(tab.length << 1);
+            }
+            final int index = indexFor(hash, tab.length);
+            tab[index] = new Entry(value, hash, tab[index], queue);
+            count++;
+            return value;
+        }
+
+        synchronized void remove(Entry entry) {
+            final Entry[] tab = table;
+            final int index = indexFor(entry.hash, tab.length);
+            Entry prev = null;
+            for (Entry e = tab[index]; e != null; e = e.next) {
+                if (e == entry) {
+                    if (prev == null) {
+                        tab[index] = e.next;
+                    } else {
+                        prev.next = e.next;
+                    }
+                    count--;
+                    break;
+                }
+                prev = e;
+            }
+            if (count < tab.length >> 3 && tab.length > INITIAL_SEGMENT_CAPACITY) {
+                resize(tab.length >> 1);
+            }
+        }
+
+        private Entry[] resize(int capacity) {
+            final Entry[] newTable = new Entry[capacity];
+            for (Entry bucket : table) {
+                while (bucket != null) {
+                    final Entry next = bucket.next;
+                    final int index = indexFor(bucket.hash, capacity);
+                    bucket.next = newTable[index];
+                    newTable[index] = bucket;
+                    bucket = next;
+                }
+            }
+            table = newTable;
+            return newTable;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int capacity() {
+            return table.length;
+        }
+    }
+
+    private static final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * The queue to which the GC adds the entries whose string has been reclaimed.
+     */
+    private static final ReferenceQueue<String> queue = new ReferenceQueue<String>();
+
+    static {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    private static int indexFor(int hash, int length) {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    private static Segment segmentFor(int hash) {
+        // Use the high bits of a multiplicative hash so that the segment is independent of the bucket index
+        return segments[(hash * 0x9E3779B9) >>> (32 - SEGMENT_SHIFT)];
+    }
+
+    /**
+     * Gets the canonical instance of a string.
+     *
+     * @see String#intern()
+     */
+    public static String intern(String value) {
+        if (isHosted()) {
+            return value.intern();
+        }
+        final int hash = value.hashCode();
+        final Segment segment = segmentFor(hash);
+        final String string = segment.find(value, hash);
+        if (string != null) {
+            segment.hits++;
+            return string;
+        }
+        expungeStaleEntries();
+        // Must not be called while holding a segment lock as makeSymbol calls this method while holding the symbol table lock
+        final Utf8Constant symbol = SymbolTable.lookupSymbol(value);
+        return segment.add(symbol == null ? value : symbol.string, hash);
+    }
+
+    private static void expungeStaleEntries() {
+        Reference<? extends String> reference;
+        while ((reference = queue.poll()) != null) {
+            final Entry entry = (Entry) reference;
+            segmentFor(entry.hash).remove(entry);
+        }
+    }
+
+    /**
+     * Gets the number of strings in the table.
+     */
+    public static int size() {
+        expungeStaleEntries();
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.count();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the total number of buckets in the table.
+     */
+    public static int capacity() {
+        int capacity = 0;
+        for (Segment segment : segments) {
+            capacity += segment.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Gets the number of {@link #intern(String)} calls that found the string already interned.
+     */
+    public static long hitCount() {
+        long hits = 0;
+        for (Segment segment : segments) {
+            hits += segment.hits;
+        }
+        return hits;
+    }
+
+    /**
+     * Gets the number of {@link #intern(String)} calls that added the string to the table.
+     */
+    public static long missCount() {
+        long misses = 0;
+        for (Segment segment : segments) {
+            misses += segment.misses;
+        }
+        return misses;
+    }
+}
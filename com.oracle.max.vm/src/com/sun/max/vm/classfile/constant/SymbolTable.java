@@ -23,13 +23,12 @@
 package com.sun.max.vm.classfile.constant;
 
 import java.io.*;
+import java.nio.*;
 
-import com.sun.max.collect.*;
-import com.sun.max.collect.ChainedHashMapping.Entry;
-import com.sun.max.vm.*;
+import com.sun.max.util.*;
 
 /**
- * Implementation of symbol and String interning, the latter of which is a Java language requirement.
+ * Implementation of symbol interning. The strings of symbols are {@linkplain StringTable interned}.
  *
  */
 public final class SymbolTable {
@@ -39,35 +38,15 @@ public final class SymbolTable {
 
     /**
      * The only concrete subclass of {@link Utf8Constant}.
-     * Using a subclass hides the details of storing Utf8Constants in a {@link ChainedHashMapping}.
+     * Using a subclass hides the details of chaining Utf8Constants in the {@linkplain SymbolTable#table symbol table}.
      */
-    static final class Utf8ConstantEntry extends Utf8Constant implements ChainedHashMapping.Entry<String, Utf8ConstantEntry> {
+    static final class Utf8ConstantEntry extends Utf8Constant {
 
         Utf8ConstantEntry(String value) {
             super(value);
         }
 
-        public String key() {
-            return toString();
-        }
-
-        private Entry<String, Utf8ConstantEntry> next;
-
-        public Entry<String, Utf8ConstantEntry> next() {
-            return next;
-        }
-
-        public void setNext(Entry<String, Utf8ConstantEntry> next) {
-            this.next = next;
-        }
-
-        public void setValue(Utf8ConstantEntry value) {
-            assert value == this;
-        }
-
-        public Utf8ConstantEntry value() {
-            return this;
-        }
+        Utf8ConstantEntry next;
 
         @Override
         public void writeOn(DataOutputStream stream, ConstantPoolEditor editor, int index) throws IOException {
@@ -76,39 +55,126 @@ public final class SymbolTable {
         }
     }
 
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
     /**
-     * Searching and adding entries to this map is only performed by {@linkplain #makeSymbol(String) one method} which
-     * is synchronized.
+     * The symbols chained in buckets indexed by the {@linkplain String#hashCode() hash} of their value. Searching
+     * and adding entries to this table is only performed while holding the lock on {@link SymbolTable}. The length
+     * of this table is always a power of 2.
      */
-    private static final ChainingValueChainedHashMapping<String, Utf8ConstantEntry> symbolTable = new ChainingValueChainedHashMapping<String, Utf8ConstantEntry>(40000);
+    private static Utf8ConstantEntry[] table = new Utf8ConstantEntry[INITIAL_CAPACITY];
+
+    private static int count;
 
     public static final Utf8Constant INIT = makeSymbol("<init>");
     public static final Utf8Constant CLINIT = makeSymbol("<clinit>");
     public static final Utf8Constant FINALIZE = makeSymbol("finalize");
 
     public static int length() {
-        return symbolTable.length();
+        return count;
+    }
+
+    private static int indexFor(int hash, int length) {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    private static Utf8ConstantEntry get(String value) {
+        final int hash = value.hashCode();
+        for (Utf8ConstantEntry entry = table[indexFor(hash, table.length)]; entry != null; entry = entry.next) {
+            final String string = entry.string;
+            if (string.hashCode() == hash && string.equals(value)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void add(Utf8ConstantEntry entry) {
+        if (++count > (table.length >> 1) + (table.length >> 2)) {
+            final Utf8ConstantEntry[] newTable = new Utf8ConstantEntry[table.length << 1];
+            for (Utf8ConstantEntry bucket : table) {
+                while (bucket != null) {
+                    final Utf8ConstantEntry next = bucket.next;
+                    final int index = indexFor(bucket.string.hashCode(), newTable.length);
+                    bucket.next = newTable[index];
+                    newTable[index] = bucket;
+                    bucket = next;
+                }
+            }
+            table = newTable;
+        }
+        final int index = indexFor(entry.string.hashCode(), table.length);
+        entry.next = table[index];
+        table[index] = entry;
     }
 
     public static synchronized Utf8Constant lookupSymbol(String value) {
-        return symbolTable.get(value);
+        return get(value);
     }
 
     public static synchronized Utf8Constant makeSymbol(String value) {
-        Utf8ConstantEntry utf8 = symbolTable.get(value);
+        Utf8ConstantEntry utf8 = get(value);
         if (utf8 == null) {
-            if (MaxineVM.isHosted()) {
-                // String interning is implemented with another data structure when running hosted
-                utf8 = new Utf8ConstantEntry(value.intern());
-            } else {
-                utf8 = new Utf8ConstantEntry(value);
-            }
-            symbolTable.put(value, utf8);
+            utf8 = new Utf8ConstantEntry(StringTable.intern(value));
+            add(utf8);
         }
         return utf8;
     }
 
-    public static String intern(String value) {
-        return makeSymbol(value).toString();
+    /**
+     * Gets the symbol for a string encoded in modified UTF-8 format in a given buffer. If the string consists of
+     * ASCII characters only (as is almost always the case for the symbols in a class file) and the symbol already
+     * exists, it is found by comparing the bytes in {@code buffer} against the existing symbols. That is, no
+     * {@link String} or other temporary object is created.
+     *
+     * @param buffer the buffer containing the encoded string. Its position is not modified.
+     * @param offset the index in {@code buffer} of the first byte of the encoded string
+     * @param length the number of bytes in the encoded string
+     * @return the symbol for the decoded string or {@code null} if the data is not valid modified UTF-8
+     */
+    public static Utf8Constant makeSymbol(ByteBuffer buffer, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            final byte b = buffer.get(offset + i);
+            if (b <= 0) {
+                // A zero byte (which is invalid) or part of a multi-byte character
+                return makeNonAsciiSymbol(buffer, offset, length);
+            }
+            hash = 31 * hash + b;
+        }
+        synchronized (SymbolTable.class) {
+            for (Utf8ConstantEntry entry = table[indexFor(hash, table.length)]; entry != null; entry = entry.next) {
+                final String string = entry.string;
+                if (string.hashCode() == hash && string.length() == length && equalsAscii(string, buffer, offset)) {
+                    return entry;
+                }
+            }
+        }
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(offset + i);
+        }
+        return makeSymbol(new String(chars));
+    }
+
+    private static boolean equalsAscii(String string, ByteBuffer buffer, int offset) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) != buffer.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Utf8Constant makeNonAsciiSymbol(ByteBuffer buffer, int offset, int length) {
+        final byte[] utf8Data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            utf8Data[i] = buffer.get(offset + i);
+        }
+        try {
+            return makeSymbol(Utf8.utf8ToString(true, utf8Data));
+        } catch (Utf8Exception e) {
+            return null;
+        }
     }
 }
@@ -114,7 +114,7 @@ public class CodeRegion extends LinearAllocatorRegion {
      * A sorted list of the target methods allocated within this code region.
      */
     @INSPECTED
-    protected TargetMethod[] targetMethods;
+    protected volatile TargetMethod[] targetMethods;
 
     /**
      * The number of target methods allocated within this code region.
@@ -143,12 +143,20 @@ public class CodeRegion extends LinearAllocatorRegion {
 
     /**
      * Index into {@link #targetMethods} that allows a constant-time implementation of {@link #find(Address)}.
-     * The code region is divided in pages of size {@link #FIND_INDEX_ALIGN}, and this array stores the index
-     * of the method in the {@link #targetMethods} that covers the beginning of the page.
+     * The code region is divided in pages of size {@link #FIND_INDEX_ALIGN}, and this array stores, for each page,
+     * one plus the index of the first method in {@link #targetMethods} that ends after the beginning of the page
+     * (i.e. the method covering the beginning of the page or, if there is none, the first method after it).
+     * A value of zero means that no method has been allocated at or after the beginning of the page.
      * Since {@link #targetMethods} is sorted, a linear search with this starting point quickly finds the method
      * for an arbitrary address.
+     * <p>
+     * {@link #find(Address)} does not take any lock. {@link #add(TargetMethod)} (which is serialized by the
+     * {@linkplain CodeManager code manager}) only ever stores a method in an array slot that readers cannot reach
+     * yet, and replaces the arrays instead of shifting their contents. It publishes a new {@link #targetMethods}
+     * array before a new {@link #findIndex} array and readers load the arrays in the opposite order, so an index
+     * can only ever lead a reader to start its search too early, never too late.
      */
-    protected int[] findIndex;
+    protected volatile int[] findIndex;
 
     /**
      * Number of target methods in the code regions.
@@ -171,46 +179,79 @@ public class CodeRegion extends LinearAllocatorRegion {
      * Adds a target method to this sorted list of target methods.
      */
     public void add(TargetMethod targetMethod) {
+        assert start().alignUp(FIND_INDEX_ALIGN).equals(start());
         additionStartedCount++;         // The array becomes not inspectable
-        if (length == targetMethods.length) {
-            int newCapacity = (targetMethods.length * 3) / 2 + 1;
-            targetMethods = Arrays.copyOf(targetMethods, newCapacity);
-        }
-        int insertionPoint;
-        if (length == 0 || COMPARATOR.compare(targetMethods[length - 1], targetMethod) < 0) {
+        TargetMethod[] tms = targetMethods;
+        int[] index = findIndex;
+        if (length == 0 || COMPARATOR.compare(tms[length - 1], targetMethod) < 0) {
             // follows any existing entries in the array so it can simply be appended.
-            insertionPoint = length;
+            if (length == tms.length) {
+                tms = Arrays.copyOf(tms, (tms.length * 3) / 2 + 1);
+            }
+            tms[length] = targetMethod;
+            // Publish the method array before the index refers to the new method, see {@link #findIndex}
+            targetMethods = tms;
+            final Address previousEnd = length == 0 ? start() : tms[length - 1].end();
+            int endIdx = pageIndex(targetMethod.end().minus(1));
+            if (endIdx >= index.length) {
+                index = Arrays.copyOf(index, (endIdx * 3) / 2 + 1);
+            }
+            setFindIndex(index, length, previousEnd, targetMethod);
+            findIndex = index;
         } else {
-            // Out-of-order addition: create an open array entry for the insertion
-            int index = Arrays.binarySearch(targetMethods, 0, length, targetMethod, COMPARATOR);
-            assert index < 0 : targetMethod + " overlaps " + targetMethods[index];
-            insertionPoint = -(index + 1);
-            System.arraycopy(targetMethods, insertionPoint, targetMethods, insertionPoint + 1, length - insertionPoint);
+            // Out-of-order addition: insert into a copy of the array, as concurrent readers may be using it
+            int i = Arrays.binarySearch(tms, 0, length, targetMethod, COMPARATOR);
+            assert i < 0 : targetMethod + " overlaps " + tms[i];
+            int insertionPoint = -(i + 1);
+            TargetMethod[] newTms = new TargetMethod[Math.max(tms.length, length + 1)];
+            System.arraycopy(tms, 0, newTms, 0, insertionPoint);
+            newTms[insertionPoint] = targetMethod;
+            System.arraycopy(tms, insertionPoint, newTms, insertionPoint + 1, length - insertionPoint);
+            // The indexes of the methods after the insertion point have changed, rebuild the index
+            int[] newIndex = new int[Math.max(index.length, pageIndex(newTms[length].end().minus(1)) + 1)];
+            Address previousEnd = start();
+            for (int m = 0; m <= length; m++) {
+                setFindIndex(newIndex, m, previousEnd, newTms[m]);
+                previousEnd = newTms[m].end();
+            }
+            // Publish the method array before the index, see {@link #findIndex}
+            targetMethods = newTms;
+            findIndex = newIndex;
         }
-        targetMethods[insertionPoint] = targetMethod;
         length++;
         additionCompletedCount++;       // The array becomes once again inspectable
+    }
 
-        assert start().alignUp(FIND_INDEX_ALIGN).equals(start());
-        int startIdx = targetMethod.start().plus(FIND_INDEX_ALIGN - 1).minus(start()).unsignedShiftedRight(FIND_INDEX_ALIGN_SHIFT).toInt();
-        int endIdx = targetMethod.end().minus(1).minus(start()).unsignedShiftedRight(FIND_INDEX_ALIGN_SHIFT).toInt();
-        if (endIdx >= findIndex.length) {
-            findIndex = Arrays.copyOf(findIndex, (endIdx * 3) / 2 + 1);
-        }
+    private int pageIndex(Address address) {
+        return address.minus(start()).unsignedShiftedRight(FIND_INDEX_ALIGN_SHIFT).toInt();
+    }
+
+    /**
+     * Records a method in the pages whose beginning lies between the end of the previous method and the end of the method.
+     *
+     * @param methodIdx the index of the method in {@link #targetMethods}
+     * @param previousEnd the end of the preceding method in {@link #targetMethods} or the start of this region
+     */
+    private void setFindIndex(int[] index, int methodIdx, Address previousEnd, TargetMethod targetMethod) {
+        int startIdx = previousEnd.plus(FIND_INDEX_ALIGN - 1).minus(start()).unsignedShiftedRight(FIND_INDEX_ALIGN_SHIFT).toInt();
+        int endIdx = pageIndex(targetMethod.end().minus(1));
         for (int i = startIdx; i <= endIdx; i++) {
-            assert findIndex[i] == 0;
-            findIndex[i] = insertionPoint;
+            assert index[i] == 0;
+            index[i] = methodIdx + 1;
         }
     }
 
     /**
      * Looks up the target method containing a particular address, using the index.
+     * This method does not take any lock and may run concurrently with {@link #add(TargetMethod)}.
      *
      * @param cp the address to lookup in this region
      * @return a reference to the target method containing the specified address, if it exists; {@code null} otherwise
      */
     public TargetMethod find(Address cp) {
-        return find0(cp, start(), findIndex, targetMethods);
+        // Load the index before the method array, see {@link #findIndex}
+        final int[] index = findIndex;
+        return find0(cp, start(), index, targetMethods);
     }
 
     protected final TargetMethod find0(Address cp, Address start, int[] index, TargetMethod[] tms) {
@@ -219,18 +260,22 @@ public class CodeRegion extends LinearAllocatorRegion {
             return null;
         }
 
-        int methodIdx = index[pageIndex];
-        while (true) {
+        int methodIdx = index[pageIndex] - 1;
+        if (methodIdx < 0) {
+            return null;
+        }
+        while (methodIdx < tms.length) {
             TargetMethod method = tms[methodIdx];
-            if (method == null) {
+            if (method == null || !validMethodStart(method, cp)) {
+                // the address is not in a method, or in one that is still being added
                 return null;
             }
-            assert validMethodStart(method, cp);
             if (methodFound(method, cp)) {
                 return method;
             }
             methodIdx++;
         }
+        return null;
     }
 
     protected boolean validMethodStart(TargetMethod tm, Address address) {
@@ -313,6 +313,10 @@ public final class Dependencies {
             FatalError.check(ClassIDManager.largestClassId() <= Short.MAX_VALUE, "Support for 1 << 16 number of classes not supported yet");
             HashMap<ClassActor, ClassDeps> packedDeps = new HashMap<ClassActor, ClassDeps>(10);
             for (Assumption a : assumptions) {
+                if (!(a instanceof ContextAssumption)) {
+                    // Not a class hierarchy assumption (e.g. a call site target registered with CallSiteDependencies)
+                    continue;
+                }
                 ClassActor contextClassActor = (ClassActor) ((ContextAssumption) a).context;
                 ClassDeps classDeps = get(packedDeps, contextClassActor);
                 DependencyProcessor dependencyProcessor = DependenciesManager.dependencyProcessors.get(a.getClass());
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.compiler.target;
+
+import com.sun.max.annotate.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.object.*;
+
+/**
+ * A small direct-mapped cache of the results of {@link TargetMethod#throwAddressToCatchAddress(CodePointer, Throwable)}
+ * for a single target method. Code that uses exceptions for control flow repeatedly throws the same exception
+ * types through the same frames, and each frame would otherwise search its exception handler table and
+ * check the catch types again. Negative results (no handler in the method) are cached as well.
+ * <p>
+ * Each entry is encoded in a {@code long} so that it is read and written atomically without any locking:
+ * <pre>
+ *
+ *   63                        40 39                  20 19                   0
+ *  +----------------------------+----------------------+----------------------+
+ *  |   exception class id + 1   |    throw position    |  catch position + 1  |
+ *  +----------------------------+----------------------+----------------------+
+ * </pre>
+ * A zero entry is empty. Throws and handlers at positions that do not fit in 20 bits, and exception classes
+ * whose id does not fit in 24 bits, are not cached. As the positions are relative to the start of the code,
+ * relocation of the code by {@linkplain com.sun.max.vm.code.CodeEviction code eviction} does not affect
+ * the entries. The cache is {@linkplain #clear(long[]) cleared} when the method is invalidated or its code is wiped.
+ * <p>
+ * The cache array must be allocated when the target method is created as no allocation can take place
+ * while an exception is being dispatched.
+ */
+public final class ExceptionDispatchCache {
+
+    private ExceptionDispatchCache() {
+    }
+
+    public static boolean UseExceptionDispatchCache = true;
+    static {
+        VMOptions.addFieldOption("-XX:", "UseExceptionDispatchCache", ExceptionDispatchCache.class,
+            "Cache the exception handler found for a throw position and exception type in each compiled method.");
+    }
+
+    /**
+     * The number of entries in a cache. Must be a power of two.
+     */
+    static final int SIZE = 8;
+    private static final int SIZE_LOG2 = 3;
+
+    private static final int POS_BITS = 20;
+    private static final int POS_MASK = (1 << POS_BITS) - 1;
+    private static final int ID_BITS = 64 - 2 * POS_BITS;
+
+    /**
+     * Result of {@link #lookup} denoting that the method has no handler for the exception at the throw position.
+     */
+    public static final int NO_HANDLER = -1;
+
+    /**
+     * Result of {@link #lookup} denoting that the cache has no entry for the throw position and exception type.
+     */
+    public static final int MISS = -2;
+
+    /**
+     * Creates a cache, or returns {@code null} if caching is not possible on this platform.
+     */
+    public static long[] create() {
+        if (Word.width() != 64) {
+            // the entries are only accessed atomically on 64-bit platforms
+            return null;
+        }
+        return new long[SIZE];
+    }
+
+    @INLINE
+    private static int index(int throwPos, int id) {
+        return ((throwPos ^ id) * 0x9E3779B9) >>> (32 - SIZE_LOG2);
+    }
+
+    @INLINE
+    private static long key(int throwPos, int id) {
+        return ((long) (id + 1) << POS_BITS) | throwPos;
+    }
+
+    @INLINE
+    private static boolean isCacheable(int pos) {
+        return pos >= 0 && pos < POS_MASK;
+    }
+
+    /**
+     * Looks up the handler for an exception thrown at a given position.
+     *
+     * @param cache a cache created by {@link #create()} or {@code null}
+     * @param throwPos the code position at which the exception was thrown
+     * @param throwable the exception
+     * @return the code position of the handler, {@link #NO_HANDLER} or {@link #MISS}
+     */
+    public static int lookup(long[] cache, int throwPos, Throwable throwable) {
+        if (cache == null || !UseExceptionDispatchCache || !isCacheable(throwPos)) {
+            return MISS;
+        }
+        final ClassActor exceptionClass = ObjectAccess.readClassActor(throwable);
+        final int id = exceptionClass.id;
+        final long entry = cache[index(throwPos, id)];
+        if ((entry >>> POS_BITS) != key(throwPos, id)) {
+            return MISS;
+        }
+        return (int) (entry & POS_MASK) - 1;
+    }
+
+    /**
+     * Records the result of searching for the handler of an exception thrown at a given position.
+     *
+     * @param cache a cache created by {@link #create()} or {@code null}
+     * @param throwPos the code position at which the exception was thrown
+     * @param throwable the exception
+     * @param catchPos the code position of the handler or {@link #NO_HANDLER}
+     */
+    public static void record(long[] cache, int throwPos, Throwable throwable, int catchPos) {
+        if (cache == null || !UseExceptionDispatchCache || !isCacheable(throwPos) || catchPos >= POS_MASK - 1) {
+            return;
+        }
+        final int id = ObjectAccess.readClassActor(throwable).id;
+        if (id < 0 || id >= (1 << ID_BITS) - 1) {
+            return;
+        }
+        cache[index(throwPos, id)] = (key(throwPos, id) << POS_BITS) | (catchPos + 1);
+    }
+
+    /**
+     * Removes all the entries from a cache.
+     */
+    public static void clear(long[] cache) {
+        if (cache != null) {
+            for (int i = 0; i < cache.length; i++) {
+                cache[i] = 0L;
+            }
+        }
+    }
+}
@@ -107,6 +107,13 @@ public final class Stub extends TargetMethod {
          */
         TrapStub,
 
+        /**
+         * Transition when returning to the frame guarded by a thread's {@linkplain ReturnBarrier return barrier}.
+         *
+         * @see Stubs#returnBarrierStub()
+         */
+        ReturnBarrierStub,
+
         /**
          * A place holder for invalid indexes of dispatch tables (virtual / interface).
          */
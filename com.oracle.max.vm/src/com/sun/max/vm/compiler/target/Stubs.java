@@ -53,6 +53,7 @@ import com.sun.max.vm.object.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.runtime.amd64.*;
 import com.sun.max.vm.runtime.arm.*;
+import com.sun.max.vm.stack.*;
 import com.sun.max.vm.thread.*;
 
 /**
@@ -128,6 +129,11 @@ public class Stubs {
      */
     private Stub trapStub;
 
+    /**
+     * The stub returned to in place of the return address replaced by an armed {@linkplain ReturnBarrier return barrier}.
+     */
+    private Stub returnBarrierStub;
+
     /**
      * The deopt stub per return value kind.
      */
@@ -222,6 +228,16 @@ public class Stubs {
         return trapStub;
     }
 
+    /**
+     * Gets the stub that disarms a thread's {@linkplain ReturnBarrier return barrier} when returned to.
+     *
+     * @return {@code null} if return barriers are not supported on this platform
+     * @see #genReturnBarrierStub()
+     */
+    public Stub returnBarrierStub() {
+        return returnBarrierStub;
+    }
+
     /**
      * Gets the deoptimization stub for a given return value kind.
      *
@@ -260,6 +276,7 @@ public class Stubs {
                 resolveInvokeBasicCallArgs = registerConfigs.trampoline.getCallingConvention(JavaCall, CiUtil.signatureToKinds(resolveInvokeBasicCall.classMethodActor), target(), false).locations;
                 staticTrampoline = genStaticTrampoline();
                 trapStub = genTrapStub();
+                returnBarrierStub = genReturnBarrierStub();
                 invokeBasicStub = genResolveInvokeBasicTarget();
 
                 CriticalMethod unroll = new CriticalMethod(Stubs.class, "unroll", null);
@@ -1230,6 +1247,39 @@ public class Stubs {
         }
     }
 
+    /**
+     * Generates the stub that is returned to instead of the frame guarded by an armed {@linkplain ReturnBarrier return
+     * barrier}. The stub executes in the frame being returned to. It disarms the barrier and then continues at the
+     * original return address. The return value registers are left untouched.
+     *
+     * <pre>
+     *   mov  scratch, [latch + ETLA]                     // get the safepoints-enabled thread locals
+     *   push [scratch + RETURN_BARRIER_ADDRESS]          // push original return address
+     *   mov  [scratch + RETURN_BARRIER_ADDRESS], 0       // disarm the barrier
+     *   ret                                              // continue at original return address
+     * </pre>
+     *
+     * @return {@code null} if return barriers are not supported on this platform
+     */
+    @HOSTED_ONLY
+    private Stub genReturnBarrierStub() {
+        if (platform().isa == ISA.AMD64) {
+            CiRegisterConfig registerConfig = registerConfigs.standard;
+            AMD64MacroAssembler asm = new AMD64MacroAssembler(target(), registerConfig);
+            CiRegister latch = AMD64SafepointPoll.LATCH_REGISTER;
+            CiRegister scratch = registerConfig.getScratchRegister();
+
+            asm.movq(scratch, new CiAddress(WordUtil.archKind(), latch.asValue(), ETLA.offset));
+            asm.pushq(new CiAddress(WordUtil.archKind(), scratch.asValue(), RETURN_BARRIER_ADDRESS.offset));
+            asm.movslq(new CiAddress(WordUtil.archKind(), scratch.asValue(), RETURN_BARRIER_ADDRESS.offset), 0);
+            asm.ret(0);
+
+            byte[] code = asm.codeBuffer.close(true);
+            return new Stub(ReturnBarrierStub, "returnBarrierStub", 0, code, -1, 0, null, -1);
+        }
+        return null;
+    }
+
     /**
      * Generates a stub to deoptimize a method upon returning to it.
      *
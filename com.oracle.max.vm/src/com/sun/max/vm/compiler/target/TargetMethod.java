@@ -154,6 +154,14 @@ public abstract class TargetMethod extends MemoryRegion {
      */
     private InvalidationMarker invalidated;
 
+    /**
+     * Recent results of {@link #throwAddressToCatchAddress(CodePointer, Throwable)}, or {@code null} if this method
+     * has no exception handlers.
+     *
+     * @see ExceptionDispatchCache
+     */
+    private long[] exceptionDispatchCache;
+
     /**
      * The frame size (in bytes) of an activation of this target method. This does not include the space occupied by a
      * return address (if the arch uses one).
@@ -245,6 +253,7 @@ public abstract class TargetMethod extends MemoryRegion {
         assert isHosted() || VmThread.current().isVmOperationThread();
         if (invalidated == null) {
             invalidated = marker;
+            ExceptionDispatchCache.clear(exceptionDispatchCache);
             return true;
         }
         return false;
@@ -1178,6 +1187,35 @@ public abstract class TargetMethod extends MemoryRegion {
      */
     public abstract CodePointer throwAddressToCatchAddress(CodePointer throwAddress, Throwable throwable);
 
+    /**
+     * Creates the {@linkplain ExceptionDispatchCache exception dispatch cache} of this method. Subclasses call
+     * this when they create a method with exception handlers.
+     */
+    protected final void initExceptionDispatchCache() {
+        exceptionDispatchCache = ExceptionDispatchCache.create();
+    }
+
+    /**
+     * Looks up the handler for an exception thrown at a given position in the
+     * {@linkplain ExceptionDispatchCache exception dispatch cache} of this method.
+     *
+     * @return the code position of the handler, {@link ExceptionDispatchCache#NO_HANDLER} or
+     *         {@link ExceptionDispatchCache#MISS}
+     */
+    protected final int cachedCatchPos(int throwPos, Throwable throwable) {
+        return ExceptionDispatchCache.lookup(exceptionDispatchCache, throwPos, throwable);
+    }
+
+    /**
+     * Records the handler found for an exception thrown at a given position in the
+     * {@linkplain ExceptionDispatchCache exception dispatch cache} of this method.
+     *
+     * @param catchAddress the address of the handler or {@link CodePointer#zero()} if there is none
+     */
+    protected final void cacheCatchAddress(int throwPos, Throwable throwable, CodePointer catchAddress) {
+        ExceptionDispatchCache.record(exceptionDispatchCache, throwPos, throwable, catchAddress.isZero() ? ExceptionDispatchCache.NO_HANDLER : posFor(catchAddress));
+    }
+
     public static class CatchExceptionInfo {
 
         public CodePointer codePointer;
@@ -1316,6 +1354,7 @@ public abstract class TargetMethod extends MemoryRegion {
         code = WIPED_CODE;
         scalarLiterals = WIPED_SCALAR_LITERALS;
         referenceLiterals = WIPED_REFERENCE_LITERALS;
+        ExceptionDispatchCache.clear(exceptionDispatchCache);
     }
 
     public boolean isWiped() {
@@ -24,6 +24,11 @@ package com.sun.max.vm.heap;
 import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
 import static com.sun.max.vm.jdk.JDK_java_lang_ref_ReferenceQueue.*;
 
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import sun.misc.*;
+
 import com.sun.max.annotate.*;
 import com.sun.max.unsafe.*;
 import com.sun.max.vm.*;
@@ -52,6 +57,32 @@ public class SpecialReferenceManager {
 
     private static final boolean FINALIZERS_SUPPORTED = true;
 
+    private static final VMIntOption finalizerThreadsOption = VMOptions.register(new VMIntOption("-XX:FinalizerThreads=", 1,
+        "Number of threads running finalizers. Threads in addition to the JDK's finalizer thread are started " +
+        "once the VM is running and take their work from the same queue."), MaxineVM.Phase.PRISTINE);
+
+    /**
+     * The number of special references processed by the GC, over all collections.
+     * Only updated by the GC.
+     */
+    private static long discoveredCount;
+
+    /**
+     * The number of special references added to the pending list by the GC, over all collections.
+     * Only updated by the GC.
+     */
+    private static long pendingCount;
+
+    /**
+     * The number of special references processed by the most recent collection.
+     */
+    private static int lastDiscoveredCount;
+
+    private static final AtomicLong finalizeeCount = new AtomicLong();
+    private static final AtomicLong finalizedCount = new AtomicLong();
+
+    private static int finalizerThreadCount;
+
     /**
      * This interface forms a contract between the GC algorithm and the implementation of special references.
      */
@@ -83,6 +114,33 @@ public class SpecialReferenceManager {
         boolean mayRelocateLiveObjects();
     }
 
+    /**
+     * A side table that refers to objects weakly by their address, without any {@link java.lang.ref.Reference} objects.
+     * Registered tables are {@linkplain #processWeakReferents(GC) processed} by every collection, after the special
+     * references have been processed, and must remove the entries of unreachable objects and update the addresses
+     * of those that have moved.
+     */
+    public interface WeakTable {
+        /**
+         * Called by the GC, with all mutator threads stopped. The implementation must not allocate.
+         *
+         * @param gc interface to the GC implementation
+         */
+        void processWeakReferents(GC gc);
+    }
+
+    private static WeakTable[] weakTables = {};
+
+    /**
+     * Registers a table to be processed by every subsequent collection.
+     */
+    public static synchronized void registerWeakTable(WeakTable weakTable) {
+        final WeakTable[] newWeakTables = Arrays.copyOf(weakTables, weakTables.length + 1);
+        newWeakTables[weakTables.length] = weakTable;
+        // the GC only ever sees a complete array
+        weakTables = newWeakTables;
+    }
+
     /**
      * The lock object associated with managing special references. This lock must
      * be held by the GC when it is updating the list of pending special references.
@@ -246,6 +304,10 @@ public class SpecialReferenceManager {
      * and add them to their respective queues later.
      * The reference handler lock is notified by the thread that {@linkplain VmOperationThread#submit(VmOperation) submitted}
      * the GC operation as it holds the lock. See {@link GCOperation#doItEpilogue(boolean)}.
+     * Finally, the registered {@linkplain WeakTable weak tables} are processed.
+     * <p>
+     * The list is processed serially by the thread running the collection. None of the collectors has worker threads
+     * to share it with, and {@link GC#preserve(Reference)} is not safe to call concurrently for the copying collectors.
      *
      * @param gc interface to the GC implementation
      */
@@ -253,6 +315,8 @@ public class SpecialReferenceManager {
         java.lang.ref.Reference head = discoveredList;
         java.lang.ref.Reference end = sentinel;
         final boolean updateReachableReferent = gc.mayRelocateLiveObjects();
+        int discovered = 0;
+        int addedCount = 0;
 
         if (specialReferenceLogger.enabled()) {
             specialReferenceLogger.logProcessDiscoveredInit(
@@ -269,6 +333,7 @@ public class SpecialReferenceManager {
             while (ref != end) {
                 boolean preserved = false;
                 boolean addedToPending = false;
+                discovered++;
                 JLRRAlias refAlias = asJLRRAlias(ref);
                 final Reference referent = Reference.fromJava(refAlias.referent);
                 if (referent.isZero()) {
@@ -299,6 +364,7 @@ public class SpecialReferenceManager {
                             }
                             pending = ref;
                             addedToPending = true;
+                            addedCount++;
                         }
                     }
                 } else if (updateReachableReferent) {
@@ -337,6 +403,15 @@ public class SpecialReferenceManager {
             end = head;
             head = discoveredList;
         } while (true);
+
+        lastDiscoveredCount = discovered;
+        discoveredCount += discovered;
+        pendingCount += addedCount;
+
+        final WeakTable[] tables = weakTables;
+        for (int i = 0; i < tables.length; i++) {
+            tables[i].processWeakReferents(gc);
+        }
     }
 
     @ALIAS(declaringClassName = "java.lang.ref.Finalizer")
@@ -351,6 +426,7 @@ public class SpecialReferenceManager {
         if (FINALIZERS_SUPPORTED) {
             FatalError.check(ObjectAccess.readClassActor(object).hasFinalizer(), "cannot register object that has no finalizer");
             register(object);
+            finalizeeCount.incrementAndGet();
             if (specialReferenceLogger.enabled()) {
                 specialReferenceLogger.logRegisterFinalizee(Reference.fromJava(object).toOrigin(), ObjectAccess.readClassActor(object));
             }
@@ -370,7 +446,8 @@ public class SpecialReferenceManager {
      * VM, the {@link java.lang.ref.Reference} and {@link java.lang.ref.Finalizer} classes create
      * threads in their static initializers to handle weak references and finalizable objects.
      * However, in the target VM, these classes have already been initialized and these
-     * threads need to be started manually.
+     * threads need to be started manually. Any {@linkplain #finalizerThreadsOption additional} finalizer
+     * threads are started once the VM is {@linkplain Phase#RUNNING running}.
      *
      * @param phase the phase in which the VM is in
      */
@@ -385,6 +462,8 @@ public class SpecialReferenceManager {
             assert sentinelAlias.isInactive();
             startReferenceHandlerThread();
             startFinalizerThread();
+        } else if (phase == Phase.RUNNING) {
+            startAdditionalFinalizerThreads();
         }
     }
 
@@ -416,7 +495,107 @@ public class SpecialReferenceManager {
         if (FINALIZERS_SUPPORTED) {
             // The thread was built into the boot image. We simply need to start it:
             VmThread.finalizerThread.startVmSystemThread();
+            finalizerThreadCount = 1;
+        }
+    }
+
+    private static class FinalizerAlias {
+        @ALIAS(declaringClassName = "java.lang.ref.Finalizer", name = "queue")
+        static java.lang.ref.ReferenceQueue<Object> queue;
+
+        @ALIAS(declaringClassName = "java.lang.ref.Finalizer")
+        native void runFinalizer(JavaLangAccess jla);
+    }
+
+    @INTRINSIC(UNSAFE_CAST)
+    private static native FinalizerAlias asFinalizerAlias(Object o);
+
+    /**
+     * A thread that runs finalizers alongside the JDK's finalizer thread. Like that thread, it removes
+     * finalizers from the queue of {@code java.lang.ref.Finalizer}, so the finalizer backlog is shared
+     * between all the finalizer threads.
+     */
+    private static final class FinalizerThread extends Thread {
+        FinalizerThread(int index) {
+            super(VmThread.systemThreadGroup, "Finalizer-" + index);
+            setPriority(Thread.MAX_PRIORITY - 2);
+            setDaemon(true);
         }
+
+        @Override
+        public void run() {
+            final JavaLangAccess jla = SharedSecrets.getJavaLangAccess();
+            final java.lang.ref.ReferenceQueue<Object> queue = FinalizerAlias.queue;
+            while (true) {
+                try {
+                    asFinalizerAlias(queue.remove()).runFinalizer(jla);
+                } catch (InterruptedException e) {
+                    // continue
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the finalizer threads requested in addition to the one built into the boot image.
+     */
+    private static void startAdditionalFinalizerThreads() {
+        if (FINALIZERS_SUPPORTED) {
+            for (int i = 1; i < finalizerThreadsOption.getValue(); i++) {
+                new FinalizerThread(i).start();
+                finalizerThreadCount++;
+            }
+        }
+    }
+
+    /**
+     * Called by {@code java.lang.ref.Finalizer.runFinalizer} each time the finalizer of an object is run.
+     */
+    public static void finalizerRun() {
+        finalizedCount.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of special references processed by the GC, over all collections.
+     */
+    public static long discoveredCount() {
+        return discoveredCount;
+    }
+
+    /**
+     * Gets the number of special references processed by the most recent collection.
+     */
+    public static int lastDiscoveredCount() {
+        return lastDiscoveredCount;
+    }
+
+    /**
+     * Gets the number of special references whose referent's reachability has changed and that have been
+     * handed to the reference handler thread, over all collections.
+     */
+    public static long pendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Gets the number of objects with a non-trivial finalizer that have been allocated.
+     */
+    public static long finalizeeCount() {
+        return finalizeeCount.get();
+    }
+
+    /**
+     * Gets the number of objects whose finalizer has been run.
+     */
+    public static long finalizedCount() {
+        return finalizedCount.get();
+    }
+
+    /**
+     * Gets the number of threads running finalizers.
+     */
+    public static int finalizerThreadCount() {
+        return finalizerThreadCount;
     }
 
     // Logging
@@ -120,7 +120,7 @@ public final class JDK_java_lang_ClassLoader {
      *
      * @param name the name of the class
      * @param byteBuffer the buffer containing the bytes of the classfile
-     * @param offset offset into the array at which the classfile begins
+     * @param offset offset into the buffer at which the classfile begins
      * @param length the length of the classfile
      * @param protectionDomain the protection domain in which to create the class
      * @param source
@@ -128,7 +128,7 @@ public final class JDK_java_lang_ClassLoader {
      */
     @SUBSTITUTE(optional = true)
     private Class defineClass2(String name, java.nio.ByteBuffer byteBuffer, int offset, int length, ProtectionDomain protectionDomain, String source) {
-        return defineClass1(name, byteBuffer.array(), offset, length, protectionDomain, source);
+        return ClassfileReader.defineClassActor(name, thisClassLoader(), classfileBuffer(byteBuffer, offset, length), protectionDomain, source, false).toJava();
     }
 
     /**
@@ -145,7 +145,21 @@ public final class JDK_java_lang_ClassLoader {
      */
     @SUBSTITUTE(optional = true)
     private Class defineClass2(String name, java.nio.ByteBuffer byteBuffer, int offset, int length, ProtectionDomain protectionDomain, String source, boolean verify) {
-        return defineClass1(name, byteBuffer.array(), offset, length, protectionDomain, source, verify);
+        final ClassActor classActor = ClassfileReader.defineClassActor(name, thisClassLoader(), classfileBuffer(byteBuffer, offset, length), protectionDomain, source, false);
+        if (!verify) {
+            classActor.doNotVerify();
+        }
+        return classActor.toJava();
+    }
+
+    /**
+     * Gets a view of the class file in a buffer passed to {@code defineClass2}. The buffer need not be backed by an
+     * array; a direct or memory-mapped buffer is parsed in place.
+     */
+    private static java.nio.ByteBuffer classfileBuffer(java.nio.ByteBuffer byteBuffer, int offset, int length) {
+        final java.nio.ByteBuffer classfile = byteBuffer.duplicate();
+        classfile.limit(offset + length).position(offset);
+        return classfile;
     }
 
     /**
@@ -22,6 +22,7 @@
  */
 package com.sun.max.vm.jdk;
 
+import static com.sun.max.vm.compiler.target.Stub.Type.*;
 import static com.sun.max.vm.intrinsics.Infopoints.*;
 import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
 
@@ -32,6 +33,7 @@ import com.sun.max.unsafe.*;
 import com.sun.max.vm.*;
 import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.compiler.target.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.stack.*;
 import com.sun.max.vm.thread.*;
@@ -73,8 +75,9 @@ public final class JDK_java_lang_Throwable {
     private static StackTraceElement[] UNASSIGNED_STACK;
 
     /**
-     * Fills in the stack trace for this exception. This implementation eagerly creates a
-     * stack trace and fills in all the {@link java.lang.StackTraceElement stack trace elements}.
+     * Fills in the stack trace for this exception. This implementation only records the compiled frames
+     * on the stack in a {@link Backtrace}. The {@link java.lang.StackTraceElement stack trace elements}
+     * are created when the stack trace is first requested, which most exceptions never are.
      *
      * @see java.lang.Throwable#fillInStackTrace()
      * @return the throwable with a filled-in stack trace (typically this object)
@@ -112,12 +115,33 @@ public final class JDK_java_lang_Throwable {
 
     /**
      * A back trace is a lighter weight representation of a stack trace than
-     * an array of {@link StackTraceElement}s.
+     * an array of {@link StackTraceElement}s. The stack walk only records the target method and
+     * code position of each compiled frame. The source frames of these, including the frames of
+     * inlined methods, and their line numbers are {@linkplain #decode() decoded} on demand.
      */
     public static class Backtrace extends StackTraceVisitor {
 
-        static final int INITIAL_LENGTH = 200;
+        static final int INITIAL_LENGTH = 32;
 
+        /**
+         * The number of recorded frames.
+         */
+        private int frameCount;
+
+        /**
+         * The target methods of the recorded frames.
+         */
+        private TargetMethod[] targetMethods;
+
+        /**
+         * The {@linkplain TargetMethod#posFor(CodePointer) code positions} of the recorded frames, shifted
+         * left by one. The low bit is set if the frame was stopped at a trap.
+         */
+        private int[] positions;
+
+        /**
+         * The number of source frames. Only valid once the back trace has been {@linkplain #decode() decoded}.
+         */
         public int count;
         public int[] lineNos;
         public ClassMethodActor[] methods;
@@ -126,8 +150,60 @@ public final class JDK_java_lang_Throwable {
             super(exceptionClass);
 
             int len = Math.min(maxDepth, INITIAL_LENGTH);
+            targetMethods = new TargetMethod[len];
+            positions = new int[len];
+        }
+
+        @Override
+        public boolean visitFrame(StackFrameCursor current, StackFrameCursor callee) {
+            final TargetMethod targetMethod = current.targetMethod();
+            if (targetMethod == null || targetMethod.classMethodActor == null) {
+                // ignore native frames, stubs, trampolines, adapters etc
+                return true;
+            }
+            final boolean trapped = callee.targetMethod() != null && callee.targetMethod().is(TrapStub);
+            if (trapped) {
+                // the frames above the trap are of no interest
+                for (int i = frameCount - 1; i >= 0; i--) {
+                    targetMethods[i] = null;
+                }
+                frameCount = 0;
+            }
+            if (frameCount == targetMethods.length) {
+                int newLength = targetMethods.length * 2;
+                targetMethods = Arrays.copyOf(targetMethods, newLength);
+                positions = Arrays.copyOf(positions, newLength);
+            }
+            targetMethods[frameCount] = targetMethod;
+            positions[frameCount] = (targetMethod.posFor(current.vmIP()) << 1) | (trapped ? 1 : 0);
+            frameCount++;
+            return true;
+        }
+
+        /**
+         * Decodes the recorded frames into source frames, filling in {@link #count}, {@link #methods}
+         * and {@link #lineNos}. Only the first call to this method does any work.
+         */
+        public void decode() {
+            if (targetMethods == null) {
+                return;
+            }
+            int len = Math.max(frameCount, 1);
             lineNos = new int[len];
             methods = new ClassMethodActor[len];
+            for (int i = 0; i < frameCount; i++) {
+                final TargetMethod targetMethod = targetMethods[i];
+                final int pos = positions[i] >> 1;
+                final boolean trapped = (positions[i] & 1) != 0;
+                if (pos < 0 || targetMethod.isWiped()) {
+                    // the code position cannot be mapped to a bytecode position
+                    visitSourceFrame(targetMethod.classMethodActor, -1, trapped, 0L);
+                } else {
+                    visitTargetFrame(targetMethod, targetMethod.codeStart().plus(pos), trapped);
+                }
+            }
+            targetMethods = null;
+            positions = null;
         }
 
         @Override
@@ -164,6 +240,7 @@ public final class JDK_java_lang_Throwable {
 
         @Override
         public StackTraceElement[] getTrace() {
+            decode();
             StackTraceElement[] trace = new StackTraceElement[count];
             for (int i = 0; i != count; i++) {
                 trace[i] = stackTraceElement(i);
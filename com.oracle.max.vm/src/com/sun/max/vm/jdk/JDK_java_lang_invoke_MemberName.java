@@ -71,7 +71,7 @@ public final class JDK_java_lang_invoke_MemberName {
         Object resolution;
     }
 
-    static final Class< ? > MemberName_Class;
+    public static final Class< ? > MemberName_Class;
 
     static {
         try {
@@ -97,7 +97,7 @@ public final class JDK_java_lang_invoke_MemberName {
      *
      * @return
      */
-    static Object newMemberName() {
+    public static Object newMemberName() {
         final Object o = Heap.createTuple(ClassActor.fromJava(MemberName_Class).dynamicHub());
         asMemberName(o).init();
         return o;
@@ -85,6 +85,22 @@ public final class JDK_java_lang_invoke_MethodHandleNatives {
     private static void init(MethodType type) {
     }
 
+    /**
+     * Sets the target of a {@link MutableCallSite}, deoptimizing compiled code that assumed the previous target.
+     */
+    @SUBSTITUTE
+    static void setCallSiteTargetNormal(CallSite site, MethodHandle target) {
+        CallSiteDependencies.setTarget(site, target);
+    }
+
+    /**
+     * Sets the target of a {@link VolatileCallSite}, deoptimizing compiled code that assumed the previous target.
+     */
+    @SUBSTITUTE
+    static void setCallSiteTargetVolatile(CallSite site, MethodHandle target) {
+        CallSiteDependencies.setTarget(site, target);
+    }
+
     /**
      * Entry point from the VM to the JDK requesting an adapter for invoking a method handle.
      *
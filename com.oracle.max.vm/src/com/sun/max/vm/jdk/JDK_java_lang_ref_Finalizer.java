@@ -27,6 +27,7 @@ import com.sun.max.annotate.*;
 import com.sun.max.vm.*;
 import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.heap.*;
 import com.sun.max.vm.object.*;
 import com.sun.max.vm.reference.*;
 import com.sun.max.vm.value.*;
@@ -64,6 +65,7 @@ final class JDK_java_lang_ref_Finalizer {
             }
             remove();
         }
+        SpecialReferenceManager.finalizerRun();
         try {
             Object finalizee = asReference(this).get();
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.jdk;
+
+import java.lang.management.*;
+import java.util.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.management.*;
+
+/**
+ * Method substitutions for sun.management.ExtendedPlatformComponent, through which
+ * {@link ManagementFactory#getPlatformMBeanServer()} registers the platform MXBeans that are not part of the JDK and
+ * {@link ManagementFactory#getPlatformMXBean(Class)} finds them. The VM specific MXBeans are supplied here in place
+ * of the flight recorder bean, which Maxine does not support.
+ */
+@METHOD_SUBSTITUTIONS(className = "sun.management.ExtendedPlatformComponent")
+final class JDK_sun_management_ExtendedPlatformComponent {
+
+    private JDK_sun_management_ExtendedPlatformComponent() {
+    }
+
+    private static List<PlatformManagedObject> mxbeans() {
+        final List<PlatformManagedObject> mxbeans = new ArrayList<PlatformManagedObject>();
+        mxbeans.add(SafepointManagement.getSafepointMXBean());
+        mxbeans.add(ReferenceManagement.getReferenceMXBean());
+        mxbeans.add(StringTableManagement.getStringTableMXBean());
+        return mxbeans;
+    }
+
+    @SUBSTITUTE
+    public static List<? extends PlatformManagedObject> getMXBeans() {
+        return mxbeans();
+    }
+
+    @SUBSTITUTE
+    public static <T extends PlatformManagedObject> T getMXBean(Class<T> mxbeanInterface) {
+        for (PlatformManagedObject mxbean : mxbeans()) {
+            if (mxbeanInterface.isInstance(mxbean)) {
+                return mxbeanInterface.cast(mxbean);
+            }
+        }
+        return null;
+    }
+}
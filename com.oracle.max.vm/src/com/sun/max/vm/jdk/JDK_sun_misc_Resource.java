@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.jdk;
+
+import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import sun.misc.*;
+import sun.nio.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.program.*;
+import com.sun.max.vm.classfile.*;
+
+/**
+ * Method substitutions for {@link sun.misc.Resource}.
+ *
+ * {@link URLClassLoader} defines a class from the buffer returned by {@link Resource#getByteBuffer()} when there is
+ * one, which {@link ClassfileReader} parses in place if it is not backed by an array. With
+ * {@link ClassfileReader#MapClassfiles} class files in directories on the application class path that are at least
+ * {@link Classpath#MIN_MAPPED_FILE_SIZE} bytes long are therefore memory-mapped instead of being read into a byte array.
+ * Entries in jar files are still read through the resource's stream, as they may be compressed and their signers are
+ * only known once the entry has been read in full.
+ */
+@METHOD_SUBSTITUTIONS(Resource.class)
+final class JDK_sun_misc_Resource {
+
+    private JDK_sun_misc_Resource() {
+    }
+
+    @INTRINSIC(UNSAFE_CAST)
+    private static native Resource asResource(Object object);
+
+    @ALIAS(declaringClass = Resource.class)
+    private native InputStream cachedInputStream() throws IOException;
+
+    @SUBSTITUTE
+    public ByteBuffer getByteBuffer() throws IOException {
+        final Resource resource = asResource(this);
+        if (ClassfileReader.MapClassfiles) {
+            final URL url = resource.getURL();
+            if (url != null && "file".equals(url.getProtocol()) && url.getPath().endsWith(".class")) {
+                final ByteBuffer mapping = map(url);
+                if (mapping != null) {
+                    return mapping;
+                }
+            }
+        }
+        final InputStream in = cachedInputStream();
+        if (in instanceof ByteBuffered) {
+            return ((ByteBuffered) in).getByteBuffer();
+        }
+        return null;
+    }
+
+    private static ByteBuffer map(URL url) {
+        final File file;
+        try {
+            file = new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+        if (file.length() < Classpath.MIN_MAPPED_FILE_SIZE) {
+            return null;
+        }
+        try {
+            final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
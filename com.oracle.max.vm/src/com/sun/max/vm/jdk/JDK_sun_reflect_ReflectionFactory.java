@@ -98,7 +98,8 @@ public final class JDK_sun_reflect_ReflectionFactory {
     private native ReflectionFactory thisReflectionFactory();
 
     /**
-     * Creates a new method accessor for the specified method.
+     * Creates a new method accessor for the specified method. Unless the method already has a stub of its own, this
+     * is a {@linkplain SharedMethodInvocationStub shared stub}.
      * @see sun.reflect.ReflectionFactory#newMethodAccessor(Method)
      * @param method the method for which to create the accessor
      * @return a method accessor that is capable of invoking the method
@@ -107,7 +108,7 @@ public final class JDK_sun_reflect_ReflectionFactory {
     public MethodAccessor newMethodAccessor(Method method) {
         MethodAccessor result = prePopulatedMethodStubs.get(MethodActor.fromJava(method));
         if (result == null) {
-            result = newMethodStub(method, Boxing.JAVA);
+            result = newSharedMethodStub(method);
         }
         return result;
     }
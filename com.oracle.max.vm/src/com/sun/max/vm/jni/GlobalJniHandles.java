@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.jni;
+
+import java.util.concurrent.atomic.*;
+
+import com.sun.max.annotate.*;
+
+/**
+ * A pool of global (or weak global) JNI handles in which handles are allocated and freed without locking.
+ *
+ * The objects are stored in fixed size segments that are never copied: the pool grows by adding segments,
+ * which only copies the segment directory, under a lock, once per {@link #SEGMENT_LENGTH} handles.
+ * Freed handles are linked into a lock free (Treiber) list, threaded through {@link #links}, whose head is
+ * stamped to avoid ABA problems. To reduce contention on the list head, each thread has a {@link Cache} of
+ * free handle indexes, kept in its {@link JniHandles} and moved to and from the shared list in batches
+ * of {@link #BATCH} indexes.
+ */
+final class GlobalJniHandles {
+
+    static final int SEGMENT_BITS = 10;
+    static final int SEGMENT_LENGTH = 1 << SEGMENT_BITS;
+    static final int SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+    /**
+     * The number of indexes moved between a {@link Cache} and the shared pool at a time.
+     * Divides {@link #SEGMENT_LENGTH}, so that a freshly allocated batch never spans two segments.
+     */
+    static final int BATCH = 32;
+
+    /**
+     * The maximum number of handles, limited by the number of bits available for the index in a {@link JniHandle}.
+     */
+    private static final int MAX_HANDLES = 1 << (31 - JniHandles.Tag.BITS);
+
+    /**
+     * A per-thread cache of free handle indexes of one pool.
+     */
+    static final class Cache {
+        final int[] indexes = new int[BATCH * 2];
+        int count;
+    }
+
+    private volatile Object[][] segments = new Object[16][];
+    private volatile int[][] links = new int[16][];
+
+    /**
+     * The number of indexes handed out from the segments, freed or not.
+     */
+    private final AtomicInteger top = new AtomicInteger();
+
+    /**
+     * The head of the free list, with {@code 1 + index} in the low 32 bits and a stamp in the high 32 bits.
+     */
+    private final AtomicLong freeList = new AtomicLong();
+
+    @INLINE
+    Object get(int index) {
+        return segments[index >> SEGMENT_BITS][index & SEGMENT_MASK];
+    }
+
+    @INLINE
+    private void set(int index, Object object) {
+        segments[index >> SEGMENT_BITS][index & SEGMENT_MASK] = object;
+    }
+
+    /**
+     * Allocates a handle index for {@code object}.
+     */
+    int allocate(Object object, Cache cache) {
+        if (cache.count == 0) {
+            refill(cache);
+        }
+        final int index = cache.indexes[--cache.count];
+        set(index, object);
+        return index;
+    }
+
+    /**
+     * Frees the handle at {@code index}.
+     */
+    void free(int index, Cache cache) {
+        set(index, null);
+        if (cache.count == cache.indexes.length) {
+            flush(cache, BATCH);
+        }
+        cache.indexes[cache.count++] = index;
+    }
+
+    /**
+     * Moves {@link #BATCH} free indexes into an empty cache, from the free list if possible.
+     */
+    private void refill(Cache cache) {
+        final int[] indexes = cache.indexes;
+        int count = 0;
+        while (count < BATCH) {
+            final int index = pop();
+            if (index < 0) {
+                break;
+            }
+            indexes[count++] = index;
+        }
+        if (count == 0) {
+            final int start = top.getAndAdd(BATCH);
+            if (start > MAX_HANDLES - BATCH) {
+                top.getAndAdd(-BATCH);
+                throw new OutOfMemoryError("too many JNI global handles");
+            }
+            ensureSegment(start >> SEGMENT_BITS);
+            // hand out in ascending order
+            for (int i = BATCH - 1; i >= 0; i--) {
+                indexes[count++] = start + i;
+            }
+        }
+        cache.count = count;
+    }
+
+    /**
+     * Moves {@code n} indexes from the cache to the free list, linking them first so that only one CAS is needed.
+     */
+    private void flush(Cache cache, int n) {
+        final int[] indexes = cache.indexes;
+        final int first = cache.count - n;
+        for (int i = first; i < cache.count - 1; i++) {
+            setLink(indexes[i], indexes[i + 1]);
+        }
+        final int last = indexes[cache.count - 1];
+        long head;
+        do {
+            head = freeList.get();
+            setLink(last, (int) head - 1);
+        } while (!freeList.compareAndSet(head, nextStamp(head) | (indexes[first] + 1)));
+        cache.count = first;
+    }
+
+    /**
+     * Returns all the indexes in a cache to the shared pool, when the owning thread terminates.
+     */
+    void release(Cache cache) {
+        if (cache.count > 0) {
+            flush(cache, cache.count);
+        }
+    }
+
+    private int pop() {
+        while (true) {
+            final long head = freeList.get();
+            final int index = (int) head - 1;
+            if (index < 0) {
+                return -1;
+            }
+            // a stale link is harmless as the stamp will have changed
+            final int next = getLink(index);
+            if (freeList.compareAndSet(head, nextStamp(head) | ((next + 1) & 0xFFFFFFFFL))) {
+                return index;
+            }
+        }
+    }
+
+    @INLINE
+    private static long nextStamp(long head) {
+        return ((head >>> 32) + 1) << 32;
+    }
+
+    @INLINE
+    private int getLink(int index) {
+        return links[index >> SEGMENT_BITS][index & SEGMENT_MASK];
+    }
+
+    @INLINE
+    private void setLink(int index, int next) {
+        links[index >> SEGMENT_BITS][index & SEGMENT_MASK] = next;
+    }
+
+    /**
+     * Ensures that the segment with the given number exists. Existing segments are never copied or moved.
+     */
+    private void ensureSegment(int segment) {
+        if (segment < segments.length && segments[segment] != null) {
+            return;
+        }
+        synchronized (this) {
+            Object[][] s = segments;
+            int[][] l = links;
+            if (segment >= s.length) {
+                int length = s.length * 2;
+                while (segment >= length) {
+                    length *= 2;
+                }
+                // Can't use Arrays.copyOf - System.arraycopy is a native method which may require allocating JNI handles!
+                final Object[][] newSegments = new Object[length][];
+                final int[][] newLinks = new int[length][];
+                for (int i = 0; i < s.length; i++) {
+                    newSegments[i] = s[i];
+                    newLinks[i] = l[i];
+                }
+                s = newSegments;
+                l = newLinks;
+            }
+            if (s[segment] == null) {
+                l[segment] = new int[SEGMENT_LENGTH];
+                s[segment] = new Object[SEGMENT_LENGTH];
+            }
+            // the links must be visible before the segment is, see get and getLink
+            links = l;
+            segments = s;
+        }
+    }
+}
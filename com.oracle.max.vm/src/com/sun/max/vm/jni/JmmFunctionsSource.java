@@ -113,7 +113,16 @@ public final class JmmFunctionsSource {
 
     @VM_ENTRY_POINT
     private static long GetLongAttribute(Pointer env, JniHandle obj, int att) {
-        return 0;
+        switch (att) {
+            case JMM_SAFEPOINT_COUNT:
+                return SafepointManagement.getSafepointCount();
+            case JMM_TOTAL_SAFEPOINTSYNC_TIME_MS:
+                return SafepointManagement.getTotalSafepointSyncTimeMillis();
+            case JMM_TOTAL_STOPPED_TIME_MS:
+                return SafepointManagement.getTotalSafepointTimeMillis();
+            default:
+                return 0;
+        }
     }
 
     @VM_ENTRY_POINT
@@ -100,8 +100,14 @@ public final class JniHandles {
 
     public static final int INITIAL_NUMBER_OF_HANDLES = 32;
 
-    private static final JniHandles globalHandles = new JniHandles();
-    private static final JniHandles weakGlobalHandles = new JniHandles();
+    private static final GlobalJniHandles globalHandles = new GlobalJniHandles();
+    private static final GlobalJniHandles weakGlobalHandles = new GlobalJniHandles();
+
+    /**
+     * The free {@linkplain GlobalJniHandles global handles} cached by the thread owning this pool of local handles.
+     */
+    private GlobalJniHandles.Cache globalHandlesCache;
+    private GlobalJniHandles.Cache weakGlobalHandlesCache;
 
     /**
      * The objects exposed to native code via handles.
@@ -110,6 +116,8 @@ public final class JniHandles {
      * (in the context of a "JNI handle is an index" implementation)
      * at the cost of expanding an array (allocation plus copy). It will be replaced
      * with a better representation if this expansion cost proves to be too high.
+     * It proved to be for the global pools, which are shared by all threads and
+     * use the segmented {@link GlobalJniHandles} instead.
      */
     private Object[] handles = new Object[INITIAL_NUMBER_OF_HANDLES];
 
@@ -337,22 +345,39 @@ public final class JniHandles {
         return VmThread.current().createLocalHandle(object);
     }
 
+    private static GlobalJniHandles.Cache globalHandlesCache() {
+        final JniHandles jniHandles = VmThread.current().makeJniHandles();
+        GlobalJniHandles.Cache cache = jniHandles.globalHandlesCache;
+        if (cache == null) {
+            cache = new GlobalJniHandles.Cache();
+            jniHandles.globalHandlesCache = cache;
+        }
+        return cache;
+    }
+
+    private static GlobalJniHandles.Cache weakGlobalHandlesCache() {
+        final JniHandles jniHandles = VmThread.current().makeJniHandles();
+        GlobalJniHandles.Cache cache = jniHandles.weakGlobalHandlesCache;
+        if (cache == null) {
+            cache = new GlobalJniHandles.Cache();
+            jniHandles.weakGlobalHandlesCache = cache;
+        }
+        return cache;
+    }
+
     public static JniHandle createGlobalHandle(Object object) {
         if (object == null) {
             return JniHandle.zero();
         }
-        synchronized (globalHandles) {
-            return globalHandles.allocateHandle(object, Tag.GLOBAL);
-        }
+        return indexToJniHandle(globalHandles.allocate(object, globalHandlesCache()), Tag.GLOBAL);
     }
 
     public static JniHandle createWeakGlobalHandle(Object object) {
         if (object == null) {
             return JniHandle.zero();
         }
-        synchronized (weakGlobalHandles) {
-            return weakGlobalHandles.allocateHandle(new WeakReference<Object>(object), Tag.WEAK_GLOBAL);
-        }
+        final WeakReference<Object> weakReference = new WeakReference<Object>(object);
+        return indexToJniHandle(weakGlobalHandles.allocate(weakReference, weakGlobalHandlesCache()), Tag.WEAK_GLOBAL);
     }
 
     public static void destroyLocalHandle(JniHandle jniHandle) {
@@ -375,17 +400,28 @@ public final class JniHandles {
     public static void destroyGlobalHandle(JniHandle jniHandle) {
         if (!jniHandle.isZero()) {
             assert tag(jniHandle) == Tag.GLOBAL;
-            synchronized (globalHandles) {
-                globalHandles.freeHandle(jniHandleToIndex(jniHandle));
-            }
+            globalHandles.free(jniHandleToIndex(jniHandle), globalHandlesCache());
         }
     }
 
     public static void destroyWeakGlobalHandle(JniHandle jniHandle) {
         if (!jniHandle.isZero()) {
             assert tag(jniHandle) == Tag.WEAK_GLOBAL;
-            synchronized (weakGlobalHandles) {
-                weakGlobalHandles.freeHandle(jniHandleToIndex(jniHandle));
+            weakGlobalHandles.free(jniHandleToIndex(jniHandle), weakGlobalHandlesCache());
+        }
+    }
+
+    /**
+     * Returns the free global handles cached by a terminating thread to the shared pools.
+     */
+    public static void releaseGlobalHandleCaches(VmThread thread) {
+        final JniHandles jniHandles = thread.jniHandles();
+        if (jniHandles != null) {
+            if (jniHandles.globalHandlesCache != null) {
+                globalHandles.release(jniHandles.globalHandlesCache);
+            }
+            if (jniHandles.weakGlobalHandlesCache != null) {
+                weakGlobalHandles.release(jniHandles.weakGlobalHandlesCache);
             }
         }
     }
@@ -345,7 +345,7 @@ public abstract class VMLog implements Heap.GCCallback {
 
     /**
      * Phase specific initialization.
-     * Only called for BOOTSTRAPPING, PRIMORDIAL, TERMINATING.
+     * Only called for BOOTSTRAPPING, PRIMORDIAL, STARTING (once the logging options have been checked), TERMINATING.
      * @param phase the phase
      */
     public void initialize(MaxineVM.Phase phase) {
@@ -419,6 +419,21 @@ public abstract class VMLog implements Heap.GCCallback {
         return loggers[id - 1];
     }
 
+    /**
+     * Returns the number of registered loggers. Logger ids range from {@code 1} to this value.
+     */
+    protected int loggerCount() {
+        return loggers.length;
+    }
+
+    /**
+     * Returns the logger with the given id, or {@code null} if the id is not valid.
+     * @param id a logger id
+     */
+    protected VMLogger loggerForId(int id) {
+        return id > 0 && id <= loggers.length ? loggers[id - 1] : null;
+    }
+
     /**
      * Called when a new thread is started so any thread-specific log state can be setup.
      */
@@ -696,11 +711,30 @@ public abstract class VMLog implements Heap.GCCallback {
         }
     }
 
+    /**
+     * Called when the thread denoted by {@code tla} has been removed from the thread list as it detaches from the VM.
+     * Allows a per-thread log to release any native memory it allocated for the thread.
+     * The caller holds {@link VmThreadMap#THREAD_LOCK}.
+     */
+    public void threadDetached(Pointer tla) {
+    }
+
     /**
      * The flusher for this log, or {@code null} if not set.
      */
     protected Flusher flusher;
 
+    /**
+     * Sets the flusher for this log and enables flushing in the given modes.
+     * This overrides any flusher selected with {@code -XX:VMLogFlush}.
+     * @param flusher
+     * @param mode bitwise or of {@link #FLUSHMODE_CRASH}, {@link #FLUSHMODE_EXIT}, {@link #FLUSHMODE_FULL}
+     */
+    protected void setFlusher(Flusher flusher, int mode) {
+        this.flusher = flusher;
+        this.flushMode |= mode;
+    }
+
     /**
      * Support for log flushing to an external agent.
      * If a log has an associated {@linkplain Flusher}, it will be called in two situations:
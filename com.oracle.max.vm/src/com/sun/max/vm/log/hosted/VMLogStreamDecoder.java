@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.log.hosted;
+
+import static com.sun.max.vm.log.nat.thread.var.stream.VMLogStreamFlusher.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.log.VMLog.Record;
+import com.sun.max.vm.log.nat.thread.var.stream.*;
+
+/**
+ * Decodes a file written by {@link VMLogStreamFlusher} and prints one line per record, oldest chunk first:
+ * <pre>
+ *   timestamp thread id Logger.Operation arg1 arg2 ...
+ * </pre>
+ * where {@code timestamp} is the number of nanoseconds since the stream was opened at which the record's chunk was
+ * written and arguments are printed in hexadecimal. Chunks that were overwritten while being read (or were being
+ * written when the VM died) are skipped and reported.
+ */
+@HOSTED_ONLY
+public final class VMLogStreamDecoder {
+
+    private final ByteBuffer file;
+    private final String[] loggerNames;
+    private final String[][] operationNames;
+    private final int ringOffset;
+    private final int ringSize;
+    private final long startNanos;
+    private int lostChunks;
+
+    public VMLogStreamDecoder(File path) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(path, "r");
+        try {
+            file = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        } finally {
+            raf.close();
+        }
+        file.order(ByteOrder.LITTLE_ENDIAN);
+        if (file.getLong(0) != FILE_MAGIC) {
+            file.order(ByteOrder.BIG_ENDIAN);
+            if (file.getLong(0) != FILE_MAGIC) {
+                throw new IOException(path + " is not a VMLog stream");
+            }
+        }
+        ringOffset = file.getInt(RING_OFFSET_OFFSET);
+        ringSize = file.getInt(RING_SIZE_OFFSET);
+        startNanos = file.getLong(START_NANOS_OFFSET);
+
+        final byte[] dictionary = new byte[file.getInt(DICTIONARY_LENGTH_OFFSET)];
+        final ByteBuffer dictionaryBuffer = file.duplicate();
+        dictionaryBuffer.position(file.getInt(DICTIONARY_OFFSET_OFFSET));
+        dictionaryBuffer.get(dictionary);
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(dictionary));
+        final int loggerCount = in.readInt();
+        loggerNames = new String[loggerCount + 1];
+        operationNames = new String[loggerCount + 1][];
+        for (int id = 1; id <= loggerCount; id++) {
+            loggerNames[id] = in.readUTF();
+            operationNames[id] = new String[in.readInt()];
+            for (int op = 0; op < operationNames[id].length; op++) {
+                operationNames[id][op] = in.readUTF();
+            }
+        }
+    }
+
+    /**
+     * Decodes all the chunks still in the ring, oldest first.
+     */
+    public void decode(PrintStream out) {
+        final long tail = file.getLong(TAIL_OFFSET);
+        long position = nextValidChunk(Math.max(0, tail - ringSize), tail);
+        while (position < tail) {
+            final int offset = ringOffset + (int) (position % ringSize);
+            final int magic = file.getInt(offset);
+            final int length = file.getInt(offset + CHUNK_LENGTH_OFFSET);
+            if (magic == CHUNK_MAGIC) {
+                decodeChunk(offset, out);
+            }
+            position += length;
+            final long next = nextValidChunk(position, tail);
+            if (next != position) {
+                lostChunks++;
+                position = next;
+            }
+        }
+        if (lostChunks != 0) {
+            out.println(lostChunks + " chunk(s) were lost");
+        }
+    }
+
+    /**
+     * Finds the first valid chunk (or padding) at or after {@code position}.
+     */
+    private long nextValidChunk(long position, long tail) {
+        long p = (position + CHUNK_ALIGNMENT - 1) & ~(long) (CHUNK_ALIGNMENT - 1);
+        while (p < tail && !isValidChunk(p)) {
+            p += CHUNK_ALIGNMENT;
+        }
+        return p;
+    }
+
+    private boolean isValidChunk(long position) {
+        final int offset = ringOffset + (int) (position % ringSize);
+        final int magic = file.getInt(offset);
+        if (magic != CHUNK_MAGIC && magic != PAD_MAGIC) {
+            return false;
+        }
+        final int length = file.getInt(offset + CHUNK_LENGTH_OFFSET);
+        return file.getLong(offset + CHUNK_POSITION_OFFSET) == position && length > 0 &&
+               (length % CHUNK_ALIGNMENT) == 0 && (position % ringSize) + length <= ringSize;
+    }
+
+    private void decodeChunk(int offset, PrintStream out) {
+        final long timestamp = file.getLong(offset + CHUNK_TIMESTAMP_OFFSET) - startNanos;
+        final int count = file.getInt(offset + CHUNK_COUNT_OFFSET);
+        final ByteBuffer records = file.duplicate();
+        records.position(offset + CHUNK_HEADER_SIZE);
+        int id = 0;
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            final int header = (int) readVarint(records);
+            id += (int) readVarint(records);
+            final int loggerId = Record.getLoggerId(header);
+            final int op = Record.getOperation(header);
+            sb.setLength(0);
+            sb.append(timestamp).append(' ').append(Record.getThreadId(header)).append(' ').append(id).append(' ');
+            if (loggerId > 0 && loggerId < loggerNames.length) {
+                sb.append(loggerNames[loggerId]).append('.');
+                sb.append(op < operationNames[loggerId].length ? operationNames[loggerId][op] : "Op " + op);
+            } else {
+                sb.append("Logger ").append(loggerId).append(".Op ").append(op);
+            }
+            final int argCount = Record.getArgCount(header);
+            for (int a = 0; a < argCount; a++) {
+                sb.append(" 0x").append(Long.toHexString(readVarint(records)));
+            }
+            out.println(sb);
+        }
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: VMLogStreamDecoder file");
+            System.exit(1);
+        }
+        final PrintStream out = new PrintStream(new BufferedOutputStream(System.out));
+        new VMLogStreamDecoder(new File(args[0])).decode(out);
+        out.flush();
+    }
+}
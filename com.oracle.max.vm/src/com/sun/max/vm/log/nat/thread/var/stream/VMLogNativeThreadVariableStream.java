@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.log.nat.thread.var.stream;
+
+import java.io.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.memory.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.log.*;
+import com.sun.max.vm.log.nat.thread.var.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * A variant of {@link VMLogNativeThreadVariableUnbound} intended for always-on logging, where the records are
+ * continuously {@linkplain VMLogStreamFlusher streamed} to a memory mapped file in a compact binary form.
+ * <p>
+ * The per-thread buffers are unchanged, but the record id is a per-thread sequence number rather than a global id,
+ * so that logging a record involves no shared state at all. The Inspector can still order the records of a
+ * single thread, but the global order must be recovered from the flush timestamps in the stream.
+ * <p>
+ * Streaming is enabled with {@code -XX:VMLogStream=<file>}. Otherwise this log behaves exactly like
+ * {@link com.sun.max.vm.log.nat.thread.var.std.VMLogNativeThreadVariableStd}.
+ */
+public class VMLogNativeThreadVariableStream extends VMLogNativeThreadVariableUnbound {
+    public static final String VMLOG_STREAM_RECORD_NAME = "VMLOG_STREAM_RECORD";
+    public static final String VMLOG_STREAM_BUFFER_NAME = "VMLOG_STREAM_BUFFER";
+    public static final String VMLOG_STREAM_BUFFER_OFFSETS_NAME = "VMLOG_STREAM_BUFFER_OFFSETS";
+    public static final String VMLOG_STREAM_SEQUENCE_NAME = "VMLOG_STREAM_SEQUENCE";
+    public static final String VMLOG_STREAM_SCRATCH_NAME = "VMLOG_STREAM_SCRATCH";
+    public static final VmThreadLocal VMLOG_STREAM_RECORD = new VmThreadLocal(VMLOG_STREAM_RECORD_NAME, true, "VMLog.Record");
+    public static final VmThreadLocal VMLOG_STREAM_BUFFER = new VmThreadLocal(VMLOG_STREAM_BUFFER_NAME, false, "VMLog buffer");
+    public static final VmThreadLocal VMLOG_STREAM_BUFFER_OFFSETS = new VmThreadLocal(VMLOG_STREAM_BUFFER_OFFSETS_NAME, false, "VMLog buffer first/next offsets");
+    public static final VmThreadLocal VMLOG_STREAM_SEQUENCE = new VmThreadLocal(VMLOG_STREAM_SEQUENCE_NAME, false, "VMLog per-thread record id");
+    public static final VmThreadLocal VMLOG_STREAM_SCRATCH = new VmThreadLocal(VMLOG_STREAM_SCRATCH_NAME, false, "VMLog stream encoding buffer");
+
+    private static final VMStringOption streamOption = VMOptions.register(new VMStringOption("-XX:VMLogStream=", false, null,
+        "Continuously stream the VMLog in binary form to the given file."), MaxineVM.Phase.STARTING);
+
+    private static final VMSizeOption streamSizeOption = VMOptions.register(new VMSizeOption("-XX:VMLogStreamSize=", Size.M.times(16),
+        "Size of the circular region of the VMLog stream file."), MaxineVM.Phase.STARTING);
+
+    /**
+     * Period (in milliseconds) at which the logs of all threads are flushed to the stream.
+     */
+    private static int VMLogStreamInterval = 200;
+
+    static {
+        VMOptions.addFieldOption("-XX:", "VMLogStreamInterval", VMLogNativeThreadVariableStream.class,
+            "Period (in milliseconds) at which the VMLog of every thread is flushed to the VMLog stream.");
+    }
+
+    private final VMLogStreamFlusher streamFlusher = new VMLogStreamFlusher(this);
+
+    @Override
+    public void initialize(MaxineVM.Phase phase) {
+        if (phase == MaxineVM.Phase.TERMINATING) {
+            // stop the periodic flushing before the final flush of every thread
+            streamFlusher.stop();
+        }
+        super.initialize(phase);
+        if (MaxineVM.isHosted() && phase == MaxineVM.Phase.BOOTSTRAPPING) {
+            setNativeRecordThreadLocal(VMLOG_STREAM_RECORD);
+            setBufferThreadLocals(VMLOG_STREAM_BUFFER, VMLOG_STREAM_BUFFER_OFFSETS);
+        } else if (phase == MaxineVM.Phase.STARTING) {
+            String path = streamOption.getValue();
+            if (path != null && streamFlusher.open(path, streamSizeOption.getValue(), scratchSize())) {
+                setFlusher(streamFlusher, FLUSHMODE_FULL | FLUSHMODE_EXIT);
+                streamFlusher.startPeriodicFlushing(VMLogStreamInterval);
+            }
+        }
+    }
+
+    /**
+     * Creates the description of the registered loggers that is stored at the head of the stream,
+     * so that the stream can be decoded without access to the boot image.
+     */
+    byte[] dictionary() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            int loggerCount = loggerCount();
+            out.writeInt(loggerCount);
+            for (int id = 1; id <= loggerCount; id++) {
+                VMLogger logger = loggerForId(id);
+                if (logger == null) {
+                    out.writeUTF("");
+                    out.writeInt(0);
+                } else {
+                    out.writeUTF(logger.name);
+                    out.writeInt(logger.numOps());
+                    for (int op = 0; op < logger.numOps(); op++) {
+                        out.writeUTF(logger.operationName(op));
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            // cannot happen with a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the next value of the per-thread record sequence number.
+     */
+    @Override
+    @NO_SAFEPOINT_POLLS("atomic")
+    protected int getUniqueId() {
+        if (MaxineVM.isHosted()) {
+            return super.getUniqueId();
+        }
+        Pointer tla = VmThread.currentTLA();
+        Address id = VMLOG_STREAM_SEQUENCE.load(tla);
+        VMLOG_STREAM_SEQUENCE.store3(tla, id.plus(1));
+        return id.toInt();
+    }
+
+    /**
+     * Gets the encoding buffer of the thread denoted by {@code tla}, allocating it if necessary.
+     * The buffer is large enough to hold the encoding of the whole log of a thread.
+     */
+    @INLINE
+    final Pointer getScratch(Pointer tla) {
+        Pointer scratch = VMLOG_STREAM_SCRATCH.load(tla);
+        if (scratch.isZero()) {
+            scratch = allocateScratch(tla);
+        }
+        return scratch;
+    }
+
+    @NEVER_INLINE
+    private Pointer allocateScratch(Pointer tla) {
+        Pointer scratch = Memory.allocate(Size.fromInt(scratchSize()));
+        Memory.clearBytes(scratch, VMLogStreamFlusher.CHUNK_HEADER_SIZE);
+        VMLOG_STREAM_SCRATCH.store3(tla, scratch);
+        return scratch;
+    }
+
+    /**
+     * Releases the encoding buffer of a detached thread. This cannot race with a {@link VMLogStreamFlusher} handshake
+     * run on behalf of the thread, as that holds {@link VmThreadMap#THREAD_LOCK} and checks that the thread is still live.
+     */
+    @Override
+    public void threadDetached(Pointer tla) {
+        Pointer scratch = VMLOG_STREAM_SCRATCH.load(tla);
+        if (scratch.isNotZero()) {
+            VMLOG_STREAM_SCRATCH.store3(tla, Pointer.zero());
+            Memory.deallocate(scratch);
+        }
+    }
+
+    /**
+     * Determines if the thread denoted by {@code tla} is in the middle of flushing its log.
+     */
+    final boolean isFlushing(Pointer tla) {
+        Pointer scratch = VMLOG_STREAM_SCRATCH.load(tla);
+        return scratch.isNotZero() && VMLogStreamFlusher.isBusy(scratch);
+    }
+
+    /**
+     * Size of an encoding buffer. Each record occupies at least 8 bytes in the log buffer (header and id)
+     * and each 4 or 8 byte value expands to at most 5 or 10 bytes respectively when encoded.
+     */
+    private int scratchSize() {
+        return VMLogStreamFlusher.CHUNK_HEADER_SIZE + logSize + logSize / 4 + VMLogStreamFlusher.CHUNK_ALIGNMENT;
+    }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.log.nat.thread.var.stream;
+
+import java.io.*;
+
+import com.oracle.max.cri.intrinsics.*;
+import com.sun.max.lang.*;
+import com.sun.max.memory.*;
+import com.sun.max.platform.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.log.*;
+import com.sun.max.vm.log.VMLog.Record;
+import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * A {@link VMLog.Flusher} that appends the records of a per-thread log to a circular region of a file that is mapped
+ * {@linkplain VirtualMemory#mapFileShared shared} into memory. As the stores go straight to the page cache, the
+ * stream survives a crash of the VM without any explicit write. A thread flushes its own log whenever it is full and
+ * a daemon thread periodically flushes every thread's log via a {@link Handshake}, so the stream is never more
+ * than {@code -XX:VMLogStreamInterval} milliseconds behind.
+ * <p>
+ * The records of a single flush are encoded in a thread-local buffer and then copied to the file as one
+ * <i>chunk</i>. The only shared state is the tail of the stream, which is advanced with a single compare-and-swap
+ * per chunk. The file layout is (all values in platform byte order unless stated otherwise):
+ * <pre>
+ *   header:     long magic, int version, int wordSize, int dictionaryOffset, int dictionaryLength,
+ *               int ringOffset, int ringSize, long tail, long startNanos, long startMillis
+ *   dictionary: (big-endian {@link DataOutput} format) int loggerCount,
+ *               loggerCount * (UTF name, int numOps, numOps * UTF operationName)
+ *   ring:       ringSize bytes of chunks, starting at the page aligned ringOffset
+ * </pre>
+ * {@code tail} is the number of bytes ever allocated in the ring, so the chunk at stream position {@code p} is at
+ * {@code ringOffset + p % ringSize}. Chunks are {@value #CHUNK_ALIGNMENT} byte aligned and never straddle the end of
+ * the ring; the gap is filled with a padding chunk. A chunk is:
+ * <pre>
+ *   int magic, int length, long position, long timestamp, int recordCount, int threadId,
+ *   recordCount * (varint header, varint idDelta, argCount * varint arg)
+ * </pre>
+ * where a varint is an unsigned LEB128 value, {@code idDelta} is the difference to the id of the previous record in
+ * the chunk (modulo 2<sup>32</sup>) and {@code argCount} is encoded in the {@linkplain Record#getArgCount(int) header}.
+ * The magic is written last, so a chunk is valid iff its magic is set and its {@code position} field matches its
+ * stream position. See {@link com.sun.max.vm.log.hosted.VMLogStreamDecoder} for the decoder.
+ */
+public final class VMLogStreamFlusher extends VMLog.Flusher {
+
+    public static final long FILE_MAGIC = 0x4D58564D4C4F4753L; // "MXVMLOGS"
+    public static final int VERSION = 1;
+    public static final int WORD_SIZE_OFFSET = 12;
+    public static final int DICTIONARY_OFFSET_OFFSET = 16;
+    public static final int DICTIONARY_LENGTH_OFFSET = 20;
+    public static final int RING_OFFSET_OFFSET = 24;
+    public static final int RING_SIZE_OFFSET = 28;
+    public static final int TAIL_OFFSET = 32;
+    public static final int START_NANOS_OFFSET = 40;
+    public static final int START_MILLIS_OFFSET = 48;
+    public static final int FILE_HEADER_SIZE = 64;
+
+    public static final int CHUNK_MAGIC = 0x564D4C43; // "VMLC"
+    public static final int PAD_MAGIC = 0x564D4C50; // "VMLP"
+    public static final int CHUNK_LENGTH_OFFSET = 4;
+    public static final int CHUNK_POSITION_OFFSET = 8;
+    public static final int CHUNK_TIMESTAMP_OFFSET = 16;
+    public static final int CHUNK_COUNT_OFFSET = 24;
+    public static final int CHUNK_THREAD_OFFSET = 28;
+    public static final int CHUNK_HEADER_SIZE = 32;
+    public static final int CHUNK_ALIGNMENT = 16;
+
+    /*
+     * While a chunk is being encoded in a thread's scratch buffer, the magic slot is used as the busy flag
+     * and the timestamp slot holds the id of the last record encoded.
+     */
+    private static final int BUSY_OFFSET = 0;
+    private static final int LAST_ID_OFFSET = CHUNK_TIMESTAMP_OFFSET;
+
+    private final VMLogNativeThreadVariableStream vmLog;
+
+    /**
+     * Start of the mapped file or zero if the stream is not open.
+     */
+    private Pointer base;
+    private Pointer ring;
+    private int ringSize;
+
+    private volatile boolean stopped;
+
+    VMLogStreamFlusher(VMLogNativeThreadVariableStream vmLog) {
+        this.vmLog = vmLog;
+    }
+
+    /**
+     * Creates and maps the stream file.
+     *
+     * @param path the file to (re)create
+     * @param size the requested size of the ring
+     * @param scratchSize the size of the largest possible chunk
+     * @return {@code true} if the stream was opened, {@code false} otherwise (after printing an error)
+     */
+    boolean open(String path, Size size, int scratchSize) {
+        final long requestedSize = size.toLong() & ~(CHUNK_ALIGNMENT - 1);
+        final int minimumSize = Ints.roundUp(4 * scratchSize, CHUNK_ALIGNMENT);
+        if (requestedSize < minimumSize || requestedSize > Integer.MAX_VALUE) {
+            Log.print("VMLogStreamSize must be between ");
+            Log.print(minimumSize);
+            Log.print(" and ");
+            Log.println(Integer.MAX_VALUE);
+            return false;
+        }
+        final byte[] dictionary = vmLog.dictionary();
+        final int ringOffset = Ints.roundUp(FILE_HEADER_SIZE + dictionary.length, Platform.platform().pageSize);
+        final long fileSize = ringOffset + requestedSize;
+        Pointer mapped = Pointer.zero();
+        try {
+            final RandomAccessFile file = new RandomAccessFile(path, "rw");
+            try {
+                file.setLength(0);
+                file.setLength(fileSize);
+                mapped = VirtualMemory.mapFileShared(Size.fromLong(fileSize), file.getFD(), Address.zero());
+            } finally {
+                // the mapping remains valid after the file is closed
+                file.close();
+            }
+        } catch (IOException ioException) {
+            mapped = Pointer.zero();
+        }
+        if (mapped.isZero()) {
+            Log.print("Could not create VMLog stream file ");
+            Log.println(path);
+            return false;
+        }
+
+        for (int i = 0; i < dictionary.length; i++) {
+            mapped.writeByte(FILE_HEADER_SIZE + i, dictionary[i]);
+        }
+        mapped.writeInt(8, VERSION);
+        mapped.writeInt(WORD_SIZE_OFFSET, Word.size());
+        mapped.writeInt(DICTIONARY_OFFSET_OFFSET, FILE_HEADER_SIZE);
+        mapped.writeInt(DICTIONARY_LENGTH_OFFSET, dictionary.length);
+        mapped.writeInt(RING_OFFSET_OFFSET, ringOffset);
+        mapped.writeInt(RING_SIZE_OFFSET, (int) requestedSize);
+        mapped.writeLong(TAIL_OFFSET, 0L);
+        mapped.writeLong(START_NANOS_OFFSET, System.nanoTime());
+        mapped.writeLong(START_MILLIS_OFFSET, System.currentTimeMillis());
+        MemoryBarriers.barrier(MemoryBarriers.STORE_STORE);
+        mapped.writeLong(0, FILE_MAGIC);
+
+        ring = mapped.plus(ringOffset);
+        ringSize = (int) requestedSize;
+        base = mapped;
+        return true;
+    }
+
+    /**
+     * Starts the daemon thread that flushes the log of every thread each {@code interval} milliseconds.
+     * No thread is started if {@code interval <= 0}.
+     */
+    void startPeriodicFlushing(int interval) {
+        if (interval > 0) {
+            new PeriodicFlusher(interval).start();
+        }
+    }
+
+    /**
+     * Stops periodic flushing. Threads continue to flush their log when it is full.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Gets the TLA of the thread owning the log being flushed. This is not necessarily the current thread, as a
+     * {@link FlushHandshake} on a thread in native code is run by the requesting thread on its behalf.
+     */
+    private static Pointer tla(VmThread vmThread) {
+        return vmThread == null ? VmThread.currentTLA() : vmThread.tla();
+    }
+
+    static boolean isBusy(Pointer scratch) {
+        return scratch.readInt(BUSY_OFFSET) != 0;
+    }
+
+    @Override
+    public void start(VmThread vmThread) {
+        final Pointer scratch = vmLog.getScratch(tla(vmThread));
+        scratch.writeInt(BUSY_OFFSET, 1);
+        scratch.writeInt(CHUNK_LENGTH_OFFSET, CHUNK_HEADER_SIZE);
+        scratch.writeInt(CHUNK_COUNT_OFFSET, 0);
+        scratch.writeInt(CHUNK_THREAD_OFFSET, vmThread == null ? 0 : vmThread.id());
+        scratch.writeLong(LAST_ID_OFFSET, 0L);
+    }
+
+    @Override
+    public void flushRecord(VmThread vmThread, Record r, int uuid) {
+        final Pointer scratch = vmLog.getScratch(tla(vmThread));
+        final int header = r.getHeader();
+        int offset = scratch.readInt(CHUNK_LENGTH_OFFSET);
+        offset = writeVarint(scratch, offset, header & 0xFFFFFFFFL);
+        offset = writeVarint(scratch, offset, (uuid - (int) scratch.readLong(LAST_ID_OFFSET)) & 0xFFFFFFFFL);
+        final int argCount = Record.getArgCount(header);
+        for (int i = 1; i <= argCount; i++) {
+            offset = writeVarint(scratch, offset, r.getArg(i).asAddress().toLong());
+        }
+        scratch.writeLong(LAST_ID_OFFSET, uuid);
+        scratch.writeInt(CHUNK_LENGTH_OFFSET, offset);
+        scratch.writeInt(CHUNK_COUNT_OFFSET, scratch.readInt(CHUNK_COUNT_OFFSET) + 1);
+    }
+
+    @Override
+    public void end(VmThread vmThread) {
+        final Pointer scratch = vmLog.getScratch(tla(vmThread));
+        try {
+            if (base.isZero() || scratch.readInt(CHUNK_COUNT_OFFSET) == 0) {
+                return;
+            }
+            final int length = Ints.roundUp(scratch.readInt(CHUNK_LENGTH_OFFSET), CHUNK_ALIGNMENT);
+            scratch.writeInt(CHUNK_LENGTH_OFFSET, length);
+            final long position = allocate(length);
+            scratch.writeLong(CHUNK_POSITION_OFFSET, position);
+            scratch.writeLong(CHUNK_TIMESTAMP_OFFSET, System.nanoTime());
+
+            final Pointer chunk = ring.plus((int) (position % ringSize));
+            // invalidate any stale chunk at this position before overwriting it
+            chunk.writeInt(0, 0);
+            Memory.copyBytes(scratch.plus(CHUNK_LENGTH_OFFSET), chunk.plus(CHUNK_LENGTH_OFFSET), Size.fromInt(length - CHUNK_LENGTH_OFFSET));
+            MemoryBarriers.barrier(MemoryBarriers.STORE_STORE);
+            chunk.writeInt(0, CHUNK_MAGIC);
+        } finally {
+            scratch.writeInt(BUSY_OFFSET, 0);
+        }
+    }
+
+    /**
+     * Allocates {@code length} bytes in the ring, padding to the end of the ring if they do not fit before it.
+     *
+     * @return the stream position of the allocated space
+     */
+    private long allocate(int length) {
+        final Pointer tail = base.plus(TAIL_OFFSET);
+        while (true) {
+            final long position = tail.readLong(0);
+            final int offset = (int) (position % ringSize);
+            final int padding = offset + length > ringSize ? ringSize - offset : 0;
+            if (tail.compareAndSwapLong(0, position, position + padding + length) == position) {
+                if (padding != 0) {
+                    final Pointer pad = ring.plus(offset);
+                    pad.writeInt(0, 0);
+                    pad.writeInt(CHUNK_LENGTH_OFFSET, padding);
+                    pad.writeLong(CHUNK_POSITION_OFFSET, position);
+                    MemoryBarriers.barrier(MemoryBarriers.STORE_STORE);
+                    pad.writeInt(0, PAD_MAGIC);
+                }
+                return position + padding;
+            }
+        }
+    }
+
+    private static int writeVarint(Pointer p, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            p.writeByte(offset++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        p.writeByte(offset++, (byte) value);
+        return offset;
+    }
+
+    /**
+     * Flushes the log of a thread on behalf of the periodic flusher.
+     */
+    private final class FlushHandshake extends Handshake {
+        FlushHandshake() {
+            super("VMLogStreamFlush");
+        }
+
+        @Override
+        protected void doThread(VmThread vmThread, Pointer ip, Pointer sp, Pointer fp) {
+            // The target may have polled for a safepoint in the middle of flushing its own log
+            if (!stopped && !vmLog.isFlushing(vmThread.tla())) {
+                vmLog.flush(VMLog.FLUSHMODE_FULL, vmThread);
+            }
+        }
+    }
+
+    private final class PeriodicFlusher extends Thread {
+        private final int interval;
+        private final FlushHandshake handshake = new FlushHandshake();
+
+        PeriodicFlusher(int interval) {
+            super(VmThread.systemThreadGroup, "VMLogStreamFlusher");
+            setDaemon(true);
+            this.interval = interval;
+        }
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                }
+                for (Thread thread : VmThreadMap.getThreads(false)) {
+                    final VmThread vmThread = VmThread.fromJava(thread);
+                    if (stopped) {
+                        return;
+                    }
+                    if (vmThread != null) {
+                        handshake.run(vmThread);
+                    }
+                }
+            }
+        }
+    }
+}
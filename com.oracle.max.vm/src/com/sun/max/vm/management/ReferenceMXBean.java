@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the processing of special references and finalizers by the VM.
+ *
+ * @see com.sun.max.vm.heap.SpecialReferenceManager
+ */
+public interface ReferenceMXBean extends PlatformManagedObject {
+
+    /**
+     * Gets the number of special references processed by the GC, over all collections.
+     */
+    long getProcessedReferenceCount();
+
+    /**
+     * Gets the number of special references processed by the most recent collection.
+     */
+    int getLastProcessedReferenceCount();
+
+    /**
+     * Gets the number of special references that the GC has handed to the reference handler thread
+     * because the reachability of their referent has changed.
+     */
+    long getPendingReferenceCount();
+
+    /**
+     * Gets the number of objects with a non-trivial finalizer that have been allocated.
+     */
+    long getFinalizableObjectCount();
+
+    /**
+     * Gets the number of objects whose finalizer has been run.
+     */
+    long getFinalizedObjectCount();
+
+    /**
+     * Gets the number of objects queued for finalization whose finalizer has not been run yet.
+     */
+    int getPendingFinalizationCount();
+
+    /**
+     * Gets the largest {@linkplain #getPendingFinalizationCount() pending finalization count} observed so far.
+     */
+    int getPeakPendingFinalizationCount();
+
+    /**
+     * Gets the number of threads running finalizers.
+     */
+    int getFinalizerThreadCount();
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.management;
+
+import javax.management.*;
+
+import com.sun.max.vm.heap.*;
+
+/**
+ * This class provides the entry point to the special reference and finalization management functions in Maxine.
+ * A finalization backlog shows up as a {@linkplain ReferenceMXBean#getPendingFinalizationCount() pending finalization count}
+ * that keeps growing, in which case more {@code -XX:FinalizerThreads} may help. The {@link ReferenceMXBean} is
+ * registered with the {@linkplain java.lang.management.ManagementFactory#getPlatformMBeanServer() platform MBean server}
+ * as {@code com.sun.max:type=References}.
+ */
+public class ReferenceManagement {
+
+    private static final ReferenceMXBean referenceMXBean = new ReferenceMXBeanImpl();
+
+    public static ReferenceMXBean getReferenceMXBean() {
+        return referenceMXBean;
+    }
+
+    static class ReferenceMXBeanImpl implements ReferenceMXBean {
+
+        public long getProcessedReferenceCount() {
+            return SpecialReferenceManager.discoveredCount();
+        }
+
+        public int getLastProcessedReferenceCount() {
+            return SpecialReferenceManager.lastDiscoveredCount();
+        }
+
+        public long getPendingReferenceCount() {
+            return SpecialReferenceManager.pendingCount();
+        }
+
+        public long getFinalizableObjectCount() {
+            return SpecialReferenceManager.finalizeeCount();
+        }
+
+        public long getFinalizedObjectCount() {
+            return SpecialReferenceManager.finalizedCount();
+        }
+
+        public int getPendingFinalizationCount() {
+            return sun.misc.VM.getFinalRefCount();
+        }
+
+        public int getPeakPendingFinalizationCount() {
+            return sun.misc.VM.getPeakFinalRefCount();
+        }
+
+        public int getFinalizerThreadCount() {
+            return SpecialReferenceManager.finalizerThreadCount();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max:type=References");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+}
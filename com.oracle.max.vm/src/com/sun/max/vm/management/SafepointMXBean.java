@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the time-to-safepoint and safepoint pause statistics gathered by the VM.
+ * All times are in microseconds.
+ *
+ * @see com.sun.max.vm.runtime.SafepointStatistics
+ */
+public interface SafepointMXBean extends PlatformManagedObject {
+
+    /**
+     * Gets the number of safepoints reached.
+     */
+    long getSafepointCount();
+
+    /**
+     * Gets the accumulated time spent bringing threads to a safepoint.
+     */
+    long getTotalSyncTime();
+
+    /**
+     * Gets the accumulated time spent running VM operations at a safepoint.
+     */
+    long getTotalOperationTime();
+
+    /**
+     * Gets the accumulated time threads were stopped for safepoints.
+     */
+    long getTotalPauseTime();
+
+    /**
+     * Gets the longest time taken to bring threads to a safepoint.
+     */
+    long getMaxSyncTime();
+
+    /**
+     * Gets the longest time threads were stopped for a single safepoint.
+     */
+    long getMaxPauseTime();
+
+    /**
+     * Gets the inclusive lower bound of each bucket in the {@linkplain #getSyncTimeHistogram() sync}
+     * and {@linkplain #getPauseTimeHistogram() pause} histograms.
+     */
+    long[] getHistogramBuckets();
+
+    /**
+     * Gets the number of safepoints whose sync time fell in each {@linkplain #getHistogramBuckets() bucket}.
+     */
+    long[] getSyncTimeHistogram();
+
+    /**
+     * Gets the number of safepoints whose pause time fell in each {@linkplain #getHistogramBuckets() bucket}.
+     */
+    long[] getPauseTimeHistogram();
+}
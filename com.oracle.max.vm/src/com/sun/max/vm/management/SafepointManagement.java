@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.management;
+
+import javax.management.*;
+
+import com.sun.max.vm.runtime.*;
+
+/**
+ * This class provides the entry point to the safepoint statistics management functions in Maxine.
+ * The aggregate values are also reported through the JMM safepoint attributes so that they appear
+ * in the {@code sun.management} runtime counters. The {@link SafepointMXBean} is registered with the
+ * {@linkplain java.lang.management.ManagementFactory#getPlatformMBeanServer() platform MBean server}
+ * as {@code com.sun.max:type=Safepoint}.
+ */
+public class SafepointManagement {
+
+    private static final SafepointMXBean safepointMXBean = new SafepointMXBeanImpl();
+
+    public static SafepointMXBean getSafepointMXBean() {
+        return safepointMXBean;
+    }
+
+    public static long getSafepointCount() {
+        return SafepointStatistics.safepointCount();
+    }
+
+    public static long getTotalSafepointSyncTimeMillis() {
+        return SafepointStatistics.totalSyncNanos() / 1000000;
+    }
+
+    public static long getTotalSafepointTimeMillis() {
+        return SafepointStatistics.totalPauseNanos() / 1000000;
+    }
+
+    static class SafepointMXBeanImpl implements SafepointMXBean {
+
+        public long getSafepointCount() {
+            return SafepointStatistics.safepointCount();
+        }
+
+        public long getTotalSyncTime() {
+            return SafepointStatistics.totalSyncNanos() / 1000;
+        }
+
+        public long getTotalOperationTime() {
+            return SafepointStatistics.totalOperationNanos() / 1000;
+        }
+
+        public long getTotalPauseTime() {
+            return SafepointStatistics.totalPauseNanos() / 1000;
+        }
+
+        public long getMaxSyncTime() {
+            return SafepointStatistics.maxSyncNanos() / 1000;
+        }
+
+        public long getMaxPauseTime() {
+            return SafepointStatistics.maxPauseNanos() / 1000;
+        }
+
+        public long[] getHistogramBuckets() {
+            final long[] result = new long[SafepointStatistics.HISTOGRAM_BUCKETS];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = SafepointStatistics.bucketLowerBoundMicros(i);
+            }
+            return result;
+        }
+
+        public long[] getSyncTimeHistogram() {
+            return SafepointStatistics.syncHistogram();
+        }
+
+        public long[] getPauseTimeHistogram() {
+            return SafepointStatistics.pauseHistogram();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max:type=Safepoint");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+}
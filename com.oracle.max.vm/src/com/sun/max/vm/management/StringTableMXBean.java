@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the table of {@linkplain String#intern() interned} strings.
+ *
+ * @see com.sun.max.vm.classfile.constant.StringTable
+ */
+public interface StringTableMXBean extends PlatformManagedObject {
+
+    /**
+     * Gets the number of strings currently interned.
+     */
+    int getSize();
+
+    /**
+     * Gets the number of buckets in the table, which grows and shrinks with the {@linkplain #getSize() size}.
+     */
+    int getCapacity();
+
+    /**
+     * Gets the number of interning requests that found the string already interned.
+     */
+    long getHitCount();
+
+    /**
+     * Gets the number of interning requests that added a string to the table.
+     */
+    long getMissCount();
+
+    /**
+     * Gets the fraction of interning requests that found the string already interned, or 0 if no string has been
+     * interned yet.
+     */
+    double getHitRate();
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.management;
+
+import javax.management.*;
+
+import com.sun.max.vm.classfile.constant.*;
+
+/**
+ * This class provides the entry point to the management functions for the {@linkplain StringTable interned strings}
+ * in Maxine. The {@link StringTableMXBean} is registered with the
+ * {@linkplain java.lang.management.ManagementFactory#getPlatformMBeanServer() platform MBean server}
+ * as {@code com.sun.max:type=StringTable}.
+ */
+public class StringTableManagement {
+
+    private static final StringTableMXBean stringTableMXBean = new StringTableMXBeanImpl();
+
+    public static StringTableMXBean getStringTableMXBean() {
+        return stringTableMXBean;
+    }
+
+    static class StringTableMXBeanImpl implements StringTableMXBean {
+
+        public int getSize() {
+            return StringTable.size();
+        }
+
+        public int getCapacity() {
+            return StringTable.capacity();
+        }
+
+        public long getHitCount() {
+            return StringTable.hitCount();
+        }
+
+        public long getMissCount() {
+            return StringTable.missCount();
+        }
+
+        public double getHitRate() {
+            final long hits = StringTable.hitCount();
+            final long lookups = hits + StringTable.missCount();
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max:type=StringTable");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+}
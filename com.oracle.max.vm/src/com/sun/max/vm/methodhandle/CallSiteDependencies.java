@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.methodhandle;
+
+import static com.sun.max.vm.MaxineVM.*;
+import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
+
+import java.lang.invoke.*;
+import java.util.*;
+
+import com.sun.cri.ci.*;
+import com.sun.cri.ci.CiAssumptions.*;
+import com.sun.max.annotate.*;
+import com.sun.max.vm.compiler.deopt.*;
+import com.sun.max.vm.compiler.target.*;
+
+/**
+ * Tracks the target methods that have been compiled under the assumption that a {@link MutableCallSite} or
+ * {@link VolatileCallSite} keeps its current target (see {@link CallSiteTargetValue}). Changing the target of such a
+ * call site deoptimizes all of its dependents.
+ */
+public final class CallSiteDependencies {
+
+    private CallSiteDependencies() {
+    }
+
+    /**
+     * Map from call sites to the target methods depending on their current target. Access is synchronized on the map
+     * itself, which also serializes updates of call site targets with the registration of new dependents.
+     */
+    private static final WeakHashMap<CallSite, ArrayList<TargetMethod>> dependents = new WeakHashMap<CallSite, ArrayList<TargetMethod>>();
+
+    /**
+     * Determines if the targets of the call sites assumed in {@code assumptions} are still the assumed targets. This
+     * is checked before the code is installed, so that code compiled under a stale assumption is simply discarded.
+     * The check is repeated by {@link #register}, as the targets may change in between.
+     */
+    public static boolean validate(CiAssumptions assumptions) {
+        if (assumptions == null) {
+            return true;
+        }
+        synchronized (dependents) {
+            return targetsUnchanged(assumptions);
+        }
+    }
+
+    /**
+     * Checks the call site targets assumed in {@code assumptions}. The caller must hold the lock on {@link #dependents}.
+     */
+    private static boolean targetsUnchanged(CiAssumptions assumptions) {
+        for (Assumption a : assumptions) {
+            if (a instanceof CallSiteTargetValue) {
+                CallSiteTargetValue value = (CallSiteTargetValue) a;
+                if (asThis(value.callSite).target != value.methodHandle) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registers {@code targetMethod} as a dependent of every call site target assumed in {@code assumptions}.
+     *
+     * @return {@code false} if the target of one of the call sites has changed since it was assumed by the compiler,
+     *         in which case nothing is registered and {@code targetMethod} must not be used
+     */
+    public static boolean register(CiAssumptions assumptions, TargetMethod targetMethod) {
+        if (assumptions == null) {
+            return true;
+        }
+        synchronized (dependents) {
+            if (!targetsUnchanged(assumptions)) {
+                return false;
+            }
+            for (Assumption a : assumptions) {
+                if (a instanceof CallSiteTargetValue) {
+                    CallSite callSite = (CallSite) ((CallSiteTargetValue) a).callSite;
+                    ArrayList<TargetMethod> methods = dependents.get(callSite);
+                    if (methods == null) {
+                        methods = new ArrayList<TargetMethod>(2);
+                        dependents.put(callSite, methods);
+                    }
+                    if (!methods.contains(targetMethod)) {
+                        methods.add(targetMethod);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the target of a call site and deoptimizes the target methods that assumed its previous target.
+     */
+    public static void setTarget(CallSite callSite, MethodHandle target) {
+        ArrayList<TargetMethod> methods;
+        synchronized (dependents) {
+            asThis(callSite).target = target;
+            methods = dependents.remove(callSite);
+        }
+        if (methods != null && !isHosted()) {
+            new Deoptimization(methods).go();
+        }
+    }
+
+    @INTRINSIC(UNSAFE_CAST)
+    private static native CallSiteDependencies asThis(Object o);
+
+    @ALIAS(declaringClass = CallSite.class)
+    private MethodHandle target;
+}
@@ -55,6 +55,14 @@ public abstract class AbstractMonitorScheme extends AbstractVMScheme implements
         }
     }
 
+    public boolean tryFastMonitorEnter(Object object) {
+        return false;
+    }
+
+    public boolean tryFastMonitorExit(Object object) {
+        return false;
+    }
+
     @INLINE
     public final int createHashCode(Object object) {
         if (MaxineVM.isHosted()) {
@@ -77,6 +77,24 @@ public final class Monitor {
         }
     }
 
+    /**
+     * Attempts to acquire the monitor of a non-null object without calling into the runtime.
+     * If this returns {@code false}, the caller must complete the acquisition with {@link #noninlineEnter(Object)}.
+     */
+    @INLINE
+    public static boolean tryFastEnter(Object object) {
+        return monitorScheme().tryFastMonitorEnter(object);
+    }
+
+    /**
+     * Attempts to release the monitor of a non-null object without calling into the runtime.
+     * If this returns {@code false}, the caller must complete the release with {@link #noninlineExit(Object)}.
+     */
+    @INLINE
+    public static boolean tryFastExit(Object object) {
+        return monitorScheme().tryFastMonitorExit(object);
+    }
+
     @NEVER_INLINE
     public static void noninlineEnter(Object object) {
         enter(object);
@@ -58,6 +58,24 @@ public interface MonitorScheme extends VMScheme {
      */
     void monitorExit(Object object);
 
+    /**
+     * Attempts the uncontended part of {@link #monitorEnter(Object)} without making any calls or reaching a safepoint.
+     * Compilers may emit this inline and fall back to {@link #monitorEnter(Object)} if it fails.
+     *
+     * @param object the non-null object being acquired
+     * @return {@code true} if the monitor was acquired, {@code false} if {@link #monitorEnter(Object)} must be called
+     */
+    boolean tryFastMonitorEnter(Object object);
+
+    /**
+     * Attempts the uncontended part of {@link #monitorExit(Object)}.
+     *
+     * @param object the non-null object being released
+     * @return {@code true} if the monitor was released, {@code false} if {@link #monitorExit(Object)} must be called
+     * @see #tryFastMonitorEnter(Object)
+     */
+    boolean tryFastMonitorExit(Object object);
+
     // The following methods are called at run time.
 
     /**
@@ -115,6 +115,25 @@ public abstract class AbstractModeHandler implements ModeHandler {
          */
         void monitorExit(Object object);
 
+        /**
+         * Attempts only the uncontended lock word update of {@link #monitorEnter(Object)}. This makes no calls and
+         * contains no safepoints, so that compilers can emit it inline and call {@link #monitorEnter(Object)} only
+         * if it fails.
+         *
+         * @param object the non-null Object being acquired
+         * @return true if the current thread acquired the monitor; false if the slow path must be taken
+         */
+        boolean tryFastMonitorEnter(Object object);
+
+        /**
+         * Attempts only the uncontended lock word update of {@link #monitorExit(Object)}.
+         *
+         * @param object the non-null Object being released
+         * @return true if the current thread released the monitor; false if the slow path must be taken
+         * @see #tryFastMonitorEnter(Object)
+         */
+        boolean tryFastMonitorExit(Object object);
+
         /**
          * Performs Object.notify() / notifyAll() for the given Object.
          *
@@ -263,6 +263,17 @@ public abstract class InflatedMonitorModeHandler extends AbstractModeHandler {
             }
         }
 
+        @INLINE
+        public boolean tryFastMonitorEnter(Object object) {
+            // Acquiring a native monitor always requires a call
+            return false;
+        }
+
+        @INLINE
+        public boolean tryFastMonitorExit(Object object) {
+            return false;
+        }
+
         public void monitorExit(Object object) {
             if (MaxineVM.isHosted()) {
                 HostMonitor.exit(object);
@@ -172,4 +172,47 @@ public class LightweightLockword64 extends HashableLockword64 {
     public final int getRecursionCount() {
         return asAddress().unsignedShiftedRight(RCOUNT_SHIFT).toInt();
     }
+
+    // Compiler support: field layout for compilers that emit the uncontended lock word updates inline.
+
+    /**
+     * (Image build support) Gets the shift of the thread ID field.
+     */
+    @HOSTED_ONLY
+    public static int threadIDShift() {
+        return THREADID_SHIFT;
+    }
+
+    /**
+     * (Image build support) Gets the shift of the recursion count field.
+     */
+    @HOSTED_ONLY
+    public static int recursionCountShift() {
+        return RCOUNT_SHIFT;
+    }
+
+    /**
+     * (Image build support) Gets the value of the recursion count field, shifted down, at which the count overflows.
+     */
+    @HOSTED_ONLY
+    public static int recursionCountOverflow() {
+        return RCOUNT_SHIFTED_MASK.toInt();
+    }
+
+    /**
+     * (Image build support) Gets the word that is added to a lock word to increment its recursion count.
+     */
+    @HOSTED_ONLY
+    public static long recursionCountIncrement() {
+        return RCOUNT_INC_WORD.toLong();
+    }
+
+    /**
+     * (Image build support) Gets the mask selecting the shape bit and the thread ID field. A lock word masked with
+     * this equals {@code threadID << threadIDShift()} iff it is lightweight and owned by {@code threadID}.
+     */
+    @HOSTED_ONLY
+    public static long ownerMask() {
+        return THREADID_SHIFTED_MASK.shiftedLeft(THREADID_SHIFT).bitSet(SHAPE_BIT_INDEX).toLong();
+    }
 }
@@ -20,6 +20,7 @@
  */
 package com.sun.max.vm.monitor.modal.modehandlers.lightweight.biased;
 
+import com.sun.max.annotate.*;
 import com.sun.max.unsafe.*;
 import com.sun.max.vm.*;
 import com.sun.max.vm.actor.holder.*;
@@ -57,6 +58,19 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
     // owner, or do we assume that it is by implication of block-structured locking?
     private static final boolean ASSUME_PERFECT_ENTRY_AND_EXIT_PAIRS = false;
 
+    /**
+     * Determines if an object is given its identity hashcode at the point a thread acquires its bias. The owner
+     * of a bias updates the lockword with plain stores, so another thread can only install a hashcode in a biased
+     * lockword by revoking the bias at a safepoint. Objects that are both synchronized on and hashed (e.g. keys of
+     * an {@link java.util.IdentityHashMap} used as locks) would otherwise pay for a revocation on their first hash.
+     */
+    public static boolean HashOnBias;
+
+    static {
+        VMOptions.addFieldOption("-XX:", "HashOnBias", BiasedLockModeHandler.class,
+            "Install the identity hashcode of an object when it is first biased, so that hashing never revokes a bias.");
+    }
+
     public static MonitorSchemeEntry asFastPath(boolean useBulkRevocation, ModeDelegate delegate) {
         if (useBulkRevocation) {
             return new BiasedLockModeHandler.FastPathWithEpoch(delegate);
@@ -80,6 +94,22 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
         return decodeLockwordThreadID(biasedLockword.getBiasOwnerID());
     }
 
+    /**
+     * Installs an identity hashcode in a lockword that is about to become biased, if {@link #HashOnBias} is set and
+     * the lockword does not already carry one.
+     *
+     * @param object the object whose bias is being acquired
+     * @param biasedLockword the new biased lockword
+     * @return {@code biasedLockword}, with a hashcode installed if required
+     */
+    @INLINE
+    protected final BiasedLockword64 withHashOnBias(Object object, BiasedLockword64 biasedLockword) {
+        if (HashOnBias && biasedLockword.getHashcode() == 0) {
+            return BiasedLockword64.from(biasedLockword.setHashcode(monitorScheme().createHashCode(object)));
+        }
+        return biasedLockword;
+    }
+
     protected ModalLockword64 revokeBias(Object object) {
         final ModalLockword64 lockword = ModalLockword64.from(ObjectAccess.readMisc(object));
         if (BiasedLockword64.isBiasedLockword(lockword)) {
@@ -96,37 +126,40 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
         }
     }
 
-    class RevokeBiasOperation extends VmOperation {
+    /**
+     * Revokes the bias of an object on (or on behalf of) the bias owning thread, without stopping any other thread.
+     */
+    class RevokeBiasHandshake extends Handshake {
         final Object object;
         ModalLockword64 newLockword;
-        RevokeBiasOperation(VmThread thread, Object object) {
-            super("RevokeBias", thread, Mode.Safepoint, false);
+        RevokeBiasHandshake(Object object) {
+            super("RevokeBias");
             this.object = object;
         }
         @Override
-        protected void doIt() {
+        protected void doThread(VmThread vmThread, Pointer ip, Pointer sp, Pointer fp) {
             newLockword = revokeBias(object);
         }
     }
 
     protected ModalLockword64 revokeWithOwnerSafepointed(final Object object, int vmThreadMapThreadID, BiasedLockword64 biasedLockword) {
+        final VmThread biasOwnerThread;
         synchronized (VmThreadMap.THREAD_LOCK) {
-            final VmThread biasOwnerThread = VmThreadMap.ACTIVE.getVmThreadForID(vmThreadMapThreadID);
-            if (biasOwnerThread == null) {
-                // The bias owner is terminated. No need to safepoint.
-                // Lets try to reset the bias to anon.
-                return ModalLockword64.from(ObjectAccess.compareAndSwapMisc(object, biasedLockword, biasedLockword.asAnonBiased()));
-            }
-            final Pointer tla = biasOwnerThread.tla();
-            if (tla.isZero()) {
+            biasOwnerThread = VmThreadMap.ACTIVE.getVmThreadForID(vmThreadMapThreadID);
+            if (biasOwnerThread != null && biasOwnerThread.tla().isZero()) {
                 // The bias holding thread is still starting up, so how can it own biases??
                 FatalError.unexpected("Attempted to revoke bias for still initializing thread.");
             }
-
-            RevokeBiasOperation operation = new RevokeBiasOperation(VmThread.fromTLA(tla), object);
-            operation.submit();
-            return operation.newLockword;
         }
+        if (biasOwnerThread != null) {
+            final RevokeBiasHandshake handshake = new RevokeBiasHandshake(object);
+            if (handshake.run(biasOwnerThread)) {
+                return handshake.newLockword;
+            }
+        }
+        // The bias owner is terminated. No need to safepoint.
+        // Lets try to reset the bias to anon.
+        return ModalLockword64.from(ObjectAccess.compareAndSwapMisc(object, biasedLockword, biasedLockword.asAnonBiased()));
     }
 
     public Word createMisc(Object object) {
@@ -174,6 +207,24 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
         }
     }
 
+    @INLINE
+    public final boolean tryFastMonitorExit(Object object) {
+        if (MaxineVM.isHosted()) {
+            return false;
+        }
+        final int lockwordThreadID = encodeCurrentThreadIDForLockword();
+        // We cannot have any safepoints (and hence any revocation) on the code path between here and the lockword store.
+        final ModalLockword64 lockword = ModalLockword64.from(ObjectAccess.readMisc(object));
+        if (BiasedLockword64.isBiasedLockword(lockword)) {
+            final BiasedLockword64 biasedLockword = BiasedLockword64.from(lockword);
+            if (biasedLockword.getBiasOwnerID() == lockwordThreadID && !biasedLockword.countUnderflow()) {
+                ObjectAccess.writeMisc(object, biasedLockword.decrementCount());
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void monitorNotify(Object object, boolean all) {
         nullCheck(object);
         if (MaxineVM.isHosted()) {
@@ -255,6 +306,24 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
             slowPathMonitorEnter(object, lockword, lockwordThreadID);
         }
 
+        @INLINE
+        public boolean tryFastMonitorEnter(Object object) {
+            if (MaxineVM.isHosted()) {
+                return false;
+            }
+            final int lockwordThreadID = encodeCurrentThreadIDForLockword();
+            // We cannot have any safepoints (and hence any revocation) on the code path between here and the lockword store.
+            final ModalLockword64 lockword = ModalLockword64.from(ObjectAccess.readMisc(object));
+            if (BiasedLockword64.isBiasedLockword(lockword)) {
+                final BiasedLockword64 biasedLockword = BiasedLockword64.from(lockword);
+                if (biasedLockword.getBiasOwnerID() == lockwordThreadID && !biasedLockword.countOverflow()) {
+                    ObjectAccess.writeMisc(object, biasedLockword.incrementCount());
+                    return true;
+                }
+            }
+            return false;
+        }
+
         private void slowPathMonitorEnter(Object object, ModalLockword64 lockword, int lockwordThreadID) {
             ModalLockword64 currentLockword = lockword;
             while (BiasedLockword64.isBiasedLockword(currentLockword)) {
@@ -262,7 +331,7 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                 // Is the lock unbiased and biasable?
                 if (biasedLockword.equals(biasedLockword.asAnonBiased())) {
                     // Try to get the bias
-                    final BiasedLockword64 newBiasedLockword = biasedLockword.asBiasedAndLockedOnceBy(lockwordThreadID);
+                    final BiasedLockword64 newBiasedLockword = withHashOnBias(object, biasedLockword.asBiasedAndLockedOnceBy(lockwordThreadID));
                     currentLockword = ModalLockword64.from(ObjectAccess.compareAndSwapMisc(object, biasedLockword, newBiasedLockword));
                     if (currentLockword.equals(biasedLockword)) {
                         // Current thread is now the bias owner
@@ -363,6 +432,25 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
             slowPathMonitorEnter(object, lockword, lockwordThreadID);
         }
 
+        @INLINE
+        public boolean tryFastMonitorEnter(Object object) {
+            if (MaxineVM.isHosted()) {
+                return false;
+            }
+            final int lockwordThreadID = encodeCurrentThreadIDForLockword();
+            final BiasedLockEpoch64 classEpoch = ObjectAccess.readHub(object).biasedLockEpoch;
+            // We cannot have any safepoints (and hence any revocation) on the code path between here and the lockword store.
+            final ModalLockword64 lockword = ModalLockword64.from(ObjectAccess.readMisc(object));
+            if (BiasedLockword64.isBiasedLockword(lockword)) {
+                final BiasedLockword64 biasedLockword = BiasedLockword64.from(lockword);
+                if (biasedLockword.getEpoch().equals(classEpoch) && biasedLockword.getBiasOwnerID() == lockwordThreadID && !biasedLockword.countOverflow()) {
+                    ObjectAccess.writeMisc(object, biasedLockword.incrementCount());
+                    return true;
+                }
+            }
+            return false;
+        }
+
         private void slowPathMonitorEnter(Object object, ModalLockword64 lockword, int lockwordThreadID) {
             ModalLockword64 currentLockword = lockword;
             while (BiasedLockword64.isBiasedLockword(currentLockword)) {
@@ -399,7 +487,7 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                     return;
                 } else if (biasedLockword.equals(biasedLockword.asAnonBiased()) || !biasedLockword.getEpoch().equals(classEpoch)) {
                     // Object is not biased or it's bias is not in the current epoch. Try to get the bias.
-                    final BiasedLockword64 newBiasedLockword = biasedLockword.asBiasedAndLockedOnceBy(lockwordThreadID, classEpoch);
+                    final BiasedLockword64 newBiasedLockword = withHashOnBias(object, biasedLockword.asBiasedAndLockedOnceBy(lockwordThreadID, classEpoch));
                     currentLockword = ModalLockword64.from(ObjectAccess.compareAndSwapMisc(object, biasedLockword, newBiasedLockword));
                     if (currentLockword.equals(biasedLockword)) {
                         // Current thread is now the bias owner
@@ -216,6 +216,23 @@ public class BiasedLockword64 extends LightweightLockword64 {
         return getThreadID();
     }
 
+    /**
+     * (Image build support) Gets the mask selecting the bias epoch field.
+     */
+    @HOSTED_ONLY
+    public static long epochMask() {
+        return EPOCH_MASK.toLong();
+    }
+
+    /**
+     * (Image build support) Gets the bias epoch field value of a lock word that has been revoked to the delegate
+     * locking mode.
+     */
+    @HOSTED_ONLY
+    public static long revokedEpoch() {
+        return BiasedLockEpoch64.REVOKED.asAddress().toLong();
+    }
+
     /**
      * (Image build support) Returns a new, unlocked, unbiased {@code BiasedLockword64} with the given hashcode
      * installed into the hashcode field.
@@ -416,6 +416,28 @@ public abstract class ThinLockModeHandler extends AbstractModeHandler {
             }
         }
 
+        @INLINE
+        public boolean tryFastMonitorEnter(Object object) {
+            if (MaxineVM.isHosted() || Platform.target().arch.is32bit()) {
+                return false;
+            }
+            final ThinLockword64 lockword = ThinLockword64.from(ObjectAccess.readMisc(object));
+            final ThinLockword64 asUnlocked = lockword.asUnlocked();
+            final ThinLockword64 asLocked = lockword.asLockedOnceBy(encodeCurrentThreadIDForLockword());
+            return ObjectAccess.compareAndSwapMisc(object, asUnlocked, asLocked).equals(asUnlocked);
+        }
+
+        @INLINE
+        public boolean tryFastMonitorExit(Object object) {
+            if (MaxineVM.isHosted() || Platform.target().arch.is32bit()) {
+                return false;
+            }
+            final ThinLockword64 lockword = ThinLockword64.from(ObjectAccess.readMisc(object));
+            final ThinLockword64 asUnlocked = lockword.asUnlocked();
+            final ThinLockword64 asLocked = lockword.asLockedOnceBy(encodeCurrentThreadIDForLockword());
+            return ObjectAccess.compareAndSwapMisc(object, asLocked, asUnlocked).equals(asLocked);
+        }
+
         @INLINE
         public Word createMisc(Object object) {
             return ThinLockword64.unlockedFromHashcode(monitorScheme().createHashCode(object));
@@ -162,6 +162,14 @@ public class ThinLockword64 extends LightweightLockword64 {
         }
     }
 
+    /**
+     * (Image build support) Gets the mask that {@link #asUnlocked()} applies to a lock word.
+     */
+    @HOSTED_ONLY
+    public static long unlockedMask() {
+        return UNLOCKED_MASK.toLong();
+    }
+
     @INLINE
     public static final ThinLockword64 fromHashcode(int hashcode) {
         assert Platform.target().arch.is32bit() : "This function must be called only on 32 bit machines!";
@@ -126,6 +126,17 @@ public final class ObserverModeHandler extends AbstractModeHandler implements Mo
         delegate().delegateMonitorEnter(object, ModalLockword64.from(ObjectAccess.readMisc(object)), encodeCurrentThreadIDForLockword());
     }
 
+    @INLINE
+    public boolean tryFastMonitorEnter(Object object) {
+        // Observers must see every event
+        return false;
+    }
+
+    @INLINE
+    public boolean tryFastMonitorExit(Object object) {
+        return false;
+    }
+
     public void monitorExit(Object object) {
         if (MaxineVM.isHosted()) {
             HostMonitor.exit(object);
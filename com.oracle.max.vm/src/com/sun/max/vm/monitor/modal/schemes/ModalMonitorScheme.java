@@ -28,6 +28,8 @@ import com.sun.max.vm.heap.*;
 import com.sun.max.vm.monitor.*;
 import com.sun.max.vm.monitor.modal.modehandlers.AbstractModeHandler.MonitorSchemeEntry;
 import com.sun.max.vm.monitor.modal.modehandlers.*;
+import com.sun.max.vm.monitor.modal.modehandlers.lightweight.biased.*;
+import com.sun.max.vm.monitor.modal.modehandlers.lightweight.thin.*;
 import com.sun.max.vm.monitor.modal.sync.*;
 import com.sun.max.vm.thread.*;
 
@@ -70,6 +72,40 @@ public abstract class ModalMonitorScheme extends AbstractMonitorScheme {
         JavaMonitorManager.initialize(phase);
     }
 
+    /**
+     * The uncontended lock word updates that a compiler may emit inline for {@code monitorenter} and
+     * {@code monitorexit}, calling the runtime only if the update fails.
+     */
+    public enum InlineFastPath {
+        /**
+         * Always call the runtime.
+         */
+        NONE,
+
+        /**
+         * Compare-and-swap an unlocked {@link ThinLockword64} to one locked once by the current thread, and back.
+         */
+        THIN,
+
+        /**
+         * Blindly increment or decrement the recursion count of a {@link BiasedLockword64} biased to the current thread.
+         */
+        BIASED,
+
+        /**
+         * As {@link #BIASED}, but the lock word's bias epoch must also equal the epoch in the object's hub.
+         */
+        EPOCH_BIASED
+    }
+
+    /**
+     * Gets the inline lock word update that compilers may emit for this scheme's fastest-path mode.
+     * Schemes whose fastest-path mode needs calls, such as inflated monitors and observers, return {@link InlineFastPath#NONE}.
+     */
+    public InlineFastPath inlineFastPath() {
+        return InlineFastPath.NONE;
+    }
+
     /**
      * Returns the fastest-path mode handler.
      *
@@ -128,6 +164,18 @@ public abstract class ModalMonitorScheme extends AbstractMonitorScheme {
         entryHandler.monitorExit(object);
     }
 
+    @INLINE
+    @Override
+    public final boolean tryFastMonitorEnter(Object object) {
+        return entryHandler.tryFastMonitorEnter(object);
+    }
+
+    @INLINE
+    @Override
+    public final boolean tryFastMonitorExit(Object object) {
+        return entryHandler.tryFastMonitorExit(object);
+    }
+
     @INLINE
     public final void monitorNotify(Object object) {
         entryHandler.monitorNotify(object, false);
@@ -38,6 +38,11 @@ public class BiasedInflatedMonitorScheme extends ModalMonitorScheme {
                                InflatedMonitorModeHandler.asBiasedLockDelegate()));
     }
 
+    @Override
+    public InlineFastPath inlineFastPath() {
+        return InlineFastPath.BIASED;
+    }
+
     @Override
     public ModalLockwordDecoder getModalLockwordDecoder() {
         return new ModalLockwordDecoder() {
@@ -40,6 +40,11 @@ public class BiasedThinInflatedMonitorScheme extends ModalMonitorScheme {
                                 InflatedMonitorModeHandler.asThinLockDelegate())));
     }
 
+    @Override
+    public InlineFastPath inlineFastPath() {
+        return InlineFastPath.BIASED;
+    }
+
     @Override
     public ModalLockwordDecoder getModalLockwordDecoder() {
         return new ModalLockwordDecoder() {
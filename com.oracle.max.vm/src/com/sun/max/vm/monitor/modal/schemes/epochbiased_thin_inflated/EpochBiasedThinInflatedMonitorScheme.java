@@ -40,6 +40,11 @@ public class EpochBiasedThinInflatedMonitorScheme extends ModalMonitorScheme {
                                 InflatedMonitorModeHandler.asThinLockDelegate())));
     }
 
+    @Override
+    public InlineFastPath inlineFastPath() {
+        return InlineFastPath.EPOCH_BIASED;
+    }
+
     @Override
     public ModalLockwordDecoder getModalLockwordDecoder() {
         return new ModalLockwordDecoder() {
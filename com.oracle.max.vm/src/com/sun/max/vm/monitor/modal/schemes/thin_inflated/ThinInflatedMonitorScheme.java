@@ -37,6 +37,11 @@ public class ThinInflatedMonitorScheme extends ModalMonitorScheme {
         super(ThinLockModeHandler.asFastPath(InflatedMonitorModeHandler.asThinLockDelegate()));
     }
 
+    @Override
+    public InlineFastPath inlineFastPath() {
+        return InlineFastPath.THIN;
+    }
+
     @Override
     public ModalLockwordDecoder getModalLockwordDecoder() {
         return new ModalLockwordDecoder() {
@@ -36,8 +36,9 @@ import com.sun.max.vm.thread.VmThread;
 import com.sun.max.unsafe.*;
 
 /**
- * CPU sampling profiler. Runs a thread that periodically wakes up, stops all the threads, and records their stack.
- * Note that the stack is gathered regardless of the state of the thread, e.g., it may be blocked.
+ * CPU sampling profiler. Runs a thread that periodically wakes up and records the stack of each thread via a
+ * {@linkplain Handshake handshake}, one thread at a time. Note that the stack is gathered regardless of the state
+ * of the thread, e.g., it may be blocked.
  * Period of sampling is measured in milliseconds.
  */
 public final class CPUSamplingProfiler extends SamplingProfiler {
@@ -100,7 +101,7 @@ public final class CPUSamplingProfiler extends SamplingProfiler {
                     }
                     // section should be synchronized with sorting and dumping
                     synchronized (this) {
-                        stackTraceGatherer.submit();
+                        stackTraceGatherer.sampleAllThreads();
                         sampleCount++;
                     }
                     if (dumpInterval > 0 && now > lastDump + dumpInterval * 1000000L) {
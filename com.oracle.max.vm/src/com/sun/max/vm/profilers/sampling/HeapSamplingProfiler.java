@@ -197,9 +197,9 @@ public final class HeapSamplingProfiler extends SamplingProfiler {
             } else {
                 // section should be synchronized with sorting, dumping and with itself
                 synchronized (this) {
-                    sampledThread = VmThread.current();
+                    sampledThread = currentThread;
                     sampleCountIncrement = samples;
-                    stackTraceGatherer.submit();
+                    stackTraceGatherer.sample(currentThread);
                     sampleCount += sampleCountIncrement;
                     currentPeriod = samplePeriod + (rand.nextBoolean() ? rand.nextInt(jiggle) : -rand.nextInt(jiggle));
                     sampledThread = null;
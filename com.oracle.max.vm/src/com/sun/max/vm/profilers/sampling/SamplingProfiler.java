@@ -31,10 +31,11 @@ import com.sun.max.vm.actor.member.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.stack.*;
 import com.sun.max.vm.thread.VmThread;
+import com.sun.max.vm.thread.VmThreadMap;
 import com.sun.max.unsafe.*;
 
 /**
- * Sampling profiler. It periodically stops all the threads and records stacks of some of them
+ * Sampling profiler. It periodically records the stacks of some of the threads
  * The period of sampling is measured in units defined in derived classes.
  *
  * Attempts to allocate minimal heap memory to limit interference with the application.
@@ -45,10 +46,9 @@ import com.sun.max.unsafe.*;
  * Field {@link #workingStackInfo}, of {@link StackInfo} is used to gather the stack for a thread,
  * and an exact-length copy is entered into the map when a new stack is discovered.
  *
- * Note that due to the way the {@link VmOperation} works, all threads will be stopped in a
- * native method at the time the stack is gathered. Some threads may indeed be blocked
- * on a native method called by the thread. Others will be in the monitor code after
- * taking the trap that starts the thread stopping machinery. These stack frames should not
+ * Note that due to the way a {@link Handshake} works, a thread's stack is gathered either
+ * at a safepoint poll in Java code or while the thread is in a native method. Some threads may indeed be blocked
+ * on a native method called by the thread. Others will be in the monitor code. These stack frames should not
  * be presented to the user. This is handled by {@link SamplingStackTraceVisitor#clear()}.
  * Unfortunately this does mean that the stack depth control can't be honored trivially
  * as the stack is being gathered. This is optimized with {@link #workingStackClearSeen}.
@@ -332,15 +332,20 @@ public abstract class SamplingProfiler extends Thread {
     public abstract void run();
 
     /**
-     * Encapsulates the basic logic of handling one thread after all threads are frozen at a safepoint.
+     * Encapsulates the basic logic of sampling the stack of one thread. The stack is captured by a
+     * {@linkplain Handshake handshake} with the sampled thread so that no other thread is stopped.
+     * The capture itself only writes into {@link SamplingProfiler#workingStackInfo}; the sample is
+     * recorded (which may allocate) by the sampling thread once the handshake has completed.
      */
-    protected abstract class StackTraceGatherer extends VmOperation {
+    protected abstract class StackTraceGatherer extends Handshake {
 
         StackTraceGatherer(String name) {
-            super(name, null, Mode.Safepoint);
+            super(name);
         }
 
-        @Override
+        /**
+         * Determines if a given thread is to be sampled.
+         */
         protected abstract boolean operateOnThread(VmThread thread);
 
         /**
@@ -349,6 +354,11 @@ public abstract class SamplingProfiler extends Thread {
          */
         private ThreadSample vmOperationThreadSample;
 
+        /**
+         * The visitor used to capture stacks. It is reused for every sample so that capturing a stack does not allocate.
+         */
+        private final SamplingStackTraceVisitor stackTraceVisitor = new SamplingStackTraceVisitor(null);
+
         /**
          * Gets parameter for {@link SamplingStackTraceVisitor} constructor marking the method in the stack
          * below which the methods should be gathered.
@@ -378,15 +388,42 @@ public abstract class SamplingProfiler extends Thread {
             }
         }
 
+        /**
+         * Samples the stack of every thread, one thread at a time.
+         */
+        public void sampleAllThreads() {
+            for (Thread thread : VmThreadMap.getThreads(false)) {
+                final VmThread vmThread = VmThread.fromJava(thread);
+                if (vmThread != null) {
+                    sample(vmThread);
+                }
+            }
+        }
+
+        /**
+         * Samples the stack of a given thread if it is selected by {@link #operateOnThread(VmThread)}.
+         */
+        public void sample(VmThread vmThread) {
+            if (operateOnThread(vmThread) && run(vmThread)) {
+                record(vmThread);
+            }
+        }
+
         @Override
-        public void doThread(VmThread vmThread, Pointer ip, Pointer sp, Pointer fp) {
-            ClassMethodActor classActor = getStackTraceGatheringStartMarker(vmThread);
-            SamplingStackTraceVisitor sstv = new SamplingStackTraceVisitor(classActor);
+        protected void doThread(VmThread vmThread, Pointer ip, Pointer sp, Pointer fp) {
+            final SamplingStackTraceVisitor sstv = stackTraceVisitor;
+            sstv.stackTraceGatheringStartMarker = getStackTraceGatheringStartMarker(vmThread);
             final VmStackFrameWalker stackFrameWalker = vmThread.samplingProfilerStackFrameWalker();
             workingStackInfo.reset(0);
             workingStackDepth = 0;
             workingStackClearSeen = false;
             sstv.walk(stackFrameWalker, ip, sp, fp);
+        }
+
+        /**
+         * Records the stack captured in {@link SamplingProfiler#workingStackInfo} as a sample of a given thread.
+         */
+        private void record(VmThread vmThread) {
             if (!workingStackClearSeen) {
                 // we may have gathered > maxStackDepth frames; fix that here before we do the lookup
                 if (workingStackDepth > maxStackDepth) {
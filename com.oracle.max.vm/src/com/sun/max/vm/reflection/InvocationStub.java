@@ -22,10 +22,19 @@
  */
 package com.sun.max.vm.reflection;
 
+import static com.sun.max.vm.jdk.JDK_java_lang_invoke_MemberName.*;
+import static com.sun.max.vm.jdk.JDK_java_lang_invoke_MethodHandleNatives.*;
+import static com.sun.max.vm.type.ClassRegistry.Property.*;
+
 import java.lang.reflect.*;
+import java.util.concurrent.*;
 
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
 import com.sun.max.vm.classfile.constant.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.type.*;
 
 /**
  * This class serves two purposes. Firstly, it is a marker for classes whose bytecodes should not be verified (a la
@@ -83,15 +92,40 @@ public abstract class InvocationStub {
         return getClass().getSimpleName() + "[" + target + "]";
     }
 
+    /**
+     * Gets the stub with {@link Boxing#JAVA} semantics previously generated for a given method or constructor. These
+     * stubs are shared by all the reflection objects for the same member (e.g. the copies of a {@link Method} made by
+     * {@link Class#getMethod(String, Class...)} and the new root objects created once the reflection data of a
+     * class has been cleared).
+     */
+    private static InvocationStub cachedStub(MethodActor methodActor, Boxing boxing) {
+        if (boxing != Boxing.JAVA) {
+            return null;
+        }
+        return methodActor.holder().classRegistry().get(JAVA_INVOCATION_STUB, methodActor);
+    }
+
+    private static void cacheStub(MethodActor methodActor, Boxing boxing, InvocationStub stub) {
+        if (boxing == Boxing.JAVA) {
+            // A racing thread may also have generated a stub for the same member. Either is good for all callers.
+            methodActor.holder().classRegistry().set(JAVA_INVOCATION_STUB, methodActor, stub);
+        }
+    }
+
     /**
      * Generates a stub for invoking a given method reflectively.
      */
     public static MethodInvocationStub newMethodStub(Method method, Boxing boxing) {
+        final MethodActor methodActor = MethodActor.fromJava(method);
+        final InvocationStub cachedStub = cachedStub(methodActor, boxing);
+        if (cachedStub != null) {
+            return (MethodInvocationStub) cachedStub;
+        }
 
         final MethodInvocationStub stub = new InvocationStubGenerator<MethodInvocationStub>(
                         method,
                         MethodInvocationStub.class,
-                        MethodActor.fromJava(method).name,
+                        methodActor.name,
                         method.getDeclaringClass(),
                         method.getReturnType(),
                         method.getParameterTypes(),
@@ -100,15 +134,88 @@ public abstract class InvocationStub {
                         null,
                         boxing).stub();
         stub.setTarget(method);
+        cacheStub(methodActor, boxing, stub);
         return stub;
     }
 
+    /**
+     * The classes of the {@linkplain SharedMethodInvocationStub shared stubs} generated so far, keyed by shape.
+     */
+    private static final ConcurrentHashMap<String, ClassActor> sharedStubClasses = new ConcurrentHashMap<String, ClassActor>();
+
+    /**
+     * Gets a stub for invoking a given method reflectively with {@link Boxing#JAVA} semantics. If the method does not
+     * have a stub of its own yet, this is a {@linkplain SharedMethodInvocationStub shared stub} whose code is shared
+     * with all other methods of the same shape. Shared stubs are only used at run time and not for methods whose
+     * signature includes a {@link com.sun.max.unsafe.Word} type.
+     */
+    public static MethodInvocationStub newSharedMethodStub(Method method) {
+        final MethodActor methodActor = MethodActor.fromJava(method);
+        final InvocationStub cachedStub = cachedStub(methodActor, Boxing.JAVA);
+        if (cachedStub != null) {
+            return (MethodInvocationStub) cachedStub;
+        }
+        if (MaxineVM.isHosted() || SharedMethodInvocationStub.ReflectionInflationThreshold <= 0 || SignatureDescriptor.containsWord(methodActor.descriptor())) {
+            return newMethodStub(method, Boxing.JAVA);
+        }
+
+        final Object memberName = init_method_MemberName(newMemberName(), methodActor, true, null);
+        final int referenceKind = (asMemberName(memberName).flags >> REFERENCE_KIND_SHIFT) & REFERENCE_KIND_MASK;
+        final boolean isStatic = referenceKind == JVM_REF_invokeStatic;
+        final Class returnType = erase(method.getReturnType());
+        final Class[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i != parameterTypes.length; ++i) {
+            parameterTypes[i] = erase(parameterTypes[i]);
+        }
+        final Utf8Constant linkerName;
+        if (referenceKind == JVM_REF_invokeStatic) {
+            linkerName = SymbolTable.makeSymbol("linkToStatic");
+        } else if (referenceKind == JVM_REF_invokeSpecial) {
+            linkerName = SymbolTable.makeSymbol("linkToSpecial");
+        } else if (referenceKind == JVM_REF_invokeInterface) {
+            linkerName = SymbolTable.makeSymbol("linkToInterface");
+        } else {
+            linkerName = SymbolTable.makeSymbol("linkToVirtual");
+        }
+
+        final String shape = linkerName + SignatureDescriptor.create(returnType, parameterTypes).toString();
+        ClassActor stubClassActor = sharedStubClasses.get(shape);
+        if (stubClassActor == null) {
+            final SharedMethodInvocationStub prototype = new InvocationStubGenerator<SharedMethodInvocationStub>(
+                            SharedMethodInvocationStub.class,
+                            linkerName,
+                            returnType,
+                            parameterTypes,
+                            isStatic).stub();
+            // A racing thread may also have generated a class for the same shape. The loser's class is simply not used.
+            final ClassActor racingStubClassActor = sharedStubClasses.putIfAbsent(shape, ClassActor.fromJava(prototype.getClass()));
+            stubClassActor = racingStubClassActor != null ? racingStubClassActor : ClassActor.fromJava(prototype.getClass());
+        }
+        final SharedMethodInvocationStub stub = (SharedMethodInvocationStub) Heap.createTuple(stubClassActor.dynamicHub());
+        stub.bind(method, memberName);
+        return stub;
+    }
+
+    /**
+     * Erases a reference type to {@link Object}, leaving primitive types (and {@code void}) as they are.
+     */
+    private static Class erase(Class type) {
+        return type.isPrimitive() ? type : Object.class;
+    }
+
     /**
      * Generates a stub for invoking a given constructor reflectively.
      * @param constructor that is to be invoked
      * @param classToInstantiate only non-null in the serialization context where it may differ from constructor.getDeclaringClass()
      */
     public static ConstructorInvocationStub newConstructorStub(Constructor constructor, Class classToInstantiate, Boxing boxing) {
+        final MethodActor methodActor = MethodActor.fromJavaConstructor(constructor);
+        if (classToInstantiate == null) {
+            final InvocationStub cachedStub = cachedStub(methodActor, boxing);
+            if (cachedStub != null) {
+                return (ConstructorInvocationStub) cachedStub;
+            }
+        }
         final ConstructorInvocationStub stub = new InvocationStubGenerator<ConstructorInvocationStub>(
                         constructor,
                         ConstructorInvocationStub.class,
@@ -121,6 +228,9 @@ public abstract class InvocationStub {
                         classToInstantiate,
                         boxing).stub();
         stub.setTarget(constructor);
+        if (classToInstantiate == null) {
+            cacheStub(methodActor, boxing, stub);
+        }
         return stub;
     }
 }
@@ -27,8 +27,10 @@ import static com.sun.max.vm.classfile.constant.PoolConstantFactory.*;
 import static com.sun.max.vm.type.ClassRegistry.Property.*;
 
 import java.io.*;
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import com.sun.max.annotate.*;
 import com.sun.max.io.*;
@@ -45,6 +47,7 @@ import com.sun.max.vm.classfile.*;
 import com.sun.max.vm.classfile.ClassfileWriter.ClassInfo;
 import com.sun.max.vm.classfile.constant.*;
 import com.sun.max.vm.heap.*;
+import com.sun.max.vm.jdk.*;
 import com.sun.max.vm.type.*;
 import com.sun.max.vm.value.*;
 
@@ -53,7 +56,7 @@ import com.sun.max.vm.value.*;
  */
 public class InvocationStubGenerator<T> {
 
-    private static volatile int nextSerial;
+    private static final AtomicInteger nextSerial = new AtomicInteger();
 
     public static final String STUB_PACKAGE_PREFIX = "$INVOKE_STUB$.";
 
@@ -67,8 +70,8 @@ public class InvocationStubGenerator<T> {
         return typeName.startsWith(STUB_PACKAGE_PREFIX);
     }
 
-    private static synchronized Utf8Constant generateName(Class declaringClass, Utf8Constant methodName, boolean forSerialization) {
-        final int serial = ++nextSerial;
+    private static Utf8Constant generateName(Class declaringClass, Utf8Constant methodName, boolean forSerialization) {
+        final int serial = nextSerial.incrementAndGet();
         String className = declaringClass.getName().replace('.', '_');
         String stubName;
         if (methodName == SymbolTable.INIT) {
@@ -89,6 +92,7 @@ public class InvocationStubGenerator<T> {
     private final boolean isPrivate;
     private final boolean isInterface;
     private final boolean isConstructor;
+    private final boolean isShared;
 
     // These are constant pool indexes (CPIs) for the non-shared constants used by the generated code
     private final int targetCPI;
@@ -149,6 +153,7 @@ public class InvocationStubGenerator<T> {
             this.isPrivate = isPrivate;
             this.isInterface = declaringClass.isInterface();
             this.isConstructor = target instanceof Constructor;
+            this.isShared = false;
             this.runtimeParameterTypes = boxing.runtimeParameterTypes(parameterTypes, declaringClass, isStatic, isConstructor);
             boolean forSerialization = false;
             if (isConstructor) {
@@ -195,59 +200,130 @@ public class InvocationStubGenerator<T> {
             final ConstantPool constantPool = new ConstantPool(declaringClassActor.constantPool().classLoader(), constants, appender.index());
             this.constantPoolEditor = constantPool.edit();
 
-            final ClassMethodActor initMethodActor = generateInit(superClass);
-            final ClassMethodActor invokeMethodActor = generateInvoke(returnType);
-            final ClassMethodActor[] classMethodActors = new ClassMethodActor[]{initMethodActor, invokeMethodActor};
-
-            final ClassActor superClassActor = ClassActor.fromJava(superClass);
-            final InterfaceActor[] interfaceActors = new InterfaceActor[0];
-            final FieldActor[] fieldActors = new FieldActor[0];
-
-            final ClassActor stubClassActor =
-                ClassRegistry.define(ClassActorFactory.createTupleOrHybridClassActor(
-                    constantPool,
-                    declaringClassActor.classLoader,
-                    stubClassName,
-                    ClassfileReader.JAVA_1_5_VERSION,
-                    (char) 0,
-                    Modifier.PUBLIC | Actor.REFLECTION_STUB,
-                    superClassActor,
-                    interfaceActors,
-                    fieldActors,
-                    classMethodActors,
-                    Actor.NO_GENERIC_SIGNATURE,
-                    Actor.NO_RUNTIME_VISIBLE_ANNOTATION_BYTES,
-                    ClassActor.NO_BOOTSTRAP_METHODS,
-                    ClassActor.NO_SOURCE_FILE_NAME,
-                    ClassActor.NO_INNER_CLASSES,
-                    ClassActor.NO_OUTER_CLASS,
-                    ClassActor.NO_ENCLOSING_METHOD_INFO));
-
-            try {
-                if (isHosted() || ClassfileReader.saveClassDir.getValue() != null) {
-                    ClassfileWriter.saveGeneratedClass(new ClassInfo(stubClassActor), constantPoolEditor.copy());
-                    if (isHosted() && saveJavaSource) {
-                        traceStubAsJavaSource(superClass, name, declaringClass, returnType, parameterTypes, isStatic, classToInstantiate, target, boxing, stubClassName);
-                    }
+            final ClassActor stubClassActor = defineStubClass(superClass, stubClassName, declaringClassActor, returnType);
+            if (isHosted() && saveJavaSource) {
+                try {
+                    traceStubAsJavaSource(superClass, name, declaringClass, returnType, parameterTypes, isStatic, classToInstantiate, target, boxing, stubClassName);
+                } catch (IOException ioException) {
+                    ioException.printStackTrace();
                 }
-            } catch (IOException ioException) {
-                ioException.printStackTrace();
             }
             this.constantPoolEditor.release();
+            stub = instantiate(superClass, stubClassActor);
+        } catch (NoClassDefFoundError e) {
+            throw (InternalError) new InternalError().initCause(e);
+        }
+    }
+
+    /**
+     * Creates a generator for a stub shared by all methods of the same shape. Instead of calling a target through a
+     * constant pool method reference, the stub links to the target through the {@code MemberName} held by
+     * {@link SharedMethodInvocationStub#memberName} using one of the {@code MethodHandle.linkTo*} intrinsics.
+     * Reference parameter types are erased to {@link Object}; they are checked by
+     * {@link SharedMethodInvocationStub#checkArguments(Object, Object[])} instead of the generated code.
+     *
+     * @param linkerName the name of the {@code MethodHandle.linkTo*} intrinsic used to call the target
+     * @param returnType the return type of the shape (a primitive type, {@code void} or {@link Object})
+     * @param parameterTypes the parameter types of the shape, excluding the receiver (primitive types or {@link Object})
+     * @param isStatic specifies if the shape is for {@code static} methods
+     */
+    InvocationStubGenerator(Class<T> superClass, Utf8Constant linkerName, Class returnType, Class[] parameterTypes, boolean isStatic) {
+        try {
+            this.boxing = Boxing.JAVA;
+            this.isStatic = isStatic;
+            this.isPrivate = false;
+            this.isInterface = false;
+            this.isConstructor = false;
+            this.isShared = true;
+            this.runtimeParameterTypes = parameterTypes;
+            final ClassActor linkerClassActor = ClassActor.fromJava(MethodHandle.class);
+            final Utf8Constant stubClassName = generateName(MethodHandle.class, linkerName, false);
+
+            final Class[] linkerParameterTypes = new Class[parameterTypes.length + (isStatic ? 1 : 2)];
+            int index = 0;
+            if (!isStatic) {
+                linkerParameterTypes[index++] = Object.class;
+            }
+            for (Class parameterType : parameterTypes) {
+                linkerParameterTypes[index++] = parameterType;
+            }
+            linkerParameterTypes[index] = JDK_java_lang_invoke_MemberName.MemberName_Class;
+
+            final PoolConstant[] constants = new PoolConstant[PROTOTYPE_CONSTANTS.length + 3];
+            System.arraycopy(PROTOTYPE_CONSTANTS, 0, constants, 0, PROTOTYPE_CONSTANTS.length);
+            final PoolConstantArrayAppender appender = new PoolConstantArrayAppender(constants, PROTOTYPE_CONSTANTS.length);
+            this.declaringClassCPI = appender.append(createClassConstant(Object.class));
+            this.targetCPI = appender.append(createClassMethodConstant(linkerClassActor, linkerName, SignatureDescriptor.create(returnType, linkerParameterTypes)));
+            this.incorrectArgumentCountMessageCPI = appender.append(createStringConstant("expected " + parameterTypes.length + " arguments, received "));
+            this.classToInstantiateCPI = -1;
+            this.runtimeParameterTypesPoolCPIs = new int[parameterTypes.length];
+            for (int i = 0; i != parameterTypes.length; ++i) {
+                // Reference parameters are only cast to Object
+                runtimeParameterTypesPoolCPIs[i] = declaringClassCPI;
+            }
+
+            final ConstantPool constantPool = new ConstantPool(linkerClassActor.constantPool().classLoader(), constants, appender.index());
+            this.constantPoolEditor = constantPool.edit();
+
+            final ClassActor stubClassActor = defineStubClass(superClass, stubClassName, linkerClassActor, returnType);
+            this.constantPoolEditor.release();
+            stub = instantiate(superClass, stubClassActor);
+        } catch (NoClassDefFoundError e) {
+            throw (InternalError) new InternalError().initCause(e);
+        }
+    }
+
+    private ClassActor defineStubClass(Class superClass, Utf8Constant stubClassName, ClassActor declaringClassActor, Class returnType) {
+        final ClassMethodActor initMethodActor = generateInit(superClass);
+        final ClassMethodActor invokeMethodActor = generateInvoke(returnType);
+        final ClassMethodActor[] classMethodActors = new ClassMethodActor[]{initMethodActor, invokeMethodActor};
+
+        final ClassActor superClassActor = ClassActor.fromJava(superClass);
+        final InterfaceActor[] interfaceActors = new InterfaceActor[0];
+        final FieldActor[] fieldActors = new FieldActor[0];
+
+        final ClassActor stubClassActor =
+            ClassRegistry.define(ClassActorFactory.createTupleOrHybridClassActor(
+                constantPoolEditor.pool(),
+                declaringClassActor.classLoader,
+                stubClassName,
+                ClassfileReader.JAVA_1_5_VERSION,
+                (char) 0,
+                Modifier.PUBLIC | Actor.REFLECTION_STUB,
+                superClassActor,
+                interfaceActors,
+                fieldActors,
+                classMethodActors,
+                Actor.NO_GENERIC_SIGNATURE,
+                Actor.NO_RUNTIME_VISIBLE_ANNOTATION_BYTES,
+                ClassActor.NO_BOOTSTRAP_METHODS,
+                ClassActor.NO_SOURCE_FILE_NAME,
+                ClassActor.NO_INNER_CLASSES,
+                ClassActor.NO_OUTER_CLASS,
+                ClassActor.NO_ENCLOSING_METHOD_INFO));
+
+        try {
+            if (isHosted() || ClassfileReader.saveClassDir.getValue() != null) {
+                ClassfileWriter.saveGeneratedClass(new ClassInfo(stubClassActor), constantPoolEditor.copy());
+            }
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        }
+        return stubClassActor;
+    }
 
+    private T instantiate(Class<T> superClass, ClassActor stubClassActor) {
+        try {
             if (MaxineVM.isHosted()) {
-                stub = superClass.cast(stubClassActor.toJava().newInstance());
-            } else {
-                // In the target we cannot call Class.newInstance() as it calls the constructor for the stub class by reflection
-                // and ends up back here. Since the stub constructor actually does nothing important we just allocate the object.
-                stub = superClass.cast(Heap.createTuple(stubClassActor.dynamicHub()));
+                return superClass.cast(stubClassActor.toJava().newInstance());
             }
+            // In the target we cannot call Class.newInstance() as it calls the constructor for the stub class by reflection
+            // and ends up back here. Since the stub constructor actually does nothing important we just allocate the object.
+            return superClass.cast(Heap.createTuple(stubClassActor.dynamicHub()));
         } catch (InstantiationException e) {
             throw (InternalError) new InternalError().initCause(e);
         } catch (IllegalAccessException e) {
             throw (InternalError) new InternalError().initCause(e);
-        } catch (NoClassDefFoundError e) {
-            throw (InternalError) new InternalError().initCause(e);
         }
     }
 
@@ -257,6 +333,7 @@ public class InvocationStubGenerator<T> {
 
     private static CodeAttribute generatedConstructorStubInitTemplate;
     private static CodeAttribute generatedMethodStubInitTemplate;
+    private static CodeAttribute generatedSharedMethodStubInitTemplate;
 
     private CodeAttribute generateInitCodeAttribute(int superConstructorCPI) {
         final ByteArrayBytecodeAssembler asm = new ByteArrayBytecodeAssembler(constantPoolEditor);
@@ -284,6 +361,11 @@ public class InvocationStubGenerator<T> {
                 generatedConstructorStubInitTemplate = generateInitCodeAttribute(GeneratedConstructorStub_init);
             }
             codeAttributeTemplate = generatedConstructorStubInitTemplate;
+        } else if (superClass == SharedMethodInvocationStub.class) {
+            if (generatedSharedMethodStubInitTemplate == null) {
+                generatedSharedMethodStubInitTemplate = generateInitCodeAttribute(GeneratedSharedMethodStub_init);
+            }
+            codeAttributeTemplate = generatedSharedMethodStubInitTemplate;
         } else {
             ProgramError.check(superClass == MethodInvocationStub.class);
             if (generatedMethodStubInitTemplate == null) {
@@ -340,6 +422,42 @@ public class InvocationStubGenerator<T> {
             objParameter = boxing == Boxing.JAVA ? asm.allocateLocal(Kind.REFERENCE) : -1;
             argsParameter = asm.allocateLocal(Kind.REFERENCE);
 
+            if (isShared) {
+                // Invocations are forwarded to the member's own stub once it has been generated. Otherwise
+                // the checks that depend on the target are done before the shape specific code is entered.
+                //
+                // aload this
+                // getfield <memberStub>
+                // ifnull <check label>
+                // aload this
+                // getfield <memberStub>
+                // aload obj
+                // aload args
+                // invokevirtual <MethodInvocationStub.invoke>
+                // areturn
+                // <check label:>
+                // aload this
+                // aload obj
+                // aload args
+                // invokevirtual <SharedMethodInvocationStub.checkArguments>
+                final Label checkLabel = asm.newLabel();
+                asm.aload(0);
+                asm.getfield(SharedMethodInvocationStub_memberStub);
+                asm.ifnull(checkLabel);
+                asm.aload(0);
+                asm.getfield(SharedMethodInvocationStub_memberStub);
+                asm.aload(objParameter);
+                asm.aload(argsParameter);
+                asm.invokevirtual(MethodInvocationStub_invoke, 3, 1);
+                asm.areturn();
+                checkLabel.bind();
+                asm.aload(0);
+                asm.aload(objParameter);
+                asm.aload(argsParameter);
+                asm.invokevirtual(SharedMethodInvocationStub_checkArguments, 3, 0);
+                illegalArgStartPC = asm.currentAddress();
+            }
+
             // Get target object on operand stack if necessary.
 
             // We need to do an explicit null check here; we won't see
@@ -438,6 +556,13 @@ public class InvocationStubGenerator<T> {
         // OK, ready to perform the invocation.
         if (isConstructor) {
             asm.invokespecial(targetCPI, argSlots, 0);
+        } else if (isShared) {
+            // aload this
+            // getfield <memberName>
+            // invokestatic <MethodHandle.linkTo*>
+            asm.aload(0);
+            asm.getfield(SharedMethodInvocationStub_memberName);
+            asm.invokestatic(targetCPI, argSlots + 1, returnKind.stackSlots);
         } else {
             final int returnValueSlots = returnKind.stackSlots;
             if (isStatic) {
@@ -661,6 +786,7 @@ public class InvocationStubGenerator<T> {
 
     static final int GeneratedConstructorStub_init = register(createClassMethodConstant(ConstructorInvocationStub.class));
     static final int GeneratedMethodStub_init = register(createClassMethodConstant(MethodInvocationStub.class));
+    static final int GeneratedSharedMethodStub_init = register(createClassMethodConstant(SharedMethodInvocationStub.class));
     static final int NullPointerException_init = register(createClassMethodConstant(NullPointerException.class));
     static final int IllegalArgumentException_init = register(createClassMethodConstant(IllegalArgumentException.class));
     static final int IllegalArgumentException_init_String = register(createClassMethodConstant(IllegalArgumentException.class, String.class));
@@ -669,6 +795,11 @@ public class InvocationStubGenerator<T> {
 
     static final int Object_toString = register(createClassMethodConstant(Object.class, SymbolTable.makeSymbol("toString")));
 
+    static final int MethodInvocationStub_invoke = register(createClassMethodConstant(MethodInvocationStub.class, invoke, Object.class, Object[].class));
+    static final int SharedMethodInvocationStub_checkArguments = register(createClassMethodConstant(SharedMethodInvocationStub.class, SymbolTable.makeSymbol("checkArguments"), Object.class, Object[].class));
+    static final int SharedMethodInvocationStub_memberStub = register(createFieldConstant(SharedMethodInvocationStub.class, SymbolTable.makeSymbol("memberStub")));
+    static final int SharedMethodInvocationStub_memberName = register(createFieldConstant(SharedMethodInvocationStub.class, SymbolTable.makeSymbol("memberName")));
+
     static final int Word_asOffset = register(createClassMethodConstant(Word.class, SymbolTable.makeSymbol("asOffset")));
     static final int Word_asAddress = register(createClassMethodConstant(Word.class, SymbolTable.makeSymbol("asAddress")));
     static final int Word_asPointer = register(createClassMethodConstant(Word.class, SymbolTable.makeSymbol("asPointer")));
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.reflection;
+
+import java.lang.reflect.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+
+/**
+ * A stub for invoking a method reflectively whose code is shared by all methods with the same shape. The shape of a
+ * method is its kind of invocation together with its signature where all reference types are erased to
+ * {@link Object}. Each method has its own instance of the stub class for its shape, which links to the method through
+ * a {@code MemberName}.
+ * <p>
+ * Shared stubs avoid defining a new class for every method invoked reflectively, which matters most for call sites of
+ * {@link Method#invoke(Object, Object...)} that see many different methods. Once a method has been invoked
+ * {@link #ReflectionInflationThreshold} times through its shared stub, the
+ * {@linkplain InvocationStub#newMethodStub(Method, Boxing) stub for the method} is generated and all further
+ * invocations are forwarded to it. That stub calls the method directly and can be inlined when the compiler folds a
+ * constant {@link Method}.
+ *
+ * @see InvocationStub#newSharedMethodStub(Method)
+ */
+public abstract class SharedMethodInvocationStub extends MethodInvocationStub {
+
+    /**
+     * Number of invocations of a method through its shared stub before the stub for the method is generated.
+     * A value of 0 disables shared stubs.
+     */
+    static int ReflectionInflationThreshold = 15;
+
+    static {
+        VMOptions.addFieldOption("-XX:", "ReflectionInflationThreshold", SharedMethodInvocationStub.class,
+            "Number of reflective invocations of a method before a stub is generated for the method (0 = always).");
+    }
+
+    SharedMethodInvocationStub() {
+        // MUST BE EMPTY
+    }
+
+    /**
+     * The {@code MemberName} for the method, passed to the {@code MethodHandle.linkTo*} call in the generated code.
+     */
+    @CONSTANT
+    protected Object memberName;
+
+    /**
+     * The stub generated for the method once it has been invoked often enough.
+     */
+    @CONSTANT_WHEN_NOT_ZERO
+    protected MethodInvocationStub memberStub;
+
+    private Method method;
+    private ClassActor holder;
+    private boolean isStatic;
+    private Class[] parameterTypes;
+    private int invocations;
+
+    /**
+     * Binds this stub to a method. This must be done before the stub is published.
+     */
+    final void bind(Method method, Object memberName) {
+        this.method = method;
+        this.memberName = memberName;
+        this.holder = ClassActor.fromJava(method.getDeclaringClass());
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+        this.parameterTypes = method.getParameterTypes();
+        setTarget(method);
+    }
+
+    /**
+     * Performs the checks that depend on the bound method rather than on the shape. This is called by the generated
+     * code before the arguments are unboxed. A null receiver and a wrong number of arguments are left to the
+     * generated code.
+     */
+    protected final void checkArguments(Object obj, Object[] args) throws IllegalArgumentException {
+        if (++invocations >= ReflectionInflationThreshold) {
+            // A racing thread may also inflate the stub. Both get the same cached stub for the method.
+            memberStub = InvocationStub.newMethodStub(method, Boxing.JAVA);
+        }
+        if (isStatic) {
+            if (!holder.isInitialized()) {
+                holder.makeInitialized();
+            }
+        } else if (obj != null && !method.getDeclaringClass().isInstance(obj)) {
+            throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+        if (args != null && args.length == parameterTypes.length) {
+            for (int i = 0; i < args.length; i++) {
+                final Class parameterType = parameterTypes[i];
+                final Object arg = args[i];
+                if (arg != null && !parameterType.isPrimitive() && !parameterType.isInstance(arg)) {
+                    throw new IllegalArgumentException("argument type mismatch");
+                }
+            }
+        }
+    }
+}
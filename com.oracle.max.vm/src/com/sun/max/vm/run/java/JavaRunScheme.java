@@ -32,6 +32,7 @@ import com.sun.max.vm.actor.member.MethodActor;
 import com.sun.max.vm.actor.member.StaticMethodActor;
 import com.sun.max.vm.compiler.deopt.Deoptimization;
 import com.sun.max.vm.heap.Heap;
+import com.sun.max.vm.heap.SpecialReferenceManager;
 import com.sun.max.vm.hosted.CompiledPrototype;
 import com.sun.max.vm.instrument.InstrumentationManager;
 import com.sun.max.vm.jni.JniFunctions;
@@ -46,6 +47,7 @@ import com.sun.max.vm.ti.VMTI;
 import com.sun.max.vm.type.Kind;
 import com.sun.max.vm.type.SignatureDescriptor;
 import com.sun.max.vm.type.VMClassLoader;
+import com.sun.max.vm.verifier.VerificationCache;
 import sun.misc.Launcher;
 import sun.misc.Signal;
 
@@ -269,6 +271,7 @@ public class JavaRunScheme extends AbstractVMScheme implements RunScheme {
         // Now we can decode all the other VM arguments using the full language
         if (VMOptions.parseStarting()) {
             VMLog.checkLogOptions();
+            VMLog.vmLog().initialize(MaxineVM.Phase.STARTING);
 
             vmConfig().initializeSchemes(MaxineVM.Phase.STARTING);
             if (Heap.ExcessiveGCFrequency != 0) {
@@ -320,6 +323,8 @@ public class JavaRunScheme extends AbstractVMScheme implements RunScheme {
             MaxineVM vm = vm();
             vm.phase = Phase.RUNNING;
             vmConfig().initializeSchemes(MaxineVM.Phase.RUNNING);
+            SpecialReferenceManager.initialize(MaxineVM.Phase.RUNNING);
+            VerificationCache.initialize();
             mainClassName = getMainClassName();
             VMTI.handler().vmInitialized();
             VMTI.handler().threadStart(VmThread.current());
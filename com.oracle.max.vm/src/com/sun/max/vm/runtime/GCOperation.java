@@ -107,16 +107,50 @@ public abstract class GCOperation extends VmOperation {
             stackReferenceMapPreparer.completeStackReferenceMap(tla);
             stackReferenceMapPreparationTime += stackReferenceMapPreparer.preparationTime();
         }
+        countStackFrames(vmThread);
+    }
+
+    /**
+     * Adds the number of frames whose reference map was prepared or reused for a given thread
+     * to the totals for the current GC.
+     */
+    private void countStackFrames(VmThread vmThread) {
+        final StackReferenceMapPreparer stackReferenceMapPreparer = vmThread.stackReferenceMapPreparer();
+        preparedStackFrames += stackReferenceMapPreparer.preparedFrames();
+        reusedStackFrames += stackReferenceMapPreparer.reusedFrames();
     }
 
     @Override
     protected void doBeforeThawingThread(VmThread thread) {
         // Indicates that the stack reference map for the thread is once-again unprepared.
         LOWEST_ACTIVE_STACK_SLOT_ADDRESS.store3(thread.tla(), Address.zero());
+        if (enclosing == null) {
+            // Bound the part of the stack the next GC needs to prepare
+            thread.stackReferenceMapPreparer().armReturnBarrier(thread);
+        }
+    }
+
+    @Override
+    protected boolean disarmsReturnBarriers() {
+        // Return barriers are disarmed while preparing stack reference maps
+        return false;
     }
 
     long stackReferenceMapPreparationTime;
 
+    /**
+     * The number of frames whose reference map was prepared during the current GC.
+     */
+    long preparedStackFrames;
+
+    /**
+     * The number of frames whose reference map was reused from the previous GC during the current GC.
+     *
+     * @see StackReferenceMapPreparer#ReuseStackReferenceMaps
+     * @see ReturnBarrier
+     */
+    long reusedStackFrames;
+
     public GCOperation(String name) {
         super(name == null ? "GC" : name, null, Mode.Safepoint, false);
     }
@@ -142,6 +176,8 @@ public abstract class GCOperation extends VmOperation {
             Heap.timeLogger.logStackReferenceMapPreparationTime(stackReferenceMapPreparationTime);
             stackReferenceMapPreparationTime = 0;
         }
+        preparedStackFrames = 0;
+        reusedStackFrames = 0;
 
         if (!nested) {
             // Notify the reference handler thread so it can process any pending references.
@@ -159,6 +195,7 @@ public abstract class GCOperation extends VmOperation {
         // The next 2 statements *must* be adjacent as the reference map for this frame must
         // be the same at both calls.
         stackReferenceMapPreparationTime = VmThreadLocal.prepareCurrentStackReferenceMap();
+        countStackFrames(VmThread.current());
         collect();
     }
 
@@ -189,6 +226,11 @@ public abstract class GCOperation extends VmOperation {
             Log.print(" Kb, free: ");
             Log.print(beforeFree / k);
             Log.println(" Kb --");
+            Log.print("--Stack frames prepared: ");
+            Log.print(preparedStackFrames);
+            Log.print(", reused: ");
+            Log.print(reusedStackFrames);
+            Log.println(" --");
             Log.unlock(lockDisabledSafepoints);
         }
 
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.runtime;
+
+import static com.sun.max.vm.intrinsics.Infopoints.*;
+import static com.sun.max.vm.runtime.VMRegister.*;
+import static com.sun.max.vm.runtime.VmOperation.*;
+import static com.sun.max.vm.thread.VmThreadLocal.*;
+
+import java.util.concurrent.atomic.*;
+
+import com.oracle.max.cri.intrinsics.*;
+import com.sun.max.annotate.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.reference.*;
+import com.sun.max.vm.stack.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * A closure that is run on behalf of a single target thread without stopping any other thread.
+ * In contrast to a {@link VmOperation}, a handshake is not executed by the {@linkplain VmOperationThread VM operation
+ * thread} and never requires a global safepoint. It is run by exactly one of:
+ * <ul>
+ * <li>the target thread itself, the next time it {@linkplain SafepointPoll polls} for a safepoint, or</li>
+ * <li>the requesting thread, if the target thread is in native code. In this case the target thread is
+ * {@linkplain VmOperation frozen} for the duration of the handshake exactly as if it were being operated on by a
+ * VM operation, and the requesting thread holds {@link VmThreadMap#THREAD_LOCK} so that no VM operation can
+ * run concurrently.</li>
+ * </ul>
+ * Either way, the thread requesting the handshake is blocked until it has completed. As the closure
+ * may be run by the requesting thread while holding the thread lock, it must not trigger a garbage
+ * collection, block or request a VM operation.
+ * <p>
+ * A thread has at most one pending handshake. Requests for a thread that already has a pending handshake
+ * wait for that handshake to complete first.
+ */
+public abstract class Handshake {
+
+    private static final int IDLE = 0;
+    private static final int PENDING = 1;
+    private static final int CLAIMED = 2;
+    private static final int DONE = 3;
+
+    /**
+     * A descriptive name of this handshake. This value is only used for tracing.
+     */
+    public final String name;
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    /**
+     * The exception (if any) raised by {@link #doThread} when it was run by the target thread.
+     */
+    private Throwable error;
+
+    protected Handshake(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Performs this handshake for a thread. If the thread was stopped in native code before the call to
+     * {@link VmThread#run} then the {@code ip}, {@code sp} and {@code fp} arguments will be {@link Pointer#zero()}.
+     * Otherwise, these arguments denote the last Java frame of the thread at the point the handshake is performed.
+     *
+     * @param vmThread the thread for which the handshake is being performed
+     * @param ip instruction pointer of the last Java frame of {@code vmThread}
+     * @param sp stack pointer of the last Java frame of {@code vmThread}
+     * @param fp frame pointer of the last Java frame of {@code vmThread}
+     */
+    protected abstract void doThread(VmThread vmThread, Pointer ip, Pointer sp, Pointer fp);
+
+    /**
+     * Runs this handshake for a given thread, blocking the current thread until it has completed.
+     * If {@code thread} is the current thread, the handshake is performed immediately.
+     *
+     * @param thread the thread for which the handshake is to be performed
+     * @return {@code true} if the handshake was performed, {@code false} if {@code thread} is not
+     *         running (i.e. it has not started or has terminated)
+     */
+    public final boolean run(VmThread thread) {
+        if (thread == VmThread.current()) {
+            runOnCurrentThread(thread);
+            return true;
+        }
+        FatalError.check(!Thread.holdsLock(VmThreadMap.THREAD_LOCK), "Cannot request a handshake while holding the thread lock");
+        FatalError.check(state.get() == IDLE, "Handshake is already in use");
+
+        traceHandshake("Requested for ", thread);
+        error = null;
+        state.set(PENDING);
+        try {
+            int steps = 0;
+            while (!install(thread)) {
+                if (state.get() == DONE) {
+                    // The thread is not running
+                    return false;
+                }
+                waitForHandshakePause(steps++);
+            }
+
+            steps = 0;
+            while (state.get() != DONE) {
+                synchronized (VmThreadMap.THREAD_LOCK) {
+                    if (!isRunning(thread)) {
+                        // The thread terminated before it polled for a safepoint. Once a thread
+                        // has been removed from the thread map it cannot run any more Java code.
+                        if (state.compareAndSet(PENDING, DONE)) {
+                            return false;
+                        }
+                    } else {
+                        tryRunForFrozenThread(thread);
+                    }
+                }
+                if (state.get() != DONE) {
+                    waitForHandshakePause(steps++);
+                }
+            }
+        } finally {
+            state.set(IDLE);
+        }
+
+        if (error != null) {
+            Throwable t = error;
+            error = null;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw (InternalError) new InternalError().initCause(t);
+        }
+        return true;
+    }
+
+    @NEVER_INLINE
+    private void runOnCurrentThread(VmThread thread) {
+        doThread(thread, Pointer.fromLong(here()), getCpuStackPointer(), getCpuFramePointer());
+    }
+
+    /**
+     * Determines if a given thread is in the global thread list. The caller must hold {@link VmThreadMap#THREAD_LOCK}.
+     */
+    private static boolean isRunning(VmThread thread) {
+        int id = thread.id();
+        return id > 0 && !thread.tla().isZero() && VmThreadMap.ACTIVE.getVmThreadForID(id) == thread;
+    }
+
+    /**
+     * Makes this handshake the pending handshake of a given thread and triggers a safepoint trap for that thread.
+     *
+     * @return {@code true} if this handshake was installed or {@code thread} is not running (in which case this
+     *         handshake is marked as done), {@code false} if {@code thread} already has a pending handshake
+     */
+    private boolean install(VmThread thread) {
+        synchronized (VmThreadMap.THREAD_LOCK) {
+            if (!isRunning(thread)) {
+                state.set(DONE);
+                return false;
+            }
+            final Pointer tla = thread.tla();
+            final Pointer etla = ETLA.load(tla);
+            if (!etla.compareAndSwapReference(HANDSHAKE.offset, null, Reference.fromJava(this)).isZero()) {
+                return false;
+            }
+            // Any VM operation currently freezing the thread has completed as we hold the thread lock
+            SAFEPOINT_LATCH.store(etla, TTLA.load(tla));
+
+            // Try now in case the thread is already blocked in native code
+            tryRunForFrozenThread(thread);
+            return true;
+        }
+    }
+
+    /**
+     * Runs this handshake on the current thread on behalf of a thread that is in native code. The caller
+     * must hold {@link VmThreadMap#THREAD_LOCK}.
+     */
+    private void tryRunForFrozenThread(VmThread thread) {
+        if (!UseCASBasedThreadFreezing) {
+            // Wait for the thread to poll
+            return;
+        }
+        final Pointer tla = thread.tla();
+        final Pointer etla = ETLA.load(tla);
+        if (!etla.compareAndSwapWord(MUTATOR_STATE.offset, THREAD_IN_NATIVE, THREAD_IS_FROZEN).equals(THREAD_IN_NATIVE)) {
+            return;
+        }
+        try {
+            if (state.compareAndSet(PENDING, CLAIMED)) {
+                traceHandshake("Running in native for ", thread);
+                Pointer frameAnchor = JavaFrameAnchor.from(tla);
+                try {
+                    if (frameAnchor.isZero()) {
+                        // The thread has not yet executed any Java code
+                        doThread(thread, Pointer.zero(), Pointer.zero(), Pointer.zero());
+                    } else {
+                        doThread(thread, JavaFrameAnchor.PC.get(frameAnchor), JavaFrameAnchor.SP.get(frameAnchor), JavaFrameAnchor.FP.get(frameAnchor));
+                    }
+                } finally {
+                    complete(etla);
+                }
+            }
+        } finally {
+            // Thaw the thread: it is blocked on the thread lock if it tried to return to Java in the meantime
+            MUTATOR_STATE.store(etla, THREAD_IN_NATIVE);
+        }
+    }
+
+    private void complete(Pointer etla) {
+        HANDSHAKE.store(etla, Reference.zero());
+        state.set(DONE);
+    }
+
+    /**
+     * Runs the pending handshake (if any) of the current thread. This is called by the {@linkplain Trap trap} handler
+     * when the current thread traps at a safepoint, with safepoints disabled. Once there is no pending handshake or
+     * {@linkplain VmOperation VM operation} for the current thread, its safepoint latch is reset.
+     *
+     * @param etla the safepoints-enabled thread locals of the current thread
+     * @param ttla the safepoints-triggered thread locals of the current thread
+     * @param ip the instruction pointer at which the thread trapped
+     * @param sp the stack pointer at which the thread trapped
+     * @param fp the frame pointer at which the thread trapped
+     */
+    static void runPending(Pointer etla, Pointer ttla, Pointer ip, Pointer sp, Pointer fp) {
+        final Reference reference = HANDSHAKE.loadRef(etla);
+        if (!reference.isZero()) {
+            final Handshake handshake = (Handshake) reference.toJava();
+            if (handshake.state.compareAndSet(PENDING, CLAIMED)) {
+                final VmThread thread = VmThread.fromTLA(etla);
+                handshake.traceHandshake("Running at safepoint for ", thread);
+                try {
+                    handshake.doThread(thread, ip, sp, fp);
+                } catch (Throwable t) {
+                    handshake.error = t;
+                } finally {
+                    handshake.complete(etla);
+                }
+            }
+        }
+
+        if (VM_OPERATION.loadRef(etla).isZero()) {
+            // Disarm the safepoint latch. A VM operation or handshake requested concurrently always
+            // publishes itself before storing to the latch so re-checking after the CAS is sufficient.
+            etla.compareAndSwapWord(SAFEPOINT_LATCH.offset, ttla, etla);
+            if (!VM_OPERATION.loadRef(etla).isZero() || !HANDSHAKE.loadRef(etla).isZero()) {
+                SAFEPOINT_LATCH.store(etla, ttla);
+            }
+        }
+    }
+
+    /**
+     * Pauses the requesting thread while waiting for a handshake to complete.
+     */
+    private static void waitForHandshakePause(int steps) {
+        if (steps < SafepointSpinBeforeYield) {
+            Intrinsics.pause();
+        } else if (steps < SafepointSpinBeforeYield + 100) {
+            Thread.yield();
+        } else {
+            VmThread.nonJniSleep(1);
+        }
+    }
+
+    private void traceHandshake(String msg, VmThread thread) {
+        if (VmOperationThread.TraceVmOperations) {
+            boolean lockDisabledSafepoints = Log.lock();
+            Log.print("Handshake[");
+            Log.print(name);
+            Log.print("]: ");
+            Log.print(msg);
+            Log.printThread(thread, true);
+            Log.unlock(lockDisabledSafepoints);
+        }
+    }
+}
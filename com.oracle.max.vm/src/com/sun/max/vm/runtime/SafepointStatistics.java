@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.runtime;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.log.VMLog.*;
+import com.sun.max.vm.log.hosted.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * Records how long {@linkplain VmOperation VM operations} take to bring their target threads to a safepoint
+ * and how long they then keep them there. For each operation that requires a safepoint, three intervals are
+ * measured on the VM operation thread:
+ * <ul>
+ * <li><b>sync</b>: from the start of freezing until the last targeted thread is frozen</li>
+ * <li><b>freeze</b>: for each targeted thread, the time from the start of freezing until that thread was frozen</li>
+ * <li><b>operation</b>: the time spent in {@link VmOperation#doIt()} while all targeted threads are frozen</li>
+ * </ul>
+ * The totals and a histogram of the sync and pause times are kept for the lifetime of the VM. They are
+ * reported on VM exit by {@code -XX:+PrintSafepointStatistics}, are available to the
+ * {@linkplain com.sun.max.vm.management.SafepointManagement management} interfaces and individual
+ * measurements can be logged with {@code -XX:+LogSafepoint}.
+ * <p>
+ * All updates are made by the VM operation thread while it holds {@link VmThreadMap#THREAD_LOCK}, so no
+ * synchronization is needed for the updates themselves. Readers on other threads may see slightly stale values.
+ * Nothing in this class allocates once the VM is running, as it is used by operations that disable allocation.
+ */
+public final class SafepointStatistics {
+
+    private SafepointStatistics() {
+    }
+
+    /**
+     * Number of histogram buckets. Bucket {@code 0} holds intervals shorter than 1 microsecond,
+     * bucket {@code i} holds intervals in the range {@code [2^(i-1), 2^i)} microseconds and the
+     * last bucket holds everything longer.
+     */
+    public static final int HISTOGRAM_BUCKETS = 24;
+
+    @RESET
+    private static long safepointCount;
+
+    @RESET
+    private static long totalSyncNanos;
+
+    @RESET
+    private static long totalOperationNanos;
+
+    @RESET
+    private static long totalPauseNanos;
+
+    @RESET
+    private static long maxSyncNanos;
+
+    @RESET
+    private static long maxPauseNanos;
+
+    /**
+     * The name of the operation during which {@link #maxSyncNanos} was recorded.
+     */
+    @RESET
+    private static String maxSyncOperation;
+
+    /**
+     * The name of the thread that was last to freeze in the operation with the longest sync time.
+     */
+    @RESET
+    private static String maxSyncLastThread;
+
+    private static final long[] syncHistogram = new long[HISTOGRAM_BUCKETS];
+
+    private static final long[] pauseHistogram = new long[HISTOGRAM_BUCKETS];
+
+    public static final VMBooleanOption PrintSafepointStatisticsOption = VMOptions.register(new VMBooleanOption("-XX:-PrintSafepointStatistics",
+            "Report time-to-safepoint and safepoint pause statistics on VM exit.") {
+        @Override
+        protected void beforeExit() {
+            if (getValue()) {
+                print();
+            }
+        }
+    }, MaxineVM.Phase.STARTING);
+
+    /**
+     * Gets the histogram bucket for an interval.
+     *
+     * @param nanos an interval in nanoseconds
+     */
+    public static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        if (micros <= 0) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return bucket < HISTOGRAM_BUCKETS ? bucket : HISTOGRAM_BUCKETS - 1;
+    }
+
+    /**
+     * Gets the inclusive lower bound (in microseconds) of the intervals counted in a given histogram bucket.
+     */
+    public static long bucketLowerBoundMicros(int bucket) {
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+    /**
+     * Records the time taken to freeze a single thread.
+     *
+     * @param thread the thread just frozen
+     * @param freezeNanos time from the start of freezing until {@code thread} was frozen
+     */
+    static void recordThreadFrozen(VmThread thread, long freezeNanos) {
+        if (logger.enabled()) {
+            logger.logThreadFrozen(thread, freezeNanos);
+        }
+    }
+
+    /**
+     * Records the sync time of an operation.
+     *
+     * @param operation the operation that has just frozen all its target threads
+     * @param threads the number of threads frozen by the operation
+     * @param syncNanos time taken to freeze all {@code threads}
+     * @param lastThread the last thread to freeze or {@code null} if no thread was frozen
+     * @param nested specifies if {@code operation} is nested in another operation
+     */
+    static void recordSync(VmOperation operation, int threads, long syncNanos, VmThread lastThread, boolean nested) {
+        if (lastThread != null && logger.enabled()) {
+            logger.logSync(operation.name, threads, syncNanos, lastThread);
+        }
+        if (nested) {
+            // The enclosing operation already accounts for the time its threads spent at the safepoint
+            return;
+        }
+        safepointCount++;
+        totalSyncNanos += syncNanos;
+        syncHistogram[bucket(syncNanos)]++;
+        if (syncNanos > maxSyncNanos) {
+            maxSyncNanos = syncNanos;
+            maxSyncOperation = operation.name;
+            maxSyncLastThread = lastThread == null ? null : lastThread.getName();
+        }
+    }
+
+    /**
+     * Records the operation and total pause time of an operation.
+     *
+     * @param operation the operation that has just run
+     * @param operationNanos time spent running {@link VmOperation#doIt()}
+     * @param pauseNanos time from the start of freezing until the targeted threads were thawed
+     * @param nested specifies if {@code operation} is nested in another operation
+     */
+    static void recordRun(VmOperation operation, long operationNanos, long pauseNanos, boolean nested) {
+        if (logger.enabled()) {
+            logger.logRun(operation.name, operationNanos, pauseNanos);
+        }
+        if (nested) {
+            return;
+        }
+        totalOperationNanos += operationNanos;
+        totalPauseNanos += pauseNanos;
+        pauseHistogram[bucket(pauseNanos)]++;
+        if (pauseNanos > maxPauseNanos) {
+            maxPauseNanos = pauseNanos;
+        }
+    }
+
+    /**
+     * Gets the number of safepoints reached by (non-nested) VM operations.
+     */
+    public static long safepointCount() {
+        return safepointCount;
+    }
+
+    /**
+     * Gets the accumulated time (in nanoseconds) spent bringing threads to a safepoint.
+     */
+    public static long totalSyncNanos() {
+        return totalSyncNanos;
+    }
+
+    /**
+     * Gets the accumulated time (in nanoseconds) spent running VM operations at a safepoint.
+     */
+    public static long totalOperationNanos() {
+        return totalOperationNanos;
+    }
+
+    /**
+     * Gets the accumulated time (in nanoseconds) during which threads were stopped for a safepoint,
+     * including both the sync and operation times.
+     */
+    public static long totalPauseNanos() {
+        return totalPauseNanos;
+    }
+
+    /**
+     * Gets the longest sync time (in nanoseconds) observed so far.
+     */
+    public static long maxSyncNanos() {
+        return maxSyncNanos;
+    }
+
+    /**
+     * Gets the longest pause time (in nanoseconds) observed so far.
+     */
+    public static long maxPauseNanos() {
+        return maxPauseNanos;
+    }
+
+    /**
+     * Gets a copy of the sync time histogram.
+     *
+     * @see #bucket(long)
+     */
+    public static long[] syncHistogram() {
+        return syncHistogram.clone();
+    }
+
+    /**
+     * Gets a copy of the pause time histogram.
+     *
+     * @see #bucket(long)
+     */
+    public static long[] pauseHistogram() {
+        return pauseHistogram.clone();
+    }
+
+    /**
+     * Prints a summary of the statistics to the {@linkplain Log log stream}.
+     */
+    public static void print() {
+        boolean lockDisabledSafepoints = Log.lock();
+        Log.println("Safepoint statistics:");
+        Log.print("    safepoints: ");
+        Log.println(safepointCount);
+        printTime("    total sync: ", totalSyncNanos);
+        printTime("    total operation: ", totalOperationNanos);
+        printTime("    total pause: ", totalPauseNanos);
+        printTime("    max pause: ", maxPauseNanos);
+        printTime("    max sync: ", maxSyncNanos);
+        if (maxSyncOperation != null) {
+            Log.print("        during ");
+            Log.print(maxSyncOperation);
+            if (maxSyncLastThread != null) {
+                Log.print(", last thread to freeze was ");
+                Log.print(maxSyncLastThread);
+            }
+            Log.println();
+        }
+        printHistogram("sync", syncHistogram);
+        printHistogram("pause", pauseHistogram);
+        Log.unlock(lockDisabledSafepoints);
+    }
+
+    private static void printTime(String label, long nanos) {
+        Log.print(label);
+        Log.print(nanos / 1000);
+        Log.println("us");
+    }
+
+    private static void printHistogram(String label, long[] histogram) {
+        Log.print("    ");
+        Log.print(label);
+        Log.println(" time histogram (us):");
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] != 0) {
+                Log.print("        >= ");
+                Log.print(bucketLowerBoundMicros(i));
+                Log.print(": ");
+                Log.println(histogram[i]);
+            }
+        }
+    }
+
+    /*
+     * Logging support.
+     */
+
+    public static final SafepointLogger logger = new SafepointLogger();
+
+    @HOSTED_ONLY
+    @VMLoggerInterface(defaultConstructor = true)
+    private interface SafepointLoggerInterface {
+        void sync(
+            @VMLogParam(name = "operation") String operation,
+            @VMLogParam(name = "threads") int threads,
+            @VMLogParam(name = "syncNanos") long syncNanos,
+            @VMLogParam(name = "lastThread") VmThread lastThread);
+
+        void threadFrozen(
+            @VMLogParam(name = "thread") VmThread thread,
+            @VMLogParam(name = "freezeNanos") long freezeNanos);
+
+        void run(
+            @VMLogParam(name = "operation") String operation,
+            @VMLogParam(name = "operationNanos") long operationNanos,
+            @VMLogParam(name = "pauseNanos") long pauseNanos);
+    }
+
+    public static final class SafepointLogger extends SafepointLoggerAuto {
+        SafepointLogger() {
+            super("Safepoint", "time-to-safepoint, per-thread freeze and VM operation times.");
+        }
+
+        @Override
+        protected void traceSync(String operation, int threads, long syncNanos, VmThread lastThread) {
+            Log.print("VmOperation[");
+            Log.print(operation);
+            Log.print("]: froze ");
+            Log.print(threads);
+            Log.print(" thread(s) in ");
+            Log.print(syncNanos / 1000);
+            Log.print("us");
+            if (lastThread != null) {
+                Log.print(", last was ");
+                Log.printThread(lastThread, false);
+            }
+            Log.println();
+        }
+
+        @Override
+        protected void traceThreadFrozen(VmThread thread, long freezeNanos) {
+            Log.print("VmOperation: froze ");
+            Log.printThread(thread, false);
+            Log.print(" after ");
+            Log.print(freezeNanos / 1000);
+            Log.println("us");
+        }
+
+        @Override
+        protected void traceRun(String operation, long operationNanos, long pauseNanos) {
+            Log.print("VmOperation[");
+            Log.print(operation);
+            Log.print("]: ran in ");
+            Log.print(operationNanos / 1000);
+            Log.print("us, pause ");
+            Log.print(pauseNanos / 1000);
+            Log.println("us");
+        }
+    }
+
+// START GENERATED CODE
+    private static abstract class SafepointLoggerAuto extends com.sun.max.vm.log.VMLogger {
+        public enum Operation {
+            Run, Sync, ThreadFrozen;
+
+            @SuppressWarnings("hiding")
+            public static final Operation[] VALUES = values();
+        }
+
+        private static final int[] REFMAPS = new int[] {0x1, 0x1, 0x0};
+
+        protected SafepointLoggerAuto(String name, String optionDescription) {
+            super(name, Operation.VALUES.length, optionDescription, REFMAPS);
+        }
+
+        protected SafepointLoggerAuto() {
+        }
+
+        @Override
+        public String operationName(int opCode) {
+            return Operation.VALUES[opCode].name();
+        }
+
+        @INLINE
+        public final void logRun(String operation, long operationNanos, long pauseNanos) {
+            log(Operation.Run.ordinal(), objectArg(operation), longArg(operationNanos), longArg(pauseNanos));
+        }
+        protected abstract void traceRun(String operation, long operationNanos, long pauseNanos);
+
+        @INLINE
+        public final void logSync(String operation, int threads, long syncNanos, VmThread lastThread) {
+            log(Operation.Sync.ordinal(), objectArg(operation), intArg(threads), longArg(syncNanos), vmThreadArg(lastThread));
+        }
+        protected abstract void traceSync(String operation, int threads, long syncNanos, VmThread lastThread);
+
+        @INLINE
+        public final void logThreadFrozen(VmThread thread, long freezeNanos) {
+            log(Operation.ThreadFrozen.ordinal(), vmThreadArg(thread), longArg(freezeNanos));
+        }
+        protected abstract void traceThreadFrozen(VmThread thread, long freezeNanos);
+
+        @Override
+        protected void trace(Record r) {
+            switch (r.getOperation()) {
+                case 0: { //Run
+                    traceRun(toString(r, 1), toLong(r, 2), toLong(r, 3));
+                    break;
+                }
+                case 1: { //Sync
+                    traceSync(toString(r, 1), toInt(r, 2), toLong(r, 3), toVmThread(r, 4));
+                    break;
+                }
+                case 2: { //ThreadFrozen
+                    traceThreadFrozen(toVmThread(r, 1), toLong(r, 2));
+                    break;
+                }
+            }
+        }
+    }
+
+// END GENERATED CODE
+}
@@ -136,6 +136,7 @@ public final class Throw {
         if (FatalVMAssertions && StackTraceInThrowable && throwable instanceof AssertionError) {
             Backtrace bt = JDK_java_lang_Throwable.getBacktrace(throwable);
             if (bt != null) {
+                bt.decode();
                 for (int i = 0; i < bt.count; i++) {
                     ClassMethodActor cma = bt.methods[i];
                     if (cma.isInitializer() && AssertionError.class.isAssignableFrom(cma.holder().toJava())) {
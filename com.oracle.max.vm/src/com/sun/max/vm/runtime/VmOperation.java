@@ -310,6 +310,20 @@ public class VmOperation {
     protected void doAtSafepointAfterBlocking(Pointer trapFrame) {
     }
 
+    /**
+     * Gets the value of the safepoint latch for a thread being thawed. The latch is left triggered
+     * if the thread has a pending {@link Handshake} so that the thread runs it at its next safepoint poll.
+     *
+     * @param tla thread locals of the thread about to be thawed
+     */
+    static Pointer thawedSafepointLatch(Pointer tla) {
+        Pointer etla = ETLA.load(tla);
+        if (HANDSHAKE.loadRef(etla).isZero()) {
+            return etla;
+        }
+        return TTLA.load(tla);
+    }
+
     /**
      * Encapsulates the procedure run by the VM operation thread to thaw a frozen thread.
      */
@@ -331,7 +345,7 @@ public class VmOperation {
              * are once again triggered.
              */
             Pointer etla = ETLA.load(tla);
-            SAFEPOINT_LATCH.store(etla, ETLA.load(tla));
+            SAFEPOINT_LATCH.store(etla, thawedSafepointLatch(tla));
 
             VM_OPERATION.store(etla, Reference.zero());
 
@@ -549,6 +563,12 @@ public class VmOperation {
 
                 tracePhase("-- Begin --");
 
+                final boolean nested = enclosing != null;
+                final long syncStart = System.nanoTime();
+                freezeStart = syncStart;
+                frozenThreadCount = 0;
+                lastFrozenThread = null;
+
                 freeze();
 
                 // Ensures updates to safepoint-related control variables are visible to all threads
@@ -557,6 +577,10 @@ public class VmOperation {
 
                 waitUntilFrozen();
 
+                final long syncEnd = System.nanoTime();
+                SafepointStatistics.recordSync(this, frozenThreadCount, syncEnd - syncStart, lastFrozenThread, nested);
+                lastFrozenThread = null;
+
                 boolean oldAtSafepoint = atSafepoint;
                 try {
                     if (singleThread == null) {
@@ -577,9 +601,11 @@ public class VmOperation {
                     error = t;
                 }
                 atSafepoint = oldAtSafepoint;
+                final long operationEnd = System.nanoTime();
 
                 thaw();
 
+                SafepointStatistics.recordRun(this, operationEnd - syncEnd, System.nanoTime() - syncStart, nested);
                 tracePhase("-- End --");
             }
 
@@ -602,6 +628,24 @@ public class VmOperation {
         doIt();
     }
 
+    /**
+     * The {@linkplain System#nanoTime() time} at which the VM operation thread started freezing the threads
+     * targeted by the current execution of this operation.
+     */
+    private long freezeStart;
+
+    /**
+     * The number of threads frozen (and not already frozen by an enclosing operation) by the current
+     * execution of this operation.
+     */
+    private int frozenThreadCount;
+
+    /**
+     * The last thread to reach a safepoint in the current execution of this operation. Only used for
+     * {@linkplain SafepointStatistics statistics} and cleared once they have been recorded.
+     */
+    private VmThread lastFrozenThread;
+
     private final Pointer.Procedure freezeThreadProcedure = new Pointer.Procedure() {
         @Override
         public void run(Pointer tla) {
@@ -701,6 +745,15 @@ public class VmOperation {
         }
     };
 
+    /**
+     * Determines if the {@linkplain ReturnBarrier return barrier} of a thread is disarmed once it is frozen. This
+     * must be the case for any operation that reads or patches return addresses or resumes execution of a thread
+     * other than by returning from its top frame.
+     */
+    protected boolean disarmsReturnBarriers() {
+        return true;
+    }
+
     /**
      * Called by {@link #waitForThreadFreeze(VmThread)}. Subclasses can use this to perform extra actions
      * on a thread once it is frozen.
@@ -788,8 +841,19 @@ public class VmOperation {
                     steps++;
                 }
             }
+
+            // Threads are waited for in sequence so the last thread that had to be waited
+            // for is the last one to have reached the safepoint
+            if (steps != 0 || lastFrozenThread == null) {
+                lastFrozenThread = thread;
+            }
+            frozenThreadCount++;
+            SafepointStatistics.recordThreadFrozen(thread, System.nanoTime() - freezeStart);
         }
 
+        if (disarmsReturnBarriers()) {
+            ReturnBarrier.disarm(tla);
+        }
         doAfterFrozen(thread);
 
         if (TraceVmOperations) {
@@ -841,7 +905,7 @@ public class VmOperation {
          * are once again triggered.
          */
         Pointer etla = ETLA.load(tla);
-        SAFEPOINT_LATCH.store(etla, ETLA.load(tla));
+        SAFEPOINT_LATCH.store(etla, thawedSafepointLatch(tla));
 
         VM_OPERATION.store(etla, Reference.zero());
 
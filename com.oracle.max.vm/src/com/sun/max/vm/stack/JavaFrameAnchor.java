@@ -37,6 +37,11 @@ import com.sun.max.vm.thread.*;
  * The anchor records the {@linkplain #PC instruction}, {@linkplain #SP stack} and {@linkplain #FP frame}
  * pointers of an execution point in a Java frame. Each anchor also points to the anchor further
  * (logically) down the stack of the closest caller that made a thread state transition.
+ * <p>
+ * The {@linkplain #PREPARED} field is zeroed when an anchor is created and is set by the GC once it has
+ * prepared the stack reference map for the frames below the anchor. As long as the anchor is the head of
+ * the list for a thread in native code, those frames cannot have changed and their reference map bits
+ * can be reused by the next GC.
  *
  * The head of the list of frame anchors for a thread is maintained in {@link VmThreadLocal#LAST_JAVA_FRAME_ANCHOR}.
  */
@@ -45,7 +50,15 @@ public enum JavaFrameAnchor {
     PREVIOUS,
     PC,
     SP,
-    FP;
+    FP,
+
+    /**
+     * The number of frames whose reference map was prepared for the stack below this anchor, or zero
+     * if the reference map has not been prepared since this anchor was created.
+     *
+     * @see StackReferenceMapPreparer#prepareStackReferenceMap(Pointer)
+     */
+    PREPARED;
 
     /**
      * The offset of this field within an anchor.
@@ -139,6 +152,7 @@ public enum JavaFrameAnchor {
         SP.set(anchor, sp);
         PC.set(anchor, ip.toAddress());
         PREVIOUS.set(anchor, previousAnchor);
+        PREPARED.set(anchor, Word.zero());
         return anchor;
     }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.stack;
+
+import static com.sun.max.vm.MaxineVM.*;
+import static com.sun.max.vm.compiler.target.Stub.Type.*;
+import static com.sun.max.vm.thread.VmThreadLocal.*;
+
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * A return barrier bounds how much of a thread's stack is walked when the GC prepares the thread's
+ * {@linkplain StackReferenceMapPreparer stack reference map}.
+ * <p>
+ * Just before a thread is thawed after a GC, its barrier is armed by replacing the return address of the frame
+ * {@link #ReturnBarrierDepth} Java frames below the top of its stack with the entry of the
+ * {@linkplain Stubs#returnBarrierStub() return barrier stub}. The frame returned to by that address is the
+ * <i>watermark</i> frame. Neither it nor any of its callers can execute until the watermark frame is returned to,
+ * at which point the stub disarms the barrier and continues at the original return address. If the barrier is
+ * still armed at the next GC, the reference map bits prepared by the previous GC for the callers of the watermark
+ * frame are still valid. Only the frames up to and including the watermark frame are then prepared.
+ * <p>
+ * The original return address is restored whenever control may reach the watermark frame other than by a return,
+ * or the actual return address may be read or patched: when an exception is unwound to the watermark frame or one
+ * of its callers, when a VM operation other than a GC freezes the thread and when the thread's stack reference map
+ * is prepared. Stack walks {@linkplain StackFrameWalker#advance(Word, Word, Word) translate} the stub entry back to
+ * the original return address while the barrier is armed.
+ * <p>
+ * Return barriers are currently only implemented for AMD64.
+ */
+public final class ReturnBarrier extends RawStackFrameVisitor {
+
+    /**
+     * Determines if a return barrier is armed on the stack of each thread after a GC.
+     */
+    public static boolean UseReturnBarrier = true;
+
+    /**
+     * The minimum number of Java frames between the top of a thread's stack and its watermark frame.
+     */
+    public static int ReturnBarrierDepth = 4;
+    static {
+        VMOptions.addFieldOption("-XX:", "UseReturnBarrier", ReturnBarrier.class,
+            "Arm a return barrier on each thread's stack after a GC so that the next GC only prepares the frames below it.");
+        VMOptions.addFieldOption("-XX:", "ReturnBarrierDepth", ReturnBarrier.class,
+            "Minimum number of Java frames above the frame guarded by a thread's return barrier.");
+    }
+
+    /**
+     * Determines if a given code address denotes the entry of the return barrier stub.
+     *
+     * @param ip a code address
+     * @param tm the target method found in the code cache based on {@code ip}
+     */
+    public static boolean isStubEntry(Pointer ip, TargetMethod tm) {
+        return tm != null && tm.is(ReturnBarrierStub) && ip.equals(tm.codeStart().toPointer());
+    }
+
+    /**
+     * Disarms the return barrier of a thread by restoring the return address it replaced.
+     *
+     * @param tla the thread locals of a thread that is either the current thread or frozen
+     * @return {@code true} if the barrier was armed, {@code false} if there was nothing to do
+     */
+    public static boolean disarm(Pointer tla) {
+        Pointer etla = ETLA.load(tla);
+        Pointer returnAddress = RETURN_BARRIER_ADDRESS.load(etla);
+        if (returnAddress.isZero()) {
+            return false;
+        }
+        RETURN_BARRIER_SLOT.load(etla).writeWord(0, returnAddress);
+        RETURN_BARRIER_ADDRESS.store(etla, Address.zero());
+        return true;
+    }
+
+    /**
+     * Disarms the return barrier of the current thread if an exception is about to be unwound to the watermark frame
+     * or one of its callers.
+     *
+     * @param sp the stack pointer of the frame the exception is being unwound to
+     */
+    public static void disarmIfUnwoundTo(Pointer sp) {
+        Pointer etla = ETLA.load(VmThread.currentTLA());
+        if (!RETURN_BARRIER_ADDRESS.load(etla).isZero() && sp.greaterThan(RETURN_BARRIER_SLOT.load(etla))) {
+            disarm(etla);
+        }
+    }
+
+    private int depth;
+    private int watermarkDepth;
+    private Pointer slot = Pointer.zero();
+    private Pointer watermark = Pointer.zero();
+    private Pointer limit = Pointer.zero();
+    private int reusableFrames;
+
+    /**
+     * Arms the return barrier of a frozen thread whose stack reference map has just been prepared.
+     *
+     * @param vmThread the thread
+     * @param frames the number of frames covered by the stack reference map of {@code vmThread}
+     */
+    void arm(VmThread vmThread, int frames) {
+        Pointer tla = vmThread.tla();
+        disarm(tla);
+        watermark = Pointer.zero();
+        limit = Pointer.zero();
+
+        Stub stub = vm().stubs.returnBarrierStub();
+        if (!UseReturnBarrier || stub == null) {
+            return;
+        }
+        Pointer etla = ETLA.load(tla);
+        Pointer anchor = LAST_JAVA_FRAME_ANCHOR.load(etla);
+        if (anchor.isZero() || JavaFrameAnchor.PC.get(anchor).isZero()) {
+            return;
+        }
+
+        depth = 0;
+        slot = Pointer.zero();
+        vmThread.referenceMapPreparingStackFrameWalker().inspect(JavaFrameAnchor.PC.get(anchor), JavaFrameAnchor.SP.get(anchor), JavaFrameAnchor.FP.get(anchor), this);
+        if (limit.isZero()) {
+            watermark = Pointer.zero();
+            return;
+        }
+        reusableFrames = Math.max(0, frames - watermarkDepth);
+
+        RETURN_BARRIER_SLOT.store(etla, slot);
+        RETURN_BARRIER_ADDRESS.store(etla, slot.readWord(0));
+        slot.writeWord(0, stub.codeStart().toAddress());
+    }
+
+    @Override
+    public boolean visitFrame(StackFrameCursor current, StackFrameCursor callee) {
+        TargetMethod tm = current.targetMethod();
+        if (!watermark.isZero()) {
+            // The caller of the watermark frame: its stack pointer bounds the part of the
+            // stack that needs preparing while the barrier is armed.
+            if (tm != null) {
+                limit = current.sp();
+            }
+            return false;
+        }
+        if (tm == null) {
+            return true;
+        }
+        depth++;
+        TargetMethod calleeTM = callee.targetMethod();
+        if (depth > ReturnBarrierDepth && isJavaFrame(tm) && isJavaFrame(calleeTM)) {
+            Pointer returnAddressPointer = calleeTM.returnAddressPointer(callee);
+            // Only guard a direct return to the caller, i.e. not one that has been patched for deoptimization
+            if (returnAddressPointer.readWord(0).equals(current.ipAsPointer())) {
+                slot = returnAddressPointer;
+                watermark = current.sp();
+                watermarkDepth = depth;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if a given target method is a compiled Java method (as opposed to a stub or an adapter).
+     */
+    private static boolean isJavaFrame(TargetMethod tm) {
+        return tm != null && tm.classMethodActor != null;
+    }
+
+    /**
+     * Gets the stack pointer of the watermark frame of the last armed barrier.
+     */
+    Pointer watermark() {
+        return watermark;
+    }
+
+    /**
+     * Gets the stack pointer of the caller of the watermark frame of the last armed barrier. The stack reference map
+     * bits for the slots at and above this address remain valid while the barrier is armed.
+     */
+    Pointer limit() {
+        return limit;
+    }
+
+    /**
+     * Gets the number of frames above the watermark frame of the last armed barrier.
+     */
+    int reusableFrames() {
+        return reusableFrames;
+    }
+}
@@ -84,9 +84,24 @@ public class SourceFrameVisitor extends RawStackFrameVisitor implements TargetMe
         // TODO this value is not stable in the face of deoptimzation as frames can move.
         frameId = current.sp().toLong() << 16;
 
-        trapped = callee.targetMethod() != null && callee.targetMethod().is(TrapStub);
+        final boolean trapped = callee.targetMethod() != null && callee.targetMethod().is(TrapStub);
+        return visitTargetFrame(targetMethod, current.vmIP(), trapped);
+    }
+
+    /**
+     * Visits the source frames of a frame of a compiled method, calling
+     * {@link #visitSourceFrame(ClassMethodActor, int, boolean, long)} for each of them.
+     * This allows a frame that was recorded during a stack walk to be decoded later.
+     *
+     * @param targetMethod the compiled method of the frame
+     * @param ip the execution point in {@code targetMethod}
+     * @param trapped specifies if execution is stopped in the frame at a trap
+     * @return {@code true} if the stack walk should continue
+     */
+    protected boolean visitTargetFrame(TargetMethod targetMethod, CodePointer ip, boolean trapped) {
+        this.trapped = trapped;
         stopped = false;
-        int count = targetMethod.forEachCodePos(this, current.vmIP());
+        int count = targetMethod.forEachCodePos(this, ip);
         if (count == 0 && !stopped) {
             return visitSourceFrame(targetMethod.classMethodActor, -1, trapped, frameId);
         }
@@ -239,6 +239,7 @@ public abstract class StackFrameWalker {
                 proceed = true;
             } else {
                 targetMethod.prepareReferenceMap(current, callee, preparer);
+                preparer.framePrepared();
                 Pointer limit = preparer.completingReferenceMapLimit();
                 if (!limit.isZero() && current.sp().greaterEqual(limit)) {
                     proceed = false;
@@ -251,6 +252,8 @@ public abstract class StackFrameWalker {
             if (calleeTM != null && calleeTM.classMethodActor != null) {
                 stackUnwindingContext.lastCalleeCMA = calleeTM.classMethodActor;
             }
+            // Control may reach this frame through an exception handler instead of the return barrier stub
+            ReturnBarrier.disarmIfUnwoundTo(current.sp());
             targetMethod.catchException(current, callee, stackUnwindingContext);
         } else if (MaxineVM.isHosted() && purpose == Purpose.INSPECTING) {
             // walk the frame for inspecting (Java frames)
@@ -584,6 +587,12 @@ public abstract class StackFrameWalker {
 
         TargetMethod tm = targetMethodForReturnAddress(retAddr);
 
+        // Rescue a return address that has been replaced by an armed return barrier
+        if (ReturnBarrier.isStubEntry(ip, tm)) {
+            ip = readPointer(RETURN_BARRIER_ADDRESS);
+            tm = targetMethodForReturnAddress(ip);
+        }
+
         // Rescue a return address that has been patched for deoptimization
         if (isDeoptStubEntry(ip, tm, callee)) {
             // Since 'ip' denotes the start of a deopt stub, then we're dealing with a patched return address
@@ -67,6 +67,11 @@ import com.sun.max.vm.type.*;
  * Thus the GC does not need to allocate any auxiliary data during root scanning,
  * nor does it need to traverse any objects.
  * This provides a lot of flexibility in GC implementation.
+ * <p>
+ * The bits covering frames that cannot have changed since the previous GC are reused instead of being prepared
+ * again. These are the frames below the last Java frame anchor of a thread that has stayed in native code (see
+ * {@link #ReuseStackReferenceMaps}) and the callers of the watermark frame of an armed {@linkplain ReturnBarrier
+ * return barrier}.
  *
  * ATTENTION: the algorithm below must not allocate any objects from the GC heap,
  * since it is running at a GC safepoint when the global GC lock may already be taken.
@@ -104,6 +109,16 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
             "the stack--as often as possible.", MaxineVM.Phase.PRISTINE);
     }
 
+    /**
+     * Determines if the stack reference map prepared for a thread blocked in native code is reused by
+     * the next GC if the thread has not returned from native code in the meantime.
+     */
+    public static boolean ReuseStackReferenceMaps = true;
+    static {
+        VMOptions.addFieldOption("-XX:", "ReuseStackReferenceMaps", StackReferenceMapPreparer.class,
+            "Reuse the stack reference map of a thread that has stayed in native code since the last GC.");
+    }
+
     private final Timer timer = new SingleUseTimer(HeapScheme.GC_TIMING_CLOCK);
     private Pointer ttla;
     private Pointer referenceMap;
@@ -112,6 +127,9 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
     private final boolean verify;
     private final boolean prepare;
     private long preparationTime;
+    private int preparedFrames;
+    private int reusedFrames;
+    private final ReturnBarrier returnBarrier = new ReturnBarrier();
 
     /**
      * This is used to skip preparation of the reference map for the top frame on a stack.  This is
@@ -266,6 +284,40 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
         return preparationTime;
     }
 
+    /**
+     * Gets the number of frames whose reference map was prepared by the last call to
+     * {@link #prepareStackReferenceMap(Pointer)}, including those of an interleaving call to
+     * {@link #completeStackReferenceMap(Pointer)}.
+     */
+    public int preparedFrames() {
+        return preparedFrames;
+    }
+
+    /**
+     * Gets the number of frames whose reference map was reused instead of prepared by the last call to
+     * {@link #prepareStackReferenceMap(Pointer)}.
+     */
+    public int reusedFrames() {
+        return reusedFrames;
+    }
+
+    /**
+     * Notes that the reference map of a frame has been prepared.
+     */
+    void framePrepared() {
+        preparedFrames++;
+    }
+
+    /**
+     * Arms the {@linkplain ReturnBarrier return barrier} of a frozen thread whose stack reference map has been
+     * prepared by the current GC.
+     *
+     * @param vmThread the thread owning this preparer
+     */
+    public void armReturnBarrier(VmThread vmThread) {
+        returnBarrier.arm(vmThread, preparedFrames + reusedFrames);
+    }
+
     /**
      * Prepares a reference map for the entire stack of a VM thread
      * while the GC has not changed anything yet.
@@ -283,6 +335,8 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
     public long prepareStackReferenceMap(Pointer tla, CodePointer instructionPointer, Pointer stackPointer, Pointer framePointer, boolean ignoreTopFrame) {
         timer.start();
         ignoreCurrentFrame = ignoreTopFrame;
+        preparedFrames = 0;
+        reusedFrames = 0;
         initRefMapFields(tla);
         Pointer highestStackSlot = HIGHEST_STACK_SLOT_ADDRESS.load(tla);
 
@@ -294,14 +348,33 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
             FatalError.unexpected("Cannot use stack reference map preparer of another thread");
         }
 
+        Pointer highestSlot = highestStackSlot;
+        Pointer watermark = Pointer.zero();
+        if (ReturnBarrier.disarm(tla)) {
+            // The watermark frame has not been returned to since the previous GC. Its callers have thus
+            // not changed and neither have the bits covering them in the reference map.
+            watermark = returnBarrier.watermark();
+            highestSlot = returnBarrier.limit().minus(Word.size());
+            FatalError.check(watermark.greaterThan(stackPointer), "Return barrier armed above the top frame");
+        }
+
         // clear the reference map covering the stack contents
-        clearReferenceMapRange(tla, stackPointer, highestStackSlot);
+        clearReferenceMapRange(tla, stackPointer, highestSlot);
 
         boolean lockDisabledSafepoints = logStackRootScanStart(stackPointer, highestStackSlot, vmThread);
 
         // walk the stack and prepare references for each stack frame
         StackFrameWalker sfw = vmThread.referenceMapPreparingStackFrameWalker();
+        completingReferenceMapLimit = watermark;
         sfw.prepareReferenceMap(instructionPointer.toPointer(), stackPointer, framePointer, this);
+        completingReferenceMapLimit = Pointer.zero();
+
+        if (!watermark.isZero()) {
+            reusedFrames = returnBarrier.reusableFrames();
+            if (logStackRootScanning()) {
+                stackRootScanLogger.logReusedMap(vmThread, reusedFrames);
+            }
+        }
 
         logStackRootScanEnd(lockDisabledSafepoints);
 
@@ -402,8 +475,9 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
     }
 
     /**
-     * Gets the lowest stack address for which a stack map has already been completed.
-     * A zero return value indicates that this preparer is not currently in a call to {@link #completeStackReferenceMap(Pointer)}.
+     * Gets the lowest stack address for which a stack map has already been completed, or the stack pointer of the
+     * watermark frame of an armed {@linkplain ReturnBarrier return barrier}. The stack walk stops after the frame at
+     * this address has been prepared. A zero return value indicates that the whole stack is being prepared.
      */
     public Pointer completingReferenceMapLimit() {
         return completingReferenceMapLimit;
@@ -421,6 +495,8 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
     public void prepareStackReferenceMap(Pointer tla) {
         Pointer etla = ETLA.load(tla);
         Pointer anchor = LAST_JAVA_FRAME_ANCHOR.load(etla);
+        preparedFrames = 0;
+        reusedFrames = 0;
         if (anchor.isZero()) {
             // This is a thread that has returned from VmThread.run() but has not
             // yet been terminated via a call to VmThread.detach(). In this state,
@@ -436,7 +512,43 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
         if (instructionPointer.isZero()) {
             FatalError.unexpected("Thread is not stopped");
         }
+        if (ReuseStackReferenceMaps) {
+            int frames = JavaFrameAnchor.PREPARED.get(anchor).toInt();
+            if (frames != 0) {
+                // The thread has not returned from the native call denoted by 'anchor' since its
+                // stack reference map was last prepared. The frames below the anchor are thus
+                // unchanged and so are the bits covering them in the reference map.
+                ReturnBarrier.disarm(tla);
+                reuseStackReferenceMap(tla, stackPointer, frames);
+                return;
+            }
+        }
         prepareStackReferenceMap(tla, instructionPointer, stackPointer, framePointer, false);
+        if (ReuseStackReferenceMaps) {
+            JavaFrameAnchor.PREPARED.set(anchor, Address.fromInt(preparedFrames + reusedFrames));
+        }
+    }
+
+    private void reuseStackReferenceMap(Pointer tla, Pointer stackPointer, int frames) {
+        timer.start();
+        initRefMapFields(tla);
+
+        // Inform subsequent reference map scanning (see VmThreadLocal.scanReferences()) of the stack range covered:
+        LOWEST_ACTIVE_STACK_SLOT_ADDRESS.store3(tla, stackPointer);
+
+        VmThread vmThread = VmThread.fromTLA(tla);
+        if (this != vmThread.stackReferenceMapPreparer()) {
+            FatalError.unexpected("Cannot use stack reference map preparer of another thread");
+        }
+        if (logStackRootScanning()) {
+            boolean lockDisabledSafepoints = logStackRootScanStart(stackPointer, HIGHEST_STACK_SLOT_ADDRESS.load(tla), vmThread);
+            stackRootScanLogger.logReusedMap(vmThread, frames);
+            logStackRootScanEnd(lockDisabledSafepoints);
+        }
+        reusedFrames = frames;
+
+        timer.stop();
+        preparationTime = timer.getLastElapsedTime();
     }
 
     /**
@@ -720,6 +832,9 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
                         @VMLogParam(name = "lowestSlotBitIndex") int lowestSlotBitIndex);
         void emptyMap(
                         @VMLogParam(name = "vmThread") VmThread vmThread);
+        void reusedMap(
+                        @VMLogParam(name = "vmThread") VmThread vmThread,
+                        @VMLogParam(name = "frames") int frames);
         void finalizeMaps(
                         @VMLogParam(name = "interval") Interval interval,
                         @VMLogParam(name = "helper") ReferenceMapEditorLogHelper helper);
@@ -833,6 +948,14 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
             Log.printThread(vmThread, true);
         }
 
+        @Override
+        protected void traceReusedMap(VmThread vmThread, int frames) {
+            Log.print("Reusing stack reference map prepared for ");
+            Log.print(frames);
+            Log.print(" frames of thread ");
+            Log.printThread(vmThread, true);
+        }
+
         @Override
         protected void traceComplete(VmThread vmThread, Pointer highestSlot, int highestSlotBitIndex, Pointer stackPointer,
                         int stackPointerBitIndex, Pointer lowestSlot, int lowestSlotBitIndex) {
@@ -1064,15 +1187,15 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
             ClearedRefMapIndexes, Complete, EmptyMap,
             FinalizeMaps, MapByteBefore, Parameter, Prepare,
             PrintRef, Receiver, ReferenceThreadLocal, RegisterState,
-            Safepoint, ScanThread, SetReferenceMapBits, StackSlot,
-            Start, StartThreadLocals, ThreadSlotRange;
+            ReusedMap, Safepoint, ScanThread, SetReferenceMapBits,
+            StackSlot, Start, StartThreadLocals, ThreadSlotRange;
 
             @SuppressWarnings("hiding")
             public static final Operation[] VALUES = values();
         }
 
-        private static final int[] REFMAPS = new int[] {0x0, 0x0, 0x0, 0x2, 0x4, 0x2, 0x12, 0x0, 0x1, 0x18, 0x1, 0x3, 0x0, 0x20,
-            0x0, 0x0, 0x0, 0x0};
+        private static final int[] REFMAPS = new int[] {0x0, 0x0, 0x0, 0x2, 0x4, 0x2, 0x12, 0x0, 0x1, 0x18, 0x1, 0x0, 0x3, 0x0,
+            0x20, 0x0, 0x0, 0x0, 0x0};
 
         protected StackRootScanLoggerAuto(String name, String optionDescription) {
             super(name, Operation.VALUES.length, optionDescription, REFMAPS);
@@ -1155,6 +1278,12 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
         }
         protected abstract void traceRegisterState(CiRegister reg);
 
+        @INLINE
+        public final void logReusedMap(VmThread vmThread, int frames) {
+            log(Operation.ReusedMap.ordinal(), vmThreadArg(vmThread), intArg(frames));
+        }
+        protected abstract void traceReusedMap(VmThread vmThread, int frames);
+
         @INLINE
         public final void logSafepoint(ReferenceMapEditorLogHelper helper, ReferenceMapInterpreter interpreter, int bci, int safePointIndex) {
             log(Operation.Safepoint.ordinal(), objectArg(helper), objectArg(interpreter), intArg(bci), intArg(safePointIndex));
@@ -1250,31 +1379,35 @@ public final class StackReferenceMapPreparer extends FrameReferenceMapVisitor {
                     traceRegisterState(toCiRegister(r, 1));
                     break;
                 }
-                case 11: { //Safepoint
+                case 11: { //ReusedMap
+                    traceReusedMap(toVmThread(r, 1), toInt(r, 2));
+                    break;
+                }
+                case 12: { //Safepoint
                     traceSafepoint(toReferenceMapEditorLogHelper(r, 1), toReferenceMapInterpreter(r, 2), toInt(r, 3), toInt(r, 4));
                     break;
                 }
-                case 12: { //ScanThread
+                case 13: { //ScanThread
                     traceScanThread(toVmThread(r, 1));
                     break;
                 }
-                case 13: { //SetReferenceMapBits
+                case 14: { //SetReferenceMapBits
                     traceSetReferenceMapBits(toPointer(r, 1), toPointer(r, 2), toPointer(r, 3), toInt(r, 4), toInt(r, 5), toString(r, 6));
                     break;
                 }
-                case 14: { //StackSlot
+                case 15: { //StackSlot
                     traceStackSlot(toInt(r, 1), toPointer(r, 2), toPointer(r, 3), toBoolean(r, 4));
                     break;
                 }
-                case 15: { //Start
+                case 16: { //Start
                     traceStart(toInt(r, 1), toBoolean(r, 2), toPointer(r, 3), toPointer(r, 4), toPointer(r, 5), toVmThread(r, 6), toInt(r, 7), toLong(r, 8));
                     break;
                 }
-                case 16: { //StartThreadLocals
+                case 17: { //StartThreadLocals
                     traceStartThreadLocals();
                     break;
                 }
-                case 17: { //ThreadSlotRange
+                case 18: { //ThreadSlotRange
                     traceThreadSlotRange(toPointer(r, 1), toPointer(r, 2), toPointer(r, 3));
                     break;
                 }
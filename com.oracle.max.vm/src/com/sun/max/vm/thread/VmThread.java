@@ -799,6 +799,9 @@ public class VmThread {
             jniException.printStackTrace();
         }
 
+        // Return any free global JNI handles cached by this thread
+        JniHandles.releaseGlobalHandleCaches(thread);
+
         thread.terminationPending();
 
         synchronized (thread.javaThread) {
@@ -816,6 +819,7 @@ public class VmThread {
             // It is the monitor scheme's responsibility to ensure that this thread isn't
             // reset to RUNNABLE if it blocks here.
             VmThreadMap.ACTIVE.removeThreadLocals(thread);
+            VMLog.vmLog().threadDetached(tla);
         }
         if (MaxineVM.isDebug()) {
             detached();
@@ -286,6 +286,20 @@ public class VmThreadLocal implements FormatWithToString {
     public static final VmThreadLocal STACK_REFERENCE_MAP_SIZE
         = new VmThreadLocal("STACK_REFERENCE_SIZE", false, "size of stack reference map");
 
+    /**
+     * The return address replaced by the entry of the return barrier stub when the thread's {@linkplain ReturnBarrier
+     * return barrier} is armed. A zero value means the barrier is not armed.
+     */
+    public static final VmThreadLocal RETURN_BARRIER_ADDRESS
+        = new VmThreadLocal("RETURN_BARRIER_ADDRESS", false, "return address replaced by an armed return barrier", Nature.Single);
+
+    /**
+     * The address of the stack slot holding the return address replaced by the thread's {@linkplain ReturnBarrier
+     * return barrier}. This value is only meaningful while {@link #RETURN_BARRIER_ADDRESS} is non-zero.
+     */
+    public static final VmThreadLocal RETURN_BARRIER_SLOT
+        = new VmThreadLocal("RETURN_BARRIER_SLOT", false, "stack slot patched by an armed return barrier", Nature.Single);
+
     /**
      * Threads allocate primarily via a TLAB, which is refilled by default from a default heap.
      * Occasionally, a thread may need to allocate outside of this allocator.
@@ -304,6 +318,13 @@ public class VmThreadLocal implements FormatWithToString {
     public static final VmThreadLocal SUSPEND
         = new VmThreadLocal("SUSPEND", false, "Bitset for thread suspension", Nature.Single);
 
+    /**
+     * The {@link Handshake} (if any) pending for a thread. It is run by the thread the next time it traps at a
+     * {@linkplain SafepointPoll safepoint} or by the requesting thread if the thread is in native code.
+     */
+    public static final VmThreadLocal HANDSHAKE
+        = new VmThreadLocal("HANDSHAKE", true, "Handshake to run when a safepoint is triggered", Nature.Single);
+
     private static VmThreadLocal[] valuesNeedingInitialization;
 
     /**
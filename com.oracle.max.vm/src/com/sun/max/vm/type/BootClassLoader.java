@@ -94,7 +94,8 @@ public final class BootClassLoader extends ClassLoader {
     }
 
     private Class resolveClassOrNull(Classpath classpath, String name) {
-        final ClasspathFile classpathFile = classpath.readClassFile(name);
+        final boolean map = !MaxineVM.isHosted() && ClassfileReader.MapClassfiles;
+        final ClasspathFile classpathFile = map ? classpath.mapClassFile(name) : classpath.readClassFile(name);
         if (classpathFile == null) {
             if (vmResolveOk.get()) {
                 // must use class registry, to avoid recursion back here, as boot is parent of vm
@@ -105,7 +106,7 @@ public final class BootClassLoader extends ClassLoader {
             }
             return null;
         }
-        ClassActor classActor = ClassfileReader.defineClassActor(name, this, classpathFile.contents, null, classpathFile.classpathEntry, false);
+        ClassActor classActor = ClassfileReader.defineClassActor(name, this, classpathFile.buffer(), null, classpathFile.classpathEntry, false);
         int cp = name.lastIndexOf('.');
         if (cp != -1) {
             String packageName = name.substring(0, cp + 1).replace('.', '/');
@@ -119,6 +119,15 @@ public final class ClassRegistry {
     public static final FieldActor ClassActor_javaClass = findField(ClassActor.class, "javaClass");
     public static final FieldActor Buffer_address = findField(Buffer.class, "address");
     public static final FieldActor JLRReference_referent = findField(java.lang.ref.Reference.class, "referent");
+    public static final FieldActor Method_methodAccessor = findField(Method.class, "methodAccessor");
+    public static final FieldActor Constructor_constructorAccessor = findField(Constructor.class, "constructorAccessor");
+
+    static {
+        // The accessor of a reflection object is only ever set to a stub for the reflected member. Folding it
+        // lets the compilers turn Method.invoke on a constant Method into a direct call of the stub.
+        Method_methodAccessor.beConstantWhenNotZero();
+        Constructor_constructorAccessor.beConstantWhenNotZero();
+    }
 
     public static final FieldActor SYSTEM_IN = findField(System.class, "in");
     public static final FieldActor SYSTEM_OUT = findField(System.class, "out");
@@ -381,6 +390,7 @@ public final class ClassRegistry {
         ANNOTATION_DEFAULT_BYTES(MethodActor.class, byte[].class, MethodActor.NO_ANNOTATION_DEFAULT_BYTES),
         ACCESSOR(MethodActor.class, Class.class, null),
         INVOCATION_STUB(false, MethodActor.class, InvocationStub.class, null),
+        JAVA_INVOCATION_STUB(false, MethodActor.class, InvocationStub.class, null),
         RUNTIME_VISIBLE_PARAMETER_ANNOTATION_BYTES(MethodActor.class, byte[].class, MethodActor.NO_RUNTIME_VISIBLE_PARAMETER_ANNOTATION_BYTES);
 
         public static final List<Property> VALUES = java.util.Arrays.asList(values());
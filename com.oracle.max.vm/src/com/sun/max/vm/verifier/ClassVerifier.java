@@ -22,16 +22,35 @@
  */
 package com.sun.max.vm.verifier;
 
+import java.util.*;
+import java.util.concurrent.*;
+
 import com.sun.max.vm.*;
 import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
 import com.sun.max.vm.classfile.*;
+import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.type.*;
 
 /**
  * An instance of {@code ClassVerifier} is created to verify the methods in a given class.
  */
 public abstract class ClassVerifier extends Verifier {
 
+    /**
+     * The number of threads used to verify the methods of a class in parallel. A value of 0 means
+     * that all methods are verified on the thread initializing the class.
+     */
+    private static final VMIntOption verifierThreadsOption = VMOptions.register(new VMIntOption("-XX:VerifierThreads=", 0,
+        "Number of threads verifying the methods of a class in parallel (0 = verify on the initializing thread)."), MaxineVM.Phase.PRISTINE);
+
+    /**
+     * The minimum number of methods a class must have before its methods are verified in parallel.
+     */
+    private static final int PARALLEL_VERIFICATION_MIN_METHODS = 8;
+
+    private static ForkJoinPool verifierPool;
+
     public final ClassActor classActor;
     protected ClassVerifier(ClassActor classActor) {
         super(classActor.constantPool());
@@ -46,20 +65,40 @@ public abstract class ClassVerifier extends Verifier {
         if (TraceVerifierLevel >= TRACE_CLASS) {
             Log.println("[Verifying class " + classActor.name + "]");
         }
-        verifyMethods(classActor.localVirtualMethodActors());
-        verifyMethods(classActor.localStaticMethodActors());
-        verifyMethods(classActor.localInterfaceMethodActors());
+        final List<ClassMethodActor> classMethodActors = new ArrayList<ClassMethodActor>();
+        gatherMethods(classActor.localVirtualMethodActors(), classMethodActors);
+        gatherMethods(classActor.localStaticMethodActors(), classMethodActors);
+        gatherMethods(classActor.localInterfaceMethodActors(), classMethodActors);
+
+        if (VerificationCache.isVerified(classActor)) {
+            for (ClassMethodActor classMethodActor : classMethodActors) {
+                classMethodActor.beVerified();
+            }
+            if (TraceVerifierLevel >= TRACE_CLASS) {
+                Log.println("[Verified class " + classActor.name + " (cached)]");
+            }
+            return;
+        }
+
+        if (shouldVerifyInParallel(classMethodActors.size())) {
+            verifyInParallel(classMethodActors);
+        } else {
+            for (ClassMethodActor classMethodActor : classMethodActors) {
+                verifyMethod(classMethodActor);
+            }
+        }
+        VerificationCache.recordVerified(classActor, resolvedClassActors());
         if (TraceVerifierLevel >= TRACE_CLASS) {
             Log.println("[Verified class " + classActor.name + "]");
         }
     }
 
-    private void verifyMethods(MethodActor[] methodActors) {
+    private static void gatherMethods(MethodActor[] methodActors, List<ClassMethodActor> classMethodActors) {
         for (MethodActor methodActor : methodActors) {
             if (methodActor instanceof ClassMethodActor && !methodActor.isProxyToDefault()) {
                 final ClassMethodActor classMethodActor = (ClassMethodActor) methodActor;
                 if (classMethodActor.compilee() == classMethodActor) {
-                    verifyMethod(classMethodActor);
+                    classMethodActors.add(classMethodActor);
                 } else {
                     // Cannot verify substituted methods as the receiver and holder type will not match
                 }
@@ -71,6 +110,100 @@ public abstract class ClassVerifier extends Verifier {
         classMethodActor.verify(this);
     }
 
+    /**
+     * Determines if the methods of {@linkplain #classActor the class} should be verified in parallel.
+     */
+    private boolean shouldVerifyInParallel(int methodCount) {
+        return !MaxineVM.isHosted() && verifierThreadsOption.getValue() > 0 && methodCount >= PARALLEL_VERIFICATION_MIN_METHODS;
+    }
+
+    /**
+     * Thrown by a verifier on a {@linkplain #verifierPool() verifier thread} that needs a class that has not been
+     * loaded yet.
+     */
+    private static final class UnloadedClassException extends RuntimeException {
+        public static final long serialVersionUID = -2470355012765348139L;
+
+        UnloadedClassException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Determines if this verifier runs on a verifier thread and so must not load classes.
+     */
+    private boolean loadedClassesOnly;
+
+    /**
+     * Resolves a type, throwing {@link UnloadedClassException} instead of loading a class if this verifier
+     * runs on a verifier thread.
+     */
+    @Override
+    public ClassActor resolve(TypeDescriptor type) {
+        if (loadedClassesOnly && !type.isResolvableWithoutClassLoading(constantPool().classLoader())) {
+            throw new UnloadedClassException();
+        }
+        return super.resolve(type);
+    }
+
+    private static synchronized ForkJoinPool verifierPool() {
+        if (verifierPool == null) {
+            verifierPool = new ForkJoinPool(verifierThreadsOption.getValue());
+        }
+        return verifierPool;
+    }
+
+    /**
+     * Verifies a number of methods in parallel. Each method is verified with its own {@link ClassVerifier}
+     * as the state of a verifier is not thread safe. The first verification error (in the order of
+     * {@code classMethodActors}) is rethrown on the current thread.
+     *
+     * The verifier threads do not load classes: loading a class with the class's loader could deadlock with
+     * a class loading lock held by the current thread, which is waiting for the verifier threads. A method
+     * whose verification needs a class that has not been loaded yet is instead verified on the current thread
+     * once the other methods have been verified.
+     */
+    private void verifyInParallel(List<ClassMethodActor> classMethodActors) {
+        final List<Callable<ClassVerifier>> tasks = new ArrayList<Callable<ClassVerifier>>(classMethodActors.size());
+        for (final ClassMethodActor classMethodActor : classMethodActors) {
+            tasks.add(new Callable<ClassVerifier>() {
+                public ClassVerifier call() {
+                    final ClassVerifier methodVerifier = Verifier.verifierFor(classActor);
+                    methodVerifier.verbose = verbose;
+                    methodVerifier.loadedClassesOnly = true;
+                    try {
+                        methodVerifier.verifyMethod(classMethodActor);
+                    } catch (UnloadedClassException e) {
+                        return null;
+                    }
+                    return methodVerifier;
+                }
+            });
+        }
+        final List<Future<ClassVerifier>> futures = verifierPool().invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                final ClassVerifier methodVerifier = futures.get(i).get();
+                if (methodVerifier == null) {
+                    verifyMethod(classMethodActors.get(i));
+                } else {
+                    addResolvedClassActors(methodVerifier);
+                }
+            } catch (InterruptedException e) {
+                throw FatalError.unexpected("Interrupted while verifying " + classActor.name, e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw FatalError.unexpected("Error verifying " + classActor.name, cause);
+            }
+        }
+    }
+
     /**
      * Performs bytecode verification on a given method.
      */
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.max.vm.verifier;
+
+import java.io.*;
+import java.nio.*;
+import java.security.*;
+import java.util.*;
+
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.type.*;
+
+/**
+ * A cache of the classes that have passed bytecode verification that persists across VM executions.
+ * A class is identified by a digest of its class file. The result of verifying a class also depends on
+ * the classes that were resolved while verifying it. These are recorded (together with their super types)
+ * along with a digest of their class files. A cached result is only used if resolving the recorded classes
+ * through the loader of the class being verified yields classes with the same digests.
+ * <p>
+ * Classes loaded by the {@linkplain BootClassLoader boot class loader} are assumed not to change while the boot
+ * image is unchanged. The cache is discarded if it was written by a VM running a different boot image.
+ * <p>
+ * As a cached result causes a class to skip verification, the cache file must be trusted in the same way as the
+ * class path: it is written so that it is only readable and writable by its owner, and must not be shared with or
+ * writable by other users. The file ends with a digest of its contents, which detects a corrupt (e.g. truncated)
+ * file but does not authenticate it. A corrupt file is ignored (and replaced on exit).
+ * <p>
+ * Only classes with a version number greater than 50 are cached. Older class files are verified by the
+ * {@linkplain TypeInferencingVerifier type inferencing verifier} which may also rewrite their code.
+ */
+public final class VerificationCache {
+
+    private VerificationCache() {
+    }
+
+    private static final VMStringOption cacheFileOption = VMOptions.register(new VMStringOption("-XX:VerificationCache=", false, null,
+        "File in which the classes that passed verification are recorded across VM executions."), MaxineVM.Phase.STARTING);
+
+    private static final int MAGIC = 0x56455243;
+
+    /**
+     * Identifies the boot image that writes or reads a verification cache file.
+     */
+    private static final long BOOT_IMAGE_STAMP = new Random().nextLong();
+
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    /**
+     * A set of classes resolved while verifying a class and the digest of their class files.
+     */
+    private static final class Dependencies {
+        final String[] typeDescriptors;
+        final byte[] digest;
+
+        Dependencies(String[] typeDescriptors, byte[] digest) {
+            this.typeDescriptors = typeDescriptors;
+            this.digest = digest;
+        }
+
+        boolean sameAs(Dependencies other) {
+            return Arrays.equals(typeDescriptors, other.typeDescriptors) && Arrays.equals(digest, other.digest);
+        }
+    }
+
+    private static volatile boolean enabled;
+    private static File cacheFile;
+    private static MessageDigest digestPrototype;
+    private static boolean modified;
+
+    /**
+     * Map from class file digests to the dependencies with which the class passed verification.
+     */
+    private static final Map<String, List<Dependencies>> verifiedClasses = new HashMap<String, List<Dependencies>>();
+
+    /**
+     * Determines if the verification cache is enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables the cache if {@code -XX:VerificationCache} was specified. This must be called once the VM is running
+     * and before application classes are loaded.
+     */
+    public static void initialize() {
+        final String path = cacheFileOption.getValue();
+        if (path == null) {
+            return;
+        }
+        try {
+            digestPrototype = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            Log.println("WARNING: verification cache disabled as " + DIGEST_ALGORITHM + " is not available");
+            return;
+        }
+        cacheFile = new File(path);
+        if (cacheFile.isFile()) {
+            load();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread("VerificationCache") {
+            @Override
+            public void run() {
+                save();
+            }
+        });
+        enabled = true;
+    }
+
+    /**
+     * Records the digest of the class file from which a class was defined in {@link ClassActor#classfileDigest}.
+     */
+    public static void recordClassfile(ClassActor classActor, ByteBuffer classfile) {
+        if (enabled && classActor.classLoader != BootClassLoader.BOOT_CLASS_LOADER) {
+            final MessageDigest messageDigest = newMessageDigest();
+            messageDigest.update(classfile);
+            classActor.classfileDigest = messageDigest.digest();
+        }
+    }
+
+    /**
+     * Determines if a class passed verification in a previous execution with the same dependencies.
+     */
+    public static boolean isVerified(ClassActor classActor) {
+        final byte[] classfileDigest = classfileDigest(classActor);
+        if (classfileDigest == null) {
+            return false;
+        }
+        final List<Dependencies> candidates;
+        synchronized (verifiedClasses) {
+            final List<Dependencies> list = verifiedClasses.get(toHexString(classfileDigest));
+            if (list == null) {
+                return false;
+            }
+            candidates = new ArrayList<Dependencies>(list);
+        }
+        for (Dependencies dependencies : candidates) {
+            final ClassActor[] classActors = new ClassActor[dependencies.typeDescriptors.length];
+            try {
+                for (int i = 0; i < classActors.length; i++) {
+                    final TypeDescriptor typeDescriptor = JavaTypeDescriptor.parseTypeDescriptor(dependencies.typeDescriptors[i]);
+                    classActors[i] = ClassActor.fromJava(typeDescriptor.resolveType(classActor.classLoader));
+                }
+            } catch (LinkageError linkageError) {
+                // Let verification report the error, if any
+                continue;
+            }
+            if (Arrays.equals(dependencies.digest, digest(dependencies.typeDescriptors, classActors))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records that a class passed verification.
+     *
+     * @param classActor the class that was verified
+     * @param resolvedClassActors the classes resolved while verifying {@code classActor}
+     */
+    public static void recordVerified(ClassActor classActor, Set<ClassActor> resolvedClassActors) {
+        final byte[] classfileDigest = classfileDigest(classActor);
+        if (classfileDigest == null || resolvedClassActors == null) {
+            return;
+        }
+        final SortedMap<String, ClassActor> dependencyMap = new TreeMap<String, ClassActor>();
+        addSuperTypes(classActor, dependencyMap);
+        for (ClassActor resolvedClassActor : resolvedClassActors) {
+            addDependency(resolvedClassActor, dependencyMap);
+        }
+        dependencyMap.remove(classActor.typeDescriptor.toString());
+
+        final String[] typeDescriptors = dependencyMap.keySet().toArray(new String[dependencyMap.size()]);
+        final byte[] digest = digest(typeDescriptors, dependencyMap.values().toArray(new ClassActor[dependencyMap.size()]));
+        if (digest == null) {
+            // At least one of the dependencies was not defined from a class file
+            return;
+        }
+        add(toHexString(classfileDigest), new Dependencies(typeDescriptors, digest));
+    }
+
+    private static byte[] classfileDigest(ClassActor classActor) {
+        if (!enabled || classActor.majorVersion <= 50) {
+            return null;
+        }
+        return classActor.classfileDigest;
+    }
+
+    private static void addDependency(ClassActor classActor, Map<String, ClassActor> dependencyMap) {
+        final ClassActor dependency = classActor.isArrayClass() ? classActor.elementClassActor() : classActor;
+        if (dependency.isPrimitiveClassActor()) {
+            return;
+        }
+        if (dependencyMap.put(dependency.typeDescriptor.toString(), dependency) == null) {
+            addSuperTypes(dependency, dependencyMap);
+        }
+    }
+
+    private static void addSuperTypes(ClassActor classActor, Map<String, ClassActor> dependencyMap) {
+        if (classActor.superClassActor != null) {
+            addDependency(classActor.superClassActor, dependencyMap);
+        }
+        for (InterfaceActor interfaceActor : classActor.localInterfaceActors()) {
+            addDependency(interfaceActor, dependencyMap);
+        }
+    }
+
+    /**
+     * Computes a digest over the names and class file digests of a set of classes.
+     *
+     * @return {@code null} if the class file digest of one of the classes is not known
+     */
+    private static byte[] digest(String[] typeDescriptors, ClassActor[] classActors) {
+        final MessageDigest messageDigest = newMessageDigest();
+        for (int i = 0; i < typeDescriptors.length; i++) {
+            final ClassActor classActor = classActors[i];
+            messageDigest.update(typeDescriptors[i].getBytes());
+            messageDigest.update((byte) 0);
+            if (classActor.classLoader != BootClassLoader.BOOT_CLASS_LOADER) {
+                final byte[] classfileDigest = classActor.classfileDigest;
+                if (classfileDigest == null) {
+                    return null;
+                }
+                messageDigest.update(classfileDigest);
+            }
+        }
+        return messageDigest.digest();
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            try {
+                return MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+                throw new InternalError(DIGEST_ALGORITHM + " no longer available");
+            }
+        }
+    }
+
+    private static String toHexString(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void add(String key, Dependencies dependencies) {
+        synchronized (verifiedClasses) {
+            List<Dependencies> list = verifiedClasses.get(key);
+            if (list == null) {
+                list = new ArrayList<Dependencies>(1);
+                verifiedClasses.put(key, list);
+            }
+            for (Dependencies existing : list) {
+                if (existing.sameAs(dependencies)) {
+                    return;
+                }
+            }
+            list.add(dependencies);
+            modified = true;
+        }
+    }
+
+    /**
+     * Loads the cache file, which consists of a header ({@code int magic, long bootImageStamp, int length}),
+     * {@code length} bytes of entries and the digest of the header and the entries.
+     */
+    private static void load() {
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (in.readInt() != MAGIC || in.readLong() != BOOT_IMAGE_STAMP) {
+                    // Written by a different boot image
+                    return;
+                }
+                final int length = in.readInt();
+                if (length < 0 || length > cacheFile.length()) {
+                    Log.println("WARNING: ignoring corrupt verification cache " + cacheFile);
+                    return;
+                }
+                final byte[] entries = new byte[length];
+                in.readFully(entries);
+                final byte[] expected = newMessageDigest().digest(contents(entries));
+                final byte[] actual = new byte[expected.length];
+                in.readFully(actual);
+                if (!MessageDigest.isEqual(expected, actual)) {
+                    Log.println("WARNING: ignoring corrupt verification cache " + cacheFile);
+                    return;
+                }
+                readEntries(new DataInputStream(new ByteArrayInputStream(entries)));
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            Log.println("WARNING: error reading verification cache " + cacheFile + ": " + e);
+        }
+        synchronized (verifiedClasses) {
+            modified = false;
+        }
+    }
+
+    /**
+     * Gets the digested contents of a cache file, i.e. the header followed by the entries.
+     */
+    private static byte[] contents(byte[] entries) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + entries.length);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeLong(BOOT_IMAGE_STAMP);
+        out.writeInt(entries.length);
+        out.write(entries);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void readEntries(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final String key = in.readUTF();
+            final String[] typeDescriptors = new String[in.readInt()];
+            for (int j = 0; j < typeDescriptors.length; j++) {
+                typeDescriptors[j] = in.readUTF();
+            }
+            final byte[] digest = new byte[in.readInt()];
+            in.readFully(digest);
+            add(key, new Dependencies(typeDescriptors, digest));
+        }
+    }
+
+    private static byte[] writeEntries() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        int count = 0;
+        for (List<Dependencies> list : verifiedClasses.values()) {
+            count += list.size();
+        }
+        out.writeInt(count);
+        for (Map.Entry<String, List<Dependencies>> entry : verifiedClasses.entrySet()) {
+            for (Dependencies dependencies : entry.getValue()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(dependencies.typeDescriptors.length);
+                for (String typeDescriptor : dependencies.typeDescriptors) {
+                    out.writeUTF(typeDescriptor);
+                }
+                out.writeInt(dependencies.digest.length);
+                out.write(dependencies.digest);
+            }
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void save() {
+        synchronized (verifiedClasses) {
+            if (!modified) {
+                return;
+            }
+            final File tmpFile = new File(cacheFile.getPath() + ".tmp");
+            try {
+                final byte[] contents = contents(writeEntries());
+                tmpFile.delete();
+                final OutputStream out = new FileOutputStream(tmpFile);
+                try {
+                    // Only the owner may read or replace the cache
+                    tmpFile.setReadable(false, false);
+                    tmpFile.setWritable(false, false);
+                    tmpFile.setReadable(true, true);
+                    tmpFile.setWritable(true, true);
+                    out.write(contents);
+                    out.write(newMessageDigest().digest(contents));
+                } finally {
+                    out.close();
+                }
+                if (!tmpFile.renameTo(cacheFile)) {
+                    cacheFile.delete();
+                    tmpFile.renameTo(cacheFile);
+                }
+                modified = false;
+            } catch (IOException e) {
+                Log.println("WARNING: error writing verification cache " + cacheFile + ": " + e);
+                tmpFile.delete();
+            }
+        }
+    }
+}
@@ -162,10 +162,17 @@ public class Verifier implements VerificationRegistry {
     private IntHashMap<Subroutine> subroutines;
     public boolean verbose;
 
+    /**
+     * The classes {@linkplain #resolve(TypeDescriptor) resolved} by this verifier. This is only
+     * non-null if the {@linkplain VerificationCache verification cache} is enabled.
+     */
+    private final Set<ClassActor> resolvedClassActors;
+
     public Verifier(ConstantPool constantPool) {
         this.constantPool = constantPool;
         this.objectTypes = new HashMap<TypeDescriptor, ObjectType>();
         this.uninitializedNewTypes = new IntHashMap<UninitializedNewType>();
+        this.resolvedClassActors = VerificationCache.isEnabled() ? new HashSet<ClassActor>() : null;
 
         for (ObjectType objectType : PREDEFINED_OBJECT_TYPES) {
             objectTypes.put(objectType.typeDescriptor(), objectType);
@@ -237,6 +244,26 @@ public class Verifier implements VerificationRegistry {
      * Resolves a given TypeDescriptor to a class actor.
      */
     public ClassActor resolve(TypeDescriptor type) {
-        return ClassActor.fromJava(type.resolveType(constantPool().classLoader()));
+        final ClassActor classActor = ClassActor.fromJava(type.resolveType(constantPool().classLoader()));
+        if (resolvedClassActors != null) {
+            resolvedClassActors.add(classActor);
+        }
+        return classActor;
+    }
+
+    /**
+     * Gets the classes resolved by this verifier or {@code null} if they are not being recorded.
+     */
+    Set<ClassActor> resolvedClassActors() {
+        return resolvedClassActors;
+    }
+
+    /**
+     * Adds the classes resolved by another verifier to the set of classes resolved by this verifier.
+     */
+    void addResolvedClassActors(Verifier verifier) {
+        if (resolvedClassActors != null && verifier.resolvedClassActors != null) {
+            resolvedClassActors.addAll(verifier.resolvedClassActors);
+        }
     }
 }
@@ -24,6 +24,7 @@ package com.oracle.max.vma.tools.gen.vma.runtime;
 
 import static com.oracle.max.vma.tools.gen.vma.AdviceGeneratorHelper.*;
 import java.lang.reflect.*;
+import java.util.*;
 
 import com.oracle.max.vm.ext.vma.*;
 import com.oracle.max.vm.ext.vma.runtime.*;
@@ -37,6 +38,13 @@ public class VMAStaticBytecodeAdviceGenerator {
         createGenerator(VMAStaticBytecodeAdviceGenerator.class);
         generateAutoComment();
 
+        Set<String> kinds = new HashSet<String>();
+        for (Method m : BytecodeAdvice.class.getDeclaredMethods()) {
+            if (kinds.add(m.getName())) {
+                out.printf("    private static final int %s = VMAdviceSampler.kind(\"%s\");%n", kindName(m), m.getName());
+            }
+        }
+        out.println();
         for (Method m : BytecodeAdvice.class.getDeclaredMethods()) {
             generateStatic(m);
         }
@@ -48,10 +56,19 @@ public class VMAStaticBytecodeAdviceGenerator {
         out.printf("    @NEVER_INLINE%n");
         int argCount = generateSignature(m, "static");
         out.printf(" {%n");
+        // arg1 is the bci, tagged with the method slot, see VMAdviceSampler
+        out.printf("        if (VMAdviceSampler.skip(%s, arg1)) {%n", kindName(m));
+        out.println("            return;");
+        out.println("        }");
         out.printf("        disableAdvising();%n");
         out.println("        try {");
-        out.printf("            adviceHandler().%s(", m.getName());
-        generateInvokeArgs(argCount);
+        out.printf("            adviceHandler().%s(VMAdviceSampler.bci(arg1)", m.getName());
+        if (argCount > 1) {
+            out.print(", ");
+            generateInvokeArgs(argCount, 2);
+        } else {
+            out.printf(");%n");
+        }
         out.println("        } catch (Throwable t) {");
         out.println("            debug(t);");
         out.println("        } finally {");
@@ -60,5 +77,18 @@ public class VMAStaticBytecodeAdviceGenerator {
         out.printf("    }%n%n");
     }
 
+    private static String kindName(Method m) {
+        String name = m.getName().substring("advise".length());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(ch)) {
+                sb.append('_');
+            }
+            sb.append(Character.toUpperCase(ch));
+        }
+        return sb.append("_KIND").toString();
+    }
+
 
 }
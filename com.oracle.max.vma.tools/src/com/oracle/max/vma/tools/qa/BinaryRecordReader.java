@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa;
+
+import static com.oracle.max.vm.ext.vma.store.bin.VMABinaryStoreFormat.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+import com.oracle.max.vm.ext.vma.store.bin.*;
+import com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.Key;
+
+/**
+ * Reads a store written by {@link VMABinaryStore} through a sliding memory-mapped window, returning each record
+ * split into the same parts as {@link com.oracle.max.vma.tools.log.ConvertLog#split} produces for the
+ * equivalent text record.
+ */
+class BinaryRecordReader extends ProcessLog.RecordReader {
+
+    /**
+     * Size of the mapped window, which bounds the address space used irrespective of the size of the store.
+     */
+    private static final long WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private static final Key[] KEYS = Key.values();
+
+    /**
+     * Cache of the strings for small non-negative values, which are the majority (bci, short forms, relative time).
+     */
+    private static final String[] SMALL_NUMBERS = new String[4096];
+
+    static {
+        for (int i = 0; i < SMALL_NUMBERS.length; i++) {
+            SMALL_NUMBERS[i] = Integer.toString(i);
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+    private final ArrayList<String> parts = new ArrayList<String>();
+    private byte[] stringBytes = new byte[256];
+    private int lastKeyOrdinal;
+
+    BinaryRecordReader(File path) throws IOException {
+        file = new RandomAccessFile(path, "r");
+        channel = file.getChannel();
+        size = channel.size();
+        map(0);
+        if (window.remaining() < HEADER_SIZE || window.getInt() != MAGIC) {
+            close();
+            throw new IOException(path + " is not a binary VMA store");
+        }
+        int version = window.getInt();
+        if (version != VERSION) {
+            close();
+            throw new IOException(path + ": unsupported binary VMA store version " + version);
+        }
+    }
+
+    /**
+     * Determines if {@code path} is a binary store.
+     */
+    static boolean isBinary(File path) throws IOException {
+        DataInputStream in = new DataInputStream(new FileInputStream(path));
+        try {
+            return in.readInt() == MAGIC;
+        } catch (EOFException ex) {
+            return false;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Converts a binary store to the equivalent text store, for tools that only handle text.
+     */
+    static void toText(File in, File out) throws IOException {
+        BinaryRecordReader reader = new BinaryRecordReader(in);
+        PrintStream ps = new PrintStream(new BufferedOutputStream(new FileOutputStream(out)));
+        try {
+            String[] record;
+            while ((record = reader.readLine()) != null) {
+                Key key = KEYS[reader.lastKeyOrdinal];
+                for (int i = 0; i < record.length; i++) {
+                    if (i > 0) {
+                        ps.print(' ');
+                    }
+                    if (i == 1 && key == Key.THREAD_DEFINITION) {
+                        ps.print('"');
+                        ps.print(record[i]);
+                        ps.print('"');
+                    } else {
+                        ps.print(record[i]);
+                    }
+                }
+                ps.println();
+            }
+        } finally {
+            ps.close();
+            reader.close();
+        }
+    }
+
+    private void map(long position) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        window.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private boolean atEnd() {
+        return windowStart + window.position() >= size;
+    }
+
+    private int get() throws IOException {
+        if (!window.hasRemaining()) {
+            if (atEnd()) {
+                throw new EOFException();
+            }
+            map(windowStart + window.position());
+        }
+        return window.get() & 0xFF;
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private int getInt() throws IOException {
+        return (get() << 24) | (get() << 16) | (get() << 8) | get();
+    }
+
+    @Override
+    public String[] readLine() throws IOException {
+        if (atEnd()) {
+            return null;
+        }
+        parts.clear();
+        final int keyByte = get();
+        lastKeyOrdinal = keyByte & ~TEXT_KEY_BIT;
+        final Key key = KEYS[lastKeyOrdinal];
+        parts.add((keyByte & TEXT_KEY_BIT) != 0 ? key.text : key.code);
+        while (true) {
+            final int tag = get();
+            switch (tag) {
+                case END:
+                    return parts.toArray(new String[parts.size()]);
+                case LONG: {
+                    final long value = unZigZag(getVarint());
+                    parts.add(value >= 0 && value < SMALL_NUMBERS.length ? SMALL_NUMBERS[(int) value] : Long.toString(value));
+                    break;
+                }
+                case FLOAT:
+                    parts.add(Float.toString(Float.intBitsToFloat(getInt())));
+                    break;
+                case DOUBLE: {
+                    final long high = getInt() & 0xFFFFFFFFL;
+                    parts.add(Double.toString(Double.longBitsToDouble((high << 32) | (getInt() & 0xFFFFFFFFL))));
+                    break;
+                }
+                case STRING: {
+                    final int length = (int) getVarint();
+                    if (length > stringBytes.length) {
+                        stringBytes = new byte[length];
+                    }
+                    for (int i = 0; i < length; i++) {
+                        stringBytes[i] = (byte) get();
+                    }
+                    parts.add(new String(stringBytes, 0, length, "UTF-8"));
+                    break;
+                }
+                case CHAR:
+                    parts.add(String.valueOf((char) getVarint()));
+                    break;
+                case TRUE:
+                    parts.add("true");
+                    break;
+                case FALSE:
+                    parts.add("false");
+                    break;
+                default:
+                    throw new IOException("corrupt binary VMA store at offset " + (windowStart + window.position() - 1));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
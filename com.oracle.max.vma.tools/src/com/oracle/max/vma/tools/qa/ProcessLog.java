@@ -50,6 +50,10 @@ import com.sun.max.program.*;
  * The log must be time ordered for the main body of the code to work properly.
  * An unordered log is detected automatically and converted using {@link ConvertLog}.
  *
+ * A store written by {@link com.oracle.max.vm.ext.vma.store.bin.VMABinaryStore} is detected by its magic number
+ * and read directly through a memory-mapped {@link BinaryRecordReader}. Batched and per-thread binary stores are
+ * first decoded to text, since the merging is done by {@link ConvertLog}.
+ *
  *
  */
 public class ProcessLog {
@@ -401,36 +405,51 @@ public class ProcessLog {
         return length / AVG_LINE_LENGTH;
     }
 
-    private TraceRun doProcessTrace(String dataDirName) throws IOException {
-        long chunkStartTime = System.currentTimeMillis();
-        long processStartTime = chunkStartTime;
+    /**
+     * Opens the trace in {@code dataDirName} for reading records in time order, without processing them.
+     * This is used by {@link com.oracle.max.vma.tools.qa.stream.StreamingLog}, which analyzes the records
+     * as they are read rather than building a {@link TraceRun}.
+     *
+     * @param dataDirName a store file or a store directory
+     * @return a reader positioned at the {@link Key#INITIALIZE_STORE} record
+     */
+    public static RecordReader openTrace(String dataDirName, boolean verbose) throws IOException {
+        return new ProcessLog(verbose, Integer.MAX_VALUE).openReader(dataDirName);
+    }
 
+    private RecordReader openReader(String dataDirName) throws IOException {
         File dataDir = new File(dataDirName);
-        File dataFile =  null;
-        if (dataDir.isDirectory()) {
-            dataFile = new File(dataDir, VMAStoreFile.GLOBAL_STORE);
-        } else {
-            dataFile = dataDir;
-        }
-
-        int adviceRecordListCountEstimate = 0;
-        RecordReader reader = null;
-
+        File dataFile = getDataFile(dataDir);
         if (dataFile.exists()) {
-            adviceRecordListCountEstimate = estimateRecordCount(new File[] {dataFile});
-            reader = checkTimeOrdered(dataFile);
+            return checkTimeOrdered(dataFile);
         } else {
             // either a per-thread store or an error
             if (dataDir.isDirectory()) {
-                adviceRecordListCountEstimate = estimateRecordCount(dataDir.listFiles());
                 PushReader pushReader = new PushReader();
-                reader = pushReader;
-                new PushReaderThread(dataDir.listFiles(), pushReader).start();
+                new PushReaderThread(decodeBinary(dataDir.listFiles()), pushReader).start();
+                return pushReader;
             } else {
                 throw new FileNotFoundException(dataDirName);
             }
         }
+    }
 
+    private static File getDataFile(File dataDir) {
+        if (dataDir.isDirectory()) {
+            return new File(dataDir, VMAStoreFile.GLOBAL_STORE);
+        } else {
+            return dataDir;
+        }
+    }
+
+    private TraceRun doProcessTrace(String dataDirName) throws IOException {
+        long chunkStartTime = System.currentTimeMillis();
+        long processStartTime = chunkStartTime;
+
+        File dataDir = new File(dataDirName);
+        File dataFile = getDataFile(dataDir);
+        RecordReader reader = openReader(dataDirName);
+        int adviceRecordListCountEstimate = estimateRecordCount(dataFile.exists() ? new File[] {dataFile} : dataDir.listFiles());
 
         if (verbose) {
             System.out.println("processing trace file " + dataDirName + " starting");
@@ -523,12 +542,16 @@ public class ProcessLog {
     }
 
     private RecordReader checkTimeOrdered(File file) throws IOException {
-        BufferedRecordReader reader = new BufferedRecordReader(new BufferedReader(new FileReader(file)));
+        final boolean binary = BinaryRecordReader.isBinary(file);
+        RecordReader reader = binary ? new BinaryRecordReader(file) : new BufferedRecordReader(new BufferedReader(new FileReader(file)));
         recordParts = reader.readLine();
         checkStoreHeader();
         reader.close();
         int mode = Integer.parseInt(recordParts[3]);
         if ((mode & BATCHED) != 0) {
+            if (binary) {
+                file = decodeBinary(file);
+            }
             // not time ordered, run the converter to a temp file
             if (verbose) {
                 System.out.println("creating time ordered log from per-thread batched log");
@@ -542,10 +565,33 @@ public class ProcessLog {
                 ProgramError.unexpected("failed to convert: " + file.getAbsolutePath(), ex);
             }
             file = tempFile;
+        } else if (binary) {
+            return new BinaryRecordReader(file);
         }
         return new BufferedRecordReader(new BufferedReader(new FileReader(file)));
     }
 
+    /**
+     * Decodes a binary store to a temporary text store, for processing by {@link ConvertLog}.
+     */
+    private File decodeBinary(File file) throws IOException {
+        if (verbose) {
+            System.out.println("decoding binary store " + file.getAbsolutePath());
+        }
+        File tempFile = File.createTempFile("vma", null);
+        tempFile.deleteOnExit();
+        BinaryRecordReader.toText(file, tempFile);
+        return tempFile;
+    }
+
+    private File[] decodeBinary(File[] files) throws IOException {
+        File[] result = new File[files.length];
+        for (int i = 0; i < files.length; i++) {
+            result[i] = BinaryRecordReader.isBinary(files[i]) ? decodeBinary(files[i]) : files[i];
+        }
+        return result;
+    }
+
     /**
      * Fixup the end creation record for object records.
      * If the trace has INVOKESPECIAL/AFTER records, this just means fixing up
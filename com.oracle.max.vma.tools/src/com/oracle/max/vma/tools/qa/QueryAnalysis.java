@@ -27,10 +27,15 @@ import java.io.*;
 import java.util.ArrayList;
 
 import com.oracle.max.vm.ext.vma.store.*;
+import com.oracle.max.vma.tools.qa.stream.*;
 
 /**
  * Main class of the object analysis query application.
  *
+ * With {@code -stream}, the given {@link StreamQuery streaming queries} are run while the traces are read,
+ * without building the {@link TraceRun} data structures, and the application exits once they are complete.
+ * Each {@code -stream} argument is a query name followed by its arguments, e.g., {@code -stream "CallGraph -top 20"}
+ * runs {@code CallGraphStreamQuery}. {@code -threads n} sets the number of threads used to run the queries.
  */
 public class QueryAnalysis {
 
@@ -40,6 +45,8 @@ public class QueryAnalysis {
     public static void main(String[] args) {
         ArrayList<String> dataDirs = new ArrayList<String>();
         ArrayList<String> queryClassDirs = new ArrayList<String>();
+        ArrayList<String> streamQueries = new ArrayList<String>();
+        int threads = Runtime.getRuntime().availableProcessors();
         String commandFile = null;
         String initialQuery = null;
 
@@ -83,6 +90,10 @@ public class QueryAnalysis {
                 verbose = true;
             } else if (arg.equals("-l")) {
                 maxLines = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-stream")) {
+                streamQueries.add(args[++i]);
+            } else if (arg.equals("-threads")) {
+                threads = Integer.parseInt(args[++i]);
             } else {
                 System.err.println("Unknown command " + arg);
                 usage();
@@ -94,6 +105,15 @@ public class QueryAnalysis {
             dataDirs.add(VMAStoreFile.DEFAULT_STOREDIR);
         }
 
+        if (streamQueries.size() > 0) {
+            try {
+                stream(dataDirs, queryClassDirs, streamQueries, threads);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         for (String queryClassDir : queryClassDirs) {
             try {
                 String queryClassDirCanon = new File(queryClassDir).getCanonicalPath();
@@ -118,10 +138,28 @@ public class QueryAnalysis {
     }
 
     private static void usage() {
-        System.err.println("usage: -f datafile1 datafile2 ... [-i commandfile] [-v]");
+        System.err.println("usage: -f datafile1 datafile2 ... [-i commandfile] [-v] [-stream \"query args\" ... [-threads n]]");
         System.exit(1);
     }
 
+    private static void stream(ArrayList<String> dataDirs, ArrayList<String> queryClassDirs, ArrayList<String> streamQueries, int threads) throws IOException {
+        for (String queryClassDir : queryClassDirs) {
+            QueryBase.addQueryClassDir("file://" + new File(queryClassDir).getCanonicalPath() + File.separator);
+        }
+        ArrayList<StreamQuery<?>> queries = new ArrayList<StreamQuery<?>>();
+        for (String streamQuery : streamQueries) {
+            String[] parts = streamQuery.split(" ");
+            String[] args = new String[parts.length - 1];
+            System.arraycopy(parts, 1, args, 0, args.length);
+            StreamQuery<?> query = (StreamQuery<?>) QueryBase.ensureLoaded(parts[0] + "Stream");
+            query.parseArgs(query.parseStandardArgs(args));
+            queries.add(query);
+        }
+        for (String dataDir : dataDirs) {
+            StreamingLog.process(dataDir, queries, threads, verbose, System.out);
+        }
+    }
+
     private static void interact(Reader in, ArrayList<TraceRun> traceRuns) throws IOException {
         BufferedReader reader = new BufferedReader(in);
         PrintStream ps = System.out;
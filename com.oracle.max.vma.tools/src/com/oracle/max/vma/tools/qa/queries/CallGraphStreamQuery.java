@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.queries;
+
+import java.io.*;
+import java.util.*;
+
+import com.oracle.max.vma.tools.qa.stream.*;
+
+/**
+ * Streaming alternative to {@link CallGraphQuery} that, rather than building the call tree, maintains a method
+ * stack per thread and accumulates a flat profile: the number of calls and the inclusive and exclusive
+ * time of each method. Methods are listed by decreasing inclusive time; {@code -top n} limits the output
+ * to the first {@code n}.
+ *
+ * As with {@link CallGraphQuery}, the trace must contain METHOD_ENTRY and RETURN records.
+ * The inclusive time of a recursive method counts each active invocation.
+ */
+public class CallGraphStreamQuery extends StreamQuery<CallGraphStreamQuery.Shard> {
+
+    private int top = Integer.MAX_VALUE;
+
+    private static class ThreadStack {
+        int[] methods = new int[64];
+        long[] entryTimes = new long[64];
+        long[] childTimes = new long[64];
+        int depth;
+        int maxDepth;
+
+        void push(int method, long time) {
+            if (depth == methods.length) {
+                methods = Arrays.copyOf(methods, depth * 2);
+                entryTimes = Arrays.copyOf(entryTimes, depth * 2);
+                childTimes = Arrays.copyOf(childTimes, depth * 2);
+            }
+            methods[depth] = method;
+            entryTimes[depth] = time;
+            childTimes[depth] = 0;
+            depth++;
+            if (depth > maxDepth) {
+                maxDepth = depth;
+            }
+        }
+    }
+
+    static class Shard {
+        ThreadStack[] stacks = new ThreadStack[16];
+        long[] calls = new long[256];
+        long[] inclusive = new long[256];
+        long[] exclusive = new long[256];
+
+        ThreadStack stack(int thread) {
+            if (thread >= stacks.length) {
+                stacks = Arrays.copyOf(stacks, Math.max(thread + 1, stacks.length * 2));
+            }
+            ThreadStack stack = stacks[thread];
+            if (stack == null) {
+                stack = new ThreadStack();
+                stacks[thread] = stack;
+            }
+            return stack;
+        }
+
+        void pop(ThreadStack stack, long time) {
+            final int depth = --stack.depth;
+            final int method = stack.methods[depth];
+            final long duration = time - stack.entryTimes[depth];
+            calls = add(calls, method, 1);
+            inclusive = add(inclusive, method, duration);
+            exclusive = add(exclusive, method, duration - stack.childTimes[depth]);
+            if (depth > 0) {
+                stack.childTimes[depth - 1] += duration;
+            }
+        }
+    }
+
+    @Override
+    public void parseArgs(String[] args) {
+        top = Integer.MAX_VALUE;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-top")) {
+                top = Integer.parseInt(args[i + 1]);
+            }
+        }
+    }
+
+    @Override
+    public Partition partition() {
+        return Partition.THREAD;
+    }
+
+    @Override
+    public Shard newShard() {
+        return new Shard();
+    }
+
+    @Override
+    public void process(Shard shard, EventBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            switch (batch.keys[i]) {
+                case ADVISE_AFTER_METHOD_ENTRY:
+                    shard.stack(batch.threads[i]).push(batch.members[i], batch.times[i]);
+                    break;
+
+                case ADVISE_BEFORE_RETURN: {
+                    ThreadStack stack = shard.stack(batch.threads[i]);
+                    // the trace may have started with methods already active
+                    if (stack.depth > 0) {
+                        shard.pop(stack, batch.times[i]);
+                    }
+                    break;
+                }
+
+                case ADVISE_BEFORE_RETURN_BY_THROW: {
+                    ThreadStack stack = shard.stack(batch.threads[i]);
+                    for (long n = batch.values[i]; n > 0 && stack.depth > 0; n--) {
+                        shard.pop(stack, batch.times[i]);
+                    }
+                    break;
+                }
+                default:
+            }
+        }
+    }
+
+    @Override
+    public void report(StreamContext context, List<Shard> shards, PrintStream ps) {
+        final int methodCount = context.methods.size();
+        long[] calls = new long[methodCount];
+        long[] inclusive = new long[methodCount];
+        long[] exclusive = new long[methodCount];
+        for (Shard shard : shards) {
+            calls = sum(calls, shard.calls);
+            inclusive = sum(inclusive, shard.inclusive);
+            exclusive = sum(exclusive, shard.exclusive);
+            for (int t = 0; t < shard.stacks.length; t++) {
+                if (shard.stacks[t] != null) {
+                    ps.printf("Thread %s, max depth %d%n", context.threadName(t), shard.stacks[t].maxDepth);
+                }
+            }
+        }
+
+        final long[] sortKey = inclusive;
+        Integer[] order = new Integer[methodCount];
+        for (int m = 0; m < methodCount; m++) {
+            order[m] = m;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Long.compare(sortKey[b], sortKey[a]);
+            }
+        });
+
+        ps.printf("%12s %14s %14s  %s%n", "calls", "incl (ms)", "excl (ms)", "method");
+        int printed = 0;
+        for (int m : order) {
+            if (printed == top) {
+                break;
+            }
+            if (calls[m] != 0) {
+                ps.printf("%12d %14s %14s  %s%n", calls[m], d4d(ms(inclusive[m])), d4d(ms(exclusive[m])), context.methodName(m));
+                printed++;
+            }
+        }
+    }
+}
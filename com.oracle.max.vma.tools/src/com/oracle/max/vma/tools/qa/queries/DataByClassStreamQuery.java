@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.queries;
+
+import java.io.*;
+import java.util.*;
+
+import com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.Key;
+import com.oracle.max.vma.tools.qa.stream.*;
+
+/**
+ * Streaming summary of the instances of each class: the number allocated and still live,
+ * the field and element reads and writes, and the average lifetime of the objects with a removal record.
+ *
+ * The per-object state (class and allocation time) is held in slots indexed through a {@link LongLongHashMap}
+ * and the slots of removed objects are reused, so the state is proportional to the number of live objects.
+ */
+public class DataByClassStreamQuery extends StreamQuery<DataByClassStreamQuery.Shard> {
+
+    static class Shard {
+        final LongLongHashMap slots = new LongLongHashMap(1024);
+        int[] slotClass = new int[1024];
+        long[] slotTime = new long[1024];
+        int[] freeSlots = new int[64];
+        int freeSlotCount;
+        int slotCount;
+
+        long[] instances = new long[64];
+        long[] removed = new long[64];
+        long[] lifetime = new long[64];
+        long[] reads = new long[64];
+        long[] writes = new long[64];
+
+        int allocateSlot() {
+            if (freeSlotCount > 0) {
+                return freeSlots[--freeSlotCount];
+            }
+            if (slotCount == slotClass.length) {
+                slotClass = Arrays.copyOf(slotClass, slotCount * 2);
+                slotTime = Arrays.copyOf(slotTime, slotCount * 2);
+            }
+            return slotCount++;
+        }
+
+        void freeSlot(int slot) {
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+            }
+            freeSlots[freeSlotCount++] = slot;
+        }
+    }
+
+    @Override
+    public Partition partition() {
+        return Partition.OBJECT;
+    }
+
+    @Override
+    public Shard newShard() {
+        return new Shard();
+    }
+
+    @Override
+    public void process(Shard shard, EventBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            final Key key = batch.keys[i];
+            final long id = batch.ids[i];
+            switch (key) {
+                case UNSEEN:
+                case ADVISE_AFTER_NEW:
+                case ADVISE_AFTER_NEW_ARRAY: {
+                    // an id reused without a removal record keeps its old slot
+                    int slot = (int) shard.slots.get(id, -1);
+                    if (slot < 0) {
+                        slot = shard.allocateSlot();
+                        shard.slots.put(id, slot, -1);
+                    }
+                    shard.slotClass[slot] = batch.classes[i];
+                    shard.slotTime[slot] = batch.times[i];
+                    shard.instances = add(shard.instances, batch.classes[i], 1);
+                    break;
+                }
+                case REMOVAL: {
+                    final int slot = (int) shard.slots.remove(id, -1);
+                    if (slot >= 0) {
+                        final int classIndex = shard.slotClass[slot];
+                        shard.removed = add(shard.removed, classIndex, 1);
+                        shard.lifetime = add(shard.lifetime, classIndex, batch.times[i] - shard.slotTime[slot]);
+                        shard.freeSlot(slot);
+                    }
+                    break;
+                }
+                case ADVISE_BEFORE_GET_FIELD:
+                case ADVISE_BEFORE_ARRAY_LOAD:
+                case ADVISE_BEFORE_PUT_FIELD:
+                case ADVISE_BEFORE_ARRAY_STORE: {
+                    final int slot = (int) shard.slots.get(id, -1);
+                    if (slot >= 0) {
+                        final int classIndex = shard.slotClass[slot];
+                        if (key == Key.ADVISE_BEFORE_GET_FIELD || key == Key.ADVISE_BEFORE_ARRAY_LOAD) {
+                            shard.reads = add(shard.reads, classIndex, 1);
+                        } else {
+                            shard.writes = add(shard.writes, classIndex, 1);
+                        }
+                    }
+                    break;
+                }
+                default:
+            }
+        }
+    }
+
+    @Override
+    public void report(StreamContext context, List<Shard> shards, PrintStream ps) {
+        final int classCount = context.classes.size();
+        long[] instances = new long[classCount];
+        long[] removed = new long[classCount];
+        long[] lifetime = new long[classCount];
+        long[] reads = new long[classCount];
+        long[] writes = new long[classCount];
+        for (Shard shard : shards) {
+            instances = sum(instances, shard.instances);
+            removed = sum(removed, shard.removed);
+            lifetime = sum(lifetime, shard.lifetime);
+            reads = sum(reads, shard.reads);
+            writes = sum(writes, shard.writes);
+        }
+
+        final long[] sortKey = instances;
+        Integer[] order = new Integer[classCount];
+        for (int c = 0; c < classCount; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Long.compare(sortKey[b], sortKey[a]);
+            }
+        });
+
+        ps.println("Objects organized by class, by number of instances");
+        for (int c : order) {
+            if (instances[c] == 0 || !context.classMatches(this, c)) {
+                continue;
+            }
+            ps.print(context.className(c) + "(cl:" + context.classes.qualifier(c) + ")");
+            ps.print(", instances " + instances[c] + ", live " + (instances[c] - removed[c]));
+            ps.print(", reads " + reads[c] + ", writes " + writes[c]);
+            if (removed[c] > 0) {
+                ps.print(", avg lifetime " + d6d(ms(lifetime[c] / removed[c])) + " ms");
+            }
+            ps.println();
+        }
+    }
+}
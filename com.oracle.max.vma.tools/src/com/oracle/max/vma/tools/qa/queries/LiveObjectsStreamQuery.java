@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.queries;
+
+import java.io.*;
+import java.util.*;
+
+import com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.Key;
+import com.oracle.max.vma.tools.qa.stream.*;
+
+/**
+ * Streaming version of {@link LiveObjectsQuery}, which only keeps the class of each currently live object.
+ *
+ * An id that is allocated again without a removal record for its previous use is counted as a live
+ * object, as {@link LiveObjectsQuery} does for the object from the earlier allocation epoch.
+ */
+public class LiveObjectsStreamQuery extends StreamQuery<LiveObjectsStreamQuery.Shard> {
+
+    static class Shard {
+        /**
+         * Map from the id of a live object to its class index.
+         */
+        final LongLongHashMap live = new LongLongHashMap(1024);
+        /**
+         * Per class, the number of live objects whose id has since been reused.
+         */
+        long[] displaced = new long[64];
+    }
+
+    @Override
+    public Partition partition() {
+        return Partition.OBJECT;
+    }
+
+    @Override
+    public Shard newShard() {
+        return new Shard();
+    }
+
+    @Override
+    public void process(Shard shard, EventBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            final Key key = batch.keys[i];
+            switch (key) {
+                case UNSEEN:
+                case ADVISE_AFTER_NEW:
+                case ADVISE_AFTER_NEW_ARRAY: {
+                    final long old = shard.live.put(batch.ids[i], batch.classes[i], -1);
+                    if (old >= 0) {
+                        shard.displaced = add(shard.displaced, (int) old, 1);
+                    }
+                    break;
+                }
+                case REMOVAL:
+                    shard.live.remove(batch.ids[i], -1);
+                    break;
+                default:
+            }
+        }
+    }
+
+    @Override
+    public void report(StreamContext context, List<Shard> shards, PrintStream ps) {
+        long[] live = new long[context.classes.size()];
+        for (Shard shard : shards) {
+            for (int i = 0; i < shard.live.capacity(); i++) {
+                if (shard.live.keyAt(i) != 0) {
+                    live = add(live, (int) shard.live.valueAt(i), 1);
+                }
+            }
+            live = sum(live, shard.displaced);
+        }
+        long totalNumber = 0;
+        long totalArray = 0;
+        for (int c = 0; c < live.length; c++) {
+            if (context.isArray(c)) {
+                totalArray += live[c];
+            } else {
+                totalNumber += live[c];
+            }
+        }
+        ps.println("Total number of live instances: "
+                + (totalNumber + totalArray) + ", objects: " + totalNumber
+                + ", live arrays: " + totalArray);
+        if (verbose) {
+            for (int c = 0; c < live.length; c++) {
+                if (live[c] != 0 && context.classMatches(this, c)) {
+                    ps.println(INDENT_TWO + context.className(c) + ": " + live[c]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.stream;
+
+import com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.Key;
+
+/**
+ * A batch of decoded trace records destined for one shard of a {@link StreamingLog}, stored as parallel
+ * primitive arrays rather than as a list of objects. Batches are recycled once processed.
+ *
+ * The interpretation of the fields depends on the {@link #keys key}:
+ * <ul>
+ * <li>{@link #ids}: the (unqualified) object id the record refers to, {@code 0} for none, or for
+ * {@link Key#REMOVAL} the id of the dead object.</li>
+ * <li>{@link #classes}: the class index for allocations and static field accesses, else {@code -1}.</li>
+ * <li>{@link #members}: the field or method index for field accesses, invokes and method entry, else {@code -1}.</li>
+ * <li>{@link #values}: the array length for {@link Key#ADVISE_AFTER_NEW_ARRAY} and the number of frames popped
+ * for {@link Key#ADVISE_BEFORE_RETURN_BY_THROW}.</li>
+ * </ul>
+ * Indices are into the tables in {@link StreamContext}.
+ */
+public final class EventBatch {
+
+    public static final int CAPACITY = 4096;
+
+    public final Key[] keys = new Key[CAPACITY];
+    public final long[] times = new long[CAPACITY];
+    public final int[] threads = new int[CAPACITY];
+    public final long[] ids = new long[CAPACITY];
+    public final int[] classes = new int[CAPACITY];
+    public final int[] members = new int[CAPACITY];
+    public final long[] values = new long[CAPACITY];
+
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == CAPACITY;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(Key key, long time, int thread, long id, int classIndex, int member, long value) {
+        final int i = size++;
+        keys[i] = key;
+        times[i] = time;
+        threads[i] = thread;
+        ids[i] = id;
+        classes[i] = classIndex;
+        members[i] = member;
+        values[i] = value;
+    }
+}
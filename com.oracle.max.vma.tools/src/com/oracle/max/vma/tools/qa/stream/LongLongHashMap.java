@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.stream;
+
+/**
+ * An open addressing hash map from {@code long} to {@code long}, avoiding the boxing and per-entry objects
+ * of {@link java.util.HashMap} for the very large number of objects in a trace.
+ * Zero is not a valid key, which matches the use of zero for the {@code null} object id.
+ * Unsynchronized.
+ */
+public class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int threshold;
+
+    public LongLongHashMap(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 16));
+        if (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        final int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            final long k = keys[index];
+            if (k == key || k == 0) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[indexOf(key)] != 0;
+    }
+
+    /**
+     * Gets the value for {@code key} or {@code defaultValue} if there is no mapping for it.
+     */
+    public long get(long key, long defaultValue) {
+        final int index = indexOf(key);
+        return keys[index] == 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, returning the previous value or {@code defaultValue} if there was no mapping.
+     */
+    public long put(long key, long value, long defaultValue) {
+        assert key != 0;
+        int index = indexOf(key);
+        if (keys[index] != 0) {
+            final long old = values[index];
+            values[index] = value;
+            return old;
+        }
+        if (size >= threshold) {
+            rehash();
+            index = indexOf(key);
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return defaultValue;
+    }
+
+    /**
+     * Removes the mapping for {@code key}, returning its value or {@code defaultValue} if there was no mapping.
+     * Uses backward shift deletion so that no tombstones accumulate.
+     */
+    public long remove(long key, long defaultValue) {
+        final int mask = keys.length - 1;
+        int index = indexOf(key);
+        if (keys[index] == 0) {
+            return defaultValue;
+        }
+        final long result = values[index];
+        int next = (index + 1) & mask;
+        while (keys[next] != 0) {
+            final int home = hash(keys[next]) & mask;
+            // move the entry at next into the hole if its home slot is not cyclically in (index, next]
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[index] = 0;
+        size--;
+        return result;
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                final int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * The number of slots, for iterating with {@link #keyAt(int)} and {@link #valueAt(int)}.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the key in slot {@code index}, or zero if the slot is empty.
+     */
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+}
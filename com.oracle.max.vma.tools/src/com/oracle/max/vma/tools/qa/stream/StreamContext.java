@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.stream;
+
+import java.util.*;
+
+import com.oracle.max.vma.tools.qa.*;
+
+/**
+ * The definitions (classes, threads, fields and methods) and summary data of a trace processed by
+ * {@link StreamingLog}. Definitions are numbered in order of first reference and the {@link EventBatch events}
+ * refer to them by index, so that shards can keep their state in arrays and primitive maps.
+ *
+ * The tables are only written by the thread parsing the trace, and must only be read by the
+ * {@link StreamQuery queries} in {@link StreamQuery#report}.
+ */
+public class StreamContext {
+
+    /**
+     * Maps short forms to indices. Since a per-thread store can reference a short form before its
+     * definition has been flushed, a reference allocates the index and the name is filled in later.
+     */
+    public static class NameTable {
+        private final Map<String, Integer> shortForms = new HashMap<String, Integer>();
+        private final ArrayList<String> names = new ArrayList<String>();
+        private final ArrayList<String> qualifiers = new ArrayList<String>();
+
+        int index(String shortForm) {
+            Integer index = shortForms.get(shortForm);
+            if (index == null) {
+                index = names.size();
+                shortForms.put(shortForm, index);
+                names.add(null);
+                qualifiers.add(null);
+            }
+            return index;
+        }
+
+        void define(String shortForm, String name, String qualifier) {
+            final int index = index(shortForm);
+            names.set(index, name);
+            qualifiers.set(index, qualifier);
+        }
+
+        public int size() {
+            return names.size();
+        }
+
+        /**
+         * The name of the entry at {@code index}, or {@code null} if it was never defined.
+         */
+        public String name(int index) {
+            return names.get(index);
+        }
+
+        /**
+         * The class loader id for classes, the class short form for members, unused for threads.
+         */
+        public String qualifier(int index) {
+            return qualifiers.get(index);
+        }
+    }
+
+    public final String dataDirName;
+    public final NameTable classes = new NameTable();
+    public final NameTable threads = new NameTable();
+    public final NameTable fields = new NameTable();
+    public final NameTable methods = new NameTable();
+
+    public long startTime;
+    public long endTime;
+    public long recordCount;
+    public int gcCount;
+
+    StreamContext(String dataDirName) {
+        this.dataDirName = dataDirName;
+    }
+
+    public String className(int classIndex) {
+        String name = classes.name(classIndex);
+        return name == null ? "?" + classIndex : name;
+    }
+
+    public boolean isArray(int classIndex) {
+        final String name = classes.name(classIndex);
+        return name != null && name.endsWith("[]");
+    }
+
+    public String threadName(int threadIndex) {
+        return threads.name(threadIndex);
+    }
+
+    /**
+     * The qualified name of a method, "class.name".
+     */
+    public String methodName(int methodIndex) {
+        return memberName(methods, methodIndex);
+    }
+
+    public String fieldName(int fieldIndex) {
+        return memberName(fields, fieldIndex);
+    }
+
+    private String memberName(NameTable table, int index) {
+        final String name = table.name(index);
+        if (name == null) {
+            return "?" + index;
+        }
+        return className(classes.index(table.qualifier(index))) + "." + name;
+    }
+
+    /**
+     * Returns {@code time} relative to the start of the trace.
+     */
+    public long relTime(long time) {
+        return time - startTime;
+    }
+
+    /**
+     * Checks whether a class matches the standard {@code -class} argument of {@code query}.
+     */
+    public boolean classMatches(QueryBase query, int classIndex) {
+        return query.className == null || className(classIndex).matches(query.className);
+    }
+}
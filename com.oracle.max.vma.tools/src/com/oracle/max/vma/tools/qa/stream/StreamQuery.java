@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.stream;
+
+import java.io.*;
+import java.util.*;
+
+import com.oracle.max.vma.tools.qa.*;
+
+/**
+ * A query that is computed incrementally while the trace is read by {@link StreamingLog}.
+ *
+ * The records are divided into shards by object or by thread, according to the {@link #partition()} of the query.
+ * Each shard has its own state, created by {@link #newShard()}, which is only ever accessed by one thread at a time,
+ * and {@link #process} is called with the records of the shard in trace order. Once the trace has been read,
+ * {@link #report} combines the states of all the shards.
+ *
+ * The state should be kept in arrays indexed by the {@link StreamContext} indices and in primitive maps such as
+ * {@link LongLongHashMap}, not in per-record objects, so that it is proportional to the number of live objects
+ * rather than the length of the trace.
+ *
+ * Run interactively, a streaming query re-reads the trace of the focus {@link TraceRun}.
+ *
+ * @param <S> the type of the per-shard state
+ */
+public abstract class StreamQuery<S> extends QueryBase {
+
+    public enum Partition {
+        /**
+         * Records with an object id, divided by id.
+         */
+        OBJECT,
+        /**
+         * Records with a thread, divided by thread.
+         */
+        THREAD
+    }
+
+    public abstract Partition partition();
+
+    public abstract S newShard();
+
+    public abstract void process(S shard, EventBatch batch);
+
+    public abstract void report(StreamContext context, List<S> shards, PrintStream ps);
+
+    /**
+     * Interprets the query specific arguments, which are those left after {@link #parseStandardArgs}.
+     */
+    public void parseArgs(String[] args) {
+    }
+
+    /**
+     * Adds {@code value} to {@code counts[index]}, growing {@code counts} if necessary.
+     *
+     * @return {@code counts} or its replacement
+     */
+    protected static long[] add(long[] counts, int index, long value) {
+        long[] result = counts;
+        if (index >= result.length) {
+            result = Arrays.copyOf(result, Math.max(index + 1, result.length * 2));
+        }
+        result[index] += value;
+        return result;
+    }
+
+    /**
+     * Adds the elements of {@code counts} to {@code total}, growing {@code total} if necessary.
+     *
+     * @return {@code total} or its replacement
+     */
+    protected static long[] sum(long[] total, long[] counts) {
+        long[] result = total;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                result = add(result, i, counts[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Object execute(ArrayList<TraceRun> traceRuns, int traceFocus, PrintStream ps, String[] args) {
+        parseArgs(args);
+        try {
+            List<StreamQuery<?>> queries = new ArrayList<StreamQuery<?>>();
+            queries.add(this);
+            StreamingLog.process(traceRuns.get(traceFocus).name, queries, Runtime.getRuntime().availableProcessors(), verbose, ps);
+        } catch (IOException ex) {
+            ps.println(ex);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.max.vma.tools.qa.stream;
+
+import static com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.oracle.max.vm.ext.vma.store.txt.*;
+import com.oracle.max.vm.ext.vma.store.txt.VMATextStoreFormat.Key;
+import com.oracle.max.vma.tools.qa.*;
+import com.oracle.max.vma.tools.qa.stream.StreamQuery.Partition;
+
+/**
+ * Runs a set of {@link StreamQuery queries} over a trace as it is read, instead of first building the
+ * complete {@link TraceRun} object graph as {@link ProcessLog} does, so that traces that do not fit in the
+ * heap can still be analyzed.
+ *
+ * The parsing thread resolves the short forms, times and repeated ids, which depend on the order of the
+ * records, and appends each record to an {@link EventBatch} for the shards of the query partitions that need it.
+ * Records that refer to an object go to the {@link Partition#OBJECT object} shard selected by the object id
+ * and records issued by a thread go to the {@link Partition#THREAD thread} shard selected by the thread. Full
+ * batches are processed on a {@link ForkJoinPool}; the batches of a given shard are processed one at a
+ * time and in order, so each query sees all the records for an object (or thread) in trace order and its
+ * per-shard state needs no synchronization. The number of batches in flight is bounded, which bounds the
+ * memory used irrespective of the length of the trace.
+ */
+public class StreamingLog {
+
+    /**
+     * Maximum number of full batches waiting to be processed, across all shards.
+     */
+    private static final int MAX_OUTSTANDING_BATCHES = 256;
+
+    private final StreamContext context;
+    private final boolean verbose;
+    private final ForkJoinPool pool;
+    private final Semaphore outstanding = new Semaphore(MAX_OUTSTANDING_BATCHES);
+    private final ConcurrentLinkedQueue<EventBatch> freeBatches = new ConcurrentLinkedQueue<EventBatch>();
+    private volatile Throwable failure;
+
+    private Shard[] objectShards;
+    private Shard[] threadShards;
+
+    private boolean textKeyMode;
+    private boolean absTime;
+    private long lastTime;
+    private long[] lastIds = new long[16];
+    private int lineNumber;
+
+    /**
+     * A query together with the states of all its shards, in shard order.
+     */
+    private static final class QueryStates<S> {
+        final StreamQuery<S> query;
+        final List<S> states = new ArrayList<S>();
+
+        QueryStates(StreamQuery<S> query) {
+            this.query = query;
+        }
+
+        ShardState<S> newShard() {
+            S state = query.newShard();
+            states.add(state);
+            return new ShardState<S>(query, state);
+        }
+
+        void report(StreamContext context, PrintStream ps) {
+            query.report(context, states, ps);
+        }
+    }
+
+    /**
+     * The state of a query for one shard.
+     */
+    private static final class ShardState<S> {
+        final StreamQuery<S> query;
+        final S state;
+
+        ShardState(StreamQuery<S> query, S state) {
+            this.query = query;
+            this.state = state;
+        }
+
+        void process(EventBatch batch) {
+            query.process(state, batch);
+        }
+    }
+
+    /**
+     * The queue of batches for a subset of the objects or threads, together with the state of each query
+     * in the partition for that subset.
+     */
+    private final class Shard implements Runnable {
+        private final ShardState<?>[] states;
+        private final ConcurrentLinkedQueue<EventBatch> pending = new ConcurrentLinkedQueue<EventBatch>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private EventBatch current;
+
+        Shard(List<QueryStates<?>> queries) {
+            this.states = new ShardState<?>[queries.size()];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = queries.get(i).newShard();
+            }
+        }
+
+        void add(Key key, long time, int thread, long id, int classIndex, int member, long value) {
+            if (current == null) {
+                current = newBatch();
+            }
+            current.add(key, time, thread, id, classIndex, member, value);
+            if (current.isFull()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (current != null) {
+                outstanding.acquireUninterruptibly();
+                pending.add(current);
+                current = null;
+                if (scheduled.compareAndSet(false, true)) {
+                    pool.execute(this);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                EventBatch batch;
+                while ((batch = pending.poll()) != null) {
+                    try {
+                        if (failure == null) {
+                            for (ShardState<?> state : states) {
+                                state.process(batch);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure = t;
+                    } finally {
+                        batch.clear();
+                        freeBatches.add(batch);
+                        outstanding.release();
+                    }
+                }
+                scheduled.set(false);
+                // a batch may have been added after the last poll but before scheduled was cleared
+            } while (!pending.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+
+    private StreamingLog(String dataDirName, int parallelism, boolean verbose) {
+        this.context = new StreamContext(dataDirName);
+        this.verbose = verbose;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Reads the trace in {@code dataDirName}, running {@code queries} on the records as they are read, then
+     * outputs the results of each query to {@code ps}.
+     *
+     * @param parallelism the number of threads used to process the records
+     */
+    public static void process(String dataDirName, List<? extends StreamQuery<?>> queries, int parallelism, boolean verbose, PrintStream ps) throws IOException {
+        StreamingLog streamingLog = new StreamingLog(dataDirName, parallelism, verbose);
+        try {
+            streamingLog.run(queries, parallelism, ps);
+        } finally {
+            streamingLog.pool.shutdown();
+        }
+    }
+
+    private static <S> QueryStates<S> newQueryStates(StreamQuery<S> query) {
+        return new QueryStates<S>(query);
+    }
+
+    private Shard[] createShards(List<QueryStates<?>> queries, Partition partition, int count) {
+        ArrayList<QueryStates<?>> partitionQueries = new ArrayList<QueryStates<?>>();
+        for (QueryStates<?> query : queries) {
+            if (query.query.partition() == partition) {
+                partitionQueries.add(query);
+            }
+        }
+        if (partitionQueries.isEmpty()) {
+            return null;
+        }
+        Shard[] shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(partitionQueries);
+        }
+        return shards;
+    }
+
+    private void run(List<? extends StreamQuery<?>> streamQueries, int parallelism, PrintStream ps) throws IOException {
+        ArrayList<QueryStates<?>> queries = new ArrayList<QueryStates<?>>(streamQueries.size());
+        for (StreamQuery<?> query : streamQueries) {
+            queries.add(newQueryStates(query));
+        }
+        // more shards than threads smooths out the imbalance between busy and quiet objects
+        objectShards = createShards(queries, Partition.OBJECT, parallelism * 4);
+        threadShards = createShards(queries, Partition.THREAD, parallelism * 4);
+
+        final long startTime = System.currentTimeMillis();
+        ProcessLog.RecordReader reader = ProcessLog.openTrace(context.dataDirName, verbose);
+        try {
+            String[] recordParts;
+            while ((recordParts = reader.readLine()) != null) {
+                lineNumber++;
+                if (recordParts.length == 0 || recordParts[0].charAt(0) == '#') {
+                    continue;
+                }
+                processRecord(recordParts);
+                if (failure != null) {
+                    break;
+                }
+                if (verbose && (context.recordCount % 1000000) == 0) {
+                    System.out.printf("streamed %d records in %d ms%n", context.recordCount, System.currentTimeMillis() - startTime);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        flushAll(objectShards);
+        flushAll(threadShards);
+        // wait for all the outstanding batches to be processed
+        outstanding.acquireUninterruptibly(MAX_OUTSTANDING_BATCHES);
+        outstanding.release(MAX_OUTSTANDING_BATCHES);
+
+        if (failure != null) {
+            throw new RuntimeException("stream query failed", failure);
+        }
+        if (verbose) {
+            System.out.printf("streamed %d records in %d ms%n", context.recordCount, System.currentTimeMillis() - startTime);
+        }
+
+        for (QueryStates<?> query : queries) {
+            query.report(context, ps);
+        }
+    }
+
+    private static void flushAll(Shard[] shards) {
+        if (shards != null) {
+            for (Shard shard : shards) {
+                shard.flush();
+            }
+        }
+    }
+
+    private EventBatch newBatch() {
+        EventBatch batch = freeBatches.poll();
+        return batch == null ? new EventBatch() : batch;
+    }
+
+    private long updateTime(String timeArg) {
+        final long time = Long.parseLong(timeArg);
+        lastTime = absTime ? time : lastTime + time;
+        return lastTime;
+    }
+
+    private static String arg(String[] recordParts, int slot) {
+        return slot < recordParts.length ? recordParts[slot] : null;
+    }
+
+    private void processRecord(String[] recordParts) {
+        if (context.recordCount == 0) {
+            // the store header determines the key mode, see ProcessLog.checkStoreHeader
+            if (!recordParts[KEY_INDEX].equals(Key.INITIALIZE_STORE.code) && !recordParts[KEY_INDEX].equals(Key.INITIALIZE_STORE.text)) {
+                throw new IllegalArgumentException("trace does not start with a store header");
+            }
+            textKeyMode = (Integer.parseInt(recordParts[3]) & TEXT_KEY) != 0;
+        }
+        context.recordCount++;
+
+        final Key key = VMATextStoreFormat.getCommand(textKeyMode, recordParts[KEY_INDEX]);
+        if (key == null) {
+            System.err.println("line " + lineNumber + ": unknown trace command " + recordParts[KEY_INDEX]);
+            return;
+        }
+
+        switch (key) {
+            case INITIALIZE_STORE:
+                lastTime = Long.parseLong(recordParts[1]);
+                absTime = Boolean.parseBoolean(recordParts[2]);
+                context.startTime = lastTime;
+                return;
+
+            case FINALIZE_STORE:
+                context.endTime = updateTime(recordParts[1]);
+                return;
+
+            case THREAD_SWITCH:
+                throw new IllegalArgumentException("batched log is not supported - use ConvertLog -unbatch");
+
+            case CLASS_DEFINITION:
+                context.classes.define(recordParts[DEFINE_ARG_INDEX + 2], ClassRecord.getCanonicalName(recordParts[DEFINE_ARG_INDEX]), recordParts[DEFINE_ARG_INDEX + 1]);
+                return;
+
+            case FIELD_DEFINITION:
+                context.fields.define(recordParts[DEFINE_ARG_INDEX + 2], recordParts[DEFINE_ARG_INDEX + 1], recordParts[DEFINE_ARG_INDEX]);
+                return;
+
+            case METHOD_DEFINITION:
+                context.methods.define(recordParts[DEFINE_ARG_INDEX + 2], recordParts[DEFINE_ARG_INDEX + 1], recordParts[DEFINE_ARG_INDEX]);
+                return;
+
+            case THREAD_DEFINITION:
+                context.threads.define(recordParts[DEFINE_ARG_INDEX + 1], recordParts[DEFINE_ARG_INDEX], null);
+                return;
+
+            default:
+        }
+
+        long time = lastTime;
+        int thread = -1;
+        if (hasTimeAndThread(key)) {
+            time = updateTime(recordParts[TIME_INDEX]);
+            thread = context.threads.index(recordParts[THREAD_INDEX]);
+        }
+
+        long id = 0;
+        if (key == Key.REMOVAL) {
+            id = Long.parseLong(recordParts[1]);
+        } else if (hasId(key)) {
+            final String idArg = recordParts[OBJ_ID_INDEX];
+            if (thread >= lastIds.length) {
+                lastIds = Arrays.copyOf(lastIds, Math.max(thread + 1, lastIds.length * 2));
+            }
+            if (idArg.charAt(0) == REPEAT_ID) {
+                id = lastIds[thread];
+            } else {
+                id = Long.parseLong(idArg);
+                lastIds[thread] = id;
+            }
+        }
+
+        int classIndex = -1;
+        int member = -1;
+        long value = 0;
+        switch (key) {
+            case UNSEEN:
+            case ADVISE_AFTER_NEW:
+                classIndex = context.classes.index(recordParts[NEW_CLASSNAME_INDEX]);
+                break;
+
+            case ADVISE_AFTER_NEW_ARRAY:
+                classIndex = context.classes.index(recordParts[NEW_CLASSNAME_INDEX]);
+                value = Long.parseLong(arg(recordParts, NEW_ARRAY_LENGTH_INDEX));
+                break;
+
+            case ADVISE_BEFORE_GET_STATIC:
+            case ADVISE_BEFORE_PUT_STATIC:
+                member = context.fields.index(recordParts[STATIC_FIELDNAME_INDEX]);
+                break;
+
+            case ADVISE_BEFORE_GET_FIELD:
+            case ADVISE_BEFORE_PUT_FIELD:
+                member = context.fields.index(recordParts[ID_FIELDNAME_INDEX]);
+                break;
+
+            case ADVISE_BEFORE_INVOKE_INTERFACE:
+            case ADVISE_BEFORE_INVOKE_STATIC:
+            case ADVISE_BEFORE_INVOKE_VIRTUAL:
+            case ADVISE_BEFORE_INVOKE_SPECIAL:
+            case ADVISE_AFTER_METHOD_ENTRY:
+                member = context.methods.index(recordParts[ID_MEMBERNAME_INDEX]);
+                break;
+
+            case ADVISE_BEFORE_RETURN_BY_THROW:
+                value = Long.parseLong(recordParts[RETURN_THROW_POP_INDEX]);
+                break;
+
+            case ADVISE_AFTER_GC:
+                context.gcCount++;
+                break;
+
+            default:
+        }
+
+        if (id != 0 && objectShards != null) {
+            objectShards[shardIndex(id, objectShards.length)].add(key, time, thread, id, classIndex, member, value);
+        }
+        if (thread >= 0 && threadShards != null) {
+            threadShards[thread % threadShards.length].add(key, time, thread, id, classIndex, member, value);
+        }
+    }
+
+    private static int shardIndex(long id, int count) {
+        final long h = id * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 32) % count);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package uk.ac.manchester.tests.jdk8.java.util.stream;
+
+import java.util.*;
+
+import test.bench.util.*;
+
+/**
+ * Measures the throughput of a short stream pipeline whose stages are lambdas, each of which is created by an
+ * {@code invokedynamic} call site and invoked through a functional interface. This exercises inlining through
+ * the constant method handles those call sites are linked to.
+ *
+ * The following system properties control the work:
+ * <ul>
+ * <li>{@value CAPTURE_PROPERTY}: if set, the lambdas capture a value, so that a new instance is created every time
+ * the pipeline is built
+ * <li>{@value LENGTH_PROPERTY}: the number of elements streamed by each run (default {@value DEFAULT_LENGTH})
+ * </ul>
+ */
+public class Stream_lambda extends RunBench {
+
+    protected Stream_lambda() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new Stream_lambda().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+        private static final String CAPTURE_PROPERTY = "test.bench.java.util.stream.lambda.capture";
+        private static final String LENGTH_PROPERTY = "test.bench.java.util.stream.lambda.length";
+        private static final int DEFAULT_LENGTH = 64;
+
+        private final int[] values;
+        private final boolean capture;
+        private final int factor;
+
+        Bench() {
+            values = new int[Integer.getInteger(LENGTH_PROPERTY, DEFAULT_LENGTH)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i;
+            }
+            capture = System.getProperty(CAPTURE_PROPERTY) != null;
+            factor = 3;
+        }
+
+        @Override
+        public long run() {
+            if (capture) {
+                final int f = factor;
+                return Arrays.stream(values).map(v -> v * f).filter(v -> (v & 1) == 0).asLongStream().sum();
+            }
+            return Arrays.stream(values).map(v -> v * 3).filter(v -> (v & 1) == 0).asLongStream().sum();
+        }
+    }
+
+    public static void main(String[] args) {
+        RunBench.runTest(Stream_lambda.class, args);
+    }
+}